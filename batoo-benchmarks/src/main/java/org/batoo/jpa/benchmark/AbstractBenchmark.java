@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark;
+
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.batoo.jpa.benchmark.model.Bar;
+import org.batoo.jpa.benchmark.model.Foo;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base state of the benchmarks that run against a deployed persistence unit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractBenchmark {
+
+	@Param({ "h2", "derby" })
+	private String database;
+
+	private EntityManagerFactory emf;
+
+	/**
+	 * Returns the entity manager factory.
+	 * 
+	 * @return the entity manager factory
+	 * 
+	 * @since 2.0.1
+	 */
+	protected EntityManagerFactory emf() {
+		return this.emf;
+	}
+
+	/**
+	 * Returns the properties to create the entity manager factory with.
+	 * 
+	 * @param database
+	 *            the name of the database
+	 * @return the properties
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Map<String, Object> getProperties(String database) {
+		return Databases.getProperties(database);
+	}
+
+	/**
+	 * Persists the foos with their bars.
+	 * 
+	 * @param foos
+	 *            the number of foos
+	 * @param bars
+	 *            the number of bars per foo
+	 * @return the ids of the foos persisted
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Integer[] persist(int foos, int bars) {
+		final Integer[] ids = new Integer[foos];
+
+		final EntityManager em = this.emf.createEntityManager();
+		try {
+			em.getTransaction().begin();
+
+			final Foo[] instances = new Foo[foos];
+			for (int i = 0; i < foos; i++) {
+				instances[i] = new Foo("foo" + i);
+				for (int j = 0; j < bars; j++) {
+					new Bar(instances[i], "bar" + j);
+				}
+
+				em.persist(instances[i]);
+			}
+
+			em.getTransaction().commit();
+
+			for (int i = 0; i < foos; i++) {
+				ids[i] = instances[i].getId();
+			}
+		}
+		finally {
+			em.close();
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Populates the database before the trial.
+	 * 
+	 * @since 2.0.1
+	 */
+	protected void populate() {
+		// noop
+	}
+
+	/**
+	 * Deploys the persistence unit and populates the database.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		this.emf = Persistence.createEntityManagerFactory(Databases.PERSISTENCE_UNIT, this.getProperties(this.database));
+
+		this.populate();
+	}
+
+	/**
+	 * Closes the entity manager factory.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (this.emf != null) {
+			this.emf.close();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON.
+ * <p>
+ * The first argument is the regular expression of the benchmarks to run, all the benchmarks are run if omitted. The results are written to
+ * <code>jmh-result-&lt;version&gt;.json</code> unless the <code>batoo.benchmark.result</code> system property is set, so that the
+ * results of different versions can be compared.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The system property to override the result file.
+	 */
+	public static final String RESULT_FILE = "batoo.benchmark.result";
+
+	private static String getVersion() throws IOException {
+		final Properties properties = new Properties();
+
+		final InputStream is = BenchmarkRunner.class.getResourceAsStream("/benchmark.properties");
+		try {
+			properties.load(is);
+		}
+		finally {
+			is.close();
+		}
+
+		return properties.getProperty("version");
+	}
+
+	/**
+	 * @param args
+	 *            the regular expression of the benchmarks to run
+	 * @throws RunnerException
+	 *             thrown if the benchmarks fail
+	 * @throws IOException
+	 *             thrown if the version cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void main(String[] args) throws RunnerException, IOException {
+		final String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+		final String result = System.getProperty(BenchmarkRunner.RESULT_FILE, "jmh-result-" + BenchmarkRunner.getVersion() + ".json");
+
+		final Options options = new OptionsBuilder() //
+			.include(include) //
+			.resultFormat(ResultFormatType.JSON) //
+			.result(result) //
+			.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark;
+
+import java.util.Map;
+
+import org.batoo.jpa.BJPASettings;
+import org.batoo.jpa.JPASettings;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The embedded databases the benchmarks run against.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public final class Databases {
+
+	/**
+	 * The name of the persistence unit of the benchmarks.
+	 */
+	public static final String PERSISTENCE_UNIT = "benchmark";
+
+	/**
+	 * Returns the properties to create the entity manager factory against the database.
+	 * 
+	 * @param database
+	 *            the name of the database, <code>h2</code> or <code>derby</code>
+	 * @return the properties
+	 * 
+	 * @since 2.0.1
+	 */
+	public static Map<String, Object> getProperties(String database) {
+		final Map<String, Object> properties = Maps.newHashMap();
+
+		if ("h2".equals(database)) {
+			properties.put(JPASettings.JDBC_DRIVER, "org.h2.Driver");
+			properties.put(JPASettings.JDBC_URL, "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+		}
+		else if ("derby".equals(database)) {
+			properties.put(JPASettings.JDBC_DRIVER, "org.apache.derby.jdbc.EmbeddedDriver");
+			properties.put(JPASettings.JDBC_URL, "jdbc:derby:memory:benchmark;create=true");
+		}
+		else {
+			throw new IllegalArgumentException("Illegal value " + database + " for database");
+		}
+
+		properties.put(JPASettings.JDBC_USER, "sa");
+		properties.put(JPASettings.JDBC_PASSWORD, "");
+		properties.put(BJPASettings.DDL, "DROP");
+
+		return properties;
+	}
+
+	private Databases() {
+		super();
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.batoo.jpa.BJPASettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks creating JPQL queries.
+ * <p>
+ * With the JPQL cache disabled each query is parsed and compiled, with the cache enabled each query is a cache hit.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JpqlBenchmark extends AbstractBenchmark {
+
+	private static final String JPQL = "select f from Foo f left join f.bars b where f.name like :name and b.name = :barName order by f.name";
+
+	@Param({ "0", "1000" })
+	private int cacheSize;
+
+	private EntityManager em;
+
+	/**
+	 * Closes the entity manager.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Trial)
+	public void closeEntityManager() {
+		this.em.close();
+	}
+
+	/**
+	 * Creates the JPQL query.
+	 * 
+	 * @return the query
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Query createQuery() {
+		return this.em.createQuery(JpqlBenchmark.JPQL);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected Map<String, Object> getProperties(String database) {
+		final Map<String, Object> properties = super.getProperties(database);
+
+		properties.put(BJPASettings.JPQL_CACHE_SIZE, Integer.toString(this.cacheSize));
+
+		return properties;
+	}
+
+	/**
+	 * Creates the entity manager.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Setup(Level.Trial)
+	public void openEntityManager() {
+		this.em = this.emf().createEntityManager();
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.batoo.jpa.benchmark.model.Foo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading the entities: find by id, fetch join list queries and lazy collection loading.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LoadBenchmark extends AbstractBenchmark {
+
+	private static final int FOOS = 100;
+	private static final int BARS = 10;
+
+	private Integer[] ids;
+	private int next;
+
+	/**
+	 * Loads the foos with their bars with a fetch join.
+	 * 
+	 * @return the foos loaded
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public List<Foo> fetchJoin() {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			return em.createQuery("select distinct f from Foo f left join fetch f.bars", Foo.class).getResultList();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Finds a foo by its id in a new entity manager.
+	 * 
+	 * @return the foo found
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo find() {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			return em.find(Foo.class, this.nextId());
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Finds a foo by its id and loads its lazy bars.
+	 * 
+	 * @return the number of bars loaded
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public int lazyLoad() {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			return em.find(Foo.class, this.nextId()).getBars().size();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	private Integer nextId() {
+		this.next = (this.next + 1) % this.ids.length;
+
+		return this.ids[this.next];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected void populate() {
+		this.ids = this.persist(LoadBenchmark.FOOS, LoadBenchmark.BARS);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.batoo.jpa.benchmark.model.Bar;
+import org.batoo.jpa.benchmark.model.Foo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks persisting and flushing batches of entities.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PersistBenchmark extends AbstractBenchmark {
+
+	@Param({ "1", "10", "100", "1000" })
+	private int batchSize;
+
+	/**
+	 * Removes the entities persisted during the iteration so that the iterations run against the same volume.
+	 * 
+	 * @since 2.0.1
+	 */
+	@TearDown(Level.Iteration)
+	public void clear() {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			em.getTransaction().begin();
+
+			em.createQuery("delete from Bar").executeUpdate();
+			em.createQuery("delete from Foo").executeUpdate();
+
+			em.getTransaction().commit();
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Persists the batch of foos, each with two bars, and flushes them with the commit.
+	 * 
+	 * @return the last foo persisted
+	 * 
+	 * @since 2.0.1
+	 */
+	@Benchmark
+	public Foo persist() {
+		final EntityManager em = this.emf().createEntityManager();
+		try {
+			em.getTransaction().begin();
+
+			Foo foo = null;
+			for (int i = 0; i < this.batchSize; i++) {
+				foo = new Foo("foo" + i);
+				new Bar(foo, "bar1");
+				new Bar(foo, "bar2");
+
+				em.persist(foo);
+			}
+
+			em.getTransaction().commit();
+
+			return foo;
+		}
+		finally {
+			em.close();
+		}
+	}
+}
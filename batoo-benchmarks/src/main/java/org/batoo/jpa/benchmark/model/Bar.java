@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.benchmark.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+/**
+ * The child entity of the benchmarks.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Bar {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE)
+	private Integer id;
+
+	private String name;
+
+	@ManyToOne
+	private Foo foo;
+
+	/**
+	 * 
+	 * @since 2.0.1
+	 */
+	public Bar() {
+		super();
+	}
+
+	/**
+	 * @param foo
+	 *            the parent
+	 * @param name
+	 *            the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public Bar(Foo foo, String name) {
+		super();
+
+		this.foo = foo;
+		this.name = name;
+
+		foo.getBars().add(this);
+	}
+
+	/**
+	 * Returns the parent of the Bar.
+	 * 
+	 * @return the parent of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo getFoo() {
+		return this.foo;
+	}
+
+	/**
+	 * Returns the id of the Bar.
+	 * 
+	 * @return the id of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name of the Bar.
+	 * 
+	 * @return the name of the Bar
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+}
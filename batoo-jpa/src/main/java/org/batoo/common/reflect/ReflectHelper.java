@@ -462,6 +462,21 @@ public class ReflectHelper {
 		return (List.class == type) || (Collection.class == type) || (Set.class == type) || (Map.class == type);
 	}
 
+	/**
+	 * Returns if the values of the <code>type</code> are immutable, so that a value equal to another can be assumed to stay so.
+	 * 
+	 * @param type
+	 *            the type to check if it is immutable
+	 * @return true if the values of the <code>type</code> are immutable, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public static boolean isImmutable(Class<?> type) {
+		return type.isPrimitive() || Enum.class.isAssignableFrom(type) || (type == String.class) || (type == Boolean.class) //
+			|| (type == Character.class) || (type == Integer.class) || (type == Long.class) || (type == Short.class) || (type == Byte.class) //
+			|| (type == Double.class) || (type == Float.class) || (type == BigDecimal.class) || (type == BigInteger.class);
+	}
+
 	/**
 	 * Sets the member's accessibility status.
 	 * 
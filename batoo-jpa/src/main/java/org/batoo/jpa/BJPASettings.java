@@ -35,6 +35,12 @@ public interface BJPASettings {
 	 */
 	String DROP_ON_CLOSE = "org.batoo.jpa.dropOnClose";
 
+	/**
+	 * Boolean value, indicating that the updates should only include the columns that have changed. Can be overridden per entity with
+	 * {@link org.batoo.jpa.annotations.DynamicUpdate}.
+	 */
+	String DYNAMIC_UPDATE = "org.batoo.jpa.dynamic_update";
+
 	/**
 	 * String value, indicating how the sql statements should be printed, NONE | STDOUT | STDERR.
 	 * <p>
@@ -49,6 +55,22 @@ public interface BJPASettings {
 	 */
 	String SLOW_SQL_THRESHOLD = "org.batoo.jpa.slow_sql_threshold";
 
+	/**
+	 * Boolean value, indicating that the SQL statistics should be registered as JMX MBean, defaults to true.
+	 * <p>
+	 * The statistics are recorded regardless and can be obtained with
+	 * <code>entityManagerFactory.unwrap(org.batoo.jpa.jdbc.SqlStatistics.class)</code>.
+	 */
+	String JMX = "org.batoo.jpa.jmx";
+
+	/**
+	 * String value, the directory to keep the snapshots of the parsed metadata of the persistence units in. Not set by default.
+	 * <p>
+	 * When set, the parsed metadata is restored from the snapshot as long as the persistence unit's mapping files and classes have not
+	 * changed, skipping the parsing of the mapping files and the scanning of the classes.
+	 */
+	String METADATA_SNAPSHOT = "org.batoo.jpa.metadata_snapshot";
+
 	/**
 	 * Default value for {@link #SLOW_SQL_THRESHOLD} that is 2500.
 	 */
@@ -69,6 +91,11 @@ public interface BJPASettings {
 	 */
 	Integer DEFAULT_FETCH_SIZE = 100;
 
+	/**
+	 * The default for {@link #BATCH_FETCH_SIZE} that is 1, lazy associations are loaded one owner at a time.
+	 */
+	Integer DEFAULT_BATCH_FETCH_SIZE = 1;
+
 	/**
 	 * The default for {@link #INSERT_BATCH_SIZE}
 	 */
@@ -79,21 +106,73 @@ public interface BJPASettings {
 	 */
 	Integer DEFAULT_REMOVE_BATCH_SIZE = 10;
 
+	/**
+	 * The default for {@link #UPDATE_BATCH_SIZE}
+	 */
+	Integer DEFAULT_UPDATE_BATCH_SIZE = 50;
+
 	/**
 	 * The default for {@link #STATEMENT_CACHE_SIZE} that is 50.
 	 */
 	Integer DEFAULT_STATEMENT_CACHE_SIZE = 50;
 
+	/**
+	 * The default for {@link #CACHE_SIZE} that is 10000.
+	 */
+	Integer DEFAULT_CACHE_SIZE = 10000;
+
+	/**
+	 * The default for {@link #CACHE_TTL} that is 0, instances never expire.
+	 */
+	Long DEFAULT_CACHE_TTL = 0l;
+
 	/**
 	 * The default for {@value #MAX_FETCH_JOIN_DEPTH} that is 1.
 	 */
 	Integer DEFAULT_MAX_FETCH_JOIN_DEPTH = 2;
 
 	/**
-	 * The size of the datasource statement cache size
+	 * The default for {@link #JPQL_CACHE_SIZE} that is 1000.
+	 */
+	Integer DEFAULT_JPQL_CACHE_SIZE = 1000;
+
+	/**
+	 * The default for {@link #JPQL_CACHE_POLICY} that is LRU.
+	 */
+	String DEFAULT_JPQL_CACHE_POLICY = "LRU";
+
+	/**
+	 * The max number of compiled JPQL queries cached. 0 disables the JPQL cache.
+	 */
+	String JPQL_CACHE_SIZE = "org.batoo.jpa.jpql_cache.size";
+
+	/**
+	 * The eviction policy of the JPQL cache, either <code>LRU</code> or <code>LFU</code>.
+	 */
+	String JPQL_CACHE_POLICY = "org.batoo.jpa.jpql_cache.policy";
+
+	/**
+	 * The max number of prepared statements cached per connection, keyed by the SQL. 0 disables the statement cache.
 	 */
 	String STATEMENT_CACHE_SIZE = "org.batoo.jdbc.statement_cache_size";
 
+	/**
+	 * The max number of entities kept in the second level cache.
+	 */
+	String CACHE_SIZE = "org.batoo.jpa.cache.size";
+
+	/**
+	 * Long value indicating the number of milliseconds an entity lives in the second level cache, 0 for unlimited.
+	 */
+	String CACHE_TTL = "org.batoo.jpa.cache.ttl";
+
+	/**
+	 * The number of owners whose lazy association is loaded with a single query when one of them is accessed. Can be overridden per
+	 * annotated association with {@link org.batoo.jpa.annotations.FetchStrategy#batchSize()}, whereas the associations mapped in
+	 * <code>orm.xml</code> always use this setting.
+	 */
+	String BATCH_FETCH_SIZE = "org.batoo.jpa.batch_fetch_size";
+
 	/**
 	 * The max number of fetch joins allowed.
 	 */
@@ -114,6 +193,11 @@ public interface BJPASettings {
 	 */
 	String REMOVE_BATCH_SIZE = "org.batoo.jdbc.remove_batch_size";
 
+	/**
+	 * The size of the update statements batch
+	 */
+	String UPDATE_BATCH_SIZE = "org.batoo.jdbc.update_batch_size";
+
 	/**
 	 * The max size of the connection pool.
 	 */
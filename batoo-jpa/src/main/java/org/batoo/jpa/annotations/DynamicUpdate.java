@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.annotations;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies that the updates of the entity should only include the columns that have changed.
+ * <p>
+ * Overrides the global {@link org.batoo.jpa.BJPASettings#DYNAMIC_UPDATE} setting for the entity.
+ * 
+ * @since 2.0.1
+ * @author hceylan
+ */
+@Target({ TYPE })
+@Retention(RUNTIME)
+public @interface DynamicUpdate {
+
+	/**
+	 * Returns if the updates should only include the changed columns.
+	 * 
+	 * @return true if the updates should only include the changed columns, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	boolean value() default true;
+}
@@ -33,6 +33,21 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface FetchStrategy {
 
+	/**
+	 * Returns the number of owners whose lazy association is loaded together.
+	 * <p>
+	 * When the lazy association of an owner is accessed, the same association of the other owners in the session that have not been
+	 * loaded yet are loaded with the same query, up to the batch size. Any value less than 1 denotes that the global batch fetch size
+	 * should be used.
+	 * <p>
+	 * The batch size is annotation only, the associations mapped in <code>orm.xml</code> use the global batch fetch size.
+	 * 
+	 * @return the number of owners whose lazy association is loaded together
+	 * 
+	 * @since 2.0.1
+	 */
+	int batchSize() default 0;
+
 	/**
 	 * Returns the maximum allowed depth for the join.
 	 * <p>
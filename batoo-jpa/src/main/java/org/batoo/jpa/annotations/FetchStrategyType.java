@@ -36,6 +36,12 @@ public enum FetchStrategyType {
 	 */
 	JOIN, //
 
+	/**
+	 * query infers a separate select query for the collection that loads the collections of all the owners loaded by the original query,
+	 * re-running the restriction of the original query as a subquery. Singular associations treat it as {@link #SELECT}
+	 */
+	SUBSELECT, //
+
 	/**
 	 * maxDepth is used to decise on the type
 	 */
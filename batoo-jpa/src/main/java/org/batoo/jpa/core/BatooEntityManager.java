@@ -20,13 +20,43 @@
 package org.batoo.jpa.core;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 
 /**
+ * Batoo specific extensions to the {@link EntityManager}.
  * 
- *
  * @author hceylan
  * @since 2.0.1
  */
 public interface BatooEntityManager extends EntityManager {
 
+	/**
+	 * Executes the query and returns a cursor over its results that hydrates the rows as they are consumed.
+	 * <p>
+	 * The rows of a root instance with plural fetches must be consecutive, that is the query must be ordered by the root.
+	 * <p>
+	 * The rows are hydrated in windows of the JDBC fetch size. When <code>detach</code> is true, the instances put into the persistence
+	 * context while a window is consumed, that is the results, their associates and the instances lazily loaded meanwhile, are detached
+	 * when the cursor moves past the window. Thus the memory is bounded by the window, but:
+	 * <ul>
+	 * <li>an instance that recurs in a later window is returned as a new instance;
+	 * <li>the lazy associations of a detached instance can no longer be loaded;
+	 * <li>the changes to the detached instances are not flushed.
+	 * </ul>
+	 * Distinct queries cannot be scrolled with detach. Without detach, the instances stay in the persistence context as with
+	 * {@link javax.persistence.TypedQuery#getResultList()}.
+	 * 
+	 * @param query
+	 *            the query created by the entity manager
+	 * @param detach
+	 *            true to detach the instances hydrated for a window from the persistence context when the cursor moves past the window
+	 * @param <X>
+	 *            the type of the results
+	 * @return the cursor over the results
+	 * @throws IllegalArgumentException
+	 *             thrown if the query is distinct and the instances are to be detached
+	 * 
+	 * @since 2.0.1
+	 */
+	<X> ScrollableResults<X> scroll(TypedQuery<X> query, boolean detach);
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core;
+
+import java.util.Iterator;
+
+/**
+ * Cursor over the results of a query that hydrates the rows as they are consumed, so that large results can be processed with bounded
+ * memory.
+ * <p>
+ * The cursor keeps the underlying statement open and must be closed once it is no longer needed. The cursor is closed automatically when it
+ * is exhausted.
+ * 
+ * @param <X>
+ *            the type of the results
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface ScrollableResults<X> extends Iterator<X> {
+
+	/**
+	 * Closes the cursor and releases the underlying statement.
+	 * 
+	 * @since 2.0.1
+	 */
+	void close();
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
+import javax.persistence.metamodel.EntityType;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.instance.EnhancedInstance;
+import org.batoo.jpa.core.impl.instance.ManagedId;
+import org.batoo.jpa.core.impl.instance.ManagedInstance;
+import org.batoo.jpa.core.impl.manager.SessionImpl;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Implementation of the shared second level cache of the {@link EntityManagerFactory}.
+ * <p>
+ * The cache is keyed by {@link ManagedId} and stores the dehydrated state of the entities, see {@link CacheInstance}. The instances are
+ * evicted in least recently used order once the size of the cache is exceeded and once their time to live has elapsed.
+ * <p>
+ * Each eviction advances the eviction stamp of the cache. Instances loaded by a session are put into the cache only if there has not been
+ * an eviction since the session started loading them, so that a concurrent load never overwrites a newer state with a stale one.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class CacheImpl implements Cache {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(CacheImpl.class);
+
+	private final MetamodelImpl metamodel;
+	private final long ttl;
+
+	private final HashMap<EntityTypeImpl<?>, CachedType<?>> types = Maps.newHashMap();
+	private final LinkedHashMap<ManagedId<?>, CacheInstance> instances;
+	private final CacheStats stats = new CacheStats("Global");
+
+	private long evictStamp;
+
+	/**
+	 * @param metamodel
+	 *            the metamodel
+	 * @param sharedCacheMode
+	 *            the shared cache mode of the persistence unit
+	 * @param size
+	 *            the max number of instances to keep in the cache
+	 * @param ttl
+	 *            the time to live for the instances in milliseconds, or <code>0</code> for unlimited
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public CacheImpl(MetamodelImpl metamodel, SharedCacheMode sharedCacheMode, final int size, long ttl) {
+		super();
+
+		this.metamodel = metamodel;
+		this.ttl = ttl;
+
+		this.instances = new LinkedHashMap<ManagedId<?>, CacheInstance>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<ManagedId<?>, CacheInstance> eldest) {
+				return this.size() > size;
+			}
+		};
+
+		for (final EntityType<?> entity : metamodel.getEntities()) {
+			final EntityTypeImpl<?> type = (EntityTypeImpl<?>) entity;
+
+			if (this.isCacheable(sharedCacheMode, type)) {
+				if (CachedType.isSupported(type)) {
+					this.types.put(type, new CachedType(metamodel, type));
+
+					CacheImpl.LOG.debug("Entity {0} is cacheable", type.getName());
+				}
+				else {
+					CacheImpl.LOG.warn("Entity {0} is marked as cacheable but its mapping cannot be cached", type.getName());
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public synchronized boolean contains(Class<?> cls, Object primaryKey) {
+		final CacheInstance instance = this.instances.get(new ManagedId(primaryKey, this.metamodel.entity(cls)));
+
+		return (instance != null) && !instance.isExpired(System.currentTimeMillis());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public synchronized void evict(Class<?> cls) {
+		final EntityTypeImpl<?> type = this.metamodel.entity(cls);
+		if (!this.types.containsKey(type)) {
+			return;
+		}
+
+		this.evictStamp++;
+
+		int evicted = 0;
+		for (final Iterator<ManagedId<?>> i = this.instances.keySet().iterator(); i.hasNext();) {
+			if (i.next().getType() == type) {
+				i.remove();
+
+				evicted++;
+			}
+		}
+
+		this.stats.addEvict(evicted);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void evict(Class<?> cls, Object primaryKey) {
+		this.evict(new ManagedId(primaryKey, this.metamodel.entity(cls)));
+	}
+
+	/**
+	 * Evicts the instance with the <code>id</code> from the cache.
+	 * 
+	 * @param id
+	 *            the managed id of the instance
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized void evict(ManagedId<?> id) {
+		if (!this.types.containsKey(id.getType())) {
+			return;
+		}
+
+		this.evictStamp++;
+
+		if (this.instances.remove(id) != null) {
+			this.stats.addEvict(1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public synchronized void evictAll() {
+		this.evictStamp++;
+
+		this.stats.addEvict(this.instances.size());
+
+		this.instances.clear();
+	}
+
+	/**
+	 * Returns the eviction stamp of the cache.
+	 * 
+	 * @return the eviction stamp of the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized long getEvictStamp() {
+		return this.evictStamp;
+	}
+
+	/**
+	 * Returns the statistics of the cache.
+	 * 
+	 * @return the statistics of the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public CacheStats getStats() {
+		return this.stats;
+	}
+
+	private boolean isCacheable(SharedCacheMode sharedCacheMode, EntityTypeImpl<?> type) {
+		if (sharedCacheMode == null) {
+			return false;
+		}
+
+		switch (sharedCacheMode) {
+			case ALL:
+				return true;
+			case ENABLE_SELECTIVE:
+				return Boolean.TRUE.equals(type.getCacheable());
+			case DISABLE_SELECTIVE:
+				return !Boolean.FALSE.equals(type.getCacheable());
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Returns if the type is stored in the cache.
+	 * 
+	 * @param type
+	 *            the entity type
+	 * @return true if the type is stored in the cache, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isCached(EntityTypeImpl<?> type) {
+		return this.types.containsKey(type);
+	}
+
+	/**
+	 * Returns if the cache stores any type.
+	 * 
+	 * @return true if the cache stores any type, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isEnabled() {
+		return !this.types.isEmpty();
+	}
+
+	/**
+	 * Loads the instance with the <code>id</code> from the cache into the session.
+	 * <p>
+	 * If the session already has a lazy instance with the id, the lazy instance is initialized from the cache.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param id
+	 *            the managed id of the instance
+	 * @param lazyInstance
+	 *            the lazy instance in the session or <code>null</code>
+	 * @return the managed instance loaded from the cache or <code>null</code> if the cache does not have the instance
+	 * 
+	 * @param <X>
+	 *            the type of the instance
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public <X> ManagedInstance<? extends X> load(SessionImpl session, ManagedId<X> id, ManagedInstance<? extends X> lazyInstance) {
+		final CachedType<X> cachedType = (CachedType<X>) this.types.get(id.getType());
+		if (cachedType == null) {
+			return null;
+		}
+
+		if ((lazyInstance != null) && (lazyInstance.getType() != cachedType.getType())) {
+			return null;
+		}
+
+		final CacheInstance cacheInstance;
+		synchronized (this) {
+			final CacheInstance instance = this.instances.get(id);
+
+			if ((instance == null) || instance.isExpired(System.currentTimeMillis())) {
+				if (instance != null) {
+					this.instances.remove(id);
+				}
+
+				this.stats.addMiss();
+
+				return null;
+			}
+
+			this.stats.addHit();
+
+			cacheInstance = instance;
+		}
+
+		CacheImpl.LOG.debug("Loading instance from cache {0}", id);
+
+		final ManagedInstance<? extends X> managedInstance;
+		if (lazyInstance == null) {
+			managedInstance = cachedType.getType().getManagedInstanceById(session, id, false);
+		}
+		else {
+			managedInstance = lazyInstance;
+		}
+
+		managedInstance.setLoading(true);
+		managedInstance.setLoadingFromCache(true);
+
+		cachedType.hydrate(session.getEntityManager(), managedInstance, cacheInstance);
+
+		if (lazyInstance == null) {
+			session.put(managedInstance);
+		}
+		else {
+			session.lazyInstanceLoading(managedInstance);
+			((EnhancedInstance) managedInstance.getInstance()).__enhanced__$$__setInitialized();
+		}
+
+		return managedInstance;
+	}
+
+	/**
+	 * Puts the dehydrated state of the instance into the cache.
+	 * 
+	 * @param managedInstance
+	 *            the managed instance
+	 * @param loadStamp
+	 *            the eviction stamp at the time the instance started loading
+	 * 
+	 * @since 2.0.1
+	 */
+	public void put(ManagedInstance<?> managedInstance, long loadStamp) {
+		final CachedType<?> cachedType = this.types.get(managedInstance.getType());
+		if (cachedType == null) {
+			return;
+		}
+
+		final CacheInstance cacheInstance = cachedType.dehydrate(managedInstance, this.ttl > 0 ? System.currentTimeMillis() + this.ttl : 0);
+		if (cacheInstance == null) {
+			return;
+		}
+
+		synchronized (this) {
+			// an eviction has happened since the instance was loaded, the state may be stale
+			if (loadStamp != this.evictStamp) {
+				return;
+			}
+
+			this.instances.put(managedInstance.getId(), cacheInstance);
+
+			this.stats.addPut();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> cls) {
+		if (cls == CacheImpl.class) {
+			return (T) this;
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.cache;
+
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+
+/**
+ * The dehydrated state of an entity stored in the second level cache.
+ * <p>
+ * The state consists of the JDBC values of the basic columns and the identifiers of the entities referenced by the foreign keys, never the
+ * live entity instance itself.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class CacheInstance {
+
+	private final Object[] values;
+	private final EntityTypeImpl<?>[] associateTypes;
+	private final Object[] associateIds;
+	private final long expires;
+
+	/**
+	 * @param values
+	 *            the values of the basic columns
+	 * @param associateTypes
+	 *            the types of the associated entities
+	 * @param associateIds
+	 *            the ids of the associated entities
+	 * @param expires
+	 *            the time the instance expires, or <code>0</code> if the instance never expires
+	 * 
+	 * @since 2.0.1
+	 */
+	public CacheInstance(Object[] values, EntityTypeImpl<?>[] associateTypes, Object[] associateIds, long expires) {
+		super();
+
+		this.values = values;
+		this.associateTypes = associateTypes;
+		this.associateIds = associateIds;
+		this.expires = expires;
+	}
+
+	/**
+	 * Returns the ids of the associated entities.
+	 * 
+	 * @return the ids of the associated entities
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object[] getAssociateIds() {
+		return this.associateIds;
+	}
+
+	/**
+	 * Returns the types of the associated entities.
+	 * 
+	 * @return the types of the associated entities
+	 * 
+	 * @since 2.0.1
+	 */
+	public EntityTypeImpl<?>[] getAssociateTypes() {
+		return this.associateTypes;
+	}
+
+	/**
+	 * Returns the values of the basic columns.
+	 * 
+	 * @return the values of the basic columns
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object[] getValues() {
+		return this.values;
+	}
+
+	/**
+	 * Returns if the instance has expired.
+	 * 
+	 * @param now
+	 *            the current time
+	 * @return true if the instance has expired, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isExpired(long now) {
+		return (this.expires != 0) && (this.expires < now);
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.cache;
+
+/**
+ * Statistics of the second level cache.
+ * <p>
+ * The counters are maintained by the {@link CacheImpl} under its own lock.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class CacheStats {
+
+	private final String name;
+
+	private long puts;
+	private long evicts;
+	private long hits;
+	private long misses;
+
+	/**
+	 * @param name
+	 *            the name of the statistics
+	 * 
+	 * @since 2.0.1
+	 */
+	public CacheStats(String name) {
+		super();
+
+		this.name = name;
+	}
+
+	/**
+	 * Adds evictions to the statistics.
+	 * 
+	 * @param count
+	 *            the number of instances evicted
+	 * 
+	 * @since 2.0.1
+	 */
+	void addEvict(int count) {
+		this.evicts += count;
+	}
+
+	/**
+	 * Adds a hit to the statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	void addHit() {
+		this.hits++;
+	}
+
+	/**
+	 * Adds a miss to the statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	void addMiss() {
+		this.misses++;
+	}
+
+	/**
+	 * Adds a put to the statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	void addPut() {
+		this.puts++;
+	}
+
+	/**
+	 * Returns the number of evictions.
+	 * 
+	 * @return the number of evictions
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getEvicts() {
+		return this.evicts;
+	}
+
+	/**
+	 * Returns the number of hits.
+	 * 
+	 * @return the number of hits
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * Returns the number of misses.
+	 * 
+	 * @return the number of misses
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * Returns the name of the statistics.
+	 * 
+	 * @return the name of the statistics
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the number of puts.
+	 * 
+	 * @return the number of puts
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getPuts() {
+		return this.puts;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return this.name + " | puts:" + this.puts + " evicts:" + this.evicts + " hits:" + this.hits + ", misses:" + this.misses;
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.cache;
+
+import java.util.Date;
+import java.util.List;
+
+import org.batoo.jpa.core.impl.instance.EnhancedInstance;
+import org.batoo.jpa.core.impl.instance.ManagedId;
+import org.batoo.jpa.core.impl.instance.ManagedInstance;
+import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.impl.model.mapping.SingularAssociationMappingImpl;
+import org.batoo.jpa.jdbc.AbstractColumn;
+import org.batoo.jpa.jdbc.BasicColumn;
+import org.batoo.jpa.jdbc.EntityTable;
+import org.batoo.jpa.jdbc.JoinColumn;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Describes how the instances of an entity type are dehydrated into and hydrated from the second level cache.
+ * 
+ * @param <X>
+ *            the type of the entity
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class CachedType<X> {
+
+	/**
+	 * Returns if the type can be stored in the second level cache.
+	 * <p>
+	 * Only the types that are not part of an inheritance hierarchy and whose tables consist of non-lob basic columns and foreign keys of
+	 * singular associations are supported.
+	 * 
+	 * @param type
+	 *            the entity type
+	 * @return true if the type is supported, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public static boolean isSupported(EntityTypeImpl<?> type) {
+		if ((type.getInheritanceType() != null) || (type.getRootType() != type)) {
+			return false;
+		}
+
+		for (final EntityTable table : type.getAllTables()) {
+			for (final AbstractColumn column : table.getColumns()) {
+				if (column instanceof BasicColumn) {
+					if (column.isLob() || (column.getMapping() == null)) {
+						return false;
+					}
+
+					continue;
+				}
+
+				if (column instanceof JoinColumn) {
+					// secondary table key columns
+					if (column.getMapping() == null) {
+						continue;
+					}
+
+					if (!column.isPrimaryKey() && (column.getMapping() instanceof SingularAssociationMappingImpl)) {
+						continue;
+					}
+				}
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private final MetamodelImpl metamodel;
+	private final EntityTypeImpl<X> type;
+	private final BasicColumn[] columns;
+	private final SingularAssociationMappingImpl<?, ?>[] associations;
+
+	/**
+	 * @param metamodel
+	 *            the metamodel
+	 * @param type
+	 *            the entity type
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("rawtypes")
+	public CachedType(MetamodelImpl metamodel, EntityTypeImpl<X> type) {
+		super();
+
+		this.metamodel = metamodel;
+		this.type = type;
+
+		final List<BasicColumn> _columns = Lists.newArrayList();
+		for (final EntityTable table : type.getAllTables()) {
+			for (final AbstractColumn column : table.getColumns()) {
+				if (column instanceof BasicColumn) {
+					_columns.add((BasicColumn) column);
+				}
+			}
+		}
+
+		final List<SingularAssociationMappingImpl<?, ?>> _associations = Lists.newArrayList();
+		for (final SingularAssociationMappingImpl<?, ?> mapping : type.getAssociationsSingular()) {
+			if (mapping.getForeignKey() != null) {
+				_associations.add(mapping);
+			}
+		}
+
+		this.columns = _columns.toArray(new BasicColumn[_columns.size()]);
+		this.associations = _associations.toArray(new SingularAssociationMappingImpl[_associations.size()]);
+	}
+
+	private Object copy(Object value) {
+		if (value instanceof Date) {
+			return ((Date) value).clone();
+		}
+
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		}
+
+		if (value instanceof char[]) {
+			return ((char[]) value).clone();
+		}
+
+		return value;
+	}
+
+	/**
+	 * Dehydrates the managed instance.
+	 * 
+	 * @param managedInstance
+	 *            the managed instance
+	 * @param expires
+	 *            the time the dehydrated state expires, or <code>0</code> if it never expires
+	 * @return the dehydrated state or <code>null</code> if the instance cannot be dehydrated
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("rawtypes")
+	public CacheInstance dehydrate(ManagedInstance<?> managedInstance, long expires) {
+		final Object instance = managedInstance.getInstance();
+
+		final Object[] values = new Object[this.columns.length];
+		for (int i = 0; i < this.columns.length; i++) {
+			values[i] = this.copy(this.columns[i].getValue(null, instance));
+		}
+
+		final EntityTypeImpl<?>[] associateTypes = new EntityTypeImpl[this.associations.length];
+		final Object[] associateIds = new Object[this.associations.length];
+
+		for (int i = 0; i < this.associations.length; i++) {
+			final Object associate = this.associations[i].get(instance);
+			if (associate == null) {
+				continue;
+			}
+
+			if (associate instanceof EnhancedInstance) {
+				final ManagedInstance<?> associateManagedInstance = ((EnhancedInstance) associate).__enhanced__$$__getManagedInstance();
+
+				associateTypes[i] = associateManagedInstance.getType();
+				associateIds[i] = associateManagedInstance.getId().getId();
+			}
+			else {
+				final EntityTypeImpl<?> associateType = this.metamodel.getEntity(associate.getClass());
+				final ManagedId<?> associateId = associateType.getId(associate);
+
+				// the associate does not have an id yet
+				if (associateId == null) {
+					return null;
+				}
+
+				associateTypes[i] = associateType;
+				associateIds[i] = associateId.getId();
+			}
+		}
+
+		return new CacheInstance(values, associateTypes, associateIds, expires);
+	}
+
+	/**
+	 * Returns the entity type.
+	 * 
+	 * @return the entity type
+	 * 
+	 * @since 2.0.1
+	 */
+	public EntityTypeImpl<X> getType() {
+		return this.type;
+	}
+
+	/**
+	 * Hydrates the managed instance from the dehydrated state.
+	 * 
+	 * @param entityManager
+	 *            the entity manager
+	 * @param managedInstance
+	 *            the managed instance
+	 * @param cacheInstance
+	 *            the dehydrated state
+	 * 
+	 * @since 2.0.1
+	 */
+	public void hydrate(EntityManagerImpl entityManager, ManagedInstance<?> managedInstance, CacheInstance cacheInstance) {
+		final Object instance = managedInstance.getInstance();
+
+		final Object[] values = cacheInstance.getValues();
+		for (int i = 0; i < this.columns.length; i++) {
+			this.columns[i].setValue(instance, this.copy(values[i]));
+		}
+
+		final EntityTypeImpl<?>[] associateTypes = cacheInstance.getAssociateTypes();
+		final Object[] associateIds = cacheInstance.getAssociateIds();
+
+		for (int i = 0; i < this.associations.length; i++) {
+			final SingularAssociationMappingImpl<?, ?> mapping = this.associations[i];
+
+			if (associateIds[i] != null) {
+				mapping.set(instance, entityManager.getReference(associateTypes[i].getJavaType(), associateIds[i]));
+			}
+
+			managedInstance.setJoinLoaded(mapping);
+		}
+	}
+}
@@ -24,21 +24,25 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 
 import javax.persistence.PersistenceException;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.batoo.common.BatooVersion;
 import org.batoo.common.util.BatooUtils;
+import org.batoo.common.util.Pair;
 import org.batoo.jpa.core.impl.criteria.EntryImpl;
 import org.batoo.jpa.core.impl.instance.ManagedInstance;
 import org.batoo.jpa.core.impl.model.mapping.PluralMappingEx;
 import org.batoo.jpa.jdbc.Joinable;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -352,18 +356,17 @@ public class ManagedList<X, E> extends ManagedCollection<E> implements List<E> {
 		return false;
 	}
 
-	private void attachChildren(Connection connection, final ManagedInstance<?> instance, final PluralMappingEx<?, ?, E> mapping) throws SQLException {
+	private void attach(Connection connection, ManagedInstance<?> instance, PluralMappingEx<?, ?, E> mapping, List<Joinable> joinables)
+		throws SQLException {
 		final int insertBatchSize = this.getInsertBatchSize();
 
 		final Joinable[] batch = new Joinable[insertBatchSize];
 
 		int i = 0;
-		while (i < this.delegate.size()) {
+		while (i < joinables.size()) {
 			int batchSize = 0;
-			while ((i < this.delegate.size()) && (batchSize < insertBatchSize)) {
-				final E child = this.delegate.get(i);
-
-				batch[batchSize] = new Joinable(null, child, i);
+			while ((i < joinables.size()) && (batchSize < insertBatchSize)) {
+				batch[batchSize] = joinables.get(i);
 				batchSize++;
 
 				i++;
@@ -375,6 +378,16 @@ public class ManagedList<X, E> extends ManagedCollection<E> implements List<E> {
 		}
 	}
 
+	private void attachChildren(Connection connection, final ManagedInstance<?> instance, final PluralMappingEx<?, ?, E> mapping) throws SQLException {
+		final List<Joinable> joinables = Lists.newArrayListWithCapacity(this.delegate.size());
+
+		for (int i = 0; i < this.delegate.size(); i++) {
+			joinables.add(new Joinable(null, this.delegate.get(i), i));
+		}
+
+		this.attach(connection, instance, mapping, joinables);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -441,6 +454,8 @@ public class ManagedList<X, E> extends ManagedCollection<E> implements List<E> {
 		if (force) {
 			this.attachChildren(connection, instance, mapping);
 
+			this.snapshot = null;
+
 			return;
 		}
 
@@ -448,11 +463,29 @@ public class ManagedList<X, E> extends ManagedCollection<E> implements List<E> {
 			return;
 		}
 
+		final Pair<List<E>, List<Joinable>> changes = this.getChanges(mapping);
+
 		if (removals) {
-			mapping.detachAll(connection, instance);
+			if (changes == null) {
+				mapping.detachAll(connection, instance);
+			}
+			else {
+				final List<E> detached = changes.getFirst();
+				for (int i = 0; i < detached.size(); i++) {
+					mapping.detach(connection, instance, null, detached.get(i));
+				}
+			}
 		}
 		else {
-			this.attachChildren(connection, instance, mapping);
+			if (changes == null) {
+				this.attachChildren(connection, instance, mapping);
+			}
+			else {
+				this.attach(connection, instance, mapping, changes.getSecond());
+			}
+
+			// the changes have been written, the next change takes a fresh snapshot
+			this.snapshot = null;
 		}
 	}
 
@@ -467,6 +500,77 @@ public class ManagedList<X, E> extends ManagedCollection<E> implements List<E> {
 		return this.delegate.get(index);
 	}
 
+	/**
+	 * Returns the changes of the list since the snapshot.
+	 * <p>
+	 * The first of the pair is the children to detach, that is the children removed and, if the list has an order column, the children
+	 * that have moved. The second is the children to attach with their new indexes.
+	 * <p>
+	 * If a child is in the snapshot or in the list more than once, the whole list is rewritten.
+	 * 
+	 * @param mapping
+	 *            the mapping
+	 * @return the changes or <code>null</code> if rewriting the whole list is cheaper
+	 * 
+	 * @since 2.0.1
+	 */
+	private Pair<List<E>, List<Joinable>> getChanges(PluralMappingEx<?, ?, E> mapping) {
+		// elements of element collections may have been modified in place
+		if (!mapping.isAssociation()) {
+			return null;
+		}
+
+		final boolean ordered = mapping.getOrderColumn() != null;
+
+		// duplicates are rejected by the list, yet should a child still end up in the list more than once, say through addAll() of a
+		// collection with duplicates, its copies cannot be told apart so the list is rewritten
+		final IdentityHashMap<E, Integer> indexes = Maps.newIdentityHashMap();
+		for (int i = 0; i < this.snapshot.size(); i++) {
+			if (indexes.put(this.snapshot.get(i), i) != null) {
+				return null;
+			}
+		}
+
+		final Set<E> children = Sets.newIdentityHashSet();
+		final List<E> detached = Lists.newArrayList();
+		final List<Joinable> attached = Lists.newArrayList();
+
+		for (int i = 0; i < this.delegate.size(); i++) {
+			final E child = this.delegate.get(i);
+			if (!children.add(child)) {
+				return null;
+			}
+
+			final Integer index = indexes.remove(child);
+
+			if (index == null) {
+				attached.add(new Joinable(null, child, i));
+			}
+			else if (ordered && (index.intValue() != i)) {
+				detached.add(child);
+				attached.add(new Joinable(null, child, i));
+			}
+		}
+
+		for (int i = 0; i < this.snapshot.size(); i++) {
+			final E child = this.snapshot.get(i);
+			if (indexes.containsKey(child)) {
+				detached.add(child);
+			}
+		}
+
+		// compare the number of statements against deleting and inserting all the rows
+		final int insertBatchSize = this.getInsertBatchSize();
+		final int incremental = detached.size() + (((attached.size() + insertBatchSize) - 1) / insertBatchSize);
+		final int rewrite = 1 + (((this.delegate.size() + insertBatchSize) - 1) / insertBatchSize);
+
+		if (incremental > rewrite) {
+			return null;
+		}
+
+		return Pair.create(detached, attached);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
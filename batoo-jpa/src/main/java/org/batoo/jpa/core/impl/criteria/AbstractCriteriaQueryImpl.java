@@ -197,6 +197,39 @@ public abstract class AbstractCriteriaQueryImpl<T> extends BaseQueryImpl<T> impl
 
 		builder.append(this.selection.generateJpqlSelect(this, true));
 
+		builder.append(this.generateJpqlFrom(true));
+
+		if (this.getGroupList().size() > 0) {
+			final String groupBy = Joiner.on(", ").join(Lists.transform(this.getGroupList(), new Function<Expression<?>, String>() {
+
+				@Override
+				public String apply(Expression<?> input) {
+					return ((AbstractExpression<?>) input).generateJpqlRestriction(AbstractCriteriaQueryImpl.this);
+				}
+			}));
+
+			builder.append("\ngroup by\n\t").append(groupBy);
+		}
+
+		if (this.getGroupRestriction() != null) {
+			builder.append("\nhaving\n\t").append(this.getGroupRestriction().generateJpqlRestriction(this));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Returns the from and where fragments of the JPQL.
+	 * 
+	 * @param fetches
+	 *            if the fetches of the roots should be included
+	 * @return the from and where fragments of the JPQL
+	 * 
+	 * @since 2.0.1
+	 */
+	private String generateJpqlFrom(final boolean fetches) {
+		final StringBuilder builder = new StringBuilder();
+
 		final Collection<String> roots = Collections2.transform(this.getRoots(), new Function<Root<?>, String>() {
 
 			@Override
@@ -209,7 +242,7 @@ public abstract class AbstractCriteriaQueryImpl<T> extends BaseQueryImpl<T> impl
 					builder.append(" as ").append(input.getAlias());
 				}
 
-				final String joins = root.generateJpqlJoins(AbstractCriteriaQueryImpl.this);
+				final String joins = root.generateJpqlJoins(AbstractCriteriaQueryImpl.this, fetches);
 
 				if (StringUtils.isNotBlank(joins)) {
 					builder.append("\n").append(BatooUtils.indent(joins));
@@ -223,23 +256,28 @@ public abstract class AbstractCriteriaQueryImpl<T> extends BaseQueryImpl<T> impl
 			builder.append("\nwhere\n\t").append(this.getRestriction().generateJpqlRestriction(this));
 		}
 
-		if (this.getGroupList().size() > 0) {
-			final String groupBy = Joiner.on(", ").join(Lists.transform(this.getGroupList(), new Function<Expression<?>, String>() {
-
-				@Override
-				public String apply(Expression<?> input) {
-					return ((AbstractExpression<?>) input).generateJpqlRestriction(AbstractCriteriaQueryImpl.this);
-				}
-			}));
-
-			builder.append("\ngroup by\n\t").append(groupBy);
-		}
+		return builder.toString();
+	}
 
-		if (this.getGroupRestriction() != null) {
-			builder.append("\nhaving\n\t").append(this.getGroupRestriction().generateJpqlRestriction(this));
+	/**
+	 * Returns the JPQL of a subquery that selects the attribute of the root over the roots, joins and the restriction of the query.
+	 * <p>
+	 * The fetches, grouping and ordering of the query are not included.
+	 * 
+	 * @param root
+	 *            the root to select the attribute of
+	 * @param attribute
+	 *            the name of the attribute to select
+	 * @return the JPQL of the subquery or <code>null</code> if the root does not have an alias
+	 * 
+	 * @since 2.0.1
+	 */
+	public String generateJpqlSubquery(RootImpl<?> root, String attribute) {
+		if (StringUtils.isBlank(root.getAlias())) {
+			return null;
 		}
 
-		return builder.toString();
+		return "select " + root.getAlias() + "." + attribute + this.generateJpqlFrom(false);
 	}
 
 	/**
@@ -28,7 +28,10 @@ import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Selection;
 
+import org.batoo.common.util.FinalWrapper;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.core.impl.model.mapping.BasicMappingImpl;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
@@ -46,6 +49,7 @@ import com.google.common.collect.Lists;
 public class CriteriaQueryImpl<T> extends AbstractCriteriaQueryImpl<T> implements CriteriaQuery<T> {
 
 	private final ArrayList<OrderImpl> orderList = Lists.newArrayList();
+	private FinalWrapper<String> subselectJpql;
 
 	/**
 	 * @param metamodel
@@ -148,6 +152,43 @@ public class CriteriaQueryImpl<T> extends AbstractCriteriaQueryImpl<T> implement
 		return orderList;
 	}
 
+	/**
+	 * Returns the JPQL of the subquery that selects the ids of the entities selected by the query.
+	 * <p>
+	 * The subquery is used to load the associations of all the entities returned by the query at once.
+	 * 
+	 * @return the JPQL of the subquery or <code>null</code> if the query does not select a root entity with a single basic id
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getSubselectJpql() {
+		FinalWrapper<String> wrapper = this.subselectJpql;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.subselectJpql == null) {
+					String jpql = null;
+
+					final AbstractSelection<T> selection = this.getSelection();
+					if ((selection instanceof RootImpl) && (this.getGroupList().size() == 0)) {
+						final RootImpl<?> root = (RootImpl<?>) selection;
+						final EntityTypeImpl<?> rootType = root.getEntity().getRootType();
+
+						if (rootType.hasSingleIdAttribute() && (rootType.getIdMapping() instanceof BasicMappingImpl)) {
+							jpql = this.generateJpqlSubquery(root, rootType.getIdMapping().getAttribute().getName());
+						}
+					}
+
+					this.subselectJpql = new FinalWrapper<String>(jpql);
+				}
+
+				wrapper = this.subselectJpql;
+			}
+		}
+
+		return wrapper.value;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
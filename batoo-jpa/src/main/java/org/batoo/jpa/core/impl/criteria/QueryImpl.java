@@ -50,13 +50,20 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.mutable.MutableInt;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.BJPASettings;
+import org.batoo.jpa.core.ScrollableResults;
 import org.batoo.jpa.core.impl.criteria.expression.AbstractParameterExpressionImpl;
 import org.batoo.jpa.core.impl.criteria.expression.EntityConstantExpression;
 import org.batoo.jpa.core.impl.criteria.expression.ParameterExpressionImpl;
+import org.batoo.jpa.core.impl.criteria.join.AbstractFrom;
+import org.batoo.jpa.core.impl.criteria.join.FetchParentImpl;
+import org.batoo.jpa.core.impl.criteria.join.FetchParentImpl.ResultIndexes;
+import org.batoo.jpa.core.impl.instance.EnhancedInstance;
 import org.batoo.jpa.core.impl.instance.ManagedInstance;
 import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
 import org.batoo.jpa.core.impl.manager.SessionImpl;
 import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.jdbc.ConnectionProxy;
 import org.batoo.jpa.jdbc.PreparedStatementProxy;
 import org.batoo.jpa.jdbc.ValueConverter;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor.PaginationParamsOrder;
@@ -123,6 +130,15 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		this.pmdBroken = entityManager.getJdbcAdaptor().isPmdBroken();
 	}
 
+	private void applyLock() {
+		final LockModeType lockMode = this.getLockMode();
+		final boolean hasLock = (lockMode == LockModeType.PESSIMISTIC_READ) || (lockMode == LockModeType.PESSIMISTIC_WRITE)
+			|| (lockMode == LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+		if (hasLock) {
+			this.sql = this.em.getJdbcAdaptor().applyLock(this.sql, lockMode);
+		}
+	}
+
 	private Object[] applyParameters(Connection connection) {
 		// are all params set
 		for (final ParameterExpressionImpl<?> param : this.parameters.keySet()) {
@@ -293,32 +309,7 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		ResultSet resultSet = null;
 
 		try {
-			final String _sql = this.sql;
-
-			final Map<Integer, Integer> repeat = Maps.newHashMap();
-
-			int sqlParamNo = 0;
-			for (final Object parameter : parameters) {
-				if (parameter != null) {
-					if (parameter instanceof Collection) {
-						repeat.put(sqlParamNo, ((Collection<?>) parameter).size());
-					}
-					else if (parameter.getClass().isArray()) {
-						repeat.put(sqlParamNo, ((Object[]) parameter).length);
-					}
-				}
-
-				sqlParamNo++;
-			}
-
-			if (repeat.size() > 0) {
-				statement = connection.prepareStatement(this.expandParams(_sql, repeat));
-			}
-			else {
-				statement = connection.prepareStatement(_sql);
-			}
-
-			this.fillStatement(statement, parameters, repeat);
+			statement = this.prepareStatement(connection, parameters);
 
 			resultSet = statement.executeQuery();
 
@@ -417,7 +408,12 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		try {
 			this.em.assertTransaction();
 
-			return new QueryRunner(this.em.getJdbcAdaptor(), false).update(connection, this.sql, parameters);
+			final int updated = new QueryRunner(this.em.getJdbcAdaptor(), false).update(connection, this.sql, parameters);
+
+			// bulk updates bypass the session, the cached state may be stale
+			this.em.getSession().evictAllFromCache();
+
+			return updated;
 		}
 		catch (final SQLException e) {
 			QueryImpl.LOG.error(e, "Query failed" + QueryImpl.LOG.lazyBoxed(this.sql, parameters));
@@ -510,22 +506,21 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 			return;
 		}
 
-		final ParameterMetaData pmd = this.pmdBroken ? null : statement.getParameterMetaData();
+		int total = parameters.length - repeat.size();
 
-		if (this.pmdBroken) {
-			int total = parameters.length - repeat.size();
-
-			if (repeat.size() > 0) {
-				for (final Integer repeatSize : repeat.values()) {
-					if (repeatSize != null) {
-						total += repeatSize;
-					}
+		if (repeat.size() > 0) {
+			for (final Integer repeatSize : repeat.values()) {
+				if (repeatSize != null) {
+					total += repeatSize;
 				}
 			}
-
-			((PreparedStatementProxy) statement).setParamCount(total);
 		}
 
+		((PreparedStatementProxy) statement).setParamCount(total);
+
+		// obtained only if there are null parameters
+		ParameterMetaData pmd = null;
+
 		int index = 1;
 		for (int i = 0; i < parameters.length; i++) {
 			if (parameters[i] != null) {
@@ -556,7 +551,12 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 				int sqlType = Types.VARCHAR;
 				if (!this.pmdBroken) {
 					try {
-						sqlType = pmd.getParameterType(index + 1);
+						if (pmd == null) {
+							// expanded SQLs vary per execution, do not cache their metadata
+							pmd = repeat.isEmpty() ? this.em.getJdbcAdaptor().getParameterMetaData(statement, this.sql) : statement.getParameterMetaData();
+						}
+
+						sqlType = pmd.getParameterType(index);
 					}
 					catch (final SQLException e) {
 						this.pmdBroken = true;
@@ -568,6 +568,14 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		}
 	}
 
+	private void flushIfNecessary() {
+		// flush if specified
+		if (!this.q.isInternal() && this.em.hasActiveTransaction()
+			&& ((this.flushMode == FlushModeType.AUTO) || (this.em.getFlushMode() == FlushModeType.AUTO))) {
+			this.em.flush();
+		}
+	}
+
 	/**
 	 * Returns the criteria query of the typed query.
 	 * 
@@ -732,11 +740,7 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 	 */
 	@Override
 	public List<X> getResultList() {
-		// flush if specified
-		if (!this.q.isInternal() && this.em.hasActiveTransaction()
-			&& ((this.flushMode == FlushModeType.AUTO) || (this.em.getFlushMode() == FlushModeType.AUTO))) {
-			this.em.flush();
-		}
+		this.flushIfNecessary();
 
 		ManagedInstance.LOCK_CONTEXT.set(this.getLockMode());
 		try {
@@ -752,12 +756,7 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 
 		final Connection connection = this.em.getConnection();
 		try {
-			final LockModeType lockMode = this.getLockMode();
-			final boolean hasLock = (lockMode == LockModeType.PESSIMISTIC_READ) || (lockMode == LockModeType.PESSIMISTIC_WRITE)
-				|| (lockMode == LockModeType.PESSIMISTIC_FORCE_INCREMENT);
-			if (hasLock) {
-				this.sql = this.em.getJdbcAdaptor().applyLock(this.sql, lockMode);
-			}
+			this.applyLock();
 
 			final Object[] parameters = this.applyParameters(connection);
 
@@ -811,25 +810,41 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 
 		this.results = Lists.newArrayList();
 
+		// managed entities are unique by identity within the session, other values are compared by equality
+		final Set<X> distinct;
+		if (cq.isDistinct()) {
+			distinct = selection instanceof AbstractFrom ? Sets.<X> newIdentityHashSet() : Sets.<X> newHashSet();
+		}
+		else {
+			distinct = null;
+		}
+
 		final SessionImpl session = this.em.getSession();
 
 		// process the resultset
-		while (rs.next()) {
-			final X instance = selection.handle(this, session, rs);
-			if (!cq.isDistinct() || !this.results.contains(instance)) {
-				this.results.add(instance);
-			}
+		final ResultIndexes previousIndexes = FetchParentImpl.bindResultIndexes(new ResultIndexes());
+		try {
+			while (rs.next()) {
+				final X instance = selection.handle(this, session, rs);
+				if ((distinct == null) || distinct.add(instance)) {
+					this.results.add(instance);
+				}
 
-			if (debug) {
-				this.storeData(rs);
+				if (debug) {
+					this.storeData(rs);
+				}
 			}
 		}
+		finally {
+			FetchParentImpl.bindResultIndexes(previousIndexes);
+		}
 
-		final LockModeType lockMode = this.getLockMode();
-		if (lockMode != null) {
-			for (int i = 0; i < this.results.size(); i++) {
-				this.em.lock(session.get(this.results.get(i)), lockMode, null);
-			}
+		this.lock(session, this.results);
+
+		// register the owners so that their collections are loaded at once
+		if (!cq.isInternal() && (this.results.size() > 1) && (this.startPosition == 0) && (this.maxResult == Integer.MAX_VALUE)
+			&& (selection instanceof RootImpl) && ((RootImpl<?>) selection).getEntity().hasSubselectFetches()) {
+			this.putSubselectFetch(cq, session);
 		}
 
 		if (debug) {
@@ -848,6 +863,43 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		return this.parameters.containsKey(param);
 	}
 
+	/**
+	 * Locks the entity results as a set with the lock mode of the query.
+	 * <p>
+	 * The scalar results have no managed instance and are skipped.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param results
+	 *            the results
+	 * 
+	 * @since 2.0.1
+	 */
+	void lock(SessionImpl session, List<X> results) {
+		final LockModeType lockMode = this.getLockMode();
+		if (lockMode == null) {
+			return;
+		}
+
+		final MetamodelImpl metamodel = this.em.getMetamodel();
+
+		final List<ManagedInstance<?>> instances = Lists.newArrayList();
+		final Set<ManagedInstance<?>> seen = Sets.newIdentityHashSet();
+		for (int i = 0; i < results.size(); i++) {
+			final X result = results.get(i);
+			if ((result == null) || (!(result instanceof EnhancedInstance) && (metamodel.entity(result.getClass()) == null))) {
+				continue;
+			}
+
+			final ManagedInstance<?> instance = session.get(result);
+			if ((instance != null) && seen.add(instance)) {
+				instances.add(instance);
+			}
+		}
+
+		this.em.lock(instances, lockMode);
+	}
+
 	private int max(int length1, int length2) {
 		return Math.min(QueryImpl.MAX_COL_LENGTH, Math.max(length1, length2));
 	}
@@ -863,12 +915,150 @@ public class QueryImpl<X> implements TypedQuery<X>, Query {
 		}
 	}
 
+	/**
+	 * Prepares the statement and fills in the parameters, expanding the collection parameters.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param parameters
+	 *            the parameters
+	 * @return the statement
+	 * @throws SQLException
+	 *             thrown by the underlying database in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	private PreparedStatement prepareStatement(final Connection connection, final Object[] parameters) throws SQLException {
+		final String _sql = this.sql;
+
+		final Map<Integer, Integer> repeat = Maps.newHashMap();
+
+		int sqlParamNo = 0;
+		for (final Object parameter : parameters) {
+			if (parameter != null) {
+				if (parameter instanceof Collection) {
+					repeat.put(sqlParamNo, ((Collection<?>) parameter).size());
+				}
+				else if (parameter.getClass().isArray()) {
+					repeat.put(sqlParamNo, ((Object[]) parameter).length);
+				}
+			}
+
+			sqlParamNo++;
+		}
+
+		final PreparedStatement statement;
+		if (repeat.size() > 0) {
+			statement = connection.prepareStatement(this.expandParams(_sql, repeat));
+		}
+		else {
+			statement = connection.prepareStatement(_sql);
+		}
+
+		try {
+			this.fillStatement(statement, parameters, repeat);
+		}
+		catch (final SQLException e) {
+			DbUtils.closeQuietly(statement);
+
+			throw e;
+		}
+
+		return statement;
+	}
+
 	private QueryImpl<X> putParam(Parameter<?> param, Object value) {
 		this.parameters.put((ParameterExpressionImpl<?>) param, value);
 
 		return this;
 	}
 
+	/**
+	 * Registers the query as the subselect fetch context of the owners returned.
+	 * 
+	 * @param cq
+	 *            the criteria query
+	 * @param session
+	 *            the session
+	 * 
+	 * @since 2.0.1
+	 */
+	private void putSubselectFetch(CriteriaQueryImpl<X> cq, SessionImpl session) {
+		final String jpql = cq.getSubselectJpql();
+		if (jpql == null) {
+			return;
+		}
+
+		final Map<String, Object> parameters = Maps.newHashMap();
+		for (final Entry<ParameterExpressionImpl<?>, Object> entry : this.parameters.entrySet()) {
+			parameters.put(entry.getKey().getAlias(), entry.getValue());
+		}
+
+		final List<ManagedInstance<?>> owners = Lists.newArrayList();
+		for (int i = 0; i < this.results.size(); i++) {
+			final ManagedInstance<?> owner = session.get(this.results.get(i));
+			if (owner != null) {
+				owners.add(owner);
+			}
+		}
+
+		session.putSubselectFetch(new SubselectFetch(jpql, parameters, owners));
+	}
+
+	/**
+	 * Executes the query and returns a cursor over its results that hydrates the rows as they are consumed.
+	 * <p>
+	 * The rows are fetched, hydrated and locked in windows of the JDBC fetch size. The rows of a root instance with plural fetches must be
+	 * consecutive, that is the query must be ordered by the root, and such a root is returned once. The cursor must be closed after use.
+	 * 
+	 * @param detach
+	 *            true to detach the instances hydrated for a window from the session when the cursor moves past the window
+	 * @return the cursor over the results
+	 * @throws IllegalArgumentException
+	 *             thrown if the query is distinct and the instances are to be detached
+	 * 
+	 * @since 2.0.1
+	 */
+	public ScrollableResults<X> scroll(boolean detach) {
+		// a detached root would be hydrated again as a new instance, defeating distinct
+		if (detach && ((CriteriaQueryImpl<X>) this.q).isDistinct()) {
+			throw new IllegalArgumentException("Distinct queries cannot be scrolled with detach");
+		}
+
+		this.flushIfNecessary();
+
+		final Connection connection = this.em.getConnection();
+
+		this.applyLock();
+
+		final Object[] parameters = this.applyParameters(connection);
+
+		PreparedStatement statement = null;
+		try {
+			statement = this.prepareStatement(connection, parameters);
+
+			int windowSize = BJPASettings.DEFAULT_FETCH_SIZE;
+			if (connection instanceof ConnectionProxy) {
+				statement.setFetchSize(((ConnectionProxy) connection).getJdbcFetchSize());
+
+				windowSize = Math.max(1, ((ConnectionProxy) connection).getJdbcFetchSize());
+			}
+
+			return new ScrollableResultsImpl<X>(this.em, this, (CriteriaQueryImpl<X>) this.q, statement, statement.executeQuery(), detach,
+				windowSize);
+		}
+		catch (final SQLException e) {
+			DbUtils.closeQuietly(statement);
+
+			QueryImpl.LOG.error(e, "Query failed{0}{1}", QueryImpl.LOG.lazyBoxed(this.getJpql(), this.parameters.entrySet().toArray()),
+				QueryImpl.LOG.lazyBoxed(this.sql, parameters));
+
+			this.em.setRollbackOnly();
+
+			throw new PersistenceException("Query failed", e);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.criteria;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.ScrollableResults;
+import org.batoo.jpa.core.impl.criteria.join.FetchParentImpl;
+import org.batoo.jpa.core.impl.criteria.join.FetchParentImpl.ResultIndexes;
+import org.batoo.jpa.core.impl.instance.ManagedId;
+import org.batoo.jpa.core.impl.instance.ManagedInstance;
+import org.batoo.jpa.core.impl.instance.Status;
+import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
+import org.batoo.jpa.core.impl.manager.SessionImpl;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * The cursor over the results of a query that hydrates the rows a window at a time as they are consumed.
+ * 
+ * @param <X>
+ *            the type of the results
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class ScrollableResultsImpl<X> implements ScrollableResults<X> {
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(ScrollableResultsImpl.class);
+
+	private final QueryImpl<X> query;
+	private final EntityManagerImpl em;
+	private final SessionImpl session;
+	private final AbstractSelection<X> selection;
+	private final FetchParentImpl<?, ?> groupRoot;
+	private final LockModeType lockMode;
+	private final int windowSize;
+	private final Set<X> distinct;
+	private final List<ManagedInstance<?>> hydrated;
+
+	private final PreparedStatement statement;
+	private final ResultSet resultSet;
+
+	private boolean onRow;
+	private boolean exhausted;
+	private boolean prefetched;
+	private boolean closed;
+
+	private final ResultIndexes resultIndexes = new ResultIndexes();
+	private final List<X> window = Lists.newArrayList();
+	private int windowPosition;
+
+	private X next;
+
+	/**
+	 * @param entityManager
+	 *            the entity manager
+	 * @param query
+	 *            the query
+	 * @param cq
+	 *            the criteria query
+	 * @param statement
+	 *            the statement
+	 * @param resultSet
+	 *            the result set
+	 * @param detach
+	 *            true to detach the instances hydrated for a window from the session when the cursor moves past the window
+	 * @param windowSize
+	 *            the number of results hydrated and locked at once
+	 * 
+	 * @since 2.0.1
+	 */
+	public ScrollableResultsImpl(EntityManagerImpl entityManager, QueryImpl<X> query, CriteriaQueryImpl<X> cq, PreparedStatement statement,
+		ResultSet resultSet, boolean detach, int windowSize) {
+		super();
+
+		this.query = query;
+		this.em = entityManager;
+		this.session = this.em.getSession();
+		this.selection = cq.getSelection();
+		this.lockMode = query.getLockMode();
+		this.statement = statement;
+		this.resultSet = resultSet;
+		this.windowSize = windowSize;
+
+		// the rows of the roots with plural fetches are grouped into a single result
+		if ((this.selection instanceof RootImpl) && ((RootImpl<?>) this.selection).getFetchRoot().hasPluralFetches()) {
+			this.groupRoot = ((RootImpl<?>) this.selection).getFetchRoot();
+		}
+		else {
+			this.groupRoot = null;
+		}
+
+		// the database returns distinct rows, so only the roots with plural fetches, whose rows may not be consecutive, are de-duplicated.
+		// distinct cannot be combined with detach, so such roots stay managed and are unique by identity
+		this.distinct = cq.isDistinct() && (this.groupRoot != null) ? Sets.<X> newIdentityHashSet() : null;
+
+		if (detach) {
+			this.hydrated = Lists.newArrayList();
+			this.session.addPutTracker(this.hydrated);
+		}
+		else {
+			this.hydrated = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+
+		this.closed = true;
+		this.exhausted = true;
+
+		try {
+			DbUtils.close(this.resultSet);
+		}
+		catch (final SQLException e) {
+			ScrollableResultsImpl.LOG.warn(e, "Unable to close the result set");
+		}
+		finally {
+			DbUtils.closeQuietly(this.statement);
+		}
+
+		if (this.hydrated != null) {
+			this.detachWindow();
+
+			this.session.removePutTracker(this.hydrated);
+		}
+
+		this.em.closeConnectionIfNecessary();
+	}
+
+	/**
+	 * Detaches the instances put into the session since the current window has been fetched, that is the results of the window, their
+	 * associates and the instances lazily loaded while the results have been consumed.
+	 * <p>
+	 * As all the instances are tracked, the detach is not cascaded, which would otherwise load the lazy associations of the instances.
+	 * 
+	 * @since 2.0.1
+	 */
+	private void detachWindow() {
+		for (int i = 0; i < this.hydrated.size(); i++) {
+			final ManagedInstance<?> instance = this.hydrated.get(i);
+
+			// skip the instances that have been detached or replaced in the session meanwhile
+			if (this.session.get(instance.getId()) == instance) {
+				this.session.remove(instance.getInstance());
+
+				instance.setStatus(Status.DETACHED);
+			}
+		}
+
+		this.hydrated.clear();
+	}
+
+	private void fetch() throws SQLException {
+		this.prefetched = true;
+		this.next = null;
+
+		if (this.windowPosition == this.window.size()) {
+			this.fetchWindow();
+		}
+
+		if (this.windowPosition == this.window.size()) {
+			this.close();
+
+			return;
+		}
+
+		this.next = this.window.set(this.windowPosition++, null);
+	}
+
+	/**
+	 * Handles the subsequent rows of the current root so that its plural fetches are complete before it is returned.
+	 * 
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	private void fetchGroup() throws SQLException {
+		final ManagedId<?> id = this.groupRoot.getId(this.session, this.resultSet);
+
+		while (this.resultSet.next()) {
+			if ((id == null) || !id.equals(this.groupRoot.getId(this.session, this.resultSet))) {
+				this.onRow = true;
+
+				return;
+			}
+
+			this.selection.handle(this.query, this.session, this.resultSet);
+		}
+
+		this.exhausted = true;
+	}
+
+	/**
+	 * Hydrates the next window of results and locks them as a set.
+	 * 
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	private void fetchWindow() throws SQLException {
+		this.window.clear();
+		this.windowPosition = 0;
+
+		if (this.hydrated != null) {
+			this.detachWindow();
+		}
+
+		ManagedInstance.LOCK_CONTEXT.set(this.lockMode);
+		final ResultIndexes previousIndexes = FetchParentImpl.bindResultIndexes(this.resultIndexes);
+		this.session.setLoadTracker();
+		try {
+			while (!this.exhausted && (this.window.size() < this.windowSize)) {
+				if (!this.onRow && !this.resultSet.next()) {
+					this.exhausted = true;
+
+					break;
+				}
+
+				final X instance = this.selection.handle(this.query, this.session, this.resultSet);
+				this.onRow = false;
+
+				if (this.groupRoot != null) {
+					this.fetchGroup();
+				}
+
+				if ((this.distinct == null) || this.distinct.add(instance)) {
+					this.window.add(instance);
+				}
+			}
+		}
+		finally {
+			this.session.releaseLoadTracker();
+			FetchParentImpl.bindResultIndexes(previousIndexes);
+			ManagedInstance.LOCK_CONTEXT.set(null);
+		}
+
+		this.query.lock(this.session, this.window);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean hasNext() {
+		if (!this.prefetched) {
+			try {
+				this.fetch();
+			}
+			catch (final SQLException e) {
+				this.close();
+
+				this.em.setRollbackOnly();
+
+				throw new PersistenceException("Query failed", e);
+			}
+		}
+
+		return !this.closed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public X next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		this.prefetched = false;
+
+		return this.next;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
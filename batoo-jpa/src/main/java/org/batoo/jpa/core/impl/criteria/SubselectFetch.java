@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.criteria;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.batoo.jpa.core.impl.criteria.expression.ParameterExpressionImpl;
+import org.batoo.jpa.core.impl.instance.ManagedInstance;
+import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+
+/**
+ * The context of a query whose results have associations with subselect fetch strategy.
+ * <p>
+ * When the association of one of the owners is loaded, the association is loaded for all the owners at once by re-running the
+ * restriction of the original query as a subquery.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SubselectFetch {
+
+	private static final String ALIAS = "subselect_";
+
+	private final String jpql;
+	private final Map<String, Object> parameters;
+	private final List<ManagedInstance<?>> owners;
+
+	/**
+	 * @param jpql
+	 *            the JPQL of the subquery that selects the ids of the owners
+	 * @param parameters
+	 *            the parameter values of the original query keyed by the parameter aliases
+	 * @param owners
+	 *            the owners returned by the original query
+	 * 
+	 * @since 2.0.1
+	 */
+	public SubselectFetch(String jpql, Map<String, Object> parameters, List<ManagedInstance<?>> owners) {
+		super();
+
+		this.jpql = jpql;
+		this.parameters = parameters;
+		this.owners = owners;
+	}
+
+	/**
+	 * Returns the owners returned by the original query.
+	 * 
+	 * @return the owners returned by the original query
+	 * 
+	 * @since 2.0.1
+	 */
+	public List<ManagedInstance<?>> getOwners() {
+		return this.owners;
+	}
+
+	/**
+	 * Returns the children of all the owners.
+	 * <p>
+	 * The child query is built as JPQL, since the parsed query is cached by the entity manager factory only the first fetch of each
+	 * association parses the text.
+	 * 
+	 * @param entityManager
+	 *            the entity manager
+	 * @param type
+	 *            the type of the children
+	 * @param path
+	 *            the path from the child to the id of the owner
+	 * @param <E>
+	 *            the type of the children
+	 * @return the children of all the owners
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> List<E> getResultList(EntityManagerImpl entityManager, EntityTypeImpl<E> type, String path) {
+		final String qlString = "select " + SubselectFetch.ALIAS + " from " + type.getName() + " as " + SubselectFetch.ALIAS //
+			+ " where " + SubselectFetch.ALIAS + "." + path + " in (" + this.jpql + ")";
+
+		final QueryImpl<E> q = (QueryImpl<E>) entityManager.createQuery(qlString, type.getJavaType());
+		((CriteriaQueryImpl<E>) q.getCriteriaQuery()).internal();
+
+		for (final Entry<String, Object> entry : this.parameters.entrySet()) {
+			q.setParameter((ParameterExpressionImpl<Object>) q.getParameter(entry.getKey()), entry.getValue());
+		}
+
+		return q.getResultList();
+	}
+}
@@ -222,10 +222,25 @@ public abstract class AbstractFrom<Z, X> extends ParentPath<Z, X> implements Fro
 	 * @since 2.0.0
 	 */
 	public String generateJpqlJoins(AbstractCriteriaQueryImpl<?> criteriaQuery) {
+		return this.generateJpqlJoins(criteriaQuery, true);
+	}
+
+	/**
+	 * Returns the JPQL joins fragment.
+	 * 
+	 * @param criteriaQuery
+	 *            the criteria query
+	 * @param includeFetches
+	 *            if the fetches should be included
+	 * @return the JPQL joins fragment
+	 * 
+	 * @since 2.0.1
+	 */
+	public String generateJpqlJoins(AbstractCriteriaQueryImpl<?> criteriaQuery, boolean includeFetches) {
 		this.ensureAlias(criteriaQuery);
 
 		final List<String> joins = Lists.newArrayList();
-		if (this.selected) {
+		if (includeFetches && this.selected) {
 			final String fetches = this.fetchRoot.generateJpqlFetches(this.getAlias());
 			if (StringUtils.isNotBlank(fetches)) {
 				joins.add(fetches);
@@ -24,6 +24,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -89,6 +90,75 @@ import com.google.common.collect.Sets;
  */
 public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 
+	/**
+	 * The indexes of the fields resolved against a result set.
+	 * <p>
+	 * The aliases are resolved once per result set so that the rows are read by index rather than looking up the labels for every row.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class FieldIndexes {
+
+		private static int findColumn(ResultSet resultSet, String alias) throws SQLException {
+			return alias != null ? resultSet.findColumn(alias) : 0;
+		}
+
+		private final int[] fields;
+		private final int discriminator;
+		private final int keyColumn;
+
+		private FieldIndexes(ResultSet resultSet, String[] fields, String discriminatorAlias, String keyColumnAlias) throws SQLException {
+			super();
+
+			this.fields = new int[fields.length];
+			for (int i = 0; i < fields.length; i++) {
+				this.fields[i] = resultSet.findColumn(fields[i]);
+			}
+
+			this.discriminator = FieldIndexes.findColumn(resultSet, discriminatorAlias);
+			this.keyColumn = FieldIndexes.findColumn(resultSet, keyColumnAlias);
+		}
+	}
+
+	/**
+	 * The field indexes resolved by a single execution of a query.
+	 * <p>
+	 * The fetch parents are shared by the executions of a cached query, so the indexes are kept by the execution that reads the result
+	 * set and bound to the thread while the rows are handled.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	public static final class ResultIndexes {
+
+		private final IdentityHashMap<FetchParentImpl<?, ?>, FieldIndexes> indexes = Maps.newIdentityHashMap();
+	}
+
+	private static final ThreadLocal<ResultIndexes> RESULT_INDEXES = new ThreadLocal<ResultIndexes>();
+
+	/**
+	 * Binds the field indexes of an execution to the current thread.
+	 * 
+	 * @param resultIndexes
+	 *            the indexes of the execution or <code>null</code> to unbind
+	 * @return the previously bound indexes to restore after the rows are handled
+	 * 
+	 * @since 2.0.1
+	 */
+	public static ResultIndexes bindResultIndexes(ResultIndexes resultIndexes) {
+		final ResultIndexes previous = FetchParentImpl.RESULT_INDEXES.get();
+
+		if (resultIndexes != null) {
+			FetchParentImpl.RESULT_INDEXES.set(resultIndexes);
+		}
+		else {
+			FetchParentImpl.RESULT_INDEXES.remove();
+		}
+
+		return previous;
+	}
+
 	private final EntityTypeImpl<X> entity;
 	private final TypeImpl<X> type;
 	private JoinedMapping<? super Z, ?, X> mapping;
@@ -580,6 +650,21 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 		return this.discriminatorAlias;
 	}
 
+	/**
+	 * Returns the index of the discriminator column in the result set.
+	 * 
+	 * @param row
+	 *            the result set
+	 * @return the index of the discriminator column
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getDiscriminatorIndex(ResultSet row) throws SQLException {
+		return this.getFieldIndexes(row).discriminator;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -601,6 +686,53 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 		return _fetches;
 	}
 
+	/**
+	 * Returns the indexes of the fields resolved against the result set.
+	 * <p>
+	 * The indexes are resolved once for each execution and reused for the subsequent rows. Outside of an execution the indexes are
+	 * resolved for every call.
+	 * 
+	 * @param row
+	 *            the result set
+	 * @return the indexes of the fields
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	private FieldIndexes getFieldIndexes(ResultSet row) throws SQLException {
+		final ResultIndexes resultIndexes = FetchParentImpl.RESULT_INDEXES.get();
+		if (resultIndexes == null) {
+			return new FieldIndexes(row, this.fields, this.discriminatorAlias, this.keyColumnAlias);
+		}
+
+		FieldIndexes fieldIndexes = resultIndexes.indexes.get(this);
+		if (fieldIndexes == null) {
+			fieldIndexes = new FieldIndexes(row, this.fields, this.discriminatorAlias, this.keyColumnAlias);
+
+			resultIndexes.indexes.put(this, fieldIndexes);
+		}
+
+		return fieldIndexes;
+	}
+
+	/**
+	 * Returns the id of the instance in the row.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param row
+	 *            the data row
+	 * @return the id of the instance or null if the id is null
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	public ManagedId<X> getId(SessionImpl session, ResultSet row) throws SQLException {
+		return this.entity.getId(session, row, this.idFields);
+	}
+
 	/**
 	 * Returns the managed instance based on the id.
 	 * 
@@ -651,7 +783,7 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 		}
 		// inheritance is in place then locate the correct child type
 		else {
-			final String discriminatorValue = row.getObject(this.discriminatorAlias).toString();
+			final String discriminatorValue = row.getObject(this.getFieldIndexes(row).discriminator).toString();
 
 			// check if we have a legal discriminator value
 			final EntityTypeImpl<Y> effectiveType = (EntityTypeImpl<Y>) this.entity.getChildType(discriminatorValue);
@@ -848,16 +980,18 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 
 	@SuppressWarnings({ "unchecked" })
 	private X handleElement(ResultSet row) throws SQLException {
+		final int[] indexes = this.getFieldIndexes(row).fields;
+
 		if (this.type.getPersistenceType() == PersistenceType.BASIC) {
 			if (this.type.getJavaType().isEnum() && this.columns.length == 1) {
-				return (X) this.columns[0].convertValueForSet(row.getObject(this.fields[0]));
+				return (X) this.columns[0].convertValueForSet(row.getObject(indexes[0]));
 			}
-			return (X) row.getObject(this.fields[0]);
+			return (X) row.getObject(indexes[0]);
 		}
 
 		final X instance = ((EmbeddableTypeImpl<X>) this.type).newInstance();
-		for (int i = 0; i < this.fields.length; i++) {
-			this.columns[i].setValue(instance, row.getObject(this.fields[i]));
+		for (int i = 0; i < indexes.length; i++) {
+			this.columns[i].setValue(instance, this.columns[i].readValue(row, indexes[i]));
 		}
 
 		return instance;
@@ -913,8 +1047,9 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 				}
 			}
 
-			final Object object = (this.keyColumn != null) ? this.keyColumn.convertValueForSet(row.getObject(this.keyColumnAlias))
-				: row.getObject(this.keyColumnAlias);
+			final int keyIndex = this.getFieldIndexes(row).keyColumn;
+
+			final Object object = (this.keyColumn != null) ? this.keyColumn.convertValueForSet(row.getObject(keyIndex)) : row.getObject(keyIndex);
 			if (selectType == MapSelectType.KEY) {
 				return new EntryImpl<Object, X>(object, null);
 			}
@@ -966,7 +1101,7 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 		}
 
 		if (this.keyColumnAlias != null) {
-			final Object key = row.getObject(this.keyColumnAlias);
+			final Object key = row.getObject(this.getFieldIndexes(row).keyColumn);
 			return new EntryImpl<Object, ManagedInstance<?>>(key, instance);
 		}
 
@@ -991,6 +1126,25 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 		}
 	}
 
+	/**
+	 * Returns if the fetch parent has plural fetches, directly or through its fetches, that yield multiple rows for an instance.
+	 * 
+	 * @return true if the fetch parent has plural fetches, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean hasPluralFetches() {
+		for (final FetchImpl<X, ?> fetch : this.fetches.values()) {
+			final MappingType mappingType = fetch.getMapping().getMappingType();
+
+			if ((mappingType == MappingType.PLURAL_ASSOCIATION) || (mappingType == MappingType.ELEMENT_COLLECTION) || fetch.hasPluralFetches()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	/**
 	 * Returns if the join should be ignored
 	 * 
@@ -1021,8 +1175,9 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 
 		final X instance = managedInstance.getInstance();
 
-		for (int i = 0; i < this.fields.length; i++) {
-			this.columns[i].setValue(instance, row.getObject(this.fields[i]));
+		final int[] indexes = this.getFieldIndexes(row).fields;
+		for (int i = 0; i < indexes.length; i++) {
+			this.columns[i].setValue(instance, this.columns[i].readValue(row, indexes[i]));
 		}
 
 		// initializing the singular joins
@@ -1036,7 +1191,7 @@ public class FetchParentImpl<Z, X> implements FetchParent<Z, X>, Joinable {
 			}
 			else {
 				final FetchImpl<X, ?> fetchImpl = this.fetches.get(_mapping);
-				final String discriminatorValue = row.getObject(fetchImpl.getDiscriminatorAlias()).toString();
+				final String discriminatorValue = row.getObject(fetchImpl.getDiscriminatorIndex(row)).toString();
 
 				// check if we have a legal discriminator value
 				effectiveType = _type.getChildType(discriminatorValue);
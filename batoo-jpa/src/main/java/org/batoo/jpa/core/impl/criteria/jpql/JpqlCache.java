@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.criteria.jpql;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Bounded cache of the compiled JPQL queries.
+ * <p>
+ * The cache is split into segments each guarded by its own lock so that the concurrent lookups of different queries do not contend. Each
+ * segment evicts in constant time according to the {@link Policy}.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class JpqlCache {
+
+	/**
+	 * The eviction policy of the cache.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	public enum Policy {
+
+		/**
+		 * The least recently used query is evicted.
+		 */
+		LRU,
+
+		/**
+		 * The least frequently used query is evicted, ties are broken by the least recently used.
+		 */
+		LFU
+	}
+
+	private static abstract class Segment {
+
+		protected final int capacity;
+
+		public Segment(int capacity) {
+			super();
+
+			this.capacity = capacity;
+		}
+
+		public abstract JpqlQuery get(String qlString);
+
+		public abstract boolean put(String qlString, JpqlQuery jpqlQuery);
+
+		public abstract int size();
+	}
+
+	private static class LfuSegment extends Segment {
+
+		private final HashMap<String, LfuEntry> entries = Maps.newHashMap();
+		private final HashMap<Integer, LinkedHashSet<String>> frequencies = Maps.newHashMap();
+		private int minFrequency;
+
+		public LfuSegment(int capacity) {
+			super(capacity);
+		}
+
+		private void add(String qlString, int frequency) {
+			LinkedHashSet<String> keys = this.frequencies.get(frequency);
+			if (keys == null) {
+				keys = Sets.newLinkedHashSet();
+				this.frequencies.put(frequency, keys);
+			}
+
+			keys.add(qlString);
+		}
+
+		@Override
+		public JpqlQuery get(String qlString) {
+			final LfuEntry entry = this.entries.get(qlString);
+			if (entry == null) {
+				return null;
+			}
+
+			final LinkedHashSet<String> keys = this.frequencies.get(entry.frequency);
+			keys.remove(qlString);
+
+			if (keys.isEmpty()) {
+				this.frequencies.remove(entry.frequency);
+
+				if (this.minFrequency == entry.frequency) {
+					this.minFrequency++;
+				}
+			}
+
+			entry.frequency++;
+			this.add(qlString, entry.frequency);
+
+			return entry.jpqlQuery;
+		}
+
+		@Override
+		public boolean put(String qlString, JpqlQuery jpqlQuery) {
+			boolean evicted = false;
+
+			if (this.entries.size() >= this.capacity) {
+				final LinkedHashSet<String> keys = this.frequencies.get(this.minFrequency);
+				final Iterator<String> i = keys.iterator();
+
+				this.entries.remove(i.next());
+				i.remove();
+
+				if (keys.isEmpty()) {
+					this.frequencies.remove(this.minFrequency);
+				}
+
+				evicted = true;
+			}
+
+			this.entries.put(qlString, new LfuEntry(jpqlQuery));
+			this.add(qlString, 1);
+			this.minFrequency = 1;
+
+			return evicted;
+		}
+
+		@Override
+		public int size() {
+			return this.entries.size();
+		}
+	}
+
+	private static class LfuEntry {
+
+		private final JpqlQuery jpqlQuery;
+		private int frequency = 1;
+
+		public LfuEntry(JpqlQuery jpqlQuery) {
+			super();
+
+			this.jpqlQuery = jpqlQuery;
+		}
+	}
+
+	private static class LruSegment extends Segment {
+
+		private final LinkedHashMap<String, JpqlQuery> entries = new LinkedHashMap<String, JpqlQuery>(16, 0.75f, true);
+
+		public LruSegment(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public JpqlQuery get(String qlString) {
+			return this.entries.get(qlString);
+		}
+
+		@Override
+		public boolean put(String qlString, JpqlQuery jpqlQuery) {
+			boolean evicted = false;
+
+			if (this.entries.size() >= this.capacity) {
+				final Iterator<Map.Entry<String, JpqlQuery>> i = this.entries.entrySet().iterator();
+
+				i.next();
+				i.remove();
+
+				evicted = true;
+			}
+
+			this.entries.put(qlString, jpqlQuery);
+
+			return evicted;
+		}
+
+		@Override
+		public int size() {
+			return this.entries.size();
+		}
+	}
+
+	private static final int MAX_SEGMENTS = 16;
+	private static final int MIN_SEGMENT_CAPACITY = 64;
+
+	private final Policy policy;
+	private final int capacity;
+	private final Segment[] segments;
+	private final int mask;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * @param capacity
+	 *            the max number of queries cached, <code>0</code> disables the cache
+	 * @param policy
+	 *            the eviction policy
+	 * 
+	 * @since 2.0.1
+	 */
+	public JpqlCache(int capacity, Policy policy) {
+		super();
+
+		this.capacity = Math.max(0, capacity);
+		this.policy = policy;
+
+		// small caches are not split so that the eviction order stays close to the global order
+		int noSegments = 1;
+		while (((noSegments << 1) <= JpqlCache.MAX_SEGMENTS) && (((noSegments << 1) * JpqlCache.MIN_SEGMENT_CAPACITY) <= this.capacity)) {
+			noSegments <<= 1;
+		}
+
+		this.mask = noSegments - 1;
+		this.segments = new Segment[noSegments];
+
+		for (int i = 0; i < noSegments; i++) {
+			// distribute the remainder so that the segments add up to the capacity
+			final int segmentCapacity = (this.capacity / noSegments) + (i < (this.capacity % noSegments) ? 1 : 0);
+
+			this.segments[i] = policy == Policy.LFU ? new LfuSegment(segmentCapacity) : new LruSegment(segmentCapacity);
+		}
+	}
+
+	/**
+	 * Returns the cached query for the JPQL query string.
+	 * 
+	 * @param qlString
+	 *            the JPQL query string
+	 * @return the cached query or <code>null</code> if the query is not cached
+	 * 
+	 * @since 2.0.1
+	 */
+	public JpqlQuery get(String qlString) {
+		final Segment segment = this.getSegment(qlString);
+
+		final JpqlQuery jpqlQuery;
+		synchronized (segment) {
+			jpqlQuery = segment.get(qlString);
+		}
+
+		if (jpqlQuery != null) {
+			this.hits.incrementAndGet();
+		}
+		else {
+			this.misses.incrementAndGet();
+		}
+
+		return jpqlQuery;
+	}
+
+	/**
+	 * Returns the max number of queries cached.
+	 * 
+	 * @return the max number of queries cached
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Returns the number of queries evicted.
+	 * 
+	 * @return the number of queries evicted
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getEvictions() {
+		return this.evictions.get();
+	}
+
+	/**
+	 * Returns the number of lookups that found the query in the cache.
+	 * 
+	 * @return the number of hits
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getHits() {
+		return this.hits.get();
+	}
+
+	/**
+	 * Returns the number of lookups that did not find the query in the cache.
+	 * 
+	 * @return the number of misses
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getMisses() {
+		return this.misses.get();
+	}
+
+	/**
+	 * Returns the eviction policy of the cache.
+	 * 
+	 * @return the eviction policy of the cache
+	 * 
+	 * @since 2.0.1
+	 */
+	public Policy getPolicy() {
+		return this.policy;
+	}
+
+	private Segment getSegment(String qlString) {
+		// spread the hash so that the low bits selecting the segment are well distributed
+		int h = qlString.hashCode();
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+
+		return this.segments[h & this.mask];
+	}
+
+	/**
+	 * Caches the query unless the query string is already cached.
+	 * 
+	 * @param qlString
+	 *            the JPQL query string
+	 * @param jpqlQuery
+	 *            the compiled query
+	 * @return the query that is cached for the query string
+	 * 
+	 * @since 2.0.1
+	 */
+	public JpqlQuery putIfAbsent(String qlString, JpqlQuery jpqlQuery) {
+		final Segment segment = this.getSegment(qlString);
+
+		synchronized (segment) {
+			if (segment.capacity == 0) {
+				return jpqlQuery;
+			}
+
+			final JpqlQuery existing = segment.get(qlString);
+			if (existing != null) {
+				return existing;
+			}
+
+			if (segment.put(qlString, jpqlQuery)) {
+				this.evictions.incrementAndGet();
+			}
+		}
+
+		return jpqlQuery;
+	}
+
+	/**
+	 * Returns the number of queries cached.
+	 * 
+	 * @return the number of queries cached
+	 * 
+	 * @since 2.0.1
+	 */
+	public int size() {
+		int size = 0;
+
+		for (final Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "JPQL " + this.policy + " | size:" + this.size() + " hits:" + this.getHits() + " misses:" + this.getMisses() + " evictions:"
+			+ this.getEvictions();
+	}
+}
@@ -120,7 +120,6 @@ public class JpqlQuery {
 	private HashMap<String, Object> hints;
 
 	private LockModeType lockMode;
-	private long lastUsed;
 
 	/**
 	 * Constructor for named queries.
@@ -136,8 +135,6 @@ public class JpqlQuery {
 	public JpqlQuery(EntityManagerFactoryImpl entityManagerFactory, CriteriaBuilderImpl cb, NamedQueryMetadata metadata) {
 		this(entityManagerFactory, metadata.getQuery(), cb);
 
-		this.lastUsed = Long.MAX_VALUE;
-
 		// force sql compilation
 		this.q.getSql();
 
@@ -168,8 +165,6 @@ public class JpqlQuery {
 		this.metamodel = entityManagerFactory.getMetamodel();
 		this.qlString = qlString;
 
-		this.lastUsed = System.currentTimeMillis();
-
 		if (cb == null) {
 			cb = entityManagerFactory.getCriteriaBuilder();
 		}
@@ -800,10 +795,6 @@ public class JpqlQuery {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T> QueryImpl<T> createTypedQuery(EntityManagerImpl entityManager) {
-		if (this.lastUsed != Long.MAX_VALUE) {
-			this.lastUsed = System.currentTimeMillis();
-		}
-
 		final QueryImpl<T> typedQuery = new QueryImpl<T>((BaseQuery<T>) this.q, entityManager);
 
 		if (this.lockMode != LockModeType.NONE) {
@@ -1567,17 +1558,6 @@ public class JpqlQuery {
 			+ exprDef.getCharPositionInLine());
 	}
 
-	/**
-	 * Returns the time query last used.
-	 * 
-	 * @return the the time query last used
-	 * 
-	 * @since 2.0.0
-	 */
-	public long getLastUsed() {
-		return this.lastUsed;
-	}
-
 	/**
 	 * Returns the query.
 	 * 
@@ -71,6 +71,10 @@ public class DdlManager extends DeploymentManager<EntityTypeImpl<?>> {
 	 * @since 2.0.0
 	 */
 	public static void perform(DataSource datasource, MetamodelImpl metamodel, DDLMode ddlMode) throws BatooException {
+		if (ddlMode != DDLMode.NONE) {
+			metamodel.loadTableMetadata(datasource);
+		}
+
 		new DdlManager(datasource, metamodel, ddlMode, DdlPhase.TABLES).perform();
 		new DdlManager(datasource, metamodel, ddlMode, DdlPhase.FOREIGN_KEYS).perform();
 	}
@@ -20,15 +20,12 @@
 package org.batoo.jpa.core.impl.deployment;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -36,19 +33,20 @@ import javax.persistence.metamodel.ManagedType;
 
 import org.batoo.common.BatooException;
 import org.batoo.common.log.BLogger;
-import org.batoo.jpa.core.impl.model.MetamodelImpl;
-import org.batoo.jpa.core.impl.model.TypeImpl;
 import org.batoo.common.util.IncrementalNamingThreadFactory;
+import org.batoo.jpa.core.impl.model.EmbeddableTypeImpl;
+import org.batoo.jpa.core.impl.model.MappedSuperclassTypeImpl;
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
 import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
 
-import com.google.common.base.Function;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import com.google.common.collect.Maps;
 
 /**
  * Abstract base class for Deployment Managers.
  * <p>
- * Facilitates a unique exception handling and thread management.
+ * Facilitates a unique exception handling and thread management. The deployment units are run on an executor shared by all the deployment
+ * managers. A unit is submitted only after the units it depends on have performed, so that no worker thread waits for another unit.
  * 
  * @param <X>
  *            the base type for the operation
@@ -86,93 +84,40 @@ public abstract class DeploymentManager<X> {
 		NAMED_QUERIES
 	}
 
-	private static class DeploymentUnitFuture extends FutureTask<Void> implements Comparable<DeploymentUnitFuture> {
-
-		private final DeploymentUnitTask task;
+	private static final ThreadPoolExecutor EXECUTOR;
 
-		/**
-		 * @param task
-		 *            the deployment unit task.
-		 * 
-		 * @since 2.0.0
-		 */
-		public DeploymentUnitFuture(DeploymentUnitTask task) {
-			super(task);
-
-			this.task = task;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 * 
-		 */
-		@Override
-		public int compareTo(DeploymentUnitFuture o) {
-			return this.task.compareTo(o.task);
-		}
+	static {
+		final int nThreads = Runtime.getRuntime().availableProcessors();
+		final ThreadFactory threadFactory = new IncrementalNamingThreadFactory("Deployment Manager");
 
-		/**
-		 * {@inheritDoc}
-		 * 
-		 */
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj) {
-				return true;
-			}
+		EXECUTOR = new ThreadPoolExecutor(nThreads, nThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
 
-			if (obj == null) {
-				return false;
-			}
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = threadFactory.newThread(r);
+				thread.setDaemon(true);
 
-			if (this.getClass() != obj.getClass()) {
-				return false;
+				return thread;
 			}
+		});
 
-			final DeploymentUnitFuture other = (DeploymentUnitFuture) obj;
-			if (this.task == null) {
-				if (other.task != null) {
-					return false;
-				}
-			}
-			else if (!this.task.equals(other.task)) {
-				return false;
-			}
-
-			return true;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 * 
-		 */
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = (prime * result) + ((this.task == null) ? 0 : this.task.hashCode());
-			return result;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 * 
-		 */
-		@Override
-		public String toString() {
-			return "DeploymentUnitFuture [task=" + this.task + "]";
-		}
+		// do not keep idle threads around once the deployments are over
+		DeploymentManager.EXECUTOR.allowCoreThreadTimeOut(true);
 	}
 
 	private final BLogger log;
+	private final String name;
 	private final MetamodelImpl metamodel;
 	private final List<ManagedType<?>> types = Lists.newArrayList();
 	private final Collection<NamedQueryMetadata> namedQueries = Lists.newArrayList();
 
-	private final Set<TypeImpl<?>> performed = Collections.synchronizedSet(Sets.<TypeImpl<?>> newHashSet());
-	private final ThreadPoolExecutor executer;
 	private final Context context;
 
+	private final Object lock = new Object();
+	private int remaining;
+	private volatile Throwable failure;
+	private ClassLoader classLoader;
+
 	/**
 	 * @param log
 	 *            the log to use
@@ -185,11 +130,11 @@ public abstract class DeploymentManager<X> {
 	 *            the context for the operation
 	 * @since 2.0.0
 	 */
-	@SuppressWarnings({ "unchecked" })
 	public DeploymentManager(BLogger log, String name, MetamodelImpl metamodel, Context context) {
 		super();
 
 		this.log = log;
+		this.name = name;
 		this.metamodel = metamodel;
 		this.context = context;
 
@@ -206,18 +151,171 @@ public abstract class DeploymentManager<X> {
 			case NAMED_QUERIES:
 				this.namedQueries.addAll(this.metamodel.getNamedQueries());
 		}
+	}
+
+	/**
+	 * Checks that all the tasks are eventually released by the tasks that have no dependencies, otherwise the deployment would wait
+	 * forever for the tasks that are in or depend on a cycle.
+	 * 
+	 * @param tasks
+	 *            all the tasks
+	 * @param roots
+	 *            the tasks that have no dependencies
+	 * @throws BatooException
+	 *             thrown if some of the tasks have circular dependencies
+	 * 
+	 * @since 2.0.1
+	 */
+	private void checkDependencies(Collection<DeploymentUnitTask> tasks, List<DeploymentUnitTask> roots) throws BatooException {
+		final Map<DeploymentUnitTask, Integer> pending = Maps.newHashMap();
+		for (final DeploymentUnitTask task : tasks) {
+			for (final DeploymentUnitTask dependent : task.getDependents()) {
+				final Integer count = pending.get(dependent);
+				pending.put(dependent, count == null ? 1 : count + 1);
+			}
+		}
 
-		final int nThreads = Runtime.getRuntime().availableProcessors() * 2;
-		this.executer = new ThreadPoolExecutor(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
-			new IncrementalNamingThreadFactory(name)) {
+		final LinkedList<DeploymentUnitTask> released = Lists.newLinkedList(roots);
+		while (!released.isEmpty()) {
+			for (final DeploymentUnitTask dependent : released.removeFirst().getDependents()) {
+				final int count = pending.get(dependent) - 1;
+				if (count == 0) {
+					pending.remove(dependent);
+					released.add(dependent);
+				}
+				else {
+					pending.put(dependent, count);
+				}
+			}
+		}
 
-			@Override
-			protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
-				return (RunnableFuture<T>) new DeploymentUnitFuture((DeploymentUnitTask) callable);
+		if (!pending.isEmpty()) {
+			final List<Object> units = Lists.newArrayList();
+			for (final DeploymentUnitTask task : pending.keySet()) {
+				units.add(task.getUnit());
+			}
+
+			throw new BatooException("Circular dependency among the types: " + units);
+		}
+	}
+
+	/**
+	 * Called when the task has completed successfully, submits the dependent tasks that have no more dependencies.
+	 * 
+	 * @param task
+	 *            the task completed
+	 * 
+	 * @since 2.0.1
+	 */
+	void completed(DeploymentUnitTask task) {
+		for (final DeploymentUnitTask dependent : task.getDependents()) {
+			if (dependent.dependencyPerformed() && (this.failure == null)) {
+				DeploymentManager.EXECUTOR.execute(dependent);
+			}
+		}
+
+		synchronized (this.lock) {
+			if (--this.remaining == 0) {
+				this.lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Creates the tasks and links them to the tasks they depend on.
+	 * 
+	 * @return the tasks that have no dependencies, in the order to submit
+	 * @throws BatooException
+	 *             thrown if some of the tasks have circular dependencies
+	 * 
+	 * @since 2.0.1
+	 */
+	private List<DeploymentUnitTask> createTasks() throws BatooException {
+		if (this.context == Context.NAMED_QUERIES) {
+			final List<DeploymentUnitTask> tasks = Lists.newArrayList();
+
+			for (final NamedQueryMetadata query : this.namedQueries) {
+				tasks.add(new DeploymentUnitTask(this, query));
+			}
+
+			this.remaining = tasks.size();
+
+			return tasks;
+		}
+
+		final Map<Object, DeploymentUnitTask> tasks = Maps.newHashMap();
+		for (final ManagedType<?> type : this.types) {
+			tasks.put(type, new DeploymentUnitTask(this, type));
+		}
+
+		// the dependencies outside of the types of this manager are considered as performed
+		for (final DeploymentUnitTask task : tasks.values()) {
+			for (final Object dependency : task.getDependencies()) {
+				final DeploymentUnitTask dependencyTask = tasks.get(dependency);
+				if ((dependencyTask != null) && (dependencyTask != task)) {
+					dependencyTask.addDependent(task);
+				}
+			}
+		}
+
+		// submit the embeddables and the mapped superclasses first
+		final List<DeploymentUnitTask> embeddables = Lists.newArrayList();
+		final List<DeploymentUnitTask> mappedSuperclasses = Lists.newArrayList();
+		final List<DeploymentUnitTask> others = Lists.newArrayList();
+
+		for (final DeploymentUnitTask task : tasks.values()) {
+			if (task.hasDependencies()) {
+				continue;
+			}
+
+			if (task.getUnit() instanceof EmbeddableTypeImpl) {
+				embeddables.add(task);
+			}
+			else if (task.getUnit() instanceof MappedSuperclassTypeImpl) {
+				mappedSuperclasses.add(task);
+			}
+			else {
+				others.add(task);
 			}
-		};
+		}
+
+		embeddables.addAll(mappedSuperclasses);
+		embeddables.addAll(others);
+
+		this.checkDependencies(tasks.values(), embeddables);
+
+		this.remaining = tasks.size();
 
-		this.log.debug("Number of threads is {0}", nThreads);
+		return embeddables;
+	}
+
+	/**
+	 * Called when a task has failed, wakes up the deploying thread.
+	 * 
+	 * @param t
+	 *            the failure
+	 * 
+	 * @since 2.0.1
+	 */
+	void failed(Throwable t) {
+		synchronized (this.lock) {
+			if (this.failure == null) {
+				this.failure = t;
+			}
+
+			this.lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Returns the context class loader of the deploying thread.
+	 * 
+	 * @return the context class loader of the deploying thread
+	 * 
+	 * @since 2.0.1
+	 */
+	ClassLoader getClassLoader() {
+		return this.classLoader;
 	}
 
 	/**
@@ -251,27 +349,6 @@ public abstract class DeploymentManager<X> {
 		this.handleException(t.getCause());
 	}
 
-	/**
-	 * Returns if the type has performed.
-	 * 
-	 * @param type
-	 *            the type
-	 * @return true if the type has performed
-	 * 
-	 * @since 2.0.0
-	 */
-	public boolean hasPerformed(TypeImpl<?> type) {
-		if (type == null) {
-			return true;
-		}
-
-		if (!this.types.contains(type)) {
-			return true;
-		}
-
-		return this.performed.contains(type);
-	}
-
 	/**
 	 * Performs the deployment unit for all the types.
 	 * 
@@ -281,65 +358,34 @@ public abstract class DeploymentManager<X> {
 	protected final void perform() throws BatooException {
 		final long start = System.currentTimeMillis();
 
-		// Submit the tasks
-		final List<Future<?>> futures = Lists.newArrayList();
+		this.classLoader = Thread.currentThread().getContextClassLoader();
 
-		if (this.context == Context.NAMED_QUERIES) {
-			for (final NamedQueryMetadata query : this.namedQueries) {
-				futures.add(this.executer.submit(new DeploymentUnitTask(this, query)));
-			}
+		final List<DeploymentUnitTask> tasks = this.createTasks();
+
+		// Submit the tasks that have no dependencies, the rest is submitted as their dependencies complete
+		for (final DeploymentUnitTask task : tasks) {
+			DeploymentManager.EXECUTOR.execute(task);
 		}
-		else {
-			final List<DeploymentUnitTask> unSortedTasks = Lists.newArrayList(Lists.transform(this.types, new Function<ManagedType<?>, DeploymentUnitTask>() {
 
-				@Override
-				public DeploymentUnitTask apply(ManagedType<?> type) {
-					return new DeploymentUnitTask(DeploymentManager.this, type);
+		// wait until tasks finish or one bails out with an exception
+		synchronized (this.lock) {
+			while ((this.remaining > 0) && (this.failure == null)) {
+				try {
+					this.lock.wait();
 				}
-			}));
-
-			final List<DeploymentUnitTask> sortedTasks = Lists.newArrayList();
-
-			while (unSortedTasks.size() > 0) {
-				for (final Iterator<DeploymentUnitTask> i = unSortedTasks.iterator(); i.hasNext();) {
-					final DeploymentUnitTask task = i.next();
+				catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
 
-					boolean hasDependency = false;
-					for (final DeploymentUnitTask other : unSortedTasks) {
-						if (task.compareTo(other) > 0) {
-							hasDependency = true;
-							break;
-						}
-					}
-
-					if (!hasDependency) {
-						i.remove();
-						sortedTasks.add(task);
-
-						break;
-					}
+					throw new BatooException("Interrupted while waiting for the deployment", e);
 				}
 			}
-
-			for (final DeploymentUnitTask task : sortedTasks) {
-				futures.add(this.executer.submit(task));
-			}
 		}
 
-		// wait until tasks finish or one bails out with an exception
-		try {
-			for (final Future<?> future : futures) {
-				future.get();
-			}
-		}
-		catch (final Exception t) {
-			this.handleException(t);
-		}
-		finally {
-			this.executer.shutdownNow();
+		if (this.failure != null) {
+			this.handleException(new ExecutionException(this.failure));
 		}
 
-		this.log.debug("Deployment pass took {0} msecs", System.currentTimeMillis() - start);
+		this.log.debug("{0} pass took {1} msecs", this.name, System.currentTimeMillis() - start);
 	}
 
 	/**
@@ -354,18 +400,4 @@ public abstract class DeploymentManager<X> {
 	 * @since 2.0.0
 	 */
 	public abstract Void perform(X type) throws BatooException;
-
-	/**
-	 * Marks the type as performed.
-	 * 
-	 * @param type
-	 *            the type to mark
-	 * 
-	 * @since 2.0.0
-	 */
-	public void performed(X type) {
-		if (!(type instanceof NamedQueryMetadata)) {
-			this.performed.add((TypeImpl<?>) type);
-		}
-	}
 }
@@ -16,36 +16,38 @@
  * 51 Franklin Street, Fifth Floor
  * Boston, MA  02110-1301  USA
  */
-
 package org.batoo.jpa.core.impl.deployment;
 
-import java.util.concurrent.Callable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.persistence.metamodel.ManagedType;
 import javax.persistence.metamodel.SingularAttribute;
 
-import org.batoo.jpa.core.impl.model.EmbeddableTypeImpl;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.IdentifiableTypeImpl;
-import org.batoo.jpa.core.impl.model.MappedSuperclassTypeImpl;
 import org.batoo.jpa.core.impl.model.attribute.AssociatedSingularAttribute;
-import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
+
+import com.google.common.collect.Lists;
 
 /**
  * Implementation for deployment unit tasks.
  * <p>
- * Implements common behavior like ordering and waiting for the super type to perform first.
+ * The task is scheduled by the {@link DeploymentManager} once all the units it depends on, that is the super type and the types referred by
+ * the id class, have performed. Upon completion the task releases the tasks that depend on it.
  * 
  * @author hceylan
  * @since 2.0.0
  */
-public final class DeploymentUnitTask implements Callable<Void>, Comparable<DeploymentUnitTask> {
+public final class DeploymentUnitTask implements Runnable {
 
 	private final Object unit;
 
 	@SuppressWarnings("rawtypes")
 	private final DeploymentManager manager;
 
+	private final List<DeploymentUnitTask> dependents = Lists.newArrayList();
+	private final AtomicInteger dependencies = new AtomicInteger();
+
 	/**
 	 * @param manager
 	 *            the deployment unit manager
@@ -62,69 +64,28 @@ public final class DeploymentUnitTask implements Callable<Void>, Comparable<Depl
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Registers the task as dependent to this task.
 	 * 
+	 * @param dependent
+	 *            the dependent task
+	 * 
+	 * @since 2.0.1
 	 */
-	@Override
-	@SuppressWarnings({ "unchecked" })
-	public final Void call() throws Exception {
-		this.waitForSuper();
-		this.waitforIdDependency();
+	void addDependent(DeploymentUnitTask dependent) {
+		this.dependents.add(dependent);
 
-		try {
-			return this.manager.perform(this.unit);
-		}
-		finally {
-			this.manager.performed(this.unit);
-		}
+		dependent.dependencies.incrementAndGet();
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Marks one of the dependencies of the task as performed.
+	 * 
+	 * @return true if all the dependencies of the task have performed
 	 * 
+	 * @since 2.0.1
 	 */
-	@Override
-	public int compareTo(DeploymentUnitTask o) {
-		// named queries has no precedence
-		if (this.unit instanceof NamedQueryMetadata) {
-			return 0;
-		}
-
-		final ManagedType<?> thisUnit = (ManagedType<?>) this.unit;
-		final ManagedType<?> otherUnit = (ManagedType<?>) o.unit;
-
-		// if this type is Embeddable and the other type is not then perform this earlier
-		if ((thisUnit instanceof EmbeddableTypeImpl) && (!(otherUnit instanceof EmbeddableTypeImpl))) {
-			return -1;
-		}
-
-		// if the other type is Embeddable and this type is not then perform the other earlier
-		if ((otherUnit instanceof EmbeddableTypeImpl) && (!(thisUnit instanceof EmbeddableTypeImpl))) {
-			return 1;
-		}
-
-		// if this type is a MappedSuperClass and the other type is not then perform this earlier
-		if ((thisUnit instanceof MappedSuperclassTypeImpl) && (!(otherUnit instanceof MappedSuperclassTypeImpl))) {
-			return -1;
-		}
-
-		// if the other type is a MappedSuperClass and this type is not then perform this later
-		if ((otherUnit instanceof MappedSuperclassTypeImpl) && (!(thisUnit instanceof MappedSuperclassTypeImpl))) {
-			return 1;
-		}
-
-		// if this type is super type of other type then perform this earlier
-		if (thisUnit.getJavaType().isAssignableFrom(otherUnit.getJavaType())) {
-			return -1;
-		}
-
-		// if the other type is super type of this type then perform other earlier
-		if (otherUnit.getJavaType().isAssignableFrom(thisUnit.getJavaType())) {
-			return 1;
-		}
-
-		// No precedence
-		return 0;
+	boolean dependencyPerformed() {
+		return this.dependencies.decrementAndGet() == 0;
 	}
 
 	/**
@@ -158,6 +119,73 @@ public final class DeploymentUnitTask implements Callable<Void>, Comparable<Depl
 		return true;
 	}
 
+	/**
+	 * Returns the units the unit of the task depends on, that is the super type and the types referred by the id class.
+	 * 
+	 * @param <X>
+	 *            the type of the entity
+	 * @return the units the unit of the task depends on
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	<X> List<Object> getDependencies() {
+		final List<Object> dependencies = Lists.newArrayList();
+
+		if (this.unit instanceof IdentifiableTypeImpl) {
+			final IdentifiableTypeImpl<?> supertype = ((IdentifiableTypeImpl<?>) this.unit).getSupertype();
+			if (supertype != null) {
+				dependencies.add(supertype);
+			}
+		}
+
+		if (this.unit instanceof EntityTypeImpl) {
+			final EntityTypeImpl<X> entity = (EntityTypeImpl<X>) this.unit;
+			if (!entity.hasSingleIdAttribute()) {
+				for (final SingularAttribute<? super X, ?> idAttribute : entity.getIdClassAttributes()) {
+					if (idAttribute instanceof AssociatedSingularAttribute) {
+						dependencies.add(((AssociatedSingularAttribute<? super X, ?>) idAttribute).getType());
+					}
+				}
+			}
+		}
+
+		return dependencies;
+	}
+
+	/**
+	 * Returns the tasks that depend on this task.
+	 * 
+	 * @return the tasks that depend on this task
+	 * 
+	 * @since 2.0.1
+	 */
+	List<DeploymentUnitTask> getDependents() {
+		return this.dependents;
+	}
+
+	/**
+	 * Returns the unit of the task.
+	 * 
+	 * @return the unit of the task
+	 * 
+	 * @since 2.0.1
+	 */
+	Object getUnit() {
+		return this.unit;
+	}
+
+	/**
+	 * Returns if the task has dependencies that have not performed yet.
+	 * 
+	 * @return true if the task has dependencies that have not performed yet, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	boolean hasDependencies() {
+		return this.dependencies.get() > 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -177,37 +205,32 @@ public final class DeploymentUnitTask implements Callable<Void>, Comparable<Depl
 	 * 
 	 */
 	@Override
-	public String toString() {
-		return "DeploymentUnitTask [unit=" + this.unit + "]";
-	}
+	@SuppressWarnings({ "unchecked" })
+	public void run() {
+		// the worker threads are shared, run with the class loader of the deploying thread
+		final Thread thread = Thread.currentThread();
+		final ClassLoader oldClassLoader = thread.getContextClassLoader();
+		thread.setContextClassLoader(this.manager.getClassLoader());
 
-	@SuppressWarnings("unchecked")
-	private <X> void waitforIdDependency() throws InterruptedException {
-		if (this.unit instanceof EntityTypeImpl) {
-			final EntityTypeImpl<X> entity = (EntityTypeImpl<X>) this.unit;
-			if (!entity.hasSingleIdAttribute()) {
-				for (final SingularAttribute<? super X, ?> idAttribute : entity.getIdClassAttributes()) {
-					if (idAttribute instanceof AssociatedSingularAttribute) {
-						final EntityTypeImpl<?> type = ((AssociatedSingularAttribute<? super X, ?>) idAttribute).getType();
+		try {
+			this.manager.perform(this.unit);
 
-						while (!this.manager.hasPerformed(type)) {
-							Thread.sleep(10);
-						}
-					}
-				}
-			}
+			this.manager.completed(this);
+		}
+		catch (final Throwable e) {
+			this.manager.failed(e);
+		}
+		finally {
+			thread.setContextClassLoader(oldClassLoader);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private void waitForSuper() throws InterruptedException {
-		if (this.unit instanceof IdentifiableTypeImpl) {
-			final IdentifiableTypeImpl<?> supertype = ((IdentifiableTypeImpl<?>) this.unit).getSupertype();
-
-			// if the super type hasn't performed yet, then wait for to finish
-			while (!this.manager.hasPerformed(supertype)) {
-				Thread.sleep(10);
-			}
-		}
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return "DeploymentUnitTask [unit=" + this.unit + "]";
 	}
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.instance;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.batoo.jpa.core.impl.model.mapping.SingularAssociationMappingImpl;
+
+/**
+ * A foreign key of a managed instance that is written separately to resolve a circular dependency.
+ * <p>
+ * While the instance is flushed the association is cleared so that the row is written with a <code>null</code> foreign key, then the
+ * association is restored and the foreign key is written with {@link #perform(Connection)}.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class DeferredAssociation {
+
+	private final ManagedInstance<?> instance;
+	private final SingularAssociationMappingImpl<?, ?> mapping;
+	private final Object value;
+
+	/**
+	 * @param instance
+	 *            the owner managed instance
+	 * @param mapping
+	 *            the association mapping
+	 * 
+	 * @since 2.0.1
+	 */
+	public DeferredAssociation(ManagedInstance<?> instance, SingularAssociationMappingImpl<?, ?> mapping) {
+		super();
+
+		this.instance = instance;
+		this.mapping = mapping;
+		this.value = mapping.get(instance.getInstance());
+	}
+
+	/**
+	 * Clears the association of the instance.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void clear() {
+		this.mapping.set(this.instance.getInstance(), null);
+	}
+
+	/**
+	 * Returns the owner managed instance.
+	 * 
+	 * @return the owner managed instance
+	 * 
+	 * @since 2.0.1
+	 */
+	public ManagedInstance<?> getInstance() {
+		return this.instance;
+	}
+
+	/**
+	 * Returns the association mapping.
+	 * 
+	 * @return the association mapping
+	 * 
+	 * @since 2.0.1
+	 */
+	public SingularAssociationMappingImpl<?, ?> getMapping() {
+		return this.mapping;
+	}
+
+	/**
+	 * Writes the foreign key of the instance with the current value of the association.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void perform(Connection connection) throws SQLException {
+		this.mapping.getForeignKey().performSourceUpdate(connection, this.instance.getInstance());
+	}
+
+	/**
+	 * Restores the association of the instance.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void restore() {
+		this.mapping.set(this.instance.getInstance(), this.value);
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.instance;
+
+/**
+ * Interface implemented by the persistent classes enhanced in place for dirty tracking.
+ * 
+ * @see DirtyTrackingEnhancer
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface DirtyTracked {
+
+	/**
+	 * Returns if a persistent field of the instance has been written since the instance has been marked as clean.
+	 * 
+	 * @return true if the instance is dirty, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	boolean __batoo_$$__isDirty();
+
+	/**
+	 * Marks the instance as dirty or clean.
+	 * 
+	 * @param dirty
+	 *            true to mark as dirty, false to mark as clean
+	 * 
+	 * @since 2.0.1
+	 */
+	void __batoo_$$__setDirty(boolean dirty);
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.impl.instance;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import javax.persistence.Entity;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Transient;
+
+import org.objectweb.asm.ClassAdapter;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodAdapter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.google.common.collect.Maps;
+
+/**
+ * The helper class to enhance a persistent class in place for dirty tracking.
+ * <p>
+ * The enhanced class implements {@link DirtyTracked} and every write to a persistent field within the class marks the written instance as
+ * dirty. The instances that are not dirty are skipped while detecting the changes at flush time instead of being compared against their
+ * snapshots. The writes to the persistent fields from outside the persistent classes are not tracked, as the specification requires the
+ * clients to access the persistent state through the methods.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public final class DirtyTrackingEnhancer {
+
+	/**
+	 * Class adapter that adds the dirty flag and rewrites the writes to the persistent fields.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class DirtyTrackingClassAdapter extends ClassAdapter {
+
+		private final ClassLoader classLoader;
+		private final Map<String, Boolean> trackedFields = Maps.newHashMap();
+
+		private String className;
+
+		/**
+		 * @param cv
+		 *            the delegate class visitor
+		 * @param classLoader
+		 *            the class loader to resolve the written fields
+		 * 
+		 * @since 2.0.1
+		 */
+		public DirtyTrackingClassAdapter(ClassVisitor cv, ClassLoader classLoader) {
+			super(cv);
+
+			this.classLoader = classLoader;
+		}
+
+		private boolean isTracked(String owner, String name) {
+			final String key = owner + "." + name;
+
+			Boolean tracked = this.trackedFields.get(key);
+			if (tracked == null) {
+				tracked = DirtyTrackingEnhancer.isTracked(this.classLoader, owner, name);
+
+				this.trackedFields.put(key, tracked);
+			}
+
+			return tracked;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			this.className = name;
+
+			final String[] newInterfaces = new String[interfaces.length + 1];
+			System.arraycopy(interfaces, 0, newInterfaces, 0, interfaces.length);
+			newInterfaces[interfaces.length] = DirtyTrackingEnhancer.INTERNAL_DIRTY_TRACKED;
+
+			super.visit(version, access, name, signature, superName, newInterfaces);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitEnd() {
+			// private transient boolean __batoo_$$__dirty;
+			super.visitField(Opcodes.ACC_PRIVATE + Opcodes.ACC_TRANSIENT + Opcodes.ACC_SYNTHETIC, DirtyTrackingEnhancer.FIELD_DIRTY,
+				Type.BOOLEAN_TYPE.getDescriptor(), null, null).visitEnd();
+
+			// public boolean __batoo_$$__isDirty() { return this.__batoo_$$__dirty; }
+			MethodVisitor mv = super.visitMethod(Opcodes.ACC_PUBLIC, DirtyTrackingEnhancer.METHOD_IS_DIRTY,
+				Type.getMethodDescriptor(Type.BOOLEAN_TYPE, new Type[] {}), null, null);
+			mv.visitCode();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitFieldInsn(Opcodes.GETFIELD, this.className, DirtyTrackingEnhancer.FIELD_DIRTY, Type.BOOLEAN_TYPE.getDescriptor());
+			mv.visitInsn(Opcodes.IRETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+
+			// public void __batoo_$$__setDirty(boolean dirty) { this.__batoo_$$__dirty = dirty; }
+			mv = super.visitMethod(Opcodes.ACC_PUBLIC, DirtyTrackingEnhancer.METHOD_SET_DIRTY,
+				Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] { Type.BOOLEAN_TYPE }), null, null);
+			mv.visitCode();
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitVarInsn(Opcodes.ILOAD, 1);
+			mv.visitFieldInsn(Opcodes.PUTFIELD, this.className, DirtyTrackingEnhancer.FIELD_DIRTY, Type.BOOLEAN_TYPE.getDescriptor());
+			mv.visitInsn(Opcodes.RETURN);
+			mv.visitMaxs(0, 0);
+			mv.visitEnd();
+
+			super.visitEnd();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+			return new MethodAdapter(super.visitMethod(access, name, desc, signature, exceptions)) {
+
+				@Override
+				public void visitFieldInsn(int opcode, String owner, String fieldName, String fieldDesc) {
+					if ((opcode == Opcodes.PUTFIELD) && DirtyTrackingClassAdapter.this.isTracked(owner, fieldName)) {
+						// mark the instance on the stack as dirty while keeping the instance and the value in place
+						if (Type.getType(fieldDesc).getSize() == 1) {
+							// instance, value -> instance, value, instance
+							this.mv.visitInsn(Opcodes.SWAP);
+							this.mv.visitInsn(Opcodes.DUP_X1);
+						}
+						else {
+							// instance, wide value -> instance, wide value, instance
+							this.mv.visitInsn(Opcodes.DUP2_X1);
+							this.mv.visitInsn(Opcodes.POP2);
+							this.mv.visitInsn(Opcodes.DUP_X2);
+						}
+
+						this.mv.visitMethodInsn(Opcodes.INVOKESTATIC, DirtyTrackingEnhancer.INTERNAL_ENHANCER, DirtyTrackingEnhancer.METHOD_MARK_DIRTY,
+							DirtyTrackingEnhancer.DESCRIPTOR_MARK_DIRTY);
+					}
+
+					super.visitFieldInsn(opcode, owner, fieldName, fieldDesc);
+				}
+			};
+		}
+	}
+
+	private static final String FIELD_DIRTY = "__batoo_$$__dirty";
+
+	private static final String METHOD_IS_DIRTY = "__batoo_$$__isDirty";
+	private static final String METHOD_SET_DIRTY = "__batoo_$$__setDirty";
+	private static final String METHOD_MARK_DIRTY = "markDirty";
+
+	private static final String DESCRIPTOR_MARK_DIRTY = Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] { Type.getType(Object.class) });
+
+	private static final String INTERNAL_DIRTY_TRACKED = Type.getInternalName(DirtyTracked.class);
+	private static final String INTERNAL_ENHANCER = Type.getInternalName(DirtyTrackingEnhancer.class);
+
+	/**
+	 * Returns the bytecode of the class enhanced for dirty tracking.
+	 * 
+	 * @param clazz
+	 *            the persistent class to enhance
+	 * @param byteCode
+	 *            the original bytecode of the class
+	 * @return the enhanced bytecode, or the original bytecode if the class has already been enhanced
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	public static byte[] enhance(Class<?> clazz, byte[] byteCode) throws Exception {
+		if (DirtyTrackingEnhancer.isEnhanced(clazz)) {
+			return byteCode;
+		}
+
+		final ClassReader reader = new ClassReader(byteCode);
+		final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+
+		reader.accept(new DirtyTrackingClassAdapter(writer, clazz.getClassLoader()), 0);
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Returns if the class itself, not only one of its super classes, has been enhanced for dirty tracking.
+	 * 
+	 * @param clazz
+	 *            the class
+	 * @return true if the class has been enhanced, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public static boolean isEnhanced(Class<?> clazz) {
+		for (final Class<?> intf : clazz.getInterfaces()) {
+			if (intf == DirtyTracked.class) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns if the class is an entity or a mapped superclass.
+	 * 
+	 * @param clazz
+	 *            the class
+	 * @return true if the class is an entity or a mapped superclass, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public static boolean isPersistent(Class<?> clazz) {
+		return clazz.isAnnotationPresent(Entity.class) || clazz.isAnnotationPresent(MappedSuperclass.class);
+	}
+
+	private static boolean isTracked(ClassLoader classLoader, String owner, String name) {
+		Class<?> clazz;
+		try {
+			clazz = Class.forName(owner.replace('/', '.'), false, classLoader);
+		}
+		catch (final ClassNotFoundException e) {
+			return false;
+		}
+
+		while (clazz != null) {
+			try {
+				final Field field = clazz.getDeclaredField(name);
+				final int modifiers = field.getModifiers();
+
+				return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+					&& !field.isAnnotationPresent(Transient.class) && DirtyTrackingEnhancer.isPersistent(clazz);
+			}
+			catch (final NoSuchFieldException e) {
+				clazz = clazz.getSuperclass();
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Marks the instance as dirty if it is dirty tracked.
+	 * <p>
+	 * Called by the enhanced classes before a persistent field is written.
+	 * 
+	 * @param instance
+	 *            the instance being written
+	 * 
+	 * @since 2.0.1
+	 */
+	public static void markDirty(Object instance) {
+		if (instance instanceof DirtyTracked) {
+			((DirtyTracked) instance).__batoo_$$__setDirty(true);
+		}
+	}
+
+	private DirtyTrackingEnhancer() {
+		super();
+	}
+}
@@ -52,6 +52,10 @@ public final class Enhancer {
 		for (final Method method : Object.class.getMethods()) {
 			Enhancer.IGNORED_METHODS.add(method.getName());
 		}
+
+		for (final Method method : DirtyTracked.class.getMethods()) {
+			Enhancer.IGNORED_METHODS.add(method.getName());
+		}
 	}
 
 	/**
@@ -24,7 +24,6 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedList;
@@ -41,6 +40,7 @@ import org.apache.commons.lang.mutable.MutableBoolean;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 import org.batoo.common.reflect.AbstractAccessor;
+import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.common.util.Pair;
 import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
 import org.batoo.jpa.core.impl.manager.SessionImpl;
@@ -55,11 +55,11 @@ import org.batoo.jpa.core.impl.model.mapping.PluralAssociationMappingImpl;
 import org.batoo.jpa.core.impl.model.mapping.PluralMappingEx;
 import org.batoo.jpa.core.impl.model.mapping.SingularAssociationMappingImpl;
 import org.batoo.jpa.core.impl.model.mapping.SingularMappingEx;
+import org.batoo.jpa.jdbc.mapping.Mapping;
 import org.batoo.jpa.jdbc.mapping.SingularMapping;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata.EntityListenerType;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -82,7 +82,7 @@ public class ManagedInstance<X> {
 	private Status oldStatus;
 	private LockModeType lockMode;
 
-	private final HashMap<AbstractMapping<?, ?, ?>, Object> snapshot = Maps.newHashMap();
+	private Object[] snapshot;
 	private final HashSet<String> joinsLoaded;
 	private final ArrayList<PluralMappingEx<?, ?, ?>> collectionsChanged;
 
@@ -200,23 +200,16 @@ public class ManagedInstance<X> {
 	}
 
 	/**
-	 * Cascades the persist operation.
+	 * Cascades the persist operation by appending the associates to the list of entities pending persist.
 	 * 
-	 * @param entityManager
-	 *            the entity manager
-	 * @param processed
-	 *            registry of processed entities
-	 * @param instances
-	 *            the managed instances
-	 * @return true if an implicit flush is required, false otherwise
+	 * @param associates
+	 *            the list of entities pending persist
 	 * 
 	 * @since 2.0.0
 	 */
-	public boolean cascadePersist(EntityManagerImpl entityManager, ArrayList<Object> processed, LinkedList<ManagedInstance<?>> instances) {
+	public void cascadePersist(List<Object> associates) {
 		ManagedInstance.LOG.debug("Cascading persist on {0}", this);
 
-		boolean requiresFlush = false;
-
 		for (final AssociationMappingImpl<?, ?, ?> association : this.type.getAssociationsPersistable()) {
 
 			// if the association a collection attribute then we will cascade to each element
@@ -229,19 +222,7 @@ public class ManagedInstance<X> {
 						final Map<?, ?> map = (Map<?, ?>) mapping.get(this.instance);
 
 						// cascade to each element in the map
-						for (final Object element : map.values()) {
-							requiresFlush |= entityManager.persistImpl(element, processed, instances);
-						}
-
-						break;
-					case LIST:
-						// extract the list
-						final List<?> list = (List<?>) mapping.get(this.instance);
-
-						// cascade to each element in the list
-						for (int i = 0; i < list.size(); i++) {
-							requiresFlush |= entityManager.persistImpl(list.get(i), processed, instances);
-						}
+						associates.addAll(map.values());
 
 						break;
 					default:
@@ -249,16 +230,8 @@ public class ManagedInstance<X> {
 						final Collection<?> collection = (Collection<?>) mapping.get(this.instance);
 
 						// cascade to each element in the collection
-						if (collection instanceof List) {
-							final List<?> castedList = (List<?>) collection;
-							for (int i = 0; i < castedList.size(); i++) {
-								requiresFlush |= entityManager.persistImpl(castedList.get(i), processed, instances);
-							}
-						}
-						else if (collection != null) {
-							for (final Object element : collection) {
-								requiresFlush |= entityManager.persistImpl(element, processed, instances);
-							}
+						if (collection != null) {
+							associates.addAll(collection);
 						}
 
 						break;
@@ -268,27 +241,21 @@ public class ManagedInstance<X> {
 				final SingularAssociationMappingImpl<?, ?> mapping = (SingularAssociationMappingImpl<?, ?>) association;
 				final Object associate = mapping.get(this.instance);
 				if (associate != null) {
-					requiresFlush |= entityManager.persistImpl(associate, processed, instances);
+					associates.add(associate);
 				}
 			}
 		}
-
-		return requiresFlush;
 	}
 
 	/**
-	 * Cascades the remove operation
+	 * Cascades the remove operation by appending the associates to the list of entities pending removal.
 	 * 
-	 * @param entityManager
-	 *            the entity manager
-	 * @param processed
-	 *            registry of processed entities
-	 * @param instances
-	 *            the managed instances
+	 * @param associates
+	 *            the list of entities pending removal
 	 * 
 	 * @since 2.0.0
 	 */
-	public void cascadeRemove(EntityManagerImpl entityManager, ArrayList<Object> processed, LinkedList<ManagedInstance<?>> instances) {
+	public void cascadeRemove(List<Object> associates) {
 		ManagedInstance.LOG.debug("Cascading remove on {0}", this);
 
 		for (final AssociationMappingImpl<?, ?, ?> association : this.type.getAssociationsRemovable()) {
@@ -307,16 +274,8 @@ public class ManagedInstance<X> {
 				}
 
 				// cascade to each element in the collection
-				if (collection instanceof List) {
-					final List<?> list = (List<?>) collection;
-					for (int i = 0; i < list.size(); i++) {
-						entityManager.removeImpl(list.get(i), processed, instances);
-					}
-				}
-				else if (collection != null) {
-					for (final Object element : collection) {
-						entityManager.removeImpl(element, processed, instances);
-					}
+				if (collection != null) {
+					associates.addAll(collection);
 				}
 			}
 			else {
@@ -324,7 +283,7 @@ public class ManagedInstance<X> {
 				final Object associate = mapping.get(this.instance);
 
 				if (associate != null) {
-					entityManager.removeImpl(associate, processed, instances);
+					associates.add(associate);
 				}
 			}
 		}
@@ -367,7 +326,12 @@ public class ManagedInstance<X> {
 	 */
 	public void checkUpdated() {
 		// no snapshot, nothing to check
-		if ((this.snapshot.size() == 0) || this.changed) {
+		if ((this.snapshot == null) || this.changed) {
+			return;
+		}
+
+		// enhanced for dirty tracking and not written since the snapshot, nothing to check
+		if (this.isClean()) {
 			return;
 		}
 
@@ -377,10 +341,14 @@ public class ManagedInstance<X> {
 	}
 
 	private boolean checkUpdatedImpl() {
+		final AbstractMapping<?, ?, ?>[] mappings = this.type.getMappingsSingular();
+		final Object[] snapshot = this.snapshot;
+
 		// iterate over old values
-		for (final AbstractMapping<?, ?, ?> mapping : this.type.getMappingsSingular()) {
+		for (int i = 0; i < mappings.length; i++) {
+			final AbstractMapping<?, ?, ?> mapping = mappings[i];
 			final Object newValue = mapping.get(this.instance);
-			final Object oldValue = this.snapshot.get(mapping);
+			final Object oldValue = snapshot[i];
 
 			// if it is changed then mark as changed and bail out
 			if (mapping.getAttribute().getPersistentAttributeType() == PersistentAttributeType.BASIC) {
@@ -640,6 +608,43 @@ public class ManagedInstance<X> {
 		}
 	}
 
+	/**
+	 * Returns the singular mappings that have not changed since the snapshot.
+	 * <p>
+	 * Basic values are only deemed unchanged if they are immutable, as mutable values such as dates and arrays may have been modified in
+	 * place.
+	 * 
+	 * @return the set of unchanged mappings or <code>null</code> if there is no snapshot to compare against
+	 * 
+	 * @since 2.0.1
+	 */
+	public Set<Mapping<?, ?, ?>> getUnchangedMappings() {
+		final Object[] snapshot = this.snapshot;
+		if (snapshot == null) {
+			return null;
+		}
+
+		final AbstractMapping<?, ?, ?>[] mappings = this.type.getMappingsSingular();
+		final Set<Mapping<?, ?, ?>> unchangedMappings = Sets.newHashSet();
+
+		for (int i = 0; i < mappings.length; i++) {
+			final AbstractMapping<?, ?, ?> mapping = mappings[i];
+			final Object newValue = mapping.get(this.instance);
+			final Object oldValue = snapshot[i];
+
+			if (mapping.getAttribute().getPersistentAttributeType() == PersistentAttributeType.BASIC) {
+				if (ObjectUtils.equals(oldValue, newValue) && ((oldValue == null) || ReflectHelper.isImmutable(oldValue.getClass()))) {
+					unchangedMappings.add(mapping);
+				}
+			}
+			else if (oldValue == newValue) {
+				unchangedMappings.add(mapping);
+			}
+		}
+
+		return unchangedMappings;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -679,7 +684,7 @@ public class ManagedInstance<X> {
 	 * @since 2.0.0
 	 */
 	public boolean hasSelfUpdate() {
-		if (!this.changed && (this.snapshot.size() == 0)) {
+		if (!this.changed && (this.snapshot == null)) {
 			return false;
 		}
 
@@ -687,6 +692,10 @@ public class ManagedInstance<X> {
 			return true;
 		}
 
+		if (this.isClean()) {
+			return false;
+		}
+
 		return this.checkUpdatedImpl();
 	}
 
@@ -709,91 +718,30 @@ public class ManagedInstance<X> {
 
 		final EntityTypeImpl<? super X> rootType = this.type.getRootType();
 
-		final BasicAttribute<? super X, ?> version = rootType.getVersionAttribute();
-
-		if (this.oldVersion == null) {
-			switch (this.type.getVersionType()) {
-				case SHORT:
-					final short shortValue = (((Number) version.get(this.instance)).shortValue());
-					this.oldVersion = shortValue;
-					version.set(this.instance, shortValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortValue);
-
-					break;
-				case SHORT_OBJECT:
-					final Short shortObjValue = version.get(this.instance) == null ? 0 : //
-						Short.valueOf((((Number) version.get(this.instance)).shortValue()));
-					this.oldVersion = shortObjValue;
-
-					version.set(this.instance, shortObjValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortObjValue);
-
-					break;
-
-				case INT:
-					final int intValue = (((Number) version.get(this.instance)).intValue());
-					this.oldVersion = intValue;
-
-					version.set(this.instance, intValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intValue);
-
-					break;
-				case INT_OBJECT:
-					final Integer intObjValue = version.get(this.instance) == null ? 0 : //
-						Integer.valueOf(((Number) version.get(this.instance)).intValue());
-					this.oldVersion = intObjValue;
-
-					version.set(this.instance, intObjValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intObjValue);
-
-					break;
-				case LONG:
-					final long longValue = (((Number) version.get(this.instance)).longValue());
-					this.oldVersion = longValue;
-
-					version.set(this.instance, longValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longValue);
-
-					break;
-				case LONG_OBJECT:
-					final Long longObjValue = version.get(this.instance) == null ? 0l : //
-						Long.valueOf((((Number) version.get(this.instance)).longValue()));
-					this.oldVersion = longObjValue;
-
-					version.set(this.instance, longObjValue + 1);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longObjValue);
-
-					break;
-
-				case TIMESTAMP:
-					final Timestamp value = new Timestamp(System.currentTimeMillis());
-					this.oldVersion = version.get(this.instance);
-
-					version.set(this.instance, value);
-
-					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, value);
-			}
-		}
+		final Object oldVersion = this.upgradeVersion();
 
 		if (commit) {
-			final Object newVersion = version.get(this.instance);
-			rootType.performVersionUpdate(connection, this, this.oldVersion, newVersion);
+			final Object newVersion = rootType.getVersionAttribute().get(this.instance);
+			rootType.performVersionUpdate(connection, this, oldVersion, newVersion);
 
-			ManagedInstance.LOG.debug("Version committed instance: {0} - {1} -> {2}", this, this.oldVersion, newVersion);
-
-			this.oldVersion = null;
+			this.versionCommitted();
 		}
 		else {
 			this.changed();
 		}
 	}
 
+	/**
+	 * Returns if the instance is enhanced for dirty tracking and none of its persistent fields has been written since the snapshot.
+	 * 
+	 * @return true if the instance is known to be clean, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	private boolean isClean() {
+		return this.type.isDirtyTracked() && !((DirtyTracked) this.instance).__batoo_$$__isDirty();
+	}
+
 	/**
 	 * Returns if attribute name <code>attributeNaöe</code> has been loaded.
 	 * 
@@ -878,6 +826,9 @@ public class ManagedInstance<X> {
 			association.mergeWith(entityManager, this, entity, requiresFlush, processed, instances);
 		}
 
+		// values are set through the accessors, bypassing the dirty tracking
+		DirtyTrackingEnhancer.markDirty(this.instance);
+
 		this.checkUpdated();
 	}
 
@@ -961,7 +912,7 @@ public class ManagedInstance<X> {
 
 		this.changed = false;
 
-		this.snapshot.clear();
+		this.snapshot = null;
 		this.snapshot();
 	}
 
@@ -1048,15 +999,27 @@ public class ManagedInstance<X> {
 
 	/**
 	 * Creates a snapshot of the entity.
+	 * <p>
+	 * The snapshot is a flat array of the values of the singular mappings, indexed by the position of the mapping in
+	 * {@link EntityTypeImpl#getMappingsSingular()}.
 	 * 
 	 * @since 2.0.0
 	 */
 	private void snapshot() {
 		ManagedInstance.LOG.trace("Snapshot generated for instance {0}", this);
 
-		if (this.snapshot.size() == 0) {
-			for (final AbstractMapping<?, ?, ?> mapping : this.type.getMappingsSingular()) {
-				this.snapshot.put(mapping, mapping.get(this.instance));
+		if (this.snapshot == null) {
+			final AbstractMapping<?, ?, ?>[] mappings = this.type.getMappingsSingular();
+			final Object[] snapshot = new Object[mappings.length];
+
+			for (int i = 0; i < mappings.length; i++) {
+				snapshot[i] = mappings[i].get(this.instance);
+			}
+
+			this.snapshot = snapshot;
+
+			if (this.type.isDirtyTracked()) {
+				((DirtyTracked) this.instance).__batoo_$$__setDirty(false);
 			}
 		}
 	}
@@ -1083,4 +1046,104 @@ public class ManagedInstance<X> {
 			+ ", status=" + this.status //
 			+ ", id=" + (this.id != null ? this.id.getId() : null) + "]";
 	}
+
+	/**
+	 * Upgrades the version of the instance unless the version has already been upgraded and not yet written to the database.
+	 * 
+	 * @return the old version of the instance
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object upgradeVersion() {
+		final BasicAttribute<? super X, ?> version = this.type.getRootType().getVersionAttribute();
+
+		if (this.oldVersion == null) {
+			switch (this.type.getVersionType()) {
+				case SHORT:
+					final short shortValue = (((Number) version.get(this.instance)).shortValue());
+					this.oldVersion = shortValue;
+					version.set(this.instance, shortValue + 1);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortValue);
+
+					break;
+				case SHORT_OBJECT:
+					final Short shortObjValue = version.get(this.instance) == null ? 0 : //
+						Short.valueOf((((Number) version.get(this.instance)).shortValue()));
+					this.oldVersion = shortObjValue;
+
+					version.set(this.instance, shortObjValue + 1);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, shortObjValue);
+
+					break;
+
+				case INT:
+					final int intValue = (((Number) version.get(this.instance)).intValue());
+					this.oldVersion = intValue;
+
+					version.set(this.instance, intValue + 1);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intValue);
+
+					break;
+				case INT_OBJECT:
+					final Integer intObjValue = version.get(this.instance) == null ? 0 : //
+						Integer.valueOf(((Number) version.get(this.instance)).intValue());
+					this.oldVersion = intObjValue;
+
+					version.set(this.instance, intObjValue + 1);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, intObjValue);
+
+					break;
+				case LONG:
+					final long longValue = (((Number) version.get(this.instance)).longValue());
+					this.oldVersion = longValue;
+
+					version.set(this.instance, longValue + 1);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longValue);
+
+					break;
+				case LONG_OBJECT:
+					final Long longObjValue = version.get(this.instance) == null ? 0l : //
+						Long.valueOf((((Number) version.get(this.instance)).longValue()));
+					this.oldVersion = longObjValue;
+
+					version.set(this.instance, longObjValue + 1);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, longObjValue);
+
+					break;
+
+				case TIMESTAMP:
+					final Timestamp value = new Timestamp(System.currentTimeMillis());
+					this.oldVersion = version.get(this.instance);
+
+					version.set(this.instance, value);
+
+					ManagedInstance.LOG.debug("Version upgraded instance: {0} - {1}", this, value);
+			}
+
+			// the version is set through the accessor, bypassing the dirty tracking
+			DirtyTrackingEnhancer.markDirty(this.instance);
+		}
+
+		return this.oldVersion;
+	}
+
+	/**
+	 * Marks the upgraded version of the instance as written to the database.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void versionCommitted() {
+		this.session.evictFromCache(this);
+
+		ManagedInstance.LOG.debug("Version committed instance: {0} - {1} -> {2}", this, this.oldVersion,
+			this.type.getRootType().getVersionAttribute().get(this.instance));
+
+		this.oldVersion = null;
+	}
 }
@@ -16,28 +16,261 @@
  * 51 Franklin Street, Fifth Floor
  * Boston, MA  02110-1301  USA
  */
-
 package org.batoo.jpa.core.impl.instance;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 import javax.persistence.PersistenceException;
 
 import org.batoo.jpa.core.impl.manager.CallbackAvailability;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.mapping.AssociationMappingImpl;
+import org.batoo.jpa.core.impl.model.mapping.SingularAssociationMappingImpl;
+import org.batoo.jpa.jdbc.ForeignKey;
+import org.batoo.jpa.jdbc.JoinColumn;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
+ * Orders the managed instances of a flush so that the foreign keys of the instances are satisfied.
+ * <p>
+ * The dependencies between the instances are collected once into a graph which is then sorted topologically in linear time. The instances
+ * of the same type are kept together whenever possible so that they can be written in batches. Circular dependencies are resolved by
+ * deferring the foreign keys, see {@link DeferredAssociation}.
  * 
  * @author hceylan
  * @since 2.0.0
  */
 public final class Prioritizer {
 
+	/**
+	 * The dependency graph of the instances.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static final class Graph {
+
+		private final boolean forUpdates;
+
+		private int edgeCount;
+		private int[] from = new int[16];
+		private int[] to = new int[16];
+		private int[] next = new int[16];
+		@SuppressWarnings("rawtypes")
+		private SingularAssociationMappingImpl<?, ?>[] mappings = new SingularAssociationMappingImpl[16];
+
+		private final int[] head;
+		private final int[] tail;
+		private final int[] inDegree;
+
+		private int[] components;
+
+		private Graph(int size, boolean forUpdates) {
+			super();
+
+			this.forUpdates = forUpdates;
+
+			this.head = new int[size];
+			this.tail = new int[size];
+			this.inDegree = new int[size];
+
+			Arrays.fill(this.head, -1);
+		}
+
+		private void addEdge(int from, int to, SingularAssociationMappingImpl<?, ?> mapping) {
+			if (this.edgeCount == this.from.length) {
+				final int length = this.edgeCount * 2;
+
+				this.from = Arrays.copyOf(this.from, length);
+				this.to = Arrays.copyOf(this.to, length);
+				this.next = Arrays.copyOf(this.next, length);
+				this.mappings = Arrays.copyOf(this.mappings, length);
+			}
+
+			this.from[this.edgeCount] = from;
+			this.to[this.edgeCount] = to;
+			this.mappings[this.edgeCount] = mapping;
+			this.next[this.edgeCount] = -1;
+
+			// keep the edges in the order of the instances
+			if (this.head[from] == -1) {
+				this.head[from] = this.edgeCount;
+			}
+			else {
+				this.next[this.tail[from]] = this.edgeCount;
+			}
+
+			this.tail[from] = this.edgeCount++;
+			this.inDegree[to]++;
+		}
+
+		/**
+		 * Returns the strongly connected components of the graph, computed with an iterative Tarjan's algorithm.
+		 */
+		private int[] getComponents() {
+			if (this.components != null) {
+				return this.components;
+			}
+
+			final int size = this.head.length;
+
+			final int[] index = new int[size];
+			final int[] low = new int[size];
+			final int[] components = new int[size];
+			final boolean[] onStack = new boolean[size];
+
+			final int[] stack = new int[size];
+			final int[] callStack = new int[size];
+			final int[] edges = new int[size];
+
+			Arrays.fill(index, -1);
+
+			int counter = 0;
+			int sp = 0;
+
+			for (int root = 0; root < size; root++) {
+				if (index[root] != -1) {
+					continue;
+				}
+
+				int cp = 0;
+
+				index[root] = low[root] = counter++;
+				stack[sp++] = root;
+				onStack[root] = true;
+				callStack[cp] = root;
+				edges[cp++] = this.head[root];
+
+				while (cp > 0) {
+					final int v = callStack[cp - 1];
+					final int e = edges[cp - 1];
+
+					if (e != -1) {
+						edges[cp - 1] = this.next[e];
+
+						final int w = this.to[e];
+						if (index[w] == -1) {
+							index[w] = low[w] = counter++;
+							stack[sp++] = w;
+							onStack[w] = true;
+							callStack[cp] = w;
+							edges[cp++] = this.head[w];
+						}
+						else if (onStack[w]) {
+							low[v] = Math.min(low[v], index[w]);
+						}
+
+						continue;
+					}
+
+					cp--;
+
+					if (cp > 0) {
+						final int u = callStack[cp - 1];
+						low[u] = Math.min(low[u], low[v]);
+					}
+
+					if (low[v] == index[v]) {
+						int w;
+						do {
+							w = stack[--sp];
+							onStack[w] = false;
+							components[w] = v;
+						}
+						while (w != v);
+					}
+				}
+			}
+
+			return this.components = components;
+		}
+
+		/**
+		 * Returns the instance that owns the foreign key of the edge.
+		 */
+		private int getOwner(int edge) {
+			return this.forUpdates ? this.to[edge] : this.from[edge];
+		}
+	}
+
+	private static boolean isDeferrable(SingularAssociationMappingImpl<?, ?> mapping) {
+		final ForeignKey foreignKey = mapping.getForeignKey();
+		if (foreignKey == null) {
+			return false;
+		}
+
+		for (final JoinColumn column : foreignKey.getJoinColumns()) {
+			if (column.isPrimaryKey() || !column.isNullable() || !column.isUpdatable()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static Graph prepareGraph(ArrayList<ManagedInstance<?>> instances, LinkedHashMap<EntityTypeImpl<?>, ArrayDeque<Integer>> queues,
+		boolean forUpdates, CallbackAvailability callbackAvailability) {
+		final IdentityHashMap<Object, Integer> nodes = Maps.newIdentityHashMap();
+		for (int i = 0; i < instances.size(); i++) {
+			final ManagedInstance<?> instance = instances.get(i);
+
+			nodes.put(instance.getInstance(), i);
+
+			if (!queues.containsKey(instance.getType())) {
+				queues.put(instance.getType(), new ArrayDeque<Integer>());
+			}
+		}
+
+		// collect the foreign keys of the types once
+		final IdentityHashMap<EntityTypeImpl<?>, SingularAssociationMappingImpl<?, ?>[]> dependencies = Maps.newIdentityHashMap();
+		for (final EntityTypeImpl<?> type : queues.keySet()) {
+			type.updateAvailability(callbackAvailability, forUpdates);
+
+			final LinkedHashSet<SingularAssociationMappingImpl<?, ?>> associations = Sets.newLinkedHashSet();
+			for (final EntityTypeImpl<?> associate : queues.keySet()) {
+				for (final AssociationMappingImpl<?, ?, ?> association : type.getDependenciesFor(associate)) {
+					associations.add((SingularAssociationMappingImpl<?, ?>) association);
+				}
+			}
+
+			dependencies.put(type, associations.toArray(new SingularAssociationMappingImpl[associations.size()]));
+		}
+
+		final Graph graph = new Graph(instances.size(), forUpdates);
+
+		for (int i = 0; i < instances.size(); i++) {
+			final ManagedInstance<?> instance = instances.get(i);
+
+			for (final SingularAssociationMappingImpl<?, ?> mapping : dependencies.get(instance.getType())) {
+				final Integer associate = nodes.get(mapping.get(instance.getInstance()));
+				if ((associate == null) || (associate == i)) {
+					continue;
+				}
+
+				if (forUpdates) {
+					// rows that already exist do not need to be written first
+					if (instances.get(associate).getStatus() == Status.NEW) {
+						graph.addEdge(associate, i, mapping);
+					}
+				}
+				else {
+					graph.addEdge(i, associate, mapping);
+				}
+			}
+		}
+
+		return graph;
+	}
+
 	/**
 	 * Sorts the managed instances based on their dependencies.
 	 * <p>
@@ -53,120 +286,105 @@ public final class Prioritizer {
 	 *            the list of instances to be updated
 	 * @param removals
 	 *            the list of instances to be removed
-	 * @param sortedRemovals
-	 *            the sorted array of instances to be removed
 	 * @param sortedUpdates
 	 *            the sorted array of instances to be updated
+	 * @param sortedRemovals
+	 *            the sorted array of instances to be removed
+	 * @param deferredUpdates
+	 *            the list to collect the foreign keys to write after the updates
+	 * @param deferredRemovals
+	 *            the list to collect the foreign keys to clear before the removals
 	 * @param callbackAvailability
 	 *            array of callbacks
 	 * 
 	 * @since 2.0.0
 	 */
 	public static void sort(ArrayList<ManagedInstance<?>> updates, ArrayList<ManagedInstance<?>> removals, ManagedInstance<?>[] sortedUpdates,
-		ManagedInstance<?>[] sortedRemovals, CallbackAvailability callbackAvailability) {
+		ManagedInstance<?>[] sortedRemovals, List<DeferredAssociation> deferredUpdates, List<DeferredAssociation> deferredRemovals,
+		CallbackAvailability callbackAvailability) {
 
-		Prioritizer.sort(updates, sortedUpdates, true, callbackAvailability);
-		Prioritizer.sort(removals, sortedRemovals, false, callbackAvailability);
+		Prioritizer.sort(updates, sortedUpdates, deferredUpdates, true, callbackAvailability);
+		Prioritizer.sort(removals, sortedRemovals, deferredRemovals, false, callbackAvailability);
 	}
 
-	private static void sort(ArrayList<ManagedInstance<?>> updates, ManagedInstance<?>[] sortedUpdates, boolean forUpdates,
-		CallbackAvailability callbackAvailability) {
-		int instanceNo = 0;
+	private static void sort(ArrayList<ManagedInstance<?>> instances, ManagedInstance<?>[] sorted, List<DeferredAssociation> deferred,
+		boolean forUpdates, CallbackAvailability callbackAvailability) {
+		// the instances ready to be written, grouped by their types
+		final LinkedHashMap<EntityTypeImpl<?>, ArrayDeque<Integer>> queues = Maps.newLinkedHashMap();
 
-		final HashSet<EntityTypeImpl<?>> entities = Sets.newHashSet();
-		for (int i = 0; i < updates.size(); i++) {
-			entities.add(updates.get(i).getType());
-		}
+		final Graph graph = Prioritizer.prepareGraph(instances, queues, forUpdates, callbackAvailability);
+		final int[] inDegree = graph.inDegree;
+		final boolean[] deferredEdges = new boolean[graph.edgeCount];
+		final boolean[] sortedNodes = new boolean[instances.size()];
 
-		for (final EntityTypeImpl<?> entity : entities) {
-			entity.updateAvailability(callbackAvailability, forUpdates);
+		for (int i = 0; i < instances.size(); i++) {
+			if (inDegree[i] == 0) {
+				queues.get(instances.get(i).getType()).add(i);
+			}
 		}
 
-		// quick sort based on entity relations
-		while (true) {
-			boolean removed = false;
-
-			for (final Iterator<EntityTypeImpl<?>> i = entities.iterator(); i.hasNext();) {
-				boolean hasDependency = false;
-
-				final EntityTypeImpl<?> e1 = i.next();
-
-				for (final EntityTypeImpl<?> e2 : entities) {
+		int instanceNo = 0;
+		int cursor = 0;
 
-					final EntityTypeImpl<?> dependent = forUpdates ? e1 : e2;
-					final EntityTypeImpl<?> dependency = forUpdates ? e2 : e1;
+		ArrayDeque<Integer> queue = null;
+		while (instanceNo < instances.size()) {
+			// stick to the same type as long as possible to allow batches
+			if ((queue == null) || queue.isEmpty()) {
+				queue = null;
 
-					if (dependent.getDependenciesFor(dependency).length != 0) {
-						hasDependency = true;
+				for (final ArrayDeque<Integer> candidate : queues.values()) {
+					if (!candidate.isEmpty()) {
+						queue = candidate;
 						break;
 					}
 				}
+			}
 
-				if (!hasDependency) {
-					i.remove();
+			if (queue != null) {
+				final int node = queue.poll();
 
-					for (final Iterator<ManagedInstance<?>> i2 = updates.iterator(); i2.hasNext();) {
-						final ManagedInstance<?> instance = i2.next();
-						if (instance.getType() == e1) {
-							i2.remove();
+				sorted[instanceNo++] = instances.get(node);
+				sortedNodes[node] = true;
 
-							sortedUpdates[instanceNo++] = instance;
-						}
+				for (int e = graph.head[node]; e != -1; e = graph.next[e]) {
+					if (!deferredEdges[e] && (--inDegree[graph.to[e]] == 0)) {
+						queues.get(instances.get(graph.to[e]).getType()).add(graph.to[e]);
 					}
-
-					removed = true;
 				}
-			}
 
-			if (!removed) {
-				break;
+				continue;
 			}
-		}
 
-		while ((updates.size() > 0)) {
-
-			boolean found = false;
-
-			for (final Iterator<ManagedInstance<?>> i = updates.iterator(); i.hasNext();) {
-				boolean hasDependency = false;
-
-				final ManagedInstance<?> mi1 = i.next();
-				final EntityTypeImpl<?> e1 = mi1.getType();
-
-				final Object i1 = mi1.getInstance();
-
-				innerLoop:
-				for (int j = 0; j < updates.size(); j++) {
-					final ManagedInstance<?> mi2 = updates.get(j);
-					if (mi1 == mi2) {
-						continue;
-					}
-
-					final EntityTypeImpl<?> e2 = mi2.getType();
-					final Object i2 = mi2.getInstance();
-
-					for (final AssociationMappingImpl<?, ?, ?> association : e1.getDependenciesFor(e2)) {
-						final Object dependent = forUpdates ? i1 : i2;
-						final Object dependency = forUpdates ? i2 : i1;
-						if (association.references(dependent, dependency)) {
-							hasDependency = true;
-							break innerLoop;
-						}
-					}
+			// all the remaining instances are blocked by a cycle, defer a foreign key within a cycle
+			final int[] components = graph.getComponents();
+			while (cursor < graph.edgeCount) {
+				final int e = cursor++;
+				final int to = graph.to[e];
 
+				if (sortedNodes[graph.from[e]] || (inDegree[to] == 0) || (components[graph.from[e]] != components[to])
+					|| !Prioritizer.isDeferrable(graph.mappings[e])) {
+					continue;
 				}
 
-				if (!hasDependency) {
-					sortedUpdates[instanceNo++] = mi1;
+				deferredEdges[e] = true;
+				deferred.add(new DeferredAssociation(instances.get(graph.getOwner(e)), graph.mappings[e]));
 
-					i.remove();
+				if (--inDegree[to] == 0) {
+					queues.get(instances.get(to).getType()).add(to);
 
-					found = true;
+					break;
 				}
 			}
 
-			if (!found) {
-				throw new PersistenceException("Circular dependencies not yet supported");
+			if (cursor == graph.edgeCount) {
+				boolean blocked = true;
+				for (final ArrayDeque<Integer> candidate : queues.values()) {
+					blocked &= candidate.isEmpty();
+				}
+
+				if (blocked) {
+					throw new PersistenceException("Circular dependencies cannot be resolved as the foreign keys involved cannot be deferred");
+				}
 			}
 		}
 	}
@@ -20,25 +20,25 @@
 package org.batoo.jpa.core.impl.manager;
 
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
-import javax.persistence.Cache;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.LockModeType;
 import javax.persistence.PersistenceException;
 import javax.persistence.PersistenceUnitUtil;
 import javax.persistence.Query;
+import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
 import javax.validation.Validation;
 import javax.validation.ValidationException;
@@ -53,8 +53,10 @@ import org.batoo.common.log.BLoggerFactory;
 import org.batoo.common.util.BatooUtils;
 import org.batoo.jpa.BJPASettings;
 import org.batoo.jpa.JPASettings;
+import org.batoo.jpa.core.impl.cache.CacheImpl;
 import org.batoo.jpa.core.impl.criteria.CriteriaBuilderImpl;
 import org.batoo.jpa.core.impl.criteria.QueryImpl;
+import org.batoo.jpa.core.impl.criteria.jpql.JpqlCache;
 import org.batoo.jpa.core.impl.criteria.jpql.JpqlQuery;
 import org.batoo.jpa.core.impl.deployment.DdlManager;
 import org.batoo.jpa.core.impl.deployment.LinkManager;
@@ -64,6 +66,7 @@ import org.batoo.jpa.jdbc.datasource.AbstractDataSource;
 import org.batoo.jpa.jdbc.DDLMode;
 import org.batoo.jpa.jdbc.DataSourceProxy;
 import org.batoo.jpa.jdbc.PreparedStatementProxy.SqlLoggingType;
+import org.batoo.jpa.jdbc.SqlStatistics;
 import org.batoo.jpa.jdbc.adapter.AbstractJdbcAdaptor;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
 import org.batoo.jpa.parser.AbstractLocator;
@@ -71,7 +74,6 @@ import org.batoo.jpa.parser.PersistenceParser;
 import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
 
 import com.google.common.base.Splitter;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -86,9 +88,6 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 
 	private static final BLogger LOG = BLoggerFactory.getLogger(EntityManagerFactoryImpl.class);
 
-	private static final int NO_QUERIES_MAX = 1000;
-	private static final int NO_QUERIES_TRIM = 100;
-
 	private final MetamodelImpl metamodel;
 	private final DDLMode ddlMode;
 
@@ -99,8 +98,9 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 	private final Map<String, JpqlQuery> namedQueries = Maps.newHashMap();
 	private final CriteriaBuilderImpl criteriaBuilder;
 	private final PersistenceUnitUtilImpl persistenceUtil;
+	private final CacheImpl cache;
 
-	private final HashMap<String, JpqlQuery> jpqlCache = Maps.newHashMap();
+	private final JpqlCache jpqlCache;
 	private final ClassLoader classloader;
 
 	private final ValidatorFactory validationFactory;
@@ -109,10 +109,13 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 	private final Class<?>[] removeValidators;
 
 	private final int maxFetchJoinDepth;
+	private final int batchFetchSize;
+	private final boolean dynamicUpdate;
 
 	private boolean open;
 
 	private AbstractDataSource dataSourcePool;
+	private ObjectName statisticsName;
 
 	/**
 	 * @param name
@@ -151,6 +154,39 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.SQL_LOGGING) + " for " + BJPASettings.SQL_LOGGING);
 		}
 
+		try {
+			this.batchFetchSize = this.getProperty(BJPASettings.BATCH_FETCH_SIZE) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.BATCH_FETCH_SIZE))) : //
+				BJPASettings.DEFAULT_BATCH_FETCH_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.BATCH_FETCH_SIZE) + " for " + BJPASettings.BATCH_FETCH_SIZE);
+		}
+
+		final int jpqlCacheSize;
+		try {
+			jpqlCacheSize = this.getProperty(BJPASettings.JPQL_CACHE_SIZE) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.JPQL_CACHE_SIZE))) : //
+				BJPASettings.DEFAULT_JPQL_CACHE_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.JPQL_CACHE_SIZE) + " for " + BJPASettings.JPQL_CACHE_SIZE);
+		}
+
+		final JpqlCache.Policy jpqlCachePolicy;
+		try {
+			jpqlCachePolicy = this.getProperty(BJPASettings.JPQL_CACHE_POLICY) != null ? //
+				JpqlCache.Policy.valueOf(((String) this.getProperty(BJPASettings.JPQL_CACHE_POLICY)).toUpperCase(Locale.ENGLISH)) : //
+				JpqlCache.Policy.valueOf(BJPASettings.DEFAULT_JPQL_CACHE_POLICY);
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.JPQL_CACHE_POLICY) + " for " + BJPASettings.JPQL_CACHE_POLICY);
+		}
+
+		this.jpqlCache = new JpqlCache(jpqlCacheSize, jpqlCachePolicy);
+
+		this.dynamicUpdate = "true".equalsIgnoreCase((String) this.getProperty(BJPASettings.DYNAMIC_UPDATE));
+
 		this.dataSource = this.createDatasource(name, parser);
 
 		this.ddlMode = this.readDdlMode();
@@ -173,6 +209,7 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		this.metamodel.performTableGeneratorsDdl(this.dataSource, this.ddlMode);
 
 		this.metamodel.preFillGenerators(this.dataSource);
+		this.cache = this.createCache(parser);
 		this.criteriaBuilder = new CriteriaBuilderImpl(this.metamodel);
 
 		NamedQueriesManager.perform(this.metamodel, this.criteriaBuilder);
@@ -186,6 +223,11 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		this.jdbcAdaptor.importSql(this.classloader, this.dataSource, (String) this.getProperties().get(BJPASettings.IMPORT_SQL));
 
         BatooUtils.gaBoot(this.properties);
+
+		if (!"false".equalsIgnoreCase((String) this.getProperty(BJPASettings.JMX))) {
+			this.registerStatistics(name);
+		}
+
 		this.open = true;
 	}
 
@@ -276,6 +318,8 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			this.metamodel.dropAllTables(this.dataSource);
 		}
 
+		this.unregisterStatistics();
+
 		this.dataSource.close();
 
 		this.open = false;
@@ -285,6 +329,7 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		SqlLoggingType sqlLogging;
 		long slowSqlThreshold;
 		int jdbcFetchSize;
+		int statementCacheSize;
 
 		try {
 			sqlLogging = this.getProperty(BJPASettings.SQL_LOGGING) != null ? //
@@ -314,6 +359,16 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.FETCH_SIZE) + " for " + BJPASettings.FETCH_SIZE);
 		}
 
+		try {
+			statementCacheSize = this.getProperty(BJPASettings.STATEMENT_CACHE_SIZE) != null ? //
+				Integer.valueOf((String) this.getProperty(BJPASettings.STATEMENT_CACHE_SIZE)) : //
+				BJPASettings.DEFAULT_STATEMENT_CACHE_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.STATEMENT_CACHE_SIZE) + " for "
+				+ BJPASettings.STATEMENT_CACHE_SIZE);
+		}
+
 		String dataSourcePool = (String) this.getProperty(BJPASettings.DATASOURCE_POOL);
 		final String poolClassName = dataSourcePool != null ?  dataSourcePool : BJPASettings.DEFAULT_DATASOURCE_POOL;
 		try {
@@ -333,18 +388,19 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			this.dataSourcePool.open(persistenceUnitName, getProperties());
 		}
 
-		return this.createDatasourceProxy(parser, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+		return this.createDatasourceProxy(parser, sqlLogging, slowSqlThreshold, jdbcFetchSize, statementCacheSize);
 	}
 
-	private DataSourceProxy createDatasourceProxy(PersistenceParser parser, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize) {
+	private DataSourceProxy createDatasourceProxy(PersistenceParser parser, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize,
+		int statementCacheSize) {
 		final boolean external = (parser.getJtaDataSource() != null) || (parser.getNonJtaDataSource() != null);
 		if (parser.getJtaDataSource() != null) {
-			return new DataSourceProxy(parser.getJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+			return new DataSourceProxy(parser.getJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize, statementCacheSize);
 		}
 		if (parser.getNonJtaDataSource() != null) {
-			return new DataSourceProxy(parser.getNonJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+			return new DataSourceProxy(parser.getNonJtaDataSource(), external, sqlLogging, slowSqlThreshold, jdbcFetchSize, statementCacheSize);
 		}
-		return new DataSourceProxy(this.dataSourcePool, external, sqlLogging, slowSqlThreshold, jdbcFetchSize);
+		return new DataSourceProxy(this.dataSourcePool, external, sqlLogging, slowSqlThreshold, jdbcFetchSize, statementCacheSize);
 	}
 
 	/**
@@ -369,6 +425,56 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return new EntityManagerImpl(this, this.metamodel, this.dataSource, map, this.jdbcAdaptor);
 	}
 
+	/**
+	 * Creates the second level cache.
+	 * 
+	 * @param parser
+	 *            the persistence parser
+	 * @return the second level cache
+	 * 
+	 * @since 2.0.1
+	 */
+	private CacheImpl createCache(PersistenceParser parser) {
+		SharedCacheMode sharedCacheMode;
+		try {
+			final Object mode = this.getProperty(JPASettings.SHARED_CACHE_MODE);
+			if (mode instanceof SharedCacheMode) {
+				sharedCacheMode = (SharedCacheMode) mode;
+			}
+			else if (mode != null) {
+				sharedCacheMode = SharedCacheMode.valueOf(((String) mode).toUpperCase(Locale.ENGLISH));
+			}
+			else {
+				sharedCacheMode = parser.getSharedCacheMode();
+			}
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(JPASettings.SHARED_CACHE_MODE) + " for " + JPASettings.SHARED_CACHE_MODE);
+		}
+
+		int cacheSize;
+		try {
+			cacheSize = this.getProperty(BJPASettings.CACHE_SIZE) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.CACHE_SIZE))) : //
+				BJPASettings.DEFAULT_CACHE_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.CACHE_SIZE) + " for " + BJPASettings.CACHE_SIZE);
+		}
+
+		long cacheTtl;
+		try {
+			cacheTtl = this.getProperty(BJPASettings.CACHE_TTL) != null ? //
+				Long.valueOf(((String) this.getProperty(BJPASettings.CACHE_TTL))) : //
+				BJPASettings.DEFAULT_CACHE_TTL;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.CACHE_TTL) + " for " + BJPASettings.CACHE_TTL);
+		}
+
+		return new CacheImpl(this.metamodel, sharedCacheMode, cacheSize, cacheTtl);
+	}
+
 	/**
 	 * Creates the JDBC adaptor.
 	 * 
@@ -397,6 +503,16 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.REMOVE_BATCH_SIZE) + " for " + BJPASettings.REMOVE_BATCH_SIZE);
 		}
 
+		int updateBatchSize;
+		try {
+			updateBatchSize = this.getProperty(BJPASettings.UPDATE_BATCH_SIZE) != null ? //
+				Integer.valueOf(((String) this.getProperty(BJPASettings.UPDATE_BATCH_SIZE))) : //
+				BJPASettings.DEFAULT_UPDATE_BATCH_SIZE;
+		}
+		catch (final Exception e) {
+			throw new IllegalArgumentException("Illegal value " + this.getProperty(BJPASettings.UPDATE_BATCH_SIZE) + " for " + BJPASettings.UPDATE_BATCH_SIZE);
+		}
+
 		try {
 			final Connection connection = this.dataSource.getConnection();
 			try {
@@ -404,6 +520,7 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 
 				adapter.setInsertBatchSize(insertBatchSize);
 				adapter.setRemoveBatchSize(removeBatchSize);
+				adapter.setUpdateBatchSize(updateBatchSize);
 
 				return adapter;
 			}
@@ -433,13 +550,24 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		}
 	}
 
+	/**
+	 * Returns the global batch fetch size.
+	 * 
+	 * @return the global batch fetch size
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getBatchFetchSize() {
+		return this.batchFetchSize;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
 	 */
 	@Override
-	public Cache getCache() {
-		return null;
+	public CacheImpl getCache() {
+		return this.cache;
 	}
 
 	/**
@@ -486,6 +614,17 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.jdbcAdaptor;
 	}
 
+	/**
+	 * Returns the cache of the compiled JPQL queries.
+	 * 
+	 * @return the cache of the compiled JPQL queries
+	 * 
+	 * @since 2.0.1
+	 */
+	public JpqlCache getJpqlCache() {
+		return this.jpqlCache;
+	}
+
 	/**
 	 * Returns a lazy created {@link JpqlQuery} for the query.
 	 * 
@@ -501,34 +640,9 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 
 			JpqlQuery jpqlQuery = this.jpqlCache.get(qlString);
 			if (jpqlQuery == null) {
-				jpqlQuery = new JpqlQuery(EntityManagerFactoryImpl.this, qlString);
-
-				// clean up job
-				if (this.jpqlCache.size() == EntityManagerFactoryImpl.NO_QUERIES_MAX) {
-					synchronized (this) {
-						if (this.jpqlCache.size() == EntityManagerFactoryImpl.NO_QUERIES_MAX) {
-							final JpqlQuery[] queries = Lists.newArrayList(this.jpqlCache.values()).toArray(new JpqlQuery[this.jpqlCache.size()]);
-							Arrays.sort(queries, new Comparator<JpqlQuery>() {
-
-								@Override
-								public int compare(JpqlQuery o1, JpqlQuery o2) {
-									if (o1.getLastUsed() > o2.getLastUsed()) {
-										return 1;
-									}
-
-									return -1;
-								}
-							});
-
-							for (int i = 0; i < EntityManagerFactoryImpl.NO_QUERIES_TRIM; i++) {
-								this.jpqlCache.remove(queries[i].getQueryString());
-							}
-						}
-					}
-				}
-
-				this.jpqlCache.put(qlString, jpqlQuery);
+				jpqlQuery = this.jpqlCache.putIfAbsent(qlString, new JpqlQuery(EntityManagerFactoryImpl.this, qlString));
 			}
+
 			return jpqlQuery;
 		}
 		catch (final Exception e) {
@@ -630,6 +744,17 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.removeValidators;
 	}
 
+	/**
+	 * Returns the statistics of the SQL statements executed by the entity manager factory.
+	 * 
+	 * @return the SQL statistics
+	 * 
+	 * @since 2.0.1
+	 */
+	public SqlStatistics getSqlStatistics() {
+		return this.dataSource.getSqlStatistics();
+	}
+
 	/**
 	 * Returns the set of update validators.
 	 * 
@@ -685,6 +810,17 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return this.validationFactory != null;
 	}
 
+	/**
+	 * Returns if the updates should only include the changed columns by default.
+	 * 
+	 * @return true if the updates should only include the changed columns by default, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isDynamicUpdate() {
+		return this.dynamicUpdate;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -719,6 +855,42 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		return DDLMode.valueOf(ddlMode.toUpperCase());
 	}
 
+	private void registerStatistics(String name) {
+		try {
+			final ObjectName objectName = new ObjectName("org.batoo.jpa:type=SqlStatistics,name=" + ObjectName.quote(name));
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+			if (server.isRegistered(objectName)) {
+				EntityManagerFactoryImpl.LOG.warn("SQL statistics of another {0} persistence unit is already registered, skipping JMX registration",
+					name);
+
+				return;
+			}
+
+			server.registerMBean(this.getSqlStatistics(), objectName);
+
+			this.statisticsName = objectName;
+		}
+		catch (final Exception e) {
+			EntityManagerFactoryImpl.LOG.warn(e, "Cannot register the SQL statistics of {0} persistence unit to JMX", name);
+		}
+	}
+
+	private void unregisterStatistics() {
+		if (this.statisticsName == null) {
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.statisticsName);
+		}
+		catch (final Exception e) {
+			EntityManagerFactoryImpl.LOG.warn(e, "Cannot unregister the SQL statistics from JMX");
+		}
+
+		this.statisticsName = null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -729,6 +901,11 @@ public class EntityManagerFactoryImpl implements EntityManagerFactory, Serializa
 		if (clazz == EntityManagerFactoryImpl.class) {
 			return (T) this;
 		}
+
+		if (clazz == SqlStatistics.class) {
+			return (T) this.getSqlStatistics();
+		}
+
 		return null;
 	}
 }
@@ -23,12 +23,16 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
@@ -47,6 +51,9 @@ import org.apache.commons.lang.mutable.MutableBoolean;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 import org.batoo.common.util.StringUtils;
+import org.batoo.jpa.JPASettings;
+import org.batoo.jpa.core.BatooEntityManager;
+import org.batoo.jpa.core.ScrollableResults;
 import org.batoo.jpa.core.impl.criteria.CriteriaBuilderImpl;
 import org.batoo.jpa.core.impl.criteria.CriteriaDeleteImpl;
 import org.batoo.jpa.core.impl.criteria.CriteriaQueryImpl;
@@ -77,7 +84,7 @@ import com.google.common.collect.Sets;
  * @author hceylan
  * @since 2.0.0
  */
-public class EntityManagerImpl implements EntityManager {
+public class EntityManagerImpl implements BatooEntityManager {
 
 	private static final BLogger LOG = BLoggerFactory.getLogger(EntityManagerImpl.class);
 
@@ -218,6 +225,26 @@ public class EntityManagerImpl implements EntityManager {
 		}
 	}
 
+	/**
+	 * Cascades the removal of the instance to its associates.
+	 * 
+	 * @param instance
+	 *            the removed instance
+	 * 
+	 * @since 2.0.1
+	 */
+	public void cascadeRemove(ManagedInstance<?> instance) {
+		final ArrayList<Object> associates = Lists.newArrayList();
+		instance.cascadeRemove(associates);
+
+		final LinkedList<Object> pending = Lists.newLinkedList();
+		for (int i = associates.size() - 1; i >= 0; i--) {
+			pending.push(associates.get(i));
+		}
+
+		this.removeAll(pending, null, null);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -242,6 +269,8 @@ public class EntityManagerImpl implements EntityManager {
 	 */
 	public void clearTransaction() {
 		this.transaction = null;
+
+		this.session.releaseCacheEvictions();
 	}
 
 	/**
@@ -297,7 +326,7 @@ public class EntityManagerImpl implements EntityManager {
 
 		final ManagedInstance<Object> instance = this.session.get(entity);
 
-		return (instance != null) && (instance.getInstance() == entity);
+		return (instance != null) && (instance.getInstance() == entity) && (instance.getStatus() != Status.DETACHED);
 	}
 
 	/**
@@ -481,7 +510,8 @@ public class EntityManagerImpl implements EntityManager {
 		this.session.setLoadTracker();
 
 		try {
-			final ManagedInstance<? extends T> instance = this.session.get(new ManagedId<T>(primaryKey, type));
+			final ManagedId<T> managedId = new ManagedId<T>(primaryKey, type);
+			final ManagedInstance<? extends T> instance = this.session.get(managedId);
 			if (instance != null) {
 				if (instance.getInstance() instanceof EnhancedInstance) {
 					final EnhancedInstance enhanced = (EnhancedInstance) instance.getInstance();
@@ -503,6 +533,19 @@ public class EntityManagerImpl implements EntityManager {
 				}
 			}
 
+			// try the second level cache
+			if (((lockMode == null) || (lockMode == LockModeType.NONE)) && this.isCacheRetrieve(properties)) {
+				final ManagedInstance<? extends T> cachedInstance = this.emf.getCache().load(this.session, managedId, instance);
+				if (cachedInstance != null) {
+					return cachedInstance.getInstance();
+				}
+			}
+
+			// try to load the uninitialized instance together with the other uninitialized instances in the session
+			if ((instance != null) && ((lockMode == null) || (lockMode == LockModeType.NONE)) && type.performBatchSelect(this, instance)) {
+				return instance.getInstance();
+			}
+
 			try {
 				return type.performSelect(this, primaryKey, lockMode);
 			}
@@ -742,6 +785,45 @@ public class EntityManagerImpl implements EntityManager {
 		return false;
 	}
 
+	/**
+	 * Returns if the second level cache should be used to retrieve the entities.
+	 * 
+	 * @param properties
+	 *            the properties of the operation or <code>null</code>
+	 * @return true if the second level cache should be used, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	private boolean isCacheRetrieve(Map<String, Object> properties) {
+		if (!this.emf.getCache().isEnabled()) {
+			return false;
+		}
+
+		Object mode = properties != null ? properties.get(JPASettings.SHARED_CACHE_RETRIEVE_MODE) : null;
+		if (mode == null) {
+			mode = this.properties.get(JPASettings.SHARED_CACHE_RETRIEVE_MODE);
+		}
+
+		return (mode == null) || !CacheRetrieveMode.BYPASS.name().equals(mode.toString());
+	}
+
+	/**
+	 * Returns if the entities loaded should be stored in the second level cache.
+	 * 
+	 * @return true if the entities loaded should be stored in the second level cache, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isCacheStore() {
+		if (!this.emf.getCache().isEnabled()) {
+			return false;
+		}
+
+		final Object mode = this.properties.get(JPASettings.SHARED_CACHE_STORE_MODE);
+
+		return (mode == null) || !CacheStoreMode.BYPASS.name().equals(mode.toString());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -795,28 +877,80 @@ public class EntityManagerImpl implements EntityManager {
 	 * @since 2.0.0
 	 */
 	public void lock(ManagedInstance<?> instance, LockModeType lockMode, Map<String, Object> properties) {
+		this.lock(Collections.<ManagedInstance<?>> singletonList(instance), lockMode);
+	}
+
+	/**
+	 * Locks the entities.
+	 * <p>
+	 * The forced version increments are performed with a single batch per root type. The pessimistic locks are acquired by the statement
+	 * that selected the entities, so the entities are not touched again.
+	 * 
+	 * @param instances
+	 *            the managed instances
+	 * @param lockMode
+	 *            the lock mode
+	 * 
+	 * @since 2.0.1
+	 */
+	public void lock(List<ManagedInstance<?>> instances, LockModeType lockMode) {
+		final boolean optimistic = (lockMode == LockModeType.OPTIMISTIC) || (lockMode == LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+		if (!optimistic && (lockMode != LockModeType.PESSIMISTIC_FORCE_INCREMENT)) {
+			return;
+		}
+
 		// check optimistic lock is supported
-		if ((lockMode == LockModeType.OPTIMISTIC) || (lockMode == LockModeType.OPTIMISTIC_FORCE_INCREMENT)) {
-			final EntityTypeImpl<?> type = instance.getType().getRootType();
-			if (!type.hasVersionAttribute()) {
-				throw new PersistenceException("OPTIMISTIC and OPTIMISTIC_FORCE_INCREMENT not supported on non-versioned entity "
-					+ instance.getType().getName());
+		if (optimistic) {
+			for (int i = 0; i < instances.size(); i++) {
+				final ManagedInstance<?> instance = instances.get(i);
+				if (!instance.getType().getRootType().hasVersionAttribute()) {
+					throw new PersistenceException("OPTIMISTIC and OPTIMISTIC_FORCE_INCREMENT not supported on non-versioned entity "
+						+ instance.getType().getName());
+				}
 			}
+		}
 
-			try {
-				if (lockMode == LockModeType.OPTIMISTIC_FORCE_INCREMENT) {
-					this.assertTransaction();
+		try {
+			if (lockMode == LockModeType.OPTIMISTIC) {
+				for (int i = 0; i < instances.size(); i++) {
+					instances.get(i).incrementVersion(this.getConnection(), false);
+				}
+
+				return;
+			}
+
+			this.assertTransaction();
 
-					instance.incrementVersion(this.getConnection(), true);
+			// group the versioned instances by the root type so that each table is updated with a single batch
+			final Map<EntityTypeImpl<?>, List<ManagedInstance<?>>> batches = Maps.newLinkedHashMap();
+			for (int i = 0; i < instances.size(); i++) {
+				final ManagedInstance<?> instance = instances.get(i);
+				final EntityTypeImpl<?> rootType = instance.getType().getRootType();
+
+				if (!rootType.hasVersionAttribute()) {
+					continue;
 				}
-				else {
-					instance.incrementVersion(this.getConnection(), false);
+
+				List<ManagedInstance<?>> batch = batches.get(rootType);
+				if (batch == null) {
+					batch = Lists.newArrayList();
+					batches.put(rootType, batch);
 				}
+
+				batch.add(instance);
 			}
-			catch (final SQLException e) {
-				throw new PersistenceException("Unabled to update the version", e);
+
+			for (final Entry<EntityTypeImpl<?>, List<ManagedInstance<?>>> batch : batches.entrySet()) {
+				final List<ManagedInstance<?>> batchInstances = batch.getValue();
+
+				batch.getKey().performVersionUpdate(this.getConnection(), batchInstances.toArray(new ManagedInstance[batchInstances.size()]),
+					batchInstances.size());
 			}
 		}
+		catch (final SQLException e) {
+			throw new PersistenceException("Unabled to update the version", e);
+		}
 	}
 
 	/**
@@ -983,7 +1117,7 @@ public class EntityManagerImpl implements EntityManager {
 
 		final LinkedList<ManagedInstance<?>> persistedInstances = Lists.newLinkedList();
 
-		if (this.persistImpl(entity, Lists.newArrayList(), persistedInstances)) {
+		if (this.persistImpl(entity, Sets.newIdentityHashSet(), persistedInstances)) {
 			this.flush();
 		}
 
@@ -996,6 +1130,8 @@ public class EntityManagerImpl implements EntityManager {
 	 * Cascaded implementation of {@link #persist(Object)}.
 	 * <p>
 	 * Also manages a direct or indirect requirement to an implicit flush.
+	 * <p>
+	 * The cascade graph is traversed depth first with an explicit stack, so that the deep graphs do not exhaust the call stack.
 	 * 
 	 * @param entity
 	 *            the entity to cascade
@@ -1003,22 +1139,58 @@ public class EntityManagerImpl implements EntityManager {
 	 *            registry of processed entities
 	 * @param instances
 	 *            the managed instances
-	 * @param <T>
-	 *            the type of the entity
 	 * @return true if an implicit flush is required, false otherwise
 	 * 
 	 * @since 2.0.0
 	 */
-	@SuppressWarnings("unchecked")
-	public <T> boolean persistImpl(T entity, ArrayList<Object> processed, LinkedList<ManagedInstance<?>> instances) {
-		if (entity == null) {
-			return false;
-		}
+	public boolean persistImpl(Object entity, Set<Object> processed, LinkedList<ManagedInstance<?>> instances) {
+		final MutableBoolean requiresFlush = new MutableBoolean(false);
 
-		if (processed.contains(entity)) {
-			return false;
+		final LinkedList<Object> pending = Lists.newLinkedList();
+		final ArrayList<Object> associates = Lists.newArrayList();
+
+		pending.push(entity);
+
+		while (!pending.isEmpty()) {
+			final Object current = pending.pop();
+
+			if ((current == null) || !processed.add(current)) {
+				continue;
+			}
+
+			final ManagedInstance<?> instance = this.persistInstance(current, requiresFlush, instances);
+			if (instance != null) {
+				instance.cascadePersist(associates);
+
+				// push in reverse so that the associates are processed in their natural order
+				for (int i = associates.size() - 1; i >= 0; i--) {
+					pending.push(associates.get(i));
+				}
+
+				associates.clear();
+			}
 		}
 
+		return requiresFlush.booleanValue();
+	}
+
+	/**
+	 * Persists the single entity.
+	 * 
+	 * @param entity
+	 *            the entity to persist
+	 * @param requiresFlush
+	 *            set if an implicit flush is required
+	 * @param instances
+	 *            the managed instances
+	 * @param <T>
+	 *            the type of the entity
+	 * @return the managed instance to cascade the persist to its associates
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> ManagedInstance<T> persistInstance(T entity, MutableBoolean requiresFlush, LinkedList<ManagedInstance<?>> instances) {
 		if (entity instanceof EnhancedInstance) {
 			final ManagedInstance<T> instance = (ManagedInstance<T>) ((EnhancedInstance) entity).__enhanced__$$__getManagedInstance();
 			if (instance.getStatus() == Status.DETACHED) {
@@ -1028,17 +1200,16 @@ public class EntityManagerImpl implements EntityManager {
 
 		final ManagedInstance<T> existing = this.session.get(entity);
 		if (existing != null) {
-			processed.add(entity);
 			instances.add(existing);
 
 			switch (existing.getStatus()) {
 				case REMOVED:
 					existing.setStatus(Status.MANAGED);
 
-					return existing.cascadePersist(this, processed, instances);
+					return existing;
 				case NEW:
 				case MANAGED:
-					return existing.cascadePersist(this, processed, instances);
+					return existing;
 				case DETACHED:
 					// noop
 			}
@@ -1053,15 +1224,15 @@ public class EntityManagerImpl implements EntityManager {
 
 		instance.enhanceCollections();
 
-		boolean requiresFlush = !instance.fillIdValues();
+		if (!instance.fillIdValues()) {
+			requiresFlush.setValue(true);
+		}
+
 		this.session.putExternal(instance);
 
-		processed.add(entity);
 		instances.add(instance);
 
-		requiresFlush |= instance.cascadePersist(this, processed, instances);
-
-		return requiresFlush;
+		return instance;
 	}
 
 	/**
@@ -1152,7 +1323,7 @@ public class EntityManagerImpl implements EntityManager {
 
 		final LinkedList<ManagedInstance<?>> removedInstances = Lists.newLinkedList();
 
-		this.removeImpl(entity, Lists.newArrayList(), removedInstances);
+		this.removeImpl(entity, Sets.newIdentityHashSet(), removedInstances);
 
 		for (final ManagedInstance<?> instance : removedInstances) {
 			instance.fireCallbacks(EntityListenerType.PRE_REMOVE);
@@ -1171,11 +1342,65 @@ public class EntityManagerImpl implements EntityManager {
 	 * 
 	 * @since 2.0.0
 	 */
-	public void removeImpl(Object entity, ArrayList<Object> processed, LinkedList<ManagedInstance<?>> instances) {
-		if ((processed != null) && processed.contains(entity)) {
-			return;
+	public void removeImpl(Object entity, Set<Object> processed, LinkedList<ManagedInstance<?>> instances) {
+		final LinkedList<Object> pending = Lists.newLinkedList();
+		pending.push(entity);
+
+		this.removeAll(pending, processed, instances);
+	}
+
+	/**
+	 * Removes the pending entities and the entities the removal cascades to.
+	 * <p>
+	 * The cascade graph is traversed depth first with an explicit stack, so that the deep graphs do not exhaust the call stack.
+	 * 
+	 * @param pending
+	 *            the stack of entities pending removal
+	 * @param processed
+	 *            registry of processed entities, or <code>null</code> if the cycles are broken by the status of the instances
+	 * @param instances
+	 *            the managed instances
+	 * 
+	 * @since 2.0.1
+	 */
+	private void removeAll(LinkedList<Object> pending, Set<Object> processed, LinkedList<ManagedInstance<?>> instances) {
+		final ArrayList<Object> associates = Lists.newArrayList();
+
+		while (!pending.isEmpty()) {
+			final Object entity = pending.pop();
+
+			if ((processed != null) && processed.contains(entity)) {
+				continue;
+			}
+
+			final ManagedInstance<?> instance = this.removeInstance(entity, processed, instances);
+			if (instance != null) {
+				instance.cascadeRemove(associates);
+
+				// push in reverse so that the associates are processed in their natural order
+				for (int i = associates.size() - 1; i >= 0; i--) {
+					pending.push(associates.get(i));
+				}
+
+				associates.clear();
+			}
 		}
+	}
 
+	/**
+	 * Removes the single entity.
+	 * 
+	 * @param entity
+	 *            the entity to remove
+	 * @param processed
+	 *            registry of processed entities
+	 * @param instances
+	 *            the managed instances
+	 * @return the managed instance to cascade the removal to its associates, or <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	private ManagedInstance<?> removeInstance(Object entity, Set<Object> processed, LinkedList<ManagedInstance<?>> instances) {
 		if (entity instanceof EnhancedInstance) {
 			final EnhancedInstance enhancedInstance = (EnhancedInstance) entity;
 			final ManagedInstance<?> instance = enhancedInstance.__enhanced__$$__getManagedInstance();
@@ -1189,26 +1414,39 @@ public class EntityManagerImpl implements EntityManager {
 			if (instance.getStatus() == Status.MANAGED) {
 				instance.setStatus(Status.REMOVED);
 				this.session.setChanged(instance);
-
-				if (processed != null) {
-					processed.add(entity);
-					instances.add(instance);
-				}
-
-				instance.cascadeRemove(this, processed, instances);
 			}
 			else if (instance.getStatus() == Status.NEW) {
 				this.session.remove(instance.getInstance());
 				instance.setStatus(Status.DETACHED);
+			}
+			else {
+				return null;
+			}
 
-				if (processed != null) {
-					processed.add(entity);
-					instances.add(instance);
-				}
-
-				instance.cascadeRemove(this, processed, instances);
+			if (processed != null) {
+				processed.add(entity);
+				instances.add(instance);
 			}
+
+			return instance;
 		}
+
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public <X> ScrollableResults<X> scroll(TypedQuery<X> query, boolean detach) {
+		this.assertOpen();
+
+		if (!(query instanceof QueryImpl)) {
+			throw new IllegalArgumentException("Only the JPQL and criteria queries can be scrolled");
+		}
+
+		return ((QueryImpl<X>) query).scroll(detach);
 	}
 
 	/**
@@ -1254,6 +1492,10 @@ public class EntityManagerImpl implements EntityManager {
 			return (T) this.connection;
 		}
 
+		if (clazz == BatooEntityManager.class) {
+			return (T) this;
+		}
+
 		return null;
 	}
 }
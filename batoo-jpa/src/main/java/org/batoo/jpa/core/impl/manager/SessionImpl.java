@@ -22,8 +22,12 @@ package org.batoo.jpa.core.impl.manager;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -34,6 +38,9 @@ import javax.validation.ConstraintViolationException;
 
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.core.impl.cache.CacheImpl;
+import org.batoo.jpa.core.impl.criteria.SubselectFetch;
+import org.batoo.jpa.core.impl.instance.DeferredAssociation;
 import org.batoo.jpa.core.impl.instance.EnhancedInstance;
 import org.batoo.jpa.core.impl.instance.ManagedId;
 import org.batoo.jpa.core.impl.instance.ManagedInstance;
@@ -41,8 +48,10 @@ import org.batoo.jpa.core.impl.instance.Prioritizer;
 import org.batoo.jpa.core.impl.instance.Status;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
 import org.batoo.jpa.core.impl.model.MetamodelImpl;
+import org.batoo.jpa.jdbc.mapping.Mapping;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata.EntityListenerType;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -60,9 +69,14 @@ public class SessionImpl {
 
 	private final EntityManagerImpl em;
 	private final MetamodelImpl metamodel;
+	private final CacheImpl cache;
 	private final long sessionId;
 
-	private final HashMap<ManagedId<?>, ManagedInstance<?>> repository = Maps.newHashMap();
+	private final HashMap<ManagedId<?>, ManagedInstance<?>> repository = Maps.newLinkedHashMap();
+	private final HashMap<Mapping<?, ?, ?>, IdentityHashMap<ManagedInstance<?>, Collection<?>>> batchFetched = Maps.newHashMap();
+	private final IdentityHashMap<ManagedInstance<?>, SubselectFetch> subselectFetches = Maps.newIdentityHashMap();
+	private final HashMap<Object, LinkedHashSet<ManagedInstance<?>>> batchCandidates = Maps.newHashMap();
+	private final ArrayList<List<ManagedInstance<?>>> putTrackers = Lists.newArrayList();
 
 	private final ArrayList<ManagedInstance<?>> newEntities = Lists.newArrayList();
 	private final ArrayList<ManagedInstance<?>> externalEntities = Lists.newArrayList();
@@ -71,9 +85,14 @@ public class SessionImpl {
 	private List<ManagedInstance<?>> entitiesLoading = Lists.newArrayList();
 
 	private int loadTracker = 0;
+	private long cacheLoadStamp;
+
+	private final ArrayList<ManagedId<?>> cacheEvictions = Lists.newArrayList();
+	private boolean cacheEvictAll;
 
 	private final int insertBatchSize;
 	private final int removeBatchSize;
+	private final int updateBatchSize;
 
 	/**
 	 * @param entityManager
@@ -88,11 +107,25 @@ public class SessionImpl {
 
 		this.em = entityManager;
 		this.metamodel = metamodel;
+		this.cache = this.em.getEntityManagerFactory().getCache();
 		this.insertBatchSize = this.em.getJdbcAdaptor().getInsertBatchSize();
 		this.removeBatchSize = this.em.getJdbcAdaptor().getRemoveBatchSize();
+		this.updateBatchSize = Math.max(1, this.em.getJdbcAdaptor().getUpdateBatchSize());
 		this.sessionId =  SessionImpl.nextSessionId.incrementAndGet();
 	}
 
+	/**
+	 * Adds the list to collect the instances put into the session from now on.
+	 * 
+	 * @param tracker
+	 *            the list to collect the instances
+	 * 
+	 * @since 2.0.1
+	 */
+	public void addPutTracker(List<ManagedInstance<?>> tracker) {
+		this.putTrackers.add(tracker);
+	}
+
 	/**
 	 * Cascades the removals.
 	 * 
@@ -106,7 +139,7 @@ public class SessionImpl {
 
 		for (final ManagedInstance<?> instance : instances) {
 			if (instance.getStatus() == Status.REMOVED) {
-				instance.cascadeRemove(this.em, null, null);
+				this.em.cascadeRemove(instance);
 			}
 		}
 	}
@@ -149,6 +182,9 @@ public class SessionImpl {
 		this.repository.clear();
 		this.externalEntities.clear();
 		this.changedEntities.clear();
+		this.batchFetched.clear();
+		this.subselectFetches.clear();
+		this.batchCandidates.clear();
 	}
 
 	/**
@@ -158,12 +194,26 @@ public class SessionImpl {
 	 *            the connection
 	 * @param removes
 	 *            the array of removes
+	 * @param deferreds
+	 *            the foreign keys to clear before the removes
 	 * @throws SQLException
 	 *             thrown in case of an underlying SQL error
 	 * 
 	 * @since 2.0.0
 	 */
-	private void doRemoves(Connection connection, final ManagedInstance<?>[] removes) throws SQLException {
+	private void doRemoves(Connection connection, final ManagedInstance<?>[] removes, List<DeferredAssociation> deferreds) throws SQLException {
+		// break the circular dependencies by clearing the foreign keys
+		for (final DeferredAssociation deferred : deferreds) {
+			deferred.clear();
+
+			try {
+				deferred.perform(connection);
+			}
+			finally {
+				deferred.restore();
+			}
+		}
+
 		final ManagedInstance<?>[] batch = new ManagedInstance[this.removeBatchSize];
 
 		int i = 0;
@@ -199,7 +249,7 @@ public class SessionImpl {
 	}
 
 	/**
-	 * Performs the insert / update operations. Batches together the inserts on the same tables.
+	 * Performs the insert / update operations. Batches together the inserts and the updates on the same tables.
 	 * 
 	 * @param connection
 	 *            the connection
@@ -211,7 +261,7 @@ public class SessionImpl {
 	 * @since 2.0.0
 	 */
 	private void doUpdates(Connection connection, final ManagedInstance<?>[] updates) throws SQLException {
-		final ManagedInstance<?>[] managedInstances = new ManagedInstance[this.insertBatchSize];
+		final ManagedInstance<?>[] managedInstances = new ManagedInstance[Math.max(this.insertBatchSize, this.updateBatchSize)];
 
 		int i = 0;
 
@@ -250,12 +300,33 @@ public class SessionImpl {
 				if (instance.getStatus() == Status.NEW) {
 					managedInstances[0] = instance;
 					instance.getType().performInsert(connection, managedInstances, 1);
+
+					i++;
+
+					continue;
 				}
-				else {
-					instance.getType().performUpdate(connection, instance);
+
+				lastEntity = instance.getType();
+
+				// group upto UPDATE_BATCH_SIZE and same type entities that are managed into a single batch
+				while ((i < updates.length) && //
+					(batchSize < this.updateBatchSize) && //
+					(updates[i].getStatus() != Status.NEW) && //
+					(lastEntity == updates[i].getType())) {
+
+					managedInstances[batchSize] = updates[i];
+					batchSize++;
+					i++;
 				}
 
-				i++;
+				if (batchSize > 1) {
+					SessionImpl.LOG.debug("Batch update is being performed for {0} with the size {1}", lastEntity.getName(), batchSize);
+
+					lastEntity.performUpdate(connection, managedInstances, batchSize);
+				}
+				else {
+					lastEntity.performUpdate(connection, instance);
+				}
 			}
 		}
 	}
@@ -280,6 +351,39 @@ public class SessionImpl {
 		}
 	}
 
+	/**
+	 * Evicts all the instances from the second level cache.
+	 * <p>
+	 * The cache is evicted once more when the transaction completes, see {@link #releaseCacheEvictions()}.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void evictAllFromCache() {
+		if (this.cache.isEnabled()) {
+			this.cache.evictAll();
+
+			this.cacheEvictAll = true;
+		}
+	}
+
+	/**
+	 * Evicts the instance from the second level cache.
+	 * <p>
+	 * The instance is evicted once more when the transaction completes, see {@link #releaseCacheEvictions()}.
+	 * 
+	 * @param instance
+	 *            the instance to evict
+	 * 
+	 * @since 2.0.1
+	 */
+	public void evictFromCache(ManagedInstance<?> instance) {
+		if (this.cache.isCached(instance.getType())) {
+			this.cache.evict(instance.getId());
+
+			this.cacheEvictions.add(instance.getId());
+		}
+	}
+
 	/**
 	 * Fires the post callbacks.
 	 * 
@@ -356,9 +460,13 @@ public class SessionImpl {
 			}
 			else if (instance.getStatus() == Status.REMOVED) {
 				removals.add(instance);
+
+				this.evictFromCache(instance);
 			}
 			else if (instance.hasSelfUpdate()) {
 				updates.add(instance);
+
+				this.evictFromCache(instance);
 			}
 		}
 
@@ -371,7 +479,10 @@ public class SessionImpl {
 
 		final CallbackAvailability callbackAvailability = new CallbackAvailability();
 
-		Prioritizer.sort(updates, removals, sortedUpdates, sortedRemovals, callbackAvailability);
+		final List<DeferredAssociation> deferredUpdates = Lists.newArrayList();
+		final List<DeferredAssociation> deferredRemovals = Lists.newArrayList();
+
+		Prioritizer.sort(updates, removals, sortedUpdates, sortedRemovals, deferredUpdates, deferredRemovals, callbackAvailability);
 
 		SessionImpl.LOG.debug("Flushing session {0}: updates {1}, removals {2}", this, sortedUpdates.length, sortedRemovals.length);
 
@@ -406,8 +517,25 @@ public class SessionImpl {
 			instance.flushAssociations(connection, true, false);
 		}
 
-		this.doUpdates(connection, sortedUpdates);
-		this.doRemoves(connection, sortedRemovals);
+		// the rows are written without the foreign keys that form circular dependencies
+		for (final DeferredAssociation deferred : deferredUpdates) {
+			deferred.clear();
+		}
+
+		try {
+			this.doUpdates(connection, sortedUpdates);
+		}
+		finally {
+			for (final DeferredAssociation deferred : deferredUpdates) {
+				deferred.restore();
+			}
+		}
+
+		for (final DeferredAssociation deferred : deferredUpdates) {
+			deferred.perform(connection);
+		}
+
+		this.doRemoves(connection, sortedRemovals, deferredRemovals);
 
 		for (final ManagedInstance<?> instance : sortedUpdates) {
 			instance.checkTransients();
@@ -506,6 +634,69 @@ public class SessionImpl {
 		return this.em;
 	}
 
+	/**
+	 * Returns the managed instances in the session that can be loaded in a batch together with an instance, in the order they have been
+	 * put into the session.
+	 * <p>
+	 * The candidates are kept per batch key, that is the type or the association being loaded. They are collected from the session on the
+	 * first call for the key and the instances put into the session afterwards are added as they come. The instances that are not managed
+	 * are skipped, whereas a managed instance that does not satisfy the predicate is dropped from the candidates of the key for good, so
+	 * the predicate must only reject the instances that will never qualify again. This way each instance is visited a bounded number of
+	 * times regardless of the number of loads.
+	 * 
+	 * @param key
+	 *            the batch key
+	 * @param instance
+	 *            the instance being loaded, which is not returned
+	 * @param predicate
+	 *            the predicate to satisfy
+	 * @param max
+	 *            the max number of instances to return
+	 * @return the list of managed instances
+	 * 
+	 * @since 2.0.1
+	 */
+	public List<ManagedInstance<?>> getBatchCandidates(Object key, ManagedInstance<?> instance, Predicate<ManagedInstance<?>> predicate,
+		int max) {
+		LinkedHashSet<ManagedInstance<?>> candidates = this.batchCandidates.get(key);
+		if (candidates == null) {
+			candidates = Sets.newLinkedHashSet(this.repository.values());
+			this.batchCandidates.put(key, candidates);
+		}
+
+		final List<ManagedInstance<?>> instances = Lists.newArrayList();
+
+		final Iterator<ManagedInstance<?>> i = candidates.iterator();
+		while ((instances.size() < max) && i.hasNext()) {
+			final ManagedInstance<?> candidate = i.next();
+			if ((candidate == instance) || (candidate.getStatus() != Status.MANAGED)) {
+				continue;
+			}
+
+			if (predicate.apply(candidate)) {
+				instances.add(candidate);
+			}
+			else {
+				i.remove();
+			}
+		}
+
+		return instances;
+	}
+
+	/**
+	 * Returns the subselect fetch context of the query that has loaded the instance.
+	 * 
+	 * @param instance
+	 *            the instance
+	 * @return the subselect fetch context or <code>null</code> if the instance has not been loaded by a query with subselect fetches
+	 * 
+	 * @since 2.0.1
+	 */
+	public SubselectFetch getSubselectFetch(ManagedInstance<?> instance) {
+		return this.subselectFetches.get(instance);
+	}
+
 	/**
 	 * Handles the additions to the collections.
 	 * 
@@ -555,6 +746,24 @@ public class SessionImpl {
 		}
 	}
 
+	/**
+	 * Returns if the association of the instance has been loaded together with the association of another instance and is waiting to be
+	 * initialized.
+	 * 
+	 * @param mapping
+	 *            the mapping of the association
+	 * @param instance
+	 *            the owner instance
+	 * @return true if the association has been batch fetched, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isBatchFetched(Mapping<?, ?, ?> mapping, ManagedInstance<?> instance) {
+		final IdentityHashMap<ManagedInstance<?>, Collection<?>> instances = this.batchFetched.get(mapping);
+
+		return (instances != null) && instances.containsKey(instance);
+	}
+
 	/**
 	 * Notifies the session that the lazy instance is loading
 	 * 
@@ -582,11 +791,41 @@ public class SessionImpl {
 	public <X> void put(ManagedInstance<X> instance) {
 		this.repository.put(instance.getId(), instance);
 
+		for (final LinkedHashSet<ManagedInstance<?>> candidates : this.batchCandidates.values()) {
+			candidates.add(instance);
+		}
+
+		for (int i = 0; i < this.putTrackers.size(); i++) {
+			this.putTrackers.get(i).add(instance);
+		}
+
 		if ((this.loadTracker > 0) && instance.isLoading()) {
 			this.entitiesLoading.add(instance);
 		}
 	}
 
+	/**
+	 * Puts the children of the association of the instance that have been loaded together with the association of another instance.
+	 * 
+	 * @param mapping
+	 *            the mapping of the association
+	 * @param instance
+	 *            the owner instance
+	 * @param children
+	 *            the children of the association
+	 * 
+	 * @since 2.0.1
+	 */
+	public void putBatchFetched(Mapping<?, ?, ?> mapping, ManagedInstance<?> instance, Collection<?> children) {
+		IdentityHashMap<ManagedInstance<?>, Collection<?>> instances = this.batchFetched.get(mapping);
+		if (instances == null) {
+			instances = Maps.newIdentityHashMap();
+			this.batchFetched.put(mapping, instances);
+		}
+
+		instances.put(instance, children);
+	}
+
 	/**
 	 * Puts the new instance into the session.
 	 * <p>
@@ -607,6 +846,40 @@ public class SessionImpl {
 		this.newEntities.add(instance);
 	}
 
+	/**
+	 * Puts the subselect fetch context for the owners returned by a query.
+	 * 
+	 * @param subselectFetch
+	 *            the subselect fetch context
+	 * 
+	 * @since 2.0.1
+	 */
+	public void putSubselectFetch(SubselectFetch subselectFetch) {
+		for (final ManagedInstance<?> owner : subselectFetch.getOwners()) {
+			this.subselectFetches.put(owner, subselectFetch);
+		}
+	}
+
+	/**
+	 * Evicts the instances updated within the transaction from the second level cache once more, as concurrent sessions may have loaded
+	 * the state prior to the commit.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void releaseCacheEvictions() {
+		if (this.cacheEvictAll) {
+			this.cache.evictAll();
+		}
+		else {
+			for (final ManagedId<?> id : this.cacheEvictions) {
+				this.cache.evict(id);
+			}
+		}
+
+		this.cacheEvictions.clear();
+		this.cacheEvictAll = false;
+	}
+
 	/**
 	 * Releases the load tracker, so that the entities loaded are processed for associations and <code>PostLoad</code> listeners are
 	 * invoked.
@@ -623,6 +896,10 @@ public class SessionImpl {
 			final ManagedInstance<?>[] entitiesLoaded = this.entitiesLoading.toArray(new ManagedInstance[this.entitiesLoading.size()]);
 			this.entitiesLoading = Lists.newArrayList();
 
+			// nested loads may reset the stamp while processing the associations
+			final boolean cacheStore = this.em.isCacheStore();
+			final long loadStamp = this.cacheLoadStamp;
+
 			for (final ManagedInstance<?> instance : entitiesLoaded) {
 				// check if the transaction is marked as rollback
 				if (this.em.hasTransactionMarkedForRollback()) {
@@ -636,6 +913,10 @@ public class SessionImpl {
 				instance.processJoinedMappings();
 				instance.sortLists();
 
+				if (cacheStore && !instance.isLoadingFromCache()) {
+					this.cache.put(instance, loadStamp);
+				}
+
 				// mark as loaded
 				instance.setLoadingFromCache(false);
 			}
@@ -665,6 +946,11 @@ public class SessionImpl {
 		if (instance != null) {
 			this.repository.remove(instanceId);
 			this.changedEntities.remove(instance);
+
+			for (final LinkedHashSet<ManagedInstance<?>> candidates : this.batchCandidates.values()) {
+				candidates.remove(instance);
+			}
+
 			this.externalEntities.remove(instance);
 			this.newEntities.remove(instance);
 		}
@@ -672,6 +958,42 @@ public class SessionImpl {
 		return instance;
 	}
 
+	/**
+	 * Removes and returns the children of the association of the instance that have been loaded together with the association of another
+	 * instance.
+	 * 
+	 * @param mapping
+	 *            the mapping of the association
+	 * @param instance
+	 *            the owner instance
+	 * @return the children of the association or <code>null</code> if the association has not been batch fetched
+	 * 
+	 * @since 2.0.1
+	 */
+	public Collection<?> removeBatchFetched(Mapping<?, ?, ?> mapping, ManagedInstance<?> instance) {
+		final IdentityHashMap<ManagedInstance<?>, Collection<?>> instances = this.batchFetched.get(mapping);
+
+		return instances != null ? instances.remove(instance) : null;
+	}
+
+	/**
+	 * Removes the list that collects the instances put into the session.
+	 * 
+	 * @param tracker
+	 *            the list that collects the instances
+	 * 
+	 * @since 2.0.1
+	 */
+	public void removePutTracker(List<ManagedInstance<?>> tracker) {
+		for (int i = 0; i < this.putTrackers.size(); i++) {
+			if (this.putTrackers.get(i) == tracker) {
+				this.putTrackers.remove(i);
+
+				return;
+			}
+		}
+	}
+
 	/**
 	 * Marks the instance as changed.
 	 * 
@@ -698,6 +1020,10 @@ public class SessionImpl {
 
 		if (this.loadTracker == 1) {
 			SessionImpl.LOG.debug("Load tracker is triggered on session {0}", this);
+
+			if (this.cache.isEnabled()) {
+				this.cacheLoadStamp = this.cache.getEvictStamp();
+			}
 		}
 	}
 
@@ -28,7 +28,6 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -62,6 +61,8 @@ import org.batoo.jpa.core.impl.criteria.QueryImpl;
 import org.batoo.jpa.core.impl.criteria.RootImpl;
 import org.batoo.jpa.core.impl.criteria.expression.ParameterExpressionImpl;
 import org.batoo.jpa.core.impl.criteria.expression.PredicateImpl;
+import org.batoo.jpa.core.impl.instance.DirtyTracked;
+import org.batoo.jpa.core.impl.instance.DirtyTrackingEnhancer;
 import org.batoo.jpa.core.impl.instance.EnhancedInstance;
 import org.batoo.jpa.core.impl.instance.Enhancer;
 import org.batoo.jpa.core.impl.instance.ManagedId;
@@ -104,6 +105,7 @@ import org.batoo.jpa.parser.metadata.IndexMetadata;
 import org.batoo.jpa.parser.metadata.SecondaryTableMetadata;
 import org.batoo.jpa.parser.metadata.type.EntityMetadata;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -132,6 +134,9 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 
 	private CriteriaQueryImpl<X> selectCriteria;
 	private CriteriaQueryImpl<X> refreshCriteria;
+	private FinalWrapper<CriteriaQueryImpl<X>> batchSelectCriteria;
+	private FinalWrapper<Integer> batchFetchSize;
+	private FinalWrapper<Boolean> subselectFetches;
 	private int dependencyCount;
 	private boolean canBatchRemoves;
 
@@ -155,6 +160,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 
 	private SingularMappingEx<? super X, ?> idMapping;
 	private Boolean suitableForBatchInsert;
+	private Boolean dirtyTracked;
 
 	private Pair<SingularMapping<?, ?>, AbstractAccessor>[] idMappings;
 	private InheritanceType inheritanceType;
@@ -167,6 +173,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 
 	private final List<IndexMetadata> indexes;
 	private final int maxFetchJoinDepth;
+	private final boolean dynamicUpdate;
 
 	/**
 	 * @param metamodel
@@ -189,6 +196,7 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		this.inheritanceType = metadata.getInheritanceType();
 		this.discriminatorValue = StringUtils.isNotBlank(metadata.getDiscriminatorValue()) ? metadata.getDiscriminatorValue() : this.name;
 		this.maxFetchJoinDepth = metamodel.getEntityManagerFactory().getMaxFetchJoinDepth();
+		this.dynamicUpdate = metadata.getDynamicUpdate() != null ? metadata.getDynamicUpdate() : metamodel.getEntityManagerFactory().isDynamicUpdate();
 
 		this.addAttributes(metadata);
 		this.initTables(metadata);
@@ -730,6 +738,75 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return wrapper.value;
 	}
 
+	/**
+	 * Returns the number of uninitialized instances of the type that are loaded together when one of them is accessed.
+	 * <p>
+	 * The largest batch size of the singular associations that refer to the type is used, which defaults to the global batch fetch size.
+	 * 
+	 * @return the number of uninitialized instances of the type that are loaded together
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getBatchFetchSize() {
+		FinalWrapper<Integer> wrapper = this.batchFetchSize;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.batchFetchSize == null) {
+					int _batchFetchSize = this.getMetamodel().getEntityManagerFactory().getBatchFetchSize();
+
+					for (final EntityType<?> entity : this.getMetamodel().getEntities()) {
+						for (final SingularAssociationMappingImpl<?, ?> mapping : ((EntityTypeImpl<?>) entity).getAssociationsSingular()) {
+							if (mapping.getType().getJavaType().isAssignableFrom(this.getJavaType())) {
+								_batchFetchSize = Math.max(_batchFetchSize, mapping.getBatchSize());
+							}
+						}
+					}
+
+					this.batchFetchSize = new FinalWrapper<Integer>(_batchFetchSize);
+				}
+
+				wrapper = this.batchFetchSize;
+			}
+		}
+
+		return wrapper.value;
+	}
+
+	private CriteriaQueryImpl<X> getBatchSelectCriteria() {
+		FinalWrapper<CriteriaQueryImpl<X>> wrapper = this.batchSelectCriteria;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.batchSelectCriteria == null) {
+					final CriteriaBuilderImpl cb = this.getMetamodel().getEntityManagerFactory().getCriteriaBuilder();
+					CriteriaQueryImpl<X> q = cb.createQuery(this.getJavaType());
+					q.internal();
+					final RootImpl<X> r = q.from(this);
+					q = q.select(r);
+					r.alias(BatooUtils.acronym(this.name).toLowerCase());
+
+					this.prepareEagerJoins(r, 0, null);
+
+					final SingularMappingEx<? super X, ?> _idMapping = this.getRootType().getIdMapping();
+
+					final ParameterExpressionImpl<?>[] parameters = new ParameterExpressionImpl[this.getBatchFetchSize()];
+					for (int i = 0; i < parameters.length; i++) {
+						parameters[i] = cb.parameter(_idMapping.getAttribute().getJavaType());
+					}
+
+					final Path<?> path = r.get(_idMapping.getAttribute().getName());
+
+					this.batchSelectCriteria = new FinalWrapper<CriteriaQueryImpl<X>>(q.where(path.in(parameters)));
+				}
+
+				wrapper = this.batchSelectCriteria;
+			}
+		}
+
+		return wrapper.value;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -748,6 +825,17 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return BindableType.ENTITY_TYPE;
 	}
 
+	/**
+	 * Returns the cacheability of the type.
+	 * 
+	 * @return true if the type is cacheable, false if the type is not cacheable, <code>null</code> if not specified
+	 * 
+	 * @since 2.0.1
+	 */
+	public Boolean getCacheable() {
+		return this.metadata.getCacheable();
+	}
+
 	/**
 	 * Returns the child based on the <code>discriminatorValue</code> value.
 	 * 
@@ -1401,6 +1489,9 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 
 	/**
 	 * Returns the singular mappings.
+	 * <p>
+	 * The order of the mappings is fixed at deployment and the position of a mapping serves as its ordinal in the snapshots of the managed
+	 * instances.
 	 * 
 	 * @return the singular mappings
 	 * 
@@ -1565,6 +1656,36 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return wrapper.value;
 	}
 
+	/**
+	 * Returns the tables of the type that participate in updates.
+	 * 
+	 * @return the tables of the type that participate in updates
+	 * 
+	 * @since 2.0.1
+	 */
+	private EntityTable[] getUpdateTables() {
+		FinalWrapper<EntityTable[]> wrapper = this.updateTables;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.updateTables == null) {
+					final List<EntityTable> _updateTables = Lists.newArrayList();
+					for (final EntityTable table : this.getTables()) {
+						if (table.isUpdatable(this)) {
+							_updateTables.add(table);
+						}
+					}
+
+					this.updateTables = new FinalWrapper<EntityTable[]>(_updateTables.toArray(new EntityTable[_updateTables.size()]));
+				}
+
+				wrapper = this.updateTables;
+			}
+		}
+
+		return wrapper.value;
+	}
+
 	/**
 	 * Initializes the custom indexes
 	 * 
@@ -1675,6 +1796,107 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		}
 	}
 
+	/**
+	 * Returns if the type has collections that are loaded with the subselect fetch strategy.
+	 * 
+	 * @return true if the type has collections that are loaded with the subselect fetch strategy, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean hasSubselectFetches() {
+		FinalWrapper<Boolean> wrapper = this.subselectFetches;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.subselectFetches == null) {
+					boolean _subselectFetches = false;
+
+					for (final PluralAssociationMappingImpl<?, ?, ?> mapping : this.getAssociationsPlural()) {
+						if (mapping.isSubselectFetchable()) {
+							_subselectFetches = true;
+							break;
+						}
+					}
+
+					this.subselectFetches = new FinalWrapper<Boolean>(_subselectFetches);
+				}
+
+				wrapper = this.subselectFetches;
+			}
+		}
+
+		return wrapper.value;
+	}
+
+	/**
+	 * Returns if the uninitialized instances of the type can be loaded together.
+	 * <p>
+	 * Batch fetching is supported for the types with a single basic id mapped to a single column.
+	 * 
+	 * @return true if the uninitialized instances of the type can be batch fetched, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	private boolean isBatchFetchable() {
+		if (this.getBatchFetchSize() < 2) {
+			return false;
+		}
+
+		final EntityTypeImpl<? super X> _rootType = this.getRootType();
+
+		return _rootType.hasSingleIdAttribute() && (_rootType.getIdMapping() instanceof BasicMappingImpl)
+			&& (_rootType.getPrimaryTable().getPkColumns().size() == 1);
+	}
+
+	/**
+	 * Returns if the instances of the entity track the writes to their persistent fields so that the clean instances can be skipped at flush
+	 * time.
+	 * <p>
+	 * The entity is dirty tracked only if every class declaring a singular attribute is enhanced by the {@link DirtyTrackingEnhancer} and
+	 * the values of the singular attributes cannot be modified in place, that is there are no embeddables and all the basic values are
+	 * immutable.
+	 * 
+	 * @return true if the entity is dirty tracked, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isDirtyTracked() {
+		if (this.dirtyTracked != null) {
+			return this.dirtyTracked;
+		}
+
+		if (!DirtyTracked.class.isAssignableFrom(this.getJavaType())) {
+			return this.dirtyTracked = false;
+		}
+
+		for (final AbstractMapping<?, ?, ?> mapping : this.getMappingsSingular()) {
+			if ((mapping instanceof EmbeddedMappingImpl) || (mapping.getParent() instanceof EmbeddedMappingImpl)) {
+				return this.dirtyTracked = false;
+			}
+
+			if (!DirtyTrackingEnhancer.isEnhanced(mapping.getJavaMember().getDeclaringClass())) {
+				return this.dirtyTracked = false;
+			}
+
+			if ((mapping instanceof BasicMappingImpl) && !ReflectHelper.isImmutable(mapping.getJavaType())) {
+				return this.dirtyTracked = false;
+			}
+		}
+
+		return this.dirtyTracked = true;
+	}
+
+	/**
+	 * Returns if the updates of the entity should only include the changed columns.
+	 * 
+	 * @return true if the updates of the entity should only include the changed columns, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isDynamicUpdate() {
+		return this.dynamicUpdate;
+	}
+
 	/**
 	 * Returns if the method is an id method.
 	 * 
@@ -1715,7 +1937,8 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	}
 
 	/**
-	 * Returns if the entity is suitable for batch insert, that is not of {@link IdType#IDENTITY}.
+	 * Returns if the entity is suitable for batch insert, that is not of {@link IdType#IDENTITY} unless the JDBC adaptor supports multi-row
+	 * generated keys.
 	 * 
 	 * @return true if the entity is suitable for batch insert, false otherwise
 	 * 
@@ -1726,8 +1949,16 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 			return this.suitableForBatchInsert;
 		}
 
-		return this.suitableForBatchInsert = this.hasSingleIdAttribute() && (this.idMapping instanceof BasicMappingImpl)
-			&& (((BasicMappingImpl<? super X, ?>) this.idMapping).getAttribute().getIdType() != IdType.IDENTITY);
+		if (!this.hasSingleIdAttribute() || !(this.idMapping instanceof BasicMappingImpl)) {
+			return this.suitableForBatchInsert = false;
+		}
+
+		// identities can only be batched if the driver returns the identities of all the rows inserted
+		if (((BasicMappingImpl<? super X, ?>) this.idMapping).getAttribute().getIdType() == IdType.IDENTITY) {
+			return this.suitableForBatchInsert = this.getMetamodel().getJdbcAdaptor().supportsMultiRowGeneratedKeys();
+		}
+
+		return this.suitableForBatchInsert = true;
 	}
 
 	/**
@@ -1764,6 +1995,49 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		this.canBatchRemoves = (this.getVersionAttribute() == null) && this.hasSingleIdAttribute() && (this.getIdMapping() instanceof BasicAttribute);
 	}
 
+	/**
+	 * Loads the uninitialized instance together with the other uninitialized instances of the type in the session.
+	 * 
+	 * @param entityManager
+	 *            the entity manager
+	 * @param managedInstance
+	 *            the managed instance to load
+	 * @return true if the instance has been loaded, false if the type cannot be batch fetched or the instance cannot be found
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean performBatchSelect(EntityManagerImpl entityManager, final ManagedInstance<?> managedInstance) {
+		if (!(managedInstance.getInstance() instanceof EnhancedInstance) || !this.isBatchFetchable()) {
+			return false;
+		}
+
+		final int _batchFetchSize = this.getBatchFetchSize();
+
+		final List<ManagedInstance<?>> instances = Lists.<ManagedInstance<?>> newArrayList(managedInstance);
+		instances.addAll(entityManager.getSession().getBatchCandidates(this, managedInstance, new Predicate<ManagedInstance<?>>() {
+
+			@Override
+			public boolean apply(ManagedInstance<?> input) {
+				if (input.getType() != EntityTypeImpl.this) {
+					return false;
+				}
+
+				return (input.getInstance() instanceof EnhancedInstance) && !((EnhancedInstance) input.getInstance()).__enhanced__$$__isInitialized();
+			}
+		}, _batchFetchSize - 1));
+
+		final QueryImpl<X> q = entityManager.createQuery(this.getBatchSelectCriteria());
+
+		// pad the parameters with the instance so that the same statement is used for all the batches
+		for (int i = 0; i < _batchFetchSize; i++) {
+			q.setParameter(i + 1, instances.get(i < instances.size() ? i : 0).getId().getId());
+		}
+
+		q.getResultList();
+
+		return ((EnhancedInstance) managedInstance.getInstance()).__enhanced__$$__isInitialized();
+	}
+
 	/**
 	 * Performs inserts to each table for the managed instance.
 	 * 
@@ -1900,6 +2174,43 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 		return q.getSingleResult();
 	}
 
+	/**
+	 * Performs the batch update for the instances.
+	 * <p>
+	 * All the instances must be of this type so that the updates share the same SQL statements. If the type uses dynamic updates, the
+	 * instances are further grouped by the columns that have changed.
+	 * 
+	 * @param connection
+	 *            the connection to use
+	 * @param managedInstances
+	 *            the managed instances to perform update for
+	 * @param size
+	 *            the size of the batch
+	 * @throws SQLException
+	 *             thrown in case of an SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public void performUpdate(Connection connection, ManagedInstance<?>[] managedInstances, int size) throws SQLException {
+		final Object[] instances = new Object[size];
+		final Object[] oldVersions = new Object[size];
+		final Set<Mapping<?, ?, ?>>[] unchangedMappings = this.dynamicUpdate ? new Set[size] : null;
+
+		for (int i = 0; i < size; i++) {
+			instances[i] = managedInstances[i].getInstance();
+			oldVersions[i] = managedInstances[i].getOldVersion();
+
+			if (unchangedMappings != null) {
+				unchangedMappings[i] = managedInstances[i].getUnchangedMappings();
+			}
+		}
+
+		for (final EntityTable table : this.getUpdateTables()) {
+			table.performUpdate(connection, this, instances, oldVersions, unchangedMappings, size);
+		}
+	}
+
 	/**
 	 * Performs the update for the instance.
 	 * 
@@ -1913,31 +2224,46 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 	 * @since 2.0.0
 	 */
 	public void performUpdate(Connection connection, ManagedInstance<?> managedInstance) throws SQLException {
-		FinalWrapper<EntityTable[]> wrapper = this.updateTables;
-
 		final Object instance = managedInstance.getInstance();
 		final Object oldVersion = managedInstance.getOldVersion();
+		final Set<Mapping<?, ?, ?>> unchangedMappings = this.dynamicUpdate ? managedInstance.getUnchangedMappings() : null;
 
-		if (wrapper == null) {
-			synchronized (this) {
-				if (this.updateTables == null) {
-					final List<EntityTable> _updateTables = Lists.newArrayList(this.getTables());
-					for (final Iterator<EntityTable> i = _updateTables.iterator(); i.hasNext();) {
-						if (!i.next().performUpdateWithUpdatability(connection, this, managedInstance.getInstance(), oldVersion)) {
-							i.remove();
-						}
-					}
+		for (final EntityTable table : this.getUpdateTables()) {
+			table.performUpdate(connection, this, instance, oldVersion, unchangedMappings);
+		}
+	}
 
-					this.updateTables = new FinalWrapper<EntityTable[]>(_updateTables.toArray(new EntityTable[_updateTables.size()]));
-				}
+	/**
+	 * Upgrades the versions of the instances and performs the version update for the instances with a single batch.
+	 * <p>
+	 * The type must be the root type of the instances.
+	 * 
+	 * @param connection
+	 *            the connection to use
+	 * @param managedInstances
+	 *            the managed instances to perform version update for
+	 * @param size
+	 *            the size of the batch
+	 * @throws SQLException
+	 *             thrown in case of an SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void performVersionUpdate(Connection connection, ManagedInstance<?>[] managedInstances, int size) throws SQLException {
+		final Object[] instances = new Object[size];
+		final Object[] oldVersions = new Object[size];
+		final Object[] newVersions = new Object[size];
 
-				wrapper = this.updateTables;
-			}
+		for (int i = 0; i < size; i++) {
+			instances[i] = managedInstances[i].getInstance();
+			oldVersions[i] = managedInstances[i].upgradeVersion();
+			newVersions[i] = this.getVersionAttribute().get(instances[i]);
 		}
-		else {
-			for (final EntityTable table : wrapper.value) {
-				table.performUpdate(connection, this, instance, oldVersion);
-			}
+
+		this.getTables()[0].performVersionUpdate(connection, instances, oldVersions, newVersions, size);
+
+		for (int i = 0; i < size; i++) {
+			managedInstances[i].versionCommitted();
 		}
 	}
 
@@ -2043,7 +2369,8 @@ public class EntityTypeImpl<X> extends IdentifiableTypeImpl<X> implements Entity
 				}
 
 				// check association's fetch strategy and max depth
-				if ((association.getMaxFetchJoinDepth() < depth) || (association.getFetchStrategy() == FetchStrategyType.SELECT)) {
+				if ((association.getMaxFetchJoinDepth() < depth) || (association.getFetchStrategy() == FetchStrategyType.SELECT)
+					|| (association.getFetchStrategy() == FetchStrategyType.SUBSELECT)) {
 					continue;
 				}
 
@@ -34,6 +34,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.persistence.Embeddable;
 import javax.persistence.Entity;
@@ -662,6 +663,9 @@ public class MetamodelImpl implements Metamodel {
 		try {
 			return this.sequenceQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
 		}
+		catch (final TimeoutException e) {
+			throw new PersistenceException("Unable to retrieve next sequence " + generator + " in allowed " + MetamodelImpl.POLL_TIMEOUT + " seconds");
+		}
 		catch (final InterruptedException e) {
 			throw new PersistenceException("Unable to retrieve next sequence " + generator + " in allowed " + MetamodelImpl.POLL_TIMEOUT + " seconds");
 		}
@@ -680,6 +684,9 @@ public class MetamodelImpl implements Metamodel {
 		try {
 			return this.tableIdQueues.get(generator).poll(MetamodelImpl.POLL_TIMEOUT, TimeUnit.SECONDS);
 		}
+		catch (final TimeoutException e) {
+			throw new PersistenceException("Unable to retrieve next sequence " + generator + " in allowed " + MetamodelImpl.POLL_TIMEOUT + " seconds");
+		}
 		catch (final InterruptedException e) {
 			throw new PersistenceException("Unable to retrieve next sequence " + generator + " in allowed " + MetamodelImpl.POLL_TIMEOUT + " seconds");
 		}
@@ -802,6 +809,25 @@ public class MetamodelImpl implements Metamodel {
 		return null;
 	}
 
+	/**
+	 * Reads the metadata of the existing tables in bulk ahead of the DDL operations.
+	 * <p>
+	 * If the bulk read fails, the table metadata is read per table during the DDL operations.
+	 * 
+	 * @param datasource
+	 *            the datasource
+	 * 
+	 * @since 2.0.1
+	 */
+	public void loadTableMetadata(DataSource datasource) {
+		try {
+			this.jdbcAdaptor.loadTableMetadata(datasource, this.getAllTables());
+		}
+		catch (final SQLException e) {
+			MetamodelImpl.LOG.warn(e, "Cannot read the table metadata in bulk, falling back to reading per table");
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -994,12 +1020,18 @@ public class MetamodelImpl implements Metamodel {
 			new GeneratorThreadFactory());
 
 		for (final SequenceGenerator generator : this.sequenceGenerators.values()) {
-			this.sequenceQueues.put(generator.getName(), new SequenceQueue(this.jdbcAdaptor, datasource, this.idGeneratorExecuter, generator.getSequenceName(),
-				generator.getAllocationSize()));
+			final SequenceQueue queue = new SequenceQueue(this.jdbcAdaptor, datasource, this.idGeneratorExecuter, generator.getSequenceName(),
+				generator.getAllocationSize());
+			queue.prefetch();
+
+			this.sequenceQueues.put(generator.getName(), queue);
 		}
 
 		for (final TableGenerator generator : this.tableGenerators.values()) {
-			this.tableIdQueues.put(generator.getName(), new TableIdQueue(this.jdbcAdaptor, datasource, this.idGeneratorExecuter, generator));
+			final TableIdQueue queue = new TableIdQueue(this.jdbcAdaptor, datasource, this.idGeneratorExecuter, generator);
+			queue.prefetch();
+
+			this.tableIdQueues.put(generator.getName(), queue);
 		}
 	}
 
@@ -86,6 +86,7 @@ public abstract class AssociationMappingImpl<Z, X, Y> extends AbstractMapping<Z,
 
 	private final boolean removesOrphans;
 	private final int maxFetchDepth;
+	private final int batchSize;
 
 	private final FetchStrategyType fetchStrategy;
 
@@ -116,6 +117,7 @@ public abstract class AssociationMappingImpl<Z, X, Y> extends AbstractMapping<Z,
 		this.eager = attribute.isCollection() || (this.mappedBy == null) ? metadata.getFetchType() == FetchType.EAGER : true;
 
 		this.maxFetchDepth = metadata.getMaxFetchDepth();
+		this.batchSize = metadata.getBatchSize();
 		this.fetchStrategy = metadata.getFetchStrategy();
 
 		if (metadata instanceof OrphanableAssociationAttributeMetadata) {
@@ -220,15 +222,7 @@ public abstract class AssociationMappingImpl<Z, X, Y> extends AbstractMapping<Z,
 
 		q.select(r);
 
-		final Iterator<String> pathIterator = Splitter.on(".").split(this.getInverse().getPath()).iterator();
-
-		// Drop the root part
-		pathIterator.next();
-
-		AbstractPath<?> path = null;
-		while (pathIterator.hasNext()) {
-			path = path == null ? r.get(pathIterator.next()) : path.get(pathIterator.next());
-		}
+		final AbstractPath<?> path = this.getInversePath(r);
 
 		entity.prepareEagerJoins(r, 0, this);
 
@@ -317,6 +311,23 @@ public abstract class AssociationMappingImpl<Z, X, Y> extends AbstractMapping<Z,
 		return (AssociationMetadata) this.getAttribute().getMetadata();
 	}
 
+	/**
+	 * Returns the number of owners whose lazy association is loaded together.
+	 * <p>
+	 * If the association does not specify a batch size then the global batch fetch size is returned.
+	 * 
+	 * @return the number of owners whose lazy association is loaded together
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getBatchSize() {
+		if (this.batchSize > 0) {
+			return this.batchSize;
+		}
+
+		return ((EntityTypeImpl<?>) this.getRoot().getType()).getMetamodel().getEntityManagerFactory().getBatchFetchSize();
+	}
+
 	/**
 	 * Returns the Fetching strategy of the association
 	 * 
@@ -338,6 +349,29 @@ public abstract class AssociationMappingImpl<Z, X, Y> extends AbstractMapping<Z,
 	 */
 	public abstract AssociationMappingImpl<?, ?, ?> getInverse();
 
+	/**
+	 * Returns the path of the inverse attribute starting from the root of the associate type.
+	 * 
+	 * @param r
+	 *            the root of the associate type
+	 * @return the path of the inverse attribute
+	 * 
+	 * @since 2.0.1
+	 */
+	protected AbstractPath<?> getInversePath(RootImpl<Y> r) {
+		final Iterator<String> pathIterator = Splitter.on(".").split(this.getInverse().getPath()).iterator();
+
+		// Drop the root part
+		pathIterator.next();
+
+		AbstractPath<?> path = null;
+		while (pathIterator.hasNext()) {
+			path = path == null ? r.get(pathIterator.next()) : path.get(pathIterator.next());
+		}
+
+		return path;
+	}
+
 	/**
 	 * Returns the join table of the mapping.
 	 * 
@@ -38,14 +38,24 @@ import javax.persistence.metamodel.PluralAttribute.CollectionType;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.mutable.MutableBoolean;
 import org.batoo.common.reflect.AbstractAccessor;
+import org.batoo.common.util.BatooUtils;
 import org.batoo.common.util.FinalWrapper;
+import org.batoo.jpa.annotations.FetchStrategyType;
 import org.batoo.jpa.core.impl.collections.ManagedCollection;
 import org.batoo.jpa.core.impl.collections.ManagedList;
+import org.batoo.jpa.core.impl.criteria.CriteriaBuilderImpl;
+import org.batoo.jpa.core.impl.criteria.CriteriaQueryImpl;
 import org.batoo.jpa.core.impl.criteria.QueryImpl;
+import org.batoo.jpa.core.impl.criteria.RootImpl;
+import org.batoo.jpa.core.impl.criteria.SubselectFetch;
+import org.batoo.jpa.core.impl.criteria.expression.ParameterExpressionImpl;
+import org.batoo.jpa.core.impl.criteria.path.AbstractPath;
 import org.batoo.jpa.core.impl.instance.ManagedInstance;
+import org.batoo.jpa.core.impl.instance.Status;
 import org.batoo.jpa.core.impl.manager.EntityManagerImpl;
 import org.batoo.jpa.core.impl.manager.SessionImpl;
 import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.impl.model.MetamodelImpl;
 import org.batoo.jpa.core.impl.model.attribute.MapAttributeImpl;
 import org.batoo.jpa.core.impl.model.attribute.PluralAttributeImpl;
 import org.batoo.common.util.Pair;
@@ -61,6 +71,8 @@ import org.batoo.jpa.parser.metadata.ColumnMetadata;
 import org.batoo.jpa.parser.metadata.attribute.AssociationAttributeMetadata;
 import org.batoo.jpa.parser.metadata.attribute.PluralAttributeMetadata;
 
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -89,6 +101,7 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 	private Pair<SingularMapping<?, ?>, AbstractAccessor>[] mapKeyMappings;
 	private String orderBy;
 	private FinalWrapper<Comparator<E>> comparator;
+	private FinalWrapper<CriteriaQueryImpl<E>> batchSelectCriteria;
 	private ColumnMetadata orderColumn;
 	private ColumnMetadata mapKeyColumn;
 	private TemporalType mapKeyTemporalType;
@@ -235,6 +248,43 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 		}
 	}
 
+	/**
+	 * Distributes the children loaded for the owners to their owners through the inverse association.
+	 * <p>
+	 * The children of the owners other than the first one are handed to the session to be picked up when their collections are initialized.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param owners
+	 *            the owners, the first one being the owner whose collection is being loaded
+	 * @param children
+	 *            the children of all the owners
+	 * @return the children of the first owner
+	 * 
+	 * @since 2.0.1
+	 */
+	private List<E> distributeChildren(SessionImpl session, List<ManagedInstance<?>> owners, List<E> children) {
+		final IdentityHashMap<Object, List<E>> childrenMap = Maps.newIdentityHashMap();
+		for (final ManagedInstance<?> owner : owners) {
+			childrenMap.put(owner.getInstance(), Lists.<E> newArrayList());
+		}
+
+		for (final E child : children) {
+			final List<E> ownerChildren = childrenMap.get(this.getInverse().get(child));
+			if (ownerChildren != null) {
+				ownerChildren.add(child);
+			}
+		}
+
+		for (int i = 1; i < owners.size(); i++) {
+			final ManagedInstance<?> owner = owners.get(i);
+
+			session.putBatchFetched(this, owner, childrenMap.get(owner.getInstance()));
+		}
+
+		return childrenMap.get(owners.get(0).getInstance());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -283,6 +333,42 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 		return this.attribute;
 	}
 
+	private CriteriaQueryImpl<E> getBatchSelectCriteria() {
+		FinalWrapper<CriteriaQueryImpl<E>> wrapper = this.batchSelectCriteria;
+
+		if (wrapper == null) {
+			synchronized (this) {
+				if (this.batchSelectCriteria == null) {
+					final MetamodelImpl metamodel = this.attribute.getMetamodel();
+					final CriteriaBuilderImpl cb = metamodel.getEntityManagerFactory().getCriteriaBuilder();
+
+					final CriteriaQueryImpl<E> q = cb.createQuery(this.attribute.getBindableJavaType());
+					q.internal();
+
+					final RootImpl<E> r = q.from(this.type);
+					r.alias(BatooUtils.acronym(this.type.getName()).toLowerCase());
+
+					q.select(r);
+
+					final AbstractPath<?> path = this.getInversePath(r);
+
+					this.type.prepareEagerJoins(r, 0, this);
+
+					final ParameterExpressionImpl<?>[] parameters = new ParameterExpressionImpl[this.getBatchSize()];
+					for (int i = 0; i < parameters.length; i++) {
+						parameters[i] = cb.parameter(this.getInverse().getJavaType());
+					}
+
+					this.batchSelectCriteria = new FinalWrapper<CriteriaQueryImpl<E>>(q.where(path.in(parameters)));
+				}
+
+				wrapper = this.batchSelectCriteria;
+			}
+		}
+
+		return wrapper.value;
+	}
+
 	private Comparator<E> getComparator() {
 		FinalWrapper<Comparator<E>> wrapper = this.comparator;
 
@@ -419,6 +505,41 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 		return true;
 	}
 
+	/**
+	 * Returns if the collection can be batch fetched together with the collections of the other owners.
+	 * 
+	 * @return true if the collection can be batch fetched, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	private boolean isBatchFetchable() {
+		return (this.getBatchSize() > 1) && this.isFetchableWithOthers();
+	}
+
+	/**
+	 * Returns if the collection can be loaded together with the collections of the other owners.
+	 * <p>
+	 * Loading together is supported for the mapped one-to-many associations of the owners with single column primary keys, so that the
+	 * children can be assigned to their owners through the inverse association.
+	 * 
+	 * @return true if the collection can be loaded together with the collections of the other owners, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	private boolean isFetchableWithOthers() {
+		if (this.isOwner() || (this.getInverse() == null) || (this.getParent() != this.getRoot())) {
+			return false;
+		}
+
+		if (this.attribute.getPersistentAttributeType() != PersistentAttributeType.ONE_TO_MANY) {
+			return false;
+		}
+
+		final EntityTypeImpl<?> ownerType = (EntityTypeImpl<?>) this.getRoot().getType();
+
+		return ownerType.getRootType().getPrimaryTable().getPkColumns().size() == 1;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -437,6 +558,49 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 		return this.getAttribute().getCollectionType() == CollectionType.MAP;
 	}
 
+	/**
+	 * Returns if the collection of the owner is yet to be loaded so that it can be loaded together with the collection of another owner.
+	 * 
+	 * @param session
+	 *            the session
+	 * @param owner
+	 *            the managed instance of the owner
+	 * @return true if the collection of the owner is yet to be loaded, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	private boolean isPendingLoad(SessionImpl session, ManagedInstance<?> owner) {
+		if ((owner.getStatus() != Status.MANAGED) || !this.getRoot().getType().getJavaType().isInstance(owner.getInstance())) {
+			return false;
+		}
+
+		// owners being loaded get their collections once the load is complete
+		final Object collection = this.get(owner.getInstance());
+		if (!owner.isLoading() && (!(collection instanceof ManagedCollection) || ((ManagedCollection<?>) collection).isInitialized())) {
+			return false;
+		}
+
+		return !session.isBatchFetched(this, owner);
+	}
+
+	/**
+	 * Returns if the collection is loaded for all the owners returned by a query at once, re-running the restriction of the query as a
+	 * subquery.
+	 * 
+	 * @return true if the collection is subselect fetched, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isSubselectFetchable() {
+		if ((this.getFetchStrategy() != FetchStrategyType.SUBSELECT) || !this.isFetchableWithOthers()) {
+			return false;
+		}
+
+		final EntityTypeImpl<?> ownerType = ((EntityTypeImpl<?>) this.getRoot().getType()).getRootType();
+
+		return ownerType.hasSingleIdAttribute() && (ownerType.getIdMapping() instanceof BasicMappingImpl);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -527,17 +691,29 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 	public Collection<? extends E> loadCollection(ManagedInstance<?> managedInstance) {
 		final EntityManagerImpl em = managedInstance.getSession().getEntityManager();
 
-		List<E> children = null;
-
 		final Object instance = managedInstance.getInstance();
 
+		// check if the children have been loaded together with another owner
+		@SuppressWarnings("unchecked")
+		List<E> children = (List<E>) managedInstance.getSession().removeBatchFetched(this, managedInstance);
+
 		// load from the database
 		if (children == null) {
-			final QueryImpl<E> q = em.createQuery(this.getSelectCriteria());
+			final SubselectFetch subselectFetch = this.isSubselectFetchable() ? managedInstance.getSession().getSubselectFetch(managedInstance) : null;
+
+			if (subselectFetch != null) {
+				children = this.loadCollectionSubselect(managedInstance, subselectFetch);
+			}
+			else if (this.isBatchFetchable()) {
+				children = this.loadCollectionBatch(managedInstance);
+			}
+			else {
+				final QueryImpl<E> q = em.createQuery(this.getSelectCriteria());
 
-			q.setParameter(1, instance);
+				q.setParameter(1, instance);
 
-			children = q.getResultList();
+				children = q.getResultList();
+			}
 		}
 
 		if ((this.getInverse() != null) && (this.getAttribute().getPersistentAttributeType() == PersistentAttributeType.ONE_TO_MANY)) {
@@ -557,6 +733,72 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 		return children;
 	}
 
+	/**
+	 * Loads the children of the owner together with the children of the other owners in the session whose collections have not been
+	 * initialized yet.
+	 * <p>
+	 * The children of the other owners are handed to the session to be picked up when their collections are initialized.
+	 * 
+	 * @param managedInstance
+	 *            the managed instance of the owner
+	 * @return the children of the owner
+	 * 
+	 * @since 2.0.1
+	 */
+	private List<E> loadCollectionBatch(final ManagedInstance<?> managedInstance) {
+		final SessionImpl session = managedInstance.getSession();
+		final int batchSize = this.getBatchSize();
+
+		final List<ManagedInstance<?>> owners = Lists.<ManagedInstance<?>> newArrayList(managedInstance);
+		owners.addAll(session.getBatchCandidates(this, managedInstance, new Predicate<ManagedInstance<?>>() {
+
+			@Override
+			public boolean apply(ManagedInstance<?> input) {
+				return PluralAssociationMappingImpl.this.isPendingLoad(session, input);
+			}
+		}, batchSize - 1));
+
+		final QueryImpl<E> q = session.getEntityManager().createQuery(this.getBatchSelectCriteria());
+
+		// pad the parameters with the owner so that the same statement is used for all the batches
+		for (int i = 0; i < batchSize; i++) {
+			q.setParameter(i + 1, owners.get(i < owners.size() ? i : 0).getInstance());
+		}
+
+		return this.distributeChildren(session, owners, q.getResultList());
+	}
+
+	/**
+	 * Loads the children of the owner together with the children of the other owners returned by the query that has loaded the owner.
+	 * <p>
+	 * The children of the other owners are handed to the session to be picked up when their collections are initialized.
+	 * 
+	 * @param managedInstance
+	 *            the managed instance of the owner
+	 * @param subselectFetch
+	 *            the subselect fetch context of the query that has loaded the owner
+	 * @return the children of the owner
+	 * 
+	 * @since 2.0.1
+	 */
+	private List<E> loadCollectionSubselect(ManagedInstance<?> managedInstance, SubselectFetch subselectFetch) {
+		final SessionImpl session = managedInstance.getSession();
+
+		final List<ManagedInstance<?>> owners = Lists.<ManagedInstance<?>> newArrayList(managedInstance);
+		for (final ManagedInstance<?> owner : subselectFetch.getOwners()) {
+			if ((owner != managedInstance) && this.isPendingLoad(session, owner)) {
+				owners.add(owner);
+			}
+		}
+
+		final EntityTypeImpl<?> ownerType = ((EntityTypeImpl<?>) this.getRoot().getType()).getRootType();
+		// drop the root part of the inverse path
+		final String inversePath = StringUtils.substringAfter(this.getInverse().getPath(), ".");
+		final String path = inversePath + "." + ownerType.getIdMapping().getAttribute().getName();
+
+		return this.distributeChildren(session, owners, subselectFetch.getResultList(session.getEntityManager(), this.type, path));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -645,6 +887,9 @@ public class PluralAssociationMappingImpl<Z, C, E> extends AssociationMappingImp
 	@Override
 	@SuppressWarnings("unchecked")
 	public void refresh(ManagedInstance<?> instance, Set<Object> processed) {
+		// drop the children loaded together with another owner as they may be stale
+		instance.getSession().removeBatchFetched(this, instance);
+
 		if (this.isEager()) {
 			this.initialize(instance);
 
@@ -269,6 +269,9 @@ public class NativeQuery implements Query, ResultSetHandler<List<Object>> {
 			this.em.flush();
 		}
 
+		// native updates bypass the session, the cached state may be stale
+		this.em.getSession().evictAllFromCache();
+
 		try {
 			if (!this.parameters.isEmpty()) {
 				final Object[] parameters = new Object[this.parameters.size()];
@@ -19,11 +19,15 @@
 package org.batoo.jpa.jdbc;
 
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 
 import javax.persistence.EnumType;
 import javax.persistence.TemporalType;
 
+import org.apache.commons.lang.ClassUtils;
 import org.batoo.jpa.jdbc.mapping.Mapping;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.MappingException;
@@ -36,7 +40,11 @@ import org.batoo.jpa.parser.MappingException;
  */
 public abstract class AbstractColumn implements Column {
 
+	private static final Class<?>[] TYPED_READ_TYPES = { String.class, Long.class, Integer.class, Short.class, Byte.class, Boolean.class, Double.class,
+		Float.class, BigDecimal.class };
+
 	private final Class<?> javaType;
+	private final Class<?> readType;
 	private IdType idType;
 	private final TemporalType temporalType;
 	private final EnumType enumType;
@@ -58,6 +66,7 @@ public abstract class AbstractColumn implements Column {
 		super();
 
 		this.javaType = null;
+		this.readType = null;
 		this.idType = id ? IdType.MANUAL : null;
 		this.locator = locator;
 		this.temporalType = null;
@@ -94,6 +103,7 @@ public abstract class AbstractColumn implements Column {
 		this.enumType = enumType;
 		this.lob = lob;
 		this.locator = locator;
+		this.readType = this.getReadType();
 
 		if (this.enumType != null) {
 			Class<Enum<?>> enumJavaType;
@@ -193,6 +203,31 @@ public abstract class AbstractColumn implements Column {
 	@Override
 	public abstract int getPrecision();
 
+	/**
+	 * Returns the type that can be read from the result set with a typed getter.
+	 * <p>
+	 * Temporal, enum and lob columns as well as the columns of the other types are read with {@link ResultSet#getObject(int)} and left to
+	 * {@link #convertValueForSet(Object)}.
+	 * 
+	 * @return the type to read with a typed getter or <code>null</code> to read the column as an object
+	 * 
+	 * @since 2.0.1
+	 */
+	private Class<?> getReadType() {
+		if ((this.javaType == null) || (this.temporalType != null) || (this.enumType != null) || this.lob) {
+			return null;
+		}
+
+		final Class<?> type = this.javaType.isPrimitive() ? ClassUtils.primitiveToWrapper(this.javaType) : this.javaType;
+		for (final Class<?> readType : AbstractColumn.TYPED_READ_TYPES) {
+			if (readType == type) {
+				return readType;
+			}
+		}
+
+		return null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -285,6 +320,60 @@ public abstract class AbstractColumn implements Column {
 		return false;
 	}
 
+	/**
+	 * Reads the raw value of the column from the result set.
+	 * <p>
+	 * If the java type of the column is known the value is read with the typed getter, otherwise with {@link ResultSet#getObject(int)}.
+	 * 
+	 * @param resultSet
+	 *            the result set
+	 * @param index
+	 *            the index of the column in the result set
+	 * @return the raw value
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Error
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object readValue(ResultSet resultSet, int index) throws SQLException {
+		if (this.readType == null) {
+			return resultSet.getObject(index);
+		}
+
+		if (this.readType == String.class) {
+			return resultSet.getString(index);
+		}
+
+		if (this.readType == BigDecimal.class) {
+			return resultSet.getBigDecimal(index);
+		}
+
+		final Object value;
+		if (this.readType == Long.class) {
+			value = resultSet.getLong(index);
+		}
+		else if (this.readType == Integer.class) {
+			value = resultSet.getInt(index);
+		}
+		else if (this.readType == Short.class) {
+			value = resultSet.getShort(index);
+		}
+		else if (this.readType == Byte.class) {
+			value = resultSet.getByte(index);
+		}
+		else if (this.readType == Boolean.class) {
+			value = resultSet.getBoolean(index);
+		}
+		else if (this.readType == Double.class) {
+			value = resultSet.getDouble(index);
+		}
+		else {
+			value = resultSet.getFloat(index);
+		}
+
+		return resultSet.wasNull() ? null : value;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
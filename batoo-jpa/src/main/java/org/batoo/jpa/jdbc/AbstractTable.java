@@ -18,12 +18,14 @@
  */
 package org.batoo.jpa.jdbc;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.batoo.common.util.FinalWrapper;
@@ -63,6 +65,7 @@ public abstract class AbstractTable {
 	private final HashMap<String, String> insertSqlMap = Maps.newHashMap();
 	private final HashMap<EntityTypeDescriptor, String> updateSqlMap = Maps.newHashMap();
 	private String updateSql;
+	private final ConcurrentMap<EntityTypeDescriptor, ConcurrentMap<BitSet, String>> dynamicUpdateSqlMap = Maps.newConcurrentMap();
 	private FinalWrapper<String> versionUpdateSql;
 	private FinalWrapper<String> versionSelectSql;
 	private FinalWrapper<AbstractColumn[]> columns;
@@ -655,6 +658,56 @@ public abstract class AbstractTable {
 		return sql;
 	}
 
+	/**
+	 * Returns the update statement for the table limited to the columns specified.
+	 * <p>
+	 * The statements are cached by the set of columns.
+	 * 
+	 * @param entity
+	 *            the entity to return update statement for
+	 * @param pkColumns
+	 *            the primary key columns
+	 * @param columns
+	 *            the indexes of the update columns to include, the set must not be modified afterwards
+	 * @return the update statement
+	 * 
+	 * @since 2.0.1
+	 */
+	protected String getUpdateSql(EntityTypeDescriptor entity, Map<String, AbstractColumn> pkColumns, BitSet columns) {
+		ConcurrentMap<BitSet, String> sqlMap = this.dynamicUpdateSqlMap.get(entity);
+		if (sqlMap == null) {
+			this.dynamicUpdateSqlMap.putIfAbsent(entity, Maps.<BitSet, String> newConcurrentMap());
+
+			sqlMap = this.dynamicUpdateSqlMap.get(entity);
+		}
+
+		String sql = sqlMap.get(columns);
+		if (sql != null) {
+			return sql;
+		}
+
+		// Do not inline, generation of the update SQL will initialize the updateColumns!
+		this.getUpdateSql(entity, pkColumns);
+		final AbstractColumn[] updateColumns = this.getUpdateColumns(entity);
+
+		// prepare the names tuple in the form of "COLNAME = ? [, COLNAME = ?]*"
+		final List<String> columnNames = Lists.newArrayList();
+		for (int i = columns.nextSetBit(0); i >= 0; i = columns.nextSetBit(i + 1)) {
+			columnNames.add(updateColumns[i].getName() + " = ?");
+		}
+
+		// UPDATE SCHEMA.TABLE SET
+		// (COL [, COL]*)
+		// WHERE ID = ? [, ID = ?]*)
+		sql = "UPDATE " + this.getQName() + " SET"//
+			+ "\n" + Joiner.on(", ").join(columnNames) //
+			+ "\nWHERE " + this.getRestrictionSql(pkColumns);
+
+		sqlMap.putIfAbsent(columns, sql);
+
+		return sql;
+	}
+
 	/**
 	 * Returns the version update statement for the table specifically.
 	 * 
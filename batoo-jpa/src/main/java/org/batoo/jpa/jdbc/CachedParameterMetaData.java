@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.jdbc;
+
+import java.sql.ParameterMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Memory only snapshot of the parameter metadata of a statement.
+ * <p>
+ * Only the parameter count and the parameter types are retained. If the driver cannot report the parameter types
+ * {@link #getParameterType(int)} throws {@link SQLException} as the driver would do.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class CachedParameterMetaData implements ParameterMetaData {
+
+	private final int parameterCount;
+	private final int[] parameterTypes;
+
+	/**
+	 * @param pmd
+	 *            the parameter metadata of the statement
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Exception
+	 * 
+	 * @since 2.0.1
+	 */
+	public CachedParameterMetaData(ParameterMetaData pmd) throws SQLException {
+		super();
+
+		this.parameterCount = pmd.getParameterCount();
+
+		int[] types = new int[this.parameterCount];
+		try {
+			for (int i = 0; i < types.length; i++) {
+				types[i] = pmd.getParameterType(i + 1);
+			}
+		}
+		catch (final SQLException e) {
+			types = null;
+		}
+
+		this.parameterTypes = types;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String getParameterClassName(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getParameterCount() throws SQLException {
+		return this.parameterCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getParameterMode(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getParameterType(int param) throws SQLException {
+		if (this.parameterTypes == null) {
+			throw new SQLFeatureNotSupportedException("Parameter types are not supported by the driver");
+		}
+
+		if ((param < 1) || (param > this.parameterTypes.length)) {
+			throw new SQLException("Invalid parameter index " + param);
+		}
+
+		return this.parameterTypes[param - 1];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String getParameterTypeName(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getPrecision(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getScale(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int isNullable(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean isSigned(int param) throws SQLException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		throw new SQLException("Not a wrapper for " + iface.getName());
+	}
+}
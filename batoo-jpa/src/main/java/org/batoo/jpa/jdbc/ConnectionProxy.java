@@ -33,7 +33,9 @@ import java.sql.SQLXML;
 import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Struct;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 
@@ -52,55 +54,74 @@ public class ConnectionProxy implements Connection {
 
 	private final AbstractDataSource dataSourcePool;
 
+	private final SqlStatistics statistics;
 	private final long slowSqlThreshold;
 	private final SqlLoggingType sqlLogging;
 	private final int jdbcFetchSize;
 
+	private final LinkedHashMap<String, PreparedStatementProxy> statementCache;
+	private long statementCacheHits;
+	private long statementCacheMisses;
+
 	/**
 	 * 
 	 * @param dataSourcePool
 	 *            the datasource pool
 	 * @param connection
 	 *            the connection
+	 * @param statistics
+	 *            the SQL statistics
 	 * @param slowSqlThreshold
 	 *            the time to decide if SQL is deemed as slow
 	 * @param sqlLogging
 	 *            the sql logging type
 	 * @param jdbcFetchSize
 	 *            the size of the jdbc fetch
+	 * @param statementCacheSize
+	 *            the max number of prepared statements cached per connection, or <code>0</code> to disable the cache
 	 * 
 	 * @since 2.0.0
 	 */
-	public ConnectionProxy(AbstractDataSource dataSourcePool, Connection connection, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize) {
+	public ConnectionProxy(AbstractDataSource dataSourcePool, Connection connection, SqlStatistics statistics, long slowSqlThreshold,
+		SqlLoggingType sqlLogging, int jdbcFetchSize, int statementCacheSize) {
 		super();
 
 		this.dataSourcePool = dataSourcePool;
 		this.connection = connection;
+		this.statistics = statistics;
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.sqlLogging = sqlLogging;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statementCache = this.createStatementCache(statementCacheSize);
 	}
 
 	/**
 	 * @param connection
 	 *            the connection
+	 * @param statistics
+	 *            the SQL statistics
 	 * @param slowSqlThreshold
 	 *            the time to decide if SQL is deemed as slow
 	 * @param sqlLogging
 	 *            the sql logging type
 	 * @param jdbcFetchSize
 	 *            the size of the jdbc fetch
+	 * @param statementCacheSize
+	 *            the max number of prepared statements cached per connection, or <code>0</code> to disable the cache
 	 * 
 	 * @since 2.0.0
 	 */
-	public ConnectionProxy(Connection connection, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize) {
+	public ConnectionProxy(Connection connection, SqlStatistics statistics, long slowSqlThreshold, SqlLoggingType sqlLogging, int jdbcFetchSize,
+		int statementCacheSize) {
 		super();
 
 		this.dataSourcePool = null;
 		this.connection = connection;
+		this.statistics = statistics;
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.sqlLogging = sqlLogging;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statementCache = this.createStatementCache(statementCacheSize);
 	}
 
 	/**
@@ -127,11 +148,22 @@ public class ConnectionProxy implements Connection {
 	 */
 	@Override
 	public void close() throws SQLException {
-		if (this.dataSourcePool != null) {
-			this.dataSourcePool.releaseConnection(this.connection);
+		try {
+			if (this.statementCache != null) {
+				for (final PreparedStatementProxy statement : this.statementCache.values()) {
+					statement.evict();
+				}
+
+				this.statementCache.clear();
+			}
 		}
-		else {
-			this.connection.close();
+		finally {
+			if (this.dataSourcePool != null) {
+				this.dataSourcePool.releaseConnection(this.connection);
+			}
+			else {
+				this.connection.close();
+			}
 		}
 	}
 
@@ -220,6 +252,33 @@ public class ConnectionProxy implements Connection {
 		return this.connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability);
 	}
 
+	private LinkedHashMap<String, PreparedStatementProxy> createStatementCache(final int size) {
+		if (size <= 0) {
+			return null;
+		}
+
+		return new LinkedHashMap<String, PreparedStatementProxy>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<String, PreparedStatementProxy> eldest) {
+				if (this.size() <= size) {
+					return false;
+				}
+
+				try {
+					eldest.getValue().evict();
+				}
+				catch (final SQLException e) {
+					// noop, the statement is discarded anyway
+				}
+
+				return true;
+			}
+		};
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -274,6 +333,17 @@ public class ConnectionProxy implements Connection {
 		return this.connection.getHoldability();
 	}
 
+	/**
+	 * Returns the number of rows fetched from the database at once.
+	 * 
+	 * @return the size of the jdbc fetch
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getJdbcFetchSize() {
+		return this.jdbcFetchSize;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -292,6 +362,28 @@ public class ConnectionProxy implements Connection {
 		return this.connection.getNetworkTimeout();
 	}
 
+	/**
+	 * Returns the number of the prepared statements served from the statement cache.
+	 * 
+	 * @return the number of the statement cache hits
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getStatementCacheHits() {
+		return this.statementCacheHits;
+	}
+
+	/**
+	 * Returns the number of the prepared statements that could not be served from the statement cache.
+	 * 
+	 * @return the number of the statement cache misses
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getStatementCacheMisses() {
+		return this.statementCacheMisses;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -406,7 +498,35 @@ public class ConnectionProxy implements Connection {
 	 */
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
-		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql), this.slowSqlThreshold, this.sqlLogging);
+		if (this.statementCache == null) {
+			return this.prepareStatementImpl(sql);
+		}
+
+		final PreparedStatementProxy cached = this.statementCache.get(sql);
+		if ((cached != null) && cached.checkOut()) {
+			this.statementCacheHits++;
+
+			return cached.reset();
+		}
+
+		this.statementCacheMisses++;
+
+		final PreparedStatementProxy statement = this.prepareStatementImpl(sql);
+
+		// the cached statement is in use, e.g. a nested lazy load, serve an uncached statement
+		if (cached == null) {
+			statement.setCached(true);
+			statement.checkOut();
+
+			this.statementCache.put(sql, statement);
+		}
+
+		return statement;
+	}
+
+	private PreparedStatementProxy prepareStatementImpl(String sql) throws SQLException {
+		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql), this.statistics.get(sql),
+			this.slowSqlThreshold, this.sqlLogging);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -420,7 +540,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, autoGeneratedKeys),
-			this.slowSqlThreshold, this.sqlLogging);
+			this.statistics.get(sql), this.slowSqlThreshold, this.sqlLogging);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -434,7 +554,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency),
-			this.slowSqlThreshold, this.sqlLogging);
+			this.statistics.get(sql), this.slowSqlThreshold, this.sqlLogging);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -448,7 +568,7 @@ public class ConnectionProxy implements Connection {
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
 		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency,
-			resultSetHoldability), this.slowSqlThreshold, this.sqlLogging);
+			resultSetHoldability), this.statistics.get(sql), this.slowSqlThreshold, this.sqlLogging);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -461,8 +581,8 @@ public class ConnectionProxy implements Connection {
 	 */
 	@Override
 	public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
-		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, columnIndexes), this.slowSqlThreshold,
-			this.sqlLogging);
+		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, columnIndexes),
+			this.statistics.get(sql), this.slowSqlThreshold, this.sqlLogging);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -475,8 +595,8 @@ public class ConnectionProxy implements Connection {
 	 */
 	@Override
 	public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
-		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, columnNames), this.slowSqlThreshold,
-			this.sqlLogging);
+		final PreparedStatementProxy statement = new PreparedStatementProxy(sql, this.connection.prepareStatement(sql, columnNames),
+			this.statistics.get(sql), this.slowSqlThreshold, this.sqlLogging);
 
 		statement.setFetchSize(this.jdbcFetchSize);
 
@@ -47,7 +47,9 @@ public class DataSourceProxy implements DataSource {
 	private final SqlLoggingType sqlLogging;
 	private final long slowSqlThreshold;
 	private final int jdbcFetchSize;
+	private final int statementCacheSize;
 	private final boolean externalPoolDS;
+	private final SqlStatistics statistics = new SqlStatistics();
 
 	/**
 	 * @param datasource
@@ -60,10 +62,13 @@ public class DataSourceProxy implements DataSource {
 	 *            the sql logging type
 	 * @param jdbcFetchSize
 	 *            the size of the jdbc fetch
+	 * @param statementCacheSize
+	 *            the max number of prepared statements cached per connection, or <code>0</code> to disable the cache
 	 * 
 	 * @since 2.0.0
 	 */
-	public DataSourceProxy(AbstractDataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize) {
+	public DataSourceProxy(AbstractDataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize,
+		int statementCacheSize) {
 		super();
 
 		this.datasource = datasource;
@@ -71,6 +76,7 @@ public class DataSourceProxy implements DataSource {
 		this.sqlLogging = sqlLogging;
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statementCacheSize = statementCacheSize;
 		this.externalPoolDS = true;
 	}
 
@@ -85,10 +91,13 @@ public class DataSourceProxy implements DataSource {
 	 *            the sql logging type
 	 * @param jdbcFetchSize
 	 *            the size of the jdbc fetch
+	 * @param statementCacheSize
+	 *            the max number of prepared statements cached per connection, or <code>0</code> to disable the cache
 	 * 
 	 * @since 2.0.0
 	 */
-	public DataSourceProxy(DataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize) {
+	public DataSourceProxy(DataSource datasource, boolean external, SqlLoggingType sqlLogging, long slowSqlThreshold, int jdbcFetchSize,
+		int statementCacheSize) {
 		super();
 
 		this.datasource = datasource;
@@ -96,6 +105,7 @@ public class DataSourceProxy implements DataSource {
 		this.sqlLogging = sqlLogging;
 		this.slowSqlThreshold = slowSqlThreshold;
 		this.jdbcFetchSize = jdbcFetchSize;
+		this.statementCacheSize = statementCacheSize;
 		this.externalPoolDS = false;
 	}
 
@@ -127,7 +137,8 @@ public class DataSourceProxy implements DataSource {
 	 */
 	@Override
 	public Connection getConnection() throws SQLException {
-		return new ConnectionProxy(this.datasource.getConnection(), this.slowSqlThreshold, this.sqlLogging, this.jdbcFetchSize);
+		return new ConnectionProxy(this.datasource.getConnection(), this.statistics, this.slowSqlThreshold, this.sqlLogging, this.jdbcFetchSize,
+			this.statementCacheSize);
 	}
 
 	/**
@@ -177,6 +188,17 @@ public class DataSourceProxy implements DataSource {
 		return this.datasource.getParentLogger();
 	}
 
+	/**
+	 * Returns the statistics of the SQL statements executed over the datasource.
+	 * 
+	 * @return the SQL statistics
+	 * 
+	 * @since 2.0.1
+	 */
+	public SqlStatistics getSqlStatistics() {
+		return this.statistics;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
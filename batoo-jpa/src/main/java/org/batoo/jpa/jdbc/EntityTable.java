@@ -20,9 +20,13 @@ package org.batoo.jpa.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -30,12 +34,14 @@ import org.batoo.common.util.FinalWrapper;
 import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
 import org.batoo.jpa.jdbc.dbutils.QueryRunner;
 import org.batoo.jpa.jdbc.dbutils.SingleValueHandler;
+import org.batoo.jpa.jdbc.mapping.Mapping;
 import org.batoo.jpa.jdbc.model.EntityTypeDescriptor;
 import org.batoo.jpa.parser.metadata.TableMetadata;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -117,6 +123,41 @@ public class EntityTable extends AbstractTable {
 		return false;
 	}
 
+	/**
+	 * Returns the indexes of the update columns that have changed.
+	 * <p>
+	 * The version column and the columns without a mapping are always deemed changed.
+	 * 
+	 * @param updateColumns
+	 *            the update columns
+	 * @param unchangedMappings
+	 *            the mappings that have not changed or <code>null</code> if unknown
+	 * @return the indexes of the changed columns or <code>null</code> if all the columns should be updated
+	 * 
+	 * @since 2.0.1
+	 */
+	private BitSet getChangedColumns(AbstractColumn[] updateColumns, Set<Mapping<?, ?, ?>> unchangedMappings) {
+		if (unchangedMappings == null) {
+			return null;
+		}
+
+		final BitSet columns = new BitSet(updateColumns.length);
+		for (int i = 0; i < updateColumns.length; i++) {
+			final AbstractColumn column = updateColumns[i];
+
+			if (column.isVersion() || (column.getMapping() == null) || !unchangedMappings.contains(column.getMapping())) {
+				columns.set(i);
+			}
+		}
+
+		// all the columns have changed, use the generic update
+		if (columns.cardinality() == updateColumns.length) {
+			return null;
+		}
+
+		return columns;
+	}
+
 	/**
 	 * Returns the entity of the EntityTable.
 	 * 
@@ -225,6 +266,75 @@ public class EntityTable extends AbstractTable {
 		}
 	}
 
+	private Object[] getUpdateParams(Connection connection, AbstractColumn[] updateColumns, BitSet columns, AbstractColumn[] restrictionColumns,
+		Object instance, Object oldVersion) {
+		final int noColumns = columns != null ? columns.cardinality() : updateColumns.length;
+		final Object[] params = new Object[noColumns + restrictionColumns.length];
+
+		int nextParamNo = 0;
+		for (int i = 0; i < updateColumns.length; i++) {
+			if ((columns == null) || columns.get(i)) {
+				params[nextParamNo++] = updateColumns[i].getValue(connection, instance);
+			}
+		}
+
+		for (final AbstractColumn column : restrictionColumns) {
+			if (column.isVersion()) {
+				params[nextParamNo++] = oldVersion;
+			}
+			else {
+				params[nextParamNo++] = column.getValue(connection, instance);
+			}
+		}
+
+		return params;
+	}
+
+	private Object[] getVersionUpdateParams(Connection connection, AbstractColumn[] restrictionColumns, Object instance, Object oldVersion,
+		Object newVersion) {
+		final Object[] params = new Object[1 + restrictionColumns.length];
+
+		int nextParamNo = 0;
+		params[nextParamNo++] = newVersion;
+
+		for (final AbstractColumn column : restrictionColumns) {
+			if (column.isVersion()) {
+				params[nextParamNo++] = oldVersion;
+			}
+			else {
+				params[nextParamNo++] = column.getValue(connection, instance);
+			}
+		}
+
+		return params;
+	}
+
+	private boolean hasLob(AbstractColumn[] updateColumns, BitSet columns) {
+		for (int i = 0; i < updateColumns.length; i++) {
+			if (((columns == null) || columns.get(i)) && updateColumns[i].isLob()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns if the table participates in the updates of the type.
+	 * 
+	 * @param type
+	 *            the entity type
+	 * @return true if the table has columns to update for the type, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean isUpdatable(EntityTypeDescriptor type) {
+		// Do not inline, generation of the update SQL will initialize the updateColumns!
+		this.getUpdateSql(type, this.pkColumns);
+
+		return this.getUpdateColumns(type).length > 0;
+	}
+
 	/**
 	 * Performs inserts to the table for the managed instance or joins.
 	 * 
@@ -267,6 +377,18 @@ public class EntityTable extends AbstractTable {
 			}
 		}
 
+		// if the driver returns the generated identities, read them back in the order of the rows
+		if ((this.identityColumn != null) && this.jdbcAdaptor.supportsGeneratedKeys()) {
+			final Object[] ids = new QueryRunner(this.jdbcAdaptor, hasLob).insert(connection, insertSql, this.identityColumn.getName(), size,
+				params);
+
+			for (int i = 0; i < size; i++) {
+				this.identityColumn.setValue(instances[i], ids[i]);
+			}
+
+			return;
+		}
+
 		new QueryRunner(this.jdbcAdaptor, hasLob).update(connection, insertSql, params);
 
 		// if there is an identity column, extract the identity and set it back to the instance
@@ -314,56 +436,75 @@ public class EntityTable extends AbstractTable {
 	}
 
 	/**
-	 * Performs update to the table for the managed instance or joins.
+	 * Performs batch update to the table for the managed instances or joins.
+	 * <p>
+	 * If the unchanged mappings are provided, the instances are grouped by the columns that have changed and each group is updated with a
+	 * statement limited to those columns.
+	 * <p>
+	 * The update counts are checked per instance, if the driver does not report the update count of a statement the check is skipped for
+	 * that instance.
 	 * 
 	 * @param connection
 	 *            the connection to use
 	 * @param type
-	 *            the entity type of the instance
-	 * @param instance
-	 *            the instance to perform update for
-	 * @param oldVersion
-	 *            the old version value
+	 *            the entity type of the instances
+	 * @param instances
+	 *            the instances to perform update for
+	 * @param oldVersions
+	 *            the old version values of the instances
+	 * @param unchangedMappings
+	 *            the mappings of the instances that have not changed or <code>null</code> to update all the columns
+	 * @param size
+	 *            the size of the batch
 	 * @throws SQLException
 	 *             thrown in case of underlying SQLException
 	 * 
-	 * @since 2.0.0
+	 * @since 2.0.1
 	 */
-	public void performUpdate(Connection connection, EntityTypeDescriptor type, Object instance, Object oldVersion) throws SQLException {
-		// Do not inline, generation of the update SQL will initialize the insertColumns!
+	public void performUpdate(Connection connection, EntityTypeDescriptor type, Object[] instances, Object[] oldVersions,
+		Set<Mapping<?, ?, ?>>[] unchangedMappings, int size) throws SQLException {
+		// Do not inline, generation of the update SQL will initialize the updateColumns!
 		final String updateSql = this.getUpdateSql(type, this.pkColumns);
 		final AbstractColumn[] updateColumns = this.getUpdateColumns(type);
 		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
 
-		boolean hasLob = false;
-		int nextParamNo = 0;
-
-		// prepare the parameters
-		final Object[] params = new Object[updateColumns.length + restrictionColumns.length];
-		for (final AbstractColumn column : updateColumns) {
-			params[nextParamNo++] = column.getValue(connection, instance);
-
-			hasLob |= column.isLob();
-		}
+		// group the instances by the columns to update, null key denotes all the columns
+		final Map<BitSet, List<Object[]>> batches = Maps.newLinkedHashMap();
+		for (int i = 0; i < size; i++) {
+			final BitSet columns = unchangedMappings != null ? this.getChangedColumns(updateColumns, unchangedMappings[i]) : null;
 
-		for (final AbstractColumn column : restrictionColumns) {
-			if (column.isVersion()) {
-				params[nextParamNo++] = oldVersion;
+			// nothing to update for the instance
+			if ((columns != null) && columns.isEmpty()) {
+				continue;
 			}
-			else {
-				params[nextParamNo++] = column.getValue(connection, instance);
+
+			List<Object[]> params = batches.get(columns);
+			if (params == null) {
+				params = Lists.newArrayList();
+				batches.put(columns, params);
 			}
+
+			params.add(this.getUpdateParams(connection, updateColumns, columns, restrictionColumns, instances[i], oldVersions[i]));
 		}
 
-		// execute the insert
-		final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, hasLob);
-		if (1 != runner.update(connection, updateSql, params)) {
-			throw new OptimisticLockFailedException();
+		for (final Entry<BitSet, List<Object[]>> batch : batches.entrySet()) {
+			final BitSet columns = batch.getKey();
+			final String sql = columns != null ? this.getUpdateSql(type, this.pkColumns, columns) : updateSql;
+			final List<Object[]> params = batch.getValue();
+
+			// execute the batch
+			final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, this.hasLob(updateColumns, columns));
+			final int[] updateCounts = runner.batch(connection, sql, params.toArray(new Object[params.size()][]));
+			for (final int updateCount : updateCounts) {
+				if ((updateCount != 1) && (updateCount != Statement.SUCCESS_NO_INFO)) {
+					throw new OptimisticLockFailedException();
+				}
+			}
 		}
 	}
 
 	/**
-	 * Performs update to the table for the managed instance or joins. In addition checks if the table participates in update.
+	 * Performs update to the table for the managed instance or joins.
 	 * 
 	 * @param connection
 	 *            the connection to use
@@ -373,49 +514,79 @@ public class EntityTable extends AbstractTable {
 	 *            the instance to perform update for
 	 * @param oldVersion
 	 *            the old version value
-	 * @return returns true if the table is updatable
+	 * @param unchangedMappings
+	 *            the mappings of the instance that have not changed or <code>null</code> to update all the columns
 	 * @throws SQLException
 	 *             thrown in case of underlying SQLException
 	 * 
 	 * @since 2.0.0
 	 */
-	public boolean performUpdateWithUpdatability(Connection connection, EntityTypeDescriptor type, Object instance, Object oldVersion) throws SQLException {
-		// Do not inline, generation of the update SQL will initialize the insertColumns!
+	public void performUpdate(Connection connection, EntityTypeDescriptor type, Object instance, Object oldVersion, Set<Mapping<?, ?, ?>> unchangedMappings)
+		throws SQLException {
+		// Do not inline, generation of the update SQL will initialize the updateColumns!
 		final String updateSql = this.getUpdateSql(type, this.pkColumns);
 		final AbstractColumn[] updateColumns = this.getUpdateColumns(type);
 		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
 
-		if (updateColumns.length == 0) {
-			return false;
+		final BitSet columns = unchangedMappings != null ? this.getChangedColumns(updateColumns, unchangedMappings) : null;
+
+		// nothing to update
+		if ((columns != null) && columns.isEmpty()) {
+			return;
 		}
 
-		int nextParam = 0;
-		boolean hasLob = false;
+		final String sql = columns != null ? this.getUpdateSql(type, this.pkColumns, columns) : updateSql;
 
 		// prepare the parameters
-		final Object[] params = new Object[updateColumns.length + restrictionColumns.length];
-		for (final AbstractColumn column : updateColumns) {
-			params[nextParam++] = column.getValue(connection, instance);
+		final Object[] params = this.getUpdateParams(connection, updateColumns, columns, restrictionColumns, instance, oldVersion);
 
-			hasLob |= column.isLob();
+		// execute the update
+		final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, this.hasLob(updateColumns, columns));
+		if (1 != runner.update(connection, sql, params)) {
+			throw new OptimisticLockFailedException();
 		}
+	}
 
-		for (final AbstractColumn column : restrictionColumns) {
-			if (column.isVersion()) {
-				params[nextParam++] = oldVersion;
-			}
-			else {
-				params[nextParam++] = column.getValue(connection, instance);
-			}
-		}
+	/**
+	 * Performs batch version update to the table for the instances.
+	 * <p>
+	 * The update counts are checked per instance, if the driver does not report the update count of a statement the check is skipped for
+	 * that instance.
+	 * 
+	 * @param connection
+	 *            the connection to use
+	 * @param instances
+	 *            the instances to perform version update for
+	 * @param oldVersions
+	 *            the old version values of the instances
+	 * @param newVersions
+	 *            the new version values of the instances
+	 * @param size
+	 *            the size of the batch
+	 * @throws SQLException
+	 *             thrown in case of underlying SQLException
+	 * 
+	 * @since 2.0.1
+	 */
+	public void performVersionUpdate(Connection connection, Object[] instances, Object[] oldVersions, Object[] newVersions, int size)
+		throws SQLException {
+		// Do not inline, generation of the update SQL will initialize the insertColumns!
+		final String updateSql = this.getVersionUpdateSql(this.pkColumns);
+		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
 
-		// execute the insert
-		final QueryRunner runner = new QueryRunner(this.jdbcAdaptor, hasLob);
-		if (1 != runner.update(connection, updateSql, params)) {
-			throw new OptimisticLockFailedException();
+		// prepare the parameters
+		final Object[][] params = new Object[size][];
+		for (int i = 0; i < size; i++) {
+			params[i] = this.getVersionUpdateParams(connection, restrictionColumns, instances[i], oldVersions[i], newVersions[i]);
 		}
 
-		return true;
+		// execute the batch
+		final int[] updateCounts = new QueryRunner(this.jdbcAdaptor, false).batch(connection, updateSql, params);
+		for (final int updateCount : updateCounts) {
+			if ((updateCount != 1) && (updateCount != Statement.SUCCESS_NO_INFO)) {
+				throw new OptimisticLockFailedException();
+			}
+		}
 	}
 
 	/**
@@ -440,14 +611,7 @@ public class EntityTable extends AbstractTable {
 		final AbstractColumn[] restrictionColumns = this.getRestrictionColumns();
 
 		// prepare the parameters
-		final Object[] params = new Object[restrictionColumns.length];
-
-		params[0] = newVersion;
-		for (int i = 1; i < (restrictionColumns.length - 1); i++) {
-			final AbstractColumn column = restrictionColumns[i];
-			params[i] = column.getValue(connection, instance);
-		}
-		params[params.length - 1] = oldVersion;
+		final Object[] params = this.getVersionUpdateParams(connection, restrictionColumns, instance, oldVersion, newVersion);
 
 		// execute the update
 		if (1 != new QueryRunner(this.jdbcAdaptor, false).update(connection, updateSql, params)) {
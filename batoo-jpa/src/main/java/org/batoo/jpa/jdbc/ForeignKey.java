@@ -831,6 +831,37 @@ public class ForeignKey {
 		new QueryRunner(this.jdbcAdaptor, false).update(connection, sql, parameters);
 	}
 
+	/**
+	 * Updates the join columns of the row of the owner instance with the current value of the association.
+	 * <p>
+	 * Used to write the foreign keys that are deferred to resolve circular dependencies.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param instance
+	 *            the owner instance
+	 * @throws SQLException
+	 *             thrown in case of an SQL error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void performSourceUpdate(Connection connection, Object instance) throws SQLException {
+		final String sql = this.getSingleChildSql();
+
+		final Object[] parameters = new Object[this.singleChildUpdates.length + this.singleChildRestrictions.length];
+
+		int i = 0;
+		for (final AbstractColumn column : this.singleChildUpdates) {
+			parameters[i++] = column.getValue(connection, instance);
+		}
+
+		for (final AbstractColumn column : this.singleChildRestrictions) {
+			parameters[i++] = column.getValue(connection, instance);
+		}
+
+		new QueryRunner(this.jdbcAdaptor, false).update(connection, sql, parameters);
+	}
+
 	/**
 	 * Sets the order column.
 	 * 
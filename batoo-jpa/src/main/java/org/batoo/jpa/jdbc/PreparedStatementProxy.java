@@ -87,6 +87,7 @@ public class PreparedStatementProxy implements PreparedStatement {
 	private final String sql;
 	private final long slowSqlThreshold;
 	private final PreparedStatement statement;
+	private final SqlStatistic statistic;
 
 	private Object[] parameters;
 	private ParameterMetaData parameterMetaData;
@@ -94,11 +95,18 @@ public class PreparedStatementProxy implements PreparedStatement {
 	private boolean debug;
 	private final PrintStream sqlStream;
 
+	private boolean cached;
+	private boolean checkedOut;
+
+	private int batchSize;
+
 	/**
 	 * @param sql
 	 *            the SQL
 	 * @param statement
 	 *            the delegate statement
+	 * @param statistic
+	 *            the statistic to record the executions
 	 * @param slowSqlThreshold
 	 *            the time to decide if SQL is deemed as slow
 	 * @param sqlLoggingType
@@ -106,11 +114,13 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 * 
 	 * @since 2.0.0
 	 */
-	public PreparedStatementProxy(String sql, PreparedStatement statement, long slowSqlThreshold, SqlLoggingType sqlLoggingType) {
+	public PreparedStatementProxy(String sql, PreparedStatement statement, SqlStatistic statistic, long slowSqlThreshold,
+		SqlLoggingType sqlLoggingType) {
 		super();
 
 		this.sql = sql;
 		this.statement = statement;
+		this.statistic = statistic;
 		this.slowSqlThreshold = slowSqlThreshold;
 
 		switch (sqlLoggingType) {
@@ -133,6 +143,26 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void addBatch() throws SQLException {
+		this.batchSize++;
+
+		if ((this.sqlStream == null) && !this.debug) {
+			this.statement.addBatch();
+
+			return;
+		}
+
+		if (this.statementNo == -1) {
+			this.statementNo = PreparedStatementProxy.no.incrementAndGet();
+		}
+
+		PreparedStatementProxy.LOG.debug("{0}:{1} addBatch(){2}", this.statementNo, this.executionNo + 1,
+			PreparedStatementProxy.LOG.lazyBoxed(this.sql, this.parameters));
+
+		if (this.sqlStream != null) {
+			this.sqlStream.println(MessageFormat.format("{0}:{1} addBatch(){2}", this.statementNo, this.executionNo + 1,
+				PreparedStatementProxy.LOG.lazyBoxed(this.sql, this.parameters)));
+		}
+
 		this.statement.addBatch();
 	}
 
@@ -154,12 +184,29 @@ public class PreparedStatementProxy implements PreparedStatement {
 		this.statement.cancel();
 	}
 
+	/**
+	 * Checks out the statement for use.
+	 * 
+	 * @return true if the statement has been checked out, false if the statement is already in use
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean checkOut() {
+		if (this.checkedOut) {
+			return false;
+		}
+
+		return this.checkedOut = true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
 	 */
 	@Override
 	public void clearBatch() throws SQLException {
+		this.batchSize = 0;
+
 		this.statement.clearBatch();
 	}
 
@@ -187,7 +234,19 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public void close() throws SQLException {
-		this.statement.close();
+		if (!this.cached) {
+			this.statement.close();
+
+			return;
+		}
+
+		// return the statement to the statement cache of the connection
+		this.checkedOut = false;
+
+		this.batchSize = 0;
+
+		this.statement.clearParameters();
+		this.statement.clearBatch();
 	}
 
 	/**
@@ -199,13 +258,36 @@ public class PreparedStatementProxy implements PreparedStatement {
 		this.statement.closeOnCompletion();
 	}
 
+	/**
+	 * Evicts the statement from the statement cache. The statement is closed if it is not in use, otherwise it is closed when it is
+	 * released.
+	 * 
+	 * @throws SQLException
+	 *             in case of an sql error
+	 * 
+	 * @since 2.0.1
+	 */
+	public void evict() throws SQLException {
+		this.cached = false;
+
+		if (!this.checkedOut) {
+			this.statement.close();
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
 	 */
 	@Override
 	public boolean execute() throws SQLException {
-		return this.statement.execute();
+		final long start = System.nanoTime();
+		try {
+			return this.statement.execute();
+		}
+		finally {
+			this.statistic.record(System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -250,7 +332,52 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public int[] executeBatch() throws SQLException {
-		return this.statement.executeBatch();
+		final int batchSize = this.batchSize;
+		this.batchSize = 0;
+
+		if ((this.sqlStream == null) && !this.debug) {
+			final long start = System.nanoTime();
+			try {
+				return this.recordRows(this.statement.executeBatch());
+			}
+			finally {
+				this.statistic.recordBatch(System.nanoTime() - start, batchSize);
+			}
+		}
+
+		if (this.statementNo == -1) {
+			this.statementNo = PreparedStatementProxy.no.incrementAndGet();
+		}
+
+		this.executionNo++;
+
+		final long start = System.nanoTime();
+		try {
+			return this.recordRows(this.statement.executeBatch());
+		}
+		finally {
+			final long nanos = System.nanoTime() - start;
+			this.statistic.recordBatch(nanos, batchSize);
+
+			final long time = nanos / 1000000;
+			if (time > this.slowSqlThreshold) {
+				if (this.sqlStream != null) {
+					this.sqlStream.println(MessageFormat.format("{0}:{1} {2} msecs, executeBatch()", this.statementNo, this.executionNo, time));
+
+					new OperationTookLongTimeWarning().printStackTrace(this.sqlStream);
+				}
+
+				PreparedStatementProxy.LOG.warn("{0}:{1} {2} msecs, executeBatch()", this.statementNo, this.executionNo, time);
+				PreparedStatementProxy.LOG.debug(new OperationTookLongTimeWarning(), "");
+			}
+			else {
+				if (this.sqlStream != null) {
+					this.sqlStream.println(MessageFormat.format("{0}:{1} {2} msecs, executeBatch()", this.statementNo, this.executionNo, time));
+				}
+
+				PreparedStatementProxy.LOG.debug("{0}:{1} {2} msecs, executeBatch()", this.statementNo, this.executionNo, time);
+			}
+		}
 	}
 
 	/**
@@ -260,7 +387,13 @@ public class PreparedStatementProxy implements PreparedStatement {
 	@Override
 	public ResultSet executeQuery() throws SQLException {
 		if ((this.sqlStream == null) && !this.debug) {
-			return this.statement.executeQuery();
+			final long start = System.nanoTime();
+			try {
+				return new ResultSetProxy(this.statement.executeQuery(), this.statistic);
+			}
+			finally {
+				this.statistic.record(System.nanoTime() - start);
+			}
 		}
 
 		if (this.statementNo == -1) {
@@ -277,12 +410,15 @@ public class PreparedStatementProxy implements PreparedStatement {
 				PreparedStatementProxy.LOG.lazyBoxed(this.sql, this.parameters)));
 		}
 
-		final long start = System.currentTimeMillis();
+		final long start = System.nanoTime();
 		try {
-			return this.statement.executeQuery();
+			return new ResultSetProxy(this.statement.executeQuery(), this.statistic);
 		}
 		finally {
-			final long time = System.currentTimeMillis() - start;
+			final long nanos = System.nanoTime() - start;
+			this.statistic.record(nanos);
+
+			final long time = nanos / 1000000;
 
 			if (time > this.slowSqlThreshold) {
 				PreparedStatementProxy.LOG.warn(new OperationTookLongTimeWarning(), "{0}:{1} {2} msecs, executeQuery()", this.statementNo, this.executionNo,
@@ -321,7 +457,13 @@ public class PreparedStatementProxy implements PreparedStatement {
 	@Override
 	public int executeUpdate() throws SQLException {
 		if ((this.sqlStream == null) && !this.debug) {
-			return this.statement.executeUpdate();
+			final long start = System.nanoTime();
+			try {
+				return this.recordRows(this.statement.executeUpdate());
+			}
+			finally {
+				this.statistic.record(System.nanoTime() - start);
+			}
 		}
 
 		if (this.statementNo == -1) {
@@ -338,12 +480,15 @@ public class PreparedStatementProxy implements PreparedStatement {
 				PreparedStatementProxy.LOG.lazyBoxed(this.sql, this.parameters)));
 		}
 
-		final long start = System.currentTimeMillis();
+		final long start = System.nanoTime();
 		try {
-			return this.statement.executeUpdate();
+			return this.recordRows(this.statement.executeUpdate());
 		}
 		finally {
-			final long time = System.currentTimeMillis() - start;
+			final long nanos = System.nanoTime() - start;
+			this.statistic.record(nanos);
+
+			final long time = nanos / 1000000;
 			if (time > this.slowSqlThreshold) {
 				if (this.sqlStream != null) {
 					this.sqlStream.println(MessageFormat.format("{0}:{1} {2} msecs, executeUpdate()", this.statementNo, this.executionNo, time));
@@ -440,8 +585,7 @@ public class PreparedStatementProxy implements PreparedStatement {
 	 */
 	@Override
 	public ResultSet getGeneratedKeys() throws SQLException {
-		this.throwNotImplemented();
-		return null;
+		return this.statement.getGeneratedKeys();
 	}
 
 	/**
@@ -623,6 +767,25 @@ public class PreparedStatementProxy implements PreparedStatement {
 		return false;
 	}
 
+	private int[] recordRows(int[] counts) {
+		long rows = 0;
+		for (final int count : counts) {
+			if (count > 0) {
+				rows += count;
+			}
+		}
+
+		this.statistic.recordRows(rows);
+
+		return counts;
+	}
+
+	private int recordRows(int count) {
+		this.statistic.recordRows(count);
+
+		return count;
+	}
+
 	/**
 	 * Resets the prepared statement and returns itself
 	 * 
@@ -770,6 +933,18 @@ public class PreparedStatementProxy implements PreparedStatement {
 		this.throwNotImplemented();
 	}
 
+	/**
+	 * Sets if the statement is managed by the statement cache of the connection.
+	 * 
+	 * @param cached
+	 *            true if the statement is cached, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setCached(boolean cached) {
+		this.cached = cached;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
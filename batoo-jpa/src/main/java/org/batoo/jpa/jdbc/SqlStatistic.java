@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.jdbc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution statistics of a normalized SQL statement.
+ * <p>
+ * The counters are lock-free so that the statistics can be recorded on every execution. The latencies are kept in a log-linear histogram
+ * with four buckets per power of two, hence the percentiles are accurate to within 25%.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SqlStatistic {
+
+	private static final int SUB_BUCKETS = 4;
+	private static final int BUCKETS = 248;
+
+	private static int bucketOf(long time) {
+		if (time < SqlStatistic.SUB_BUCKETS) {
+			return (int) Math.max(0, time);
+		}
+
+		final int exponent = 63 - Long.numberOfLeadingZeros(time);
+
+		return ((exponent - 1) * SqlStatistic.SUB_BUCKETS) + (int) ((time >>> (exponent - 2)) & 3);
+	}
+
+	private static long upperBoundOf(int bucket) {
+		if (bucket < SqlStatistic.SUB_BUCKETS) {
+			return bucket;
+		}
+
+		final int exponent = (bucket / SqlStatistic.SUB_BUCKETS) + 1;
+		final long top = (bucket % SqlStatistic.SUB_BUCKETS) + SqlStatistic.SUB_BUCKETS;
+
+		return ((top + 1) << (exponent - 2)) - 1;
+	}
+
+	private final String sql;
+
+	private final AtomicLong executions = new AtomicLong();
+	private final AtomicLong totalTime = new AtomicLong();
+	private final AtomicLong maxTime = new AtomicLong();
+	private final AtomicLong rows = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong batchedRows = new AtomicLong();
+	private final AtomicLongArray histogram = new AtomicLongArray(SqlStatistic.BUCKETS);
+
+	/**
+	 * @param sql
+	 *            the normalized SQL
+	 * 
+	 * @since 2.0.1
+	 */
+	public SqlStatistic(String sql) {
+		super();
+
+		this.sql = sql;
+	}
+
+	/**
+	 * Returns the average batch size.
+	 * 
+	 * @return the average batch size or <code>0</code> if the statement has not been executed as batch
+	 * 
+	 * @since 2.0.1
+	 */
+	public double getAverageBatchSize() {
+		final long _batches = this.batches.get();
+
+		return _batches == 0 ? 0 : (double) this.batchedRows.get() / _batches;
+	}
+
+	/**
+	 * Returns the average execution time in nanoseconds.
+	 * 
+	 * @return the average execution time in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getAverageTime() {
+		final long _executions = this.executions.get();
+
+		return _executions == 0 ? 0 : this.totalTime.get() / _executions;
+	}
+
+	/**
+	 * Returns the number of batch executions.
+	 * 
+	 * @return the number of batch executions
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getBatches() {
+		return this.batches.get();
+	}
+
+	/**
+	 * Returns the number of executions, including the batch executions.
+	 * 
+	 * @return the number of executions
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getExecutions() {
+		return this.executions.get();
+	}
+
+	/**
+	 * Returns the maximum execution time in nanoseconds.
+	 * 
+	 * @return the maximum execution time in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getMaxTime() {
+		return this.maxTime.get();
+	}
+
+	/**
+	 * Returns the execution time in nanoseconds that the <code>percentile</code> of the executions took at most.
+	 * 
+	 * @param percentile
+	 *            the percentile between <code>0</code> and <code>100</code>
+	 * @return the execution time in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getPercentile(double percentile) {
+		if ((percentile < 0) || (percentile > 100)) {
+			throw new IllegalArgumentException("Illegal percentile " + percentile);
+		}
+
+		final long[] counts = new long[SqlStatistic.BUCKETS];
+
+		long total = 0;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.histogram.get(i);
+			total += counts[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil((percentile * total) / 100));
+
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+
+			if (seen >= rank) {
+				return Math.min(SqlStatistic.upperBoundOf(i), this.maxTime.get());
+			}
+		}
+
+		return this.maxTime.get();
+	}
+
+	/**
+	 * Returns the number of rows fetched by the queries and affected by the updates.
+	 * 
+	 * @return the number of rows
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getRows() {
+		return this.rows.get();
+	}
+
+	/**
+	 * Returns the normalized SQL.
+	 * 
+	 * @return the normalized SQL
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getSql() {
+		return this.sql;
+	}
+
+	/**
+	 * Returns the total execution time in nanoseconds.
+	 * 
+	 * @return the total execution time in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public long getTotalTime() {
+		return this.totalTime.get();
+	}
+
+	/**
+	 * Records an execution.
+	 * 
+	 * @param time
+	 *            the execution time in nanoseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	public void record(long time) {
+		this.executions.incrementAndGet();
+		this.totalTime.addAndGet(time);
+		this.histogram.incrementAndGet(SqlStatistic.bucketOf(time));
+
+		long max = this.maxTime.get();
+		while ((time > max) && !this.maxTime.compareAndSet(max, time)) {
+			max = this.maxTime.get();
+		}
+	}
+
+	/**
+	 * Records a batch execution.
+	 * 
+	 * @param time
+	 *            the execution time in nanoseconds
+	 * @param size
+	 *            the number of statements in the batch
+	 * 
+	 * @since 2.0.1
+	 */
+	public void recordBatch(long time, int size) {
+		this.record(time);
+
+		this.batches.incrementAndGet();
+		this.batchedRows.addAndGet(size);
+	}
+
+	/**
+	 * Records the rows fetched or affected.
+	 * 
+	 * @param count
+	 *            the number of rows
+	 * 
+	 * @since 2.0.1
+	 */
+	public void recordRows(long count) {
+		if (count > 0) {
+			this.rows.addAndGet(count);
+		}
+	}
+
+	/**
+	 * Clears the statistic.
+	 * <p>
+	 * The counters are cleared one by one, the executions recorded concurrently may partially survive the reset.
+	 * 
+	 * @since 2.0.1
+	 */
+	public void reset() {
+		this.executions.set(0);
+		this.totalTime.set(0);
+		this.maxTime.set(0);
+		this.rows.set(0);
+		this.batches.set(0);
+		this.batchedRows.set(0);
+
+		for (int i = 0; i < SqlStatistic.BUCKETS; i++) {
+			this.histogram.set(i, 0);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String toString() {
+		return this.sql + " | executions:" + this.getExecutions() + " total:" + (this.getTotalTime() / 1000000) + "ms avg:"
+			+ (this.getAverageTime() / 1000) + "us p95:" + (this.getPercentile(95) / 1000) + "us max:" + (this.getMaxTime() / 1000) + "us rows:"
+			+ this.getRows() + " batches:" + this.getBatches();
+	}
+}
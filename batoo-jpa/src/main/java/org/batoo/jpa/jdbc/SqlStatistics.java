@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.jdbc;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Execution statistics of the SQL statements of an entity manager factory, keyed by the normalized SQL.
+ * <p>
+ * The SQL is normalized by collapsing the whitespace and replacing the string and numeric literals with <code>?</code>, so that the
+ * statements that differ only in their literals share the same statistic.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class SqlStatistics implements SqlStatisticsMBean {
+
+	private static final int MAX_SQL_CACHE = 10000;
+	private static final int TOP_STATEMENTS = 20;
+
+	/**
+	 * Returns the normalized SQL.
+	 * 
+	 * @param sql
+	 *            the SQL
+	 * @return the normalized SQL
+	 * 
+	 * @since 2.0.1
+	 */
+	public static String normalize(String sql) {
+		final StringBuilder normalized = new StringBuilder(sql.length());
+
+		final int length = sql.length();
+		int i = 0;
+		while (i < length) {
+			final char c = sql.charAt(i);
+
+			// collapse the whitespace
+			if (Character.isWhitespace(c)) {
+				while ((i < length) && Character.isWhitespace(sql.charAt(i))) {
+					i++;
+				}
+
+				if ((normalized.length() > 0) && (i < length)) {
+					normalized.append(' ');
+				}
+
+				continue;
+			}
+
+			// string literal, '' is the escaped quote
+			if (c == '\'') {
+				i++;
+				while (i < length) {
+					if (sql.charAt(i++) == '\'') {
+						if ((i < length) && (sql.charAt(i) == '\'')) {
+							i++;
+
+							continue;
+						}
+
+						break;
+					}
+				}
+
+				normalized.append('?');
+
+				continue;
+			}
+
+			// quoted identifier, copied as is
+			if (c == '"') {
+				final int end = sql.indexOf('"', i + 1);
+				final int next = end < 0 ? length : end + 1;
+
+				normalized.append(sql, i, next);
+				i = next;
+
+				continue;
+			}
+
+			// identifier, may contain digits
+			if (Character.isJavaIdentifierStart(c)) {
+				final int start = i;
+				while ((i < length) && Character.isJavaIdentifierPart(sql.charAt(i))) {
+					i++;
+				}
+
+				normalized.append(sql, start, i);
+
+				continue;
+			}
+
+			// numeric literal
+			if (Character.isDigit(c)) {
+				while ((i < length) && (Character.isDigit(sql.charAt(i)) || (sql.charAt(i) == '.'))) {
+					i++;
+				}
+
+				normalized.append('?');
+
+				continue;
+			}
+
+			normalized.append(c);
+			i++;
+		}
+
+		return normalized.toString();
+	}
+
+	private final ConcurrentMap<String, SqlStatistic> sqlCache = Maps.newConcurrentMap();
+	private final ConcurrentMap<String, SqlStatistic> statistics = Maps.newConcurrentMap();
+
+	/**
+	 * Returns the statistic for the SQL.
+	 * 
+	 * @param sql
+	 *            the SQL
+	 * @return the statistic
+	 * 
+	 * @since 2.0.1
+	 */
+	public SqlStatistic get(String sql) {
+		SqlStatistic statistic = this.sqlCache.get(sql);
+		if (statistic != null) {
+			return statistic;
+		}
+
+		final String normalized = SqlStatistics.normalize(sql);
+
+		statistic = this.statistics.get(normalized);
+		if (statistic == null) {
+			statistic = new SqlStatistic(normalized);
+
+			final SqlStatistic existing = this.statistics.putIfAbsent(normalized, statistic);
+			if (existing != null) {
+				statistic = existing;
+			}
+		}
+
+		// do not let the statements with literals grow the cache indefinitely
+		if (this.sqlCache.size() < SqlStatistics.MAX_SQL_CACHE) {
+			this.sqlCache.put(sql, statistic);
+		}
+
+		return statistic;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getExecutions() {
+		long executions = 0;
+
+		for (final SqlStatistic statistic : this.statistics.values()) {
+			executions += statistic.getExecutions();
+		}
+
+		return executions;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getStatementCount() {
+		return this.statistics.size();
+	}
+
+	/**
+	 * Returns the statistics ordered by the total execution time, the most expensive first.
+	 * 
+	 * @return the statistics
+	 * 
+	 * @since 2.0.1
+	 */
+	public List<SqlStatistic> getStatistics() {
+		final List<SqlStatistic> statistics = Lists.newArrayList(this.statistics.values());
+
+		Collections.sort(statistics, new Comparator<SqlStatistic>() {
+
+			@Override
+			public int compare(SqlStatistic o1, SqlStatistic o2) {
+				final long time1 = o1.getTotalTime();
+				final long time2 = o2.getTotalTime();
+
+				return time1 > time2 ? -1 : (time1 == time2 ? 0 : 1);
+			}
+		});
+
+		return statistics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public String[] getTopStatements() {
+		final List<SqlStatistic> statistics = this.getStatistics();
+
+		final String[] top = new String[Math.min(SqlStatistics.TOP_STATEMENTS, statistics.size())];
+		for (int i = 0; i < top.length; i++) {
+			top[i] = statistics.get(i).toString();
+		}
+
+		return top;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public long getTotalTimeMillis() {
+		long totalTime = 0;
+
+		for (final SqlStatistic statistic : this.statistics.values()) {
+			totalTime += statistic.getTotalTime();
+		}
+
+		return totalTime / 1000000;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void reset() {
+		for (final SqlStatistic statistic : this.statistics.values()) {
+			statistic.reset();
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.jdbc;
+
+/**
+ * JMX management interface of the {@link SqlStatistics}.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public interface SqlStatisticsMBean {
+
+	/**
+	 * Returns the total number of executions.
+	 * 
+	 * @return the total number of executions
+	 * 
+	 * @since 2.0.1
+	 */
+	long getExecutions();
+
+	/**
+	 * Returns the number of distinct normalized statements.
+	 * 
+	 * @return the number of distinct normalized statements
+	 * 
+	 * @since 2.0.1
+	 */
+	int getStatementCount();
+
+	/**
+	 * Returns the statements that took the most database time, the most expensive first.
+	 * 
+	 * @return the statements that took the most database time
+	 * 
+	 * @since 2.0.1
+	 */
+	String[] getTopStatements();
+
+	/**
+	 * Returns the total execution time in milliseconds.
+	 * 
+	 * @return the total execution time in milliseconds
+	 * 
+	 * @since 2.0.1
+	 */
+	long getTotalTimeMillis();
+
+	/**
+	 * Clears the statistics.
+	 * 
+	 * @since 2.0.1
+	 */
+	void reset();
+}
@@ -334,6 +334,15 @@ public class H2Adaptor extends JdbcAdaptor {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean supportsGeneratedKeys() {
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
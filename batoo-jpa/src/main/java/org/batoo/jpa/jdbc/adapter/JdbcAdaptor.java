@@ -25,6 +25,7 @@ import java.io.StringReader;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -34,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,6 +55,7 @@ import org.batoo.common.util.BatooUtils;
 import org.batoo.jpa.jdbc.AbstractColumn;
 import org.batoo.jpa.jdbc.AbstractTable;
 import org.batoo.jpa.jdbc.BasicColumn;
+import org.batoo.jpa.jdbc.CachedParameterMetaData;
 import org.batoo.jpa.jdbc.CollectionTable;
 import org.batoo.jpa.jdbc.DDLMode;
 import org.batoo.jpa.jdbc.DateTimeFunctionType;
@@ -70,6 +73,7 @@ import org.batoo.jpa.parser.MappingException;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -124,17 +128,32 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		}
 	}
 
+	// the native queries may carry literals, so the parameter metadata cache is bounded
+	private static final int MAX_PARAMETER_METADATAS = 10000;
+
 	private static final String[] TABLE_OR_VIEW = new String[] { "TABLE", "VIEW" };
 	private static final String TABLE_NAME = "TABLE_NAME";
+	private static final String TABLE_SCHEM = "TABLE_SCHEM";
+	private static final String TABLE_CAT = "TABLE_CAT";
 
 	private static final BLogger LOG = BLoggerFactory.getLogger(JdbcAdaptor.class);
 
 	private List<String> words;
 
 	private final Map<AbstractTable, JdbcTable> tables = Maps.newHashMap();
+	private final Map<String, ParameterMetaData> parameterMetaDatas = new LinkedHashMap<String, ParameterMetaData>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<String, ParameterMetaData> eldest) {
+			return this.size() > JdbcAdaptor.MAX_PARAMETER_METADATAS;
+		}
+	};
 
 	private int insertBatchSize;
 	private int removeBatchSize;
+	private int updateBatchSize;
 
 	/**
 	 * @since 2.0.0
@@ -443,6 +462,10 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 			this.logRelaxed(e, "Cannot create table " + table.getQName());
 		}
 
+		synchronized (this) {
+			this.tables.remove(table);
+		}
+
 		this.createIndexes(datasource, table);
 	}
 
@@ -900,6 +923,44 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 	 */
 	public abstract PaginationParamsOrder getPaginationParamsOrder();
 
+	/**
+	 * Returns the parameter metadata for the SQL.
+	 * <p>
+	 * The metadata is obtained from the statement on the first call for the SQL and served from memory afterwards. The least recently
+	 * used metadata is evicted once the cache holds 10000 statements.
+	 * 
+	 * @param statement
+	 *            the statement prepared for the SQL
+	 * @param sql
+	 *            the SQL of the statement
+	 * @return the parameter metadata
+	 * @throws SQLException
+	 *             thrown in case of an underlying SQL Exception
+	 * 
+	 * @since 2.0.1
+	 */
+	public ParameterMetaData getParameterMetaData(PreparedStatement statement, String sql) throws SQLException {
+		synchronized (this.parameterMetaDatas) {
+			final ParameterMetaData pmd = this.parameterMetaDatas.get(sql);
+			if (pmd != null) {
+				return pmd;
+			}
+		}
+
+		final ParameterMetaData cachedPmd = new CachedParameterMetaData(statement.getParameterMetaData());
+
+		synchronized (this.parameterMetaDatas) {
+			final ParameterMetaData existing = this.parameterMetaDatas.get(sql);
+			if (existing != null) {
+				return existing;
+			}
+
+			this.parameterMetaDatas.put(sql, cachedPmd);
+		}
+
+		return cachedPmd;
+	}
+
 	/**
 	 * Returns the priary key drop SQL.
 	 * 
@@ -960,13 +1021,24 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 	 */
 	public abstract String getSelectLastIdentitySql(BasicColumn identityColumn);
 
+	/**
+	 * Returns the updateBatchSize of the JdbcAdaptor.
+	 * 
+	 * @return the updateBatchSize of the JdbcAdaptor
+	 * 
+	 * @since 2.0.1
+	 */
+	public int getUpdateBatchSize() {
+		return this.updateBatchSize;
+	}
+
 	private synchronized JdbcTable getTableMetadata(DataSource datasource, AbstractTable table) throws SQLException {
-		JdbcTable tableMetadata = this.tables.get(table);
-		if (tableMetadata != null) {
-			return tableMetadata;
+		// null values are the tables known to be missing
+		if (this.tables.containsKey(table)) {
+			return this.tables.get(table);
 		}
 
-		tableMetadata = this.getTableMetadata(datasource, table.getCatalog(), table.getSchema(), table.getName());
+		final JdbcTable tableMetadata = this.getTableMetadata(datasource, table.getCatalog(), table.getSchema(), table.getName());
 		if (tableMetadata != null) {
 			this.tables.put(table, tableMetadata);
 		}
@@ -1148,6 +1220,142 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		return false;
 	}
 
+	/**
+	 * Reads the metadata of the tables in bulk.
+	 * <p>
+	 * The tables are read with a single metadata call per configured catalog and schema, and their columns with a single call per catalog
+	 * and schema the tables are found in, rather than with calls per table. The metadata is cached for the subsequent DDL operations.
+	 * 
+	 * @param datasource
+	 *            the datasource
+	 * @param tables
+	 *            the tables
+	 * @throws SQLException
+	 *             thrown if the metadata cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public synchronized void loadTableMetadata(DataSource datasource, Collection<AbstractTable> tables) throws SQLException {
+		// group the tables by catalog and schema
+		final Map<List<String>, Map<String, AbstractTable>> groups = Maps.newHashMap();
+		for (final AbstractTable table : tables) {
+			if (this.tables.containsKey(table)) {
+				continue;
+			}
+
+			final String catalog = StringUtils.isBlank(table.getCatalog()) ? null : table.getCatalog();
+			final String schema = StringUtils.isBlank(table.getSchema()) ? null : table.getSchema();
+			final List<String> key = Arrays.asList(catalog, schema);
+
+			Map<String, AbstractTable> group = groups.get(key);
+			if (group == null) {
+				group = Maps.newHashMap();
+				groups.put(key, group);
+			}
+
+			group.put(table.getName().toUpperCase(), table);
+		}
+
+		if (groups.isEmpty()) {
+			return;
+		}
+
+		final Connection connection = datasource.getConnection();
+		try {
+			final DatabaseMetaData dbMetadata = connection.getMetaData();
+
+			for (final Entry<List<String>, Map<String, AbstractTable>> group : groups.entrySet()) {
+				this.loadTableMetadata(dbMetadata, group.getKey().get(0), group.getKey().get(1), group.getValue());
+			}
+		}
+		finally {
+			DbUtils.closeQuietly(connection);
+		}
+	}
+
+	private void loadTableMetadata(DatabaseMetaData dbMetadata, String catalog, String schema, Map<String, AbstractTable> tables)
+		throws SQLException {
+		if (dbMetadata.storesUpperCaseIdentifiers()) {
+			catalog = BatooUtils.upper(catalog);
+			schema = BatooUtils.upper(schema);
+		}
+		else if (dbMetadata.storesLowerCaseIdentifiers()) {
+			catalog = BatooUtils.lower(catalog);
+			schema = BatooUtils.lower(schema);
+		}
+
+		// locate the existing tables as catalog, schema and name
+		final Map<String, String[]> existingTables = Maps.newHashMap();
+
+		ResultSet rs = dbMetadata.getTables(catalog, schema, "%", JdbcAdaptor.TABLE_OR_VIEW);
+		try {
+			while (rs.next()) {
+				final String name = rs.getString(JdbcAdaptor.TABLE_NAME);
+				final String key = name.toUpperCase();
+
+				if (tables.containsKey(key) && !existingTables.containsKey(key)) {
+					existingTables.put(key, new String[] { rs.getString(JdbcAdaptor.TABLE_CAT), rs.getString(JdbcAdaptor.TABLE_SCHEM), name });
+				}
+			}
+		}
+		finally {
+			DbUtils.closeQuietly(rs);
+		}
+
+		// read the columns of the existing tables with a single call per catalog and schema they reside in
+		final Set<List<String>> locations = Sets.newLinkedHashSet();
+		for (final String[] existingTable : existingTables.values()) {
+			locations.add(Arrays.asList(existingTable[0], existingTable[1]));
+		}
+
+		final Map<String, List<JdbcColumn>> columns = Maps.newHashMap();
+		for (final List<String> location : locations) {
+			rs = dbMetadata.getColumns(location.get(0), location.get(1), "%", "%");
+			try {
+				while (rs.next()) {
+					final String key = rs.getString(JdbcAdaptor.TABLE_NAME).toUpperCase();
+					final String[] existingTable = existingTables.get(key);
+
+					if ((existingTable == null) || !Objects.equal(existingTable[0], rs.getString(JdbcAdaptor.TABLE_CAT))
+						|| !Objects.equal(existingTable[1], rs.getString(JdbcAdaptor.TABLE_SCHEM))) {
+						continue;
+					}
+
+					List<JdbcColumn> tableColumns = columns.get(key);
+					if (tableColumns == null) {
+						tableColumns = Lists.newArrayList();
+						columns.put(key, tableColumns);
+					}
+
+					tableColumns.add(new JdbcColumn(rs));
+				}
+			}
+			finally {
+				DbUtils.closeQuietly(rs);
+			}
+		}
+
+		final List<String> missingTables = Lists.newArrayList();
+		for (final Entry<String, AbstractTable> entry : tables.entrySet()) {
+			final String[] existingTable = existingTables.get(entry.getKey());
+
+			if (existingTable == null) {
+				missingTables.add(entry.getValue().getName());
+
+				this.tables.put(entry.getValue(), null);
+			}
+			else {
+				final List<JdbcColumn> tableColumns = columns.get(entry.getKey());
+
+				this.tables.put(entry.getValue(), new JdbcTable(dbMetadata, existingTable[0], existingTable[1], existingTable[2], //
+					tableColumns != null ? tableColumns : Collections.<JdbcColumn> emptyList()));
+			}
+		}
+
+		JdbcAdaptor.LOG.info("Schema introspection found {0} of {1} tables, missing tables {2}", //
+			existingTables.size(), tables.size(), missingTables);
+	}
+
 	private void loadReservedWords() throws MappingException {
 		final String packageName = this.getClass().getPackage().getName().replaceAll("\\.", "/");
 		final String name = this.getDatabaseName();
@@ -1286,6 +1494,18 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 		this.removeBatchSize = removeBatchSize;
 	}
 
+	/**
+	 * Sets the updateBatchSize of the JdbcAdaptor.
+	 * 
+	 * @param updateBatchSize
+	 *            the updateBatchSize to set for JdbcAdaptor
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setUpdateBatchSize(int updateBatchSize) {
+		this.updateBatchSize = updateBatchSize;
+	}
+
 	/**
 	 * Returns the id type supported.
 	 * <p>
@@ -1302,6 +1522,32 @@ public abstract class JdbcAdaptor extends AbstractJdbcAdaptor {
 	 */
 	public abstract IdType supports(GenerationType type);
 
+	/**
+	 * Returns if the driver returns the identity generated for an insert through {@link java.sql.Statement#getGeneratedKeys()}.
+	 * <p>
+	 * If not supported the identity is selected with {@link #getSelectLastIdentitySql(BasicColumn)} after the insert.
+	 * 
+	 * @return true if the driver returns the generated identities, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean supportsGeneratedKeys() {
+		return false;
+	}
+
+	/**
+	 * Returns if the driver returns the identities generated for all the rows of a multi-row insert, in the order of the rows.
+	 * <p>
+	 * If supported, the entities with identity ids are inserted in batches.
+	 * 
+	 * @return true if the driver returns the generated identities of all the rows, false otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	public boolean supportsMultiRowGeneratedKeys() {
+		return false;
+	}
+
 	/**
 	 * Returns if the database supports named params i.e.: <code>select * from mytable field = :p1</code>.
 	 * 
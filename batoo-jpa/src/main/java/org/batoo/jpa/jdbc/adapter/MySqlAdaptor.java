@@ -253,4 +253,22 @@ public class MySqlAdaptor extends JdbcAdaptor {
 
 		return IdType.TABLE;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean supportsGeneratedKeys() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean supportsMultiRowGeneratedKeys() {
+		return true;
+	}
 }
@@ -314,4 +314,22 @@ public class PostgreSqlAdaptor extends JdbcAdaptor {
 				return IdType.SEQUENCE;
 		}
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean supportsGeneratedKeys() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public boolean supportsMultiRowGeneratedKeys() {
+		return true;
+	}
 }
@@ -25,6 +25,7 @@ import java.sql.ParameterMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.Arrays;
 
@@ -50,7 +51,6 @@ public class QueryRunner {
 
 	private JdbcAdaptor jdbcAdaptor;
 	private boolean pmdKnownBroken = false;
-	private ParameterMetaData pmd;
 
 	/**
 	 * Constructor for QueryRunner.
@@ -128,6 +128,49 @@ public class QueryRunner {
 		this.datasource = null;
 	}
 
+	/**
+	 * Executes a batch of SQL INSERT, UPDATE, or DELETE queries. The caller is responsible for closing the connection.
+	 * 
+	 * @param connection
+	 *            The connection to use to run the query.
+	 * @param sql
+	 *            The SQL to execute.
+	 * @param params
+	 *            An array of query replacement parameters. Each row in this array is one set of batch replacement values.
+	 * @return The number of rows updated per statement.
+	 * @throws SQLException
+	 *             if a database access error occurs
+	 * 
+	 * @since 2.0.1
+	 */
+	public int[] batch(Connection connection, String sql, Object[][] params) throws SQLException {
+		if (connection == null) {
+			throw new SQLException("Null connection");
+		}
+
+		if (sql == null) {
+			throw new SQLException("Null SQL statement");
+		}
+
+		PreparedStatement statement = null;
+		try {
+			statement = connection.prepareStatement(sql);
+			for (final Object[] row : params) {
+				this.fillStatement(statement, sql, row);
+
+				statement.addBatch();
+			}
+
+			return statement.executeBatch();
+		}
+		catch (final SQLException e) {
+			throw this.convertSqlException(e, sql, (Object[]) params);
+		}
+		finally {
+			DbUtils.close(statement);
+		}
+	}
+
 	/**
 	 * Throws a new exception with a more informative error message.
 	 * 
@@ -171,15 +214,17 @@ public class QueryRunner {
 	 * 
 	 * @param statement
 	 *            PreparedStatement to fill
+	 * @param sql
+	 *            the SQL of the statement
 	 * @param params
 	 *            Query replacement parameters; <code>null</code> is a valid value to pass in.
 	 * @throws SQLException
 	 *             if a database access error occurs
 	 */
-	private void fillStatement(PreparedStatement statement, Object... params) throws SQLException {
+	private void fillStatement(PreparedStatement statement, String sql, Object... params) throws SQLException {
 		// use local variable for performance
 		boolean pmdKnownBroken = this.pmdKnownBroken;
-		ParameterMetaData pmd = this.pmd;
+		ParameterMetaData pmd = null;
 		final boolean hasLob = this.hasLob;
 
 		if (pmdKnownBroken) {
@@ -192,7 +237,7 @@ public class QueryRunner {
 		// if the jdbc adaptor wants to modify the parameters we let it do it its own way
 		final JdbcAdaptor jdbcAdaptor = this.jdbcAdaptor;
 		if ((jdbcAdaptor != null) && jdbcAdaptor.modifiesParameters()) {
-			pmd = this.pmd = statement.getParameterMetaData();
+			pmd = jdbcAdaptor.getParameterMetaData(statement, sql);
 
 			jdbcAdaptor.modifyParameters(pmd, params);
 		}
@@ -222,7 +267,7 @@ public class QueryRunner {
 			}
 			else {
 				if (!pmdKnownBroken && (pmd == null)) {
-					pmd = this.pmd = statement.getParameterMetaData();
+					pmd = this.getParameterMetaData(statement, sql);
 				}
 
 				// VARCHAR works with many drivers regardless of the actual column type.
@@ -243,6 +288,85 @@ public class QueryRunner {
 		}
 	}
 
+	private ParameterMetaData getParameterMetaData(PreparedStatement statement, String sql) throws SQLException {
+		// the statements of the adaptor are generated once per mapping, the metadata is cached per SQL
+		if (this.jdbcAdaptor != null) {
+			return this.jdbcAdaptor.getParameterMetaData(statement, sql);
+		}
+
+		return statement.getParameterMetaData();
+	}
+
+	/**
+	 * Executes an SQL INSERT query and returns the keys generated by the database for the rows inserted. The caller is responsible for
+	 * closing the connection.
+	 * 
+	 * @param connection
+	 *            The connection to use to run the query.
+	 * @param sql
+	 *            The SQL to execute.
+	 * @param keyColumn
+	 *            The name of the generated key column.
+	 * @param size
+	 *            The number of rows inserted.
+	 * @param params
+	 *            The query replacement parameters.
+	 * @return The generated keys in the order of the rows inserted.
+	 * @throws SQLException
+	 *             if a database access error occurs or the driver does not return a key for each row
+	 * 
+	 * @since 2.0.1
+	 */
+	public Object[] insert(Connection connection, String sql, String keyColumn, int size, Object... params) throws SQLException {
+		if (connection == null) {
+			throw new SQLException("Null connection");
+		}
+
+		if (sql == null) {
+			throw new SQLException("Null SQL statement");
+		}
+
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+			if (params != null) {
+				this.fillStatement(statement, sql, params);
+			}
+
+			statement.executeUpdate();
+
+			rs = statement.getGeneratedKeys();
+
+			// some drivers return the entire row (i.e., RETURNING *), locate the key column by name
+			final int keyIndex = rs.getMetaData().getColumnCount() == 1 ? 1 : rs.findColumn(keyColumn);
+
+			final Object[] keys = new Object[size];
+
+			int i = 0;
+			while (rs.next()) {
+				if (i == size) {
+					throw new SQLException("Expected " + size + " generated keys, got more");
+				}
+
+				keys[i++] = rs.getObject(keyIndex);
+			}
+
+			if (i != size) {
+				throw new SQLException("Expected " + size + " generated keys, got " + i);
+			}
+
+			return keys;
+		}
+		catch (final SQLException e) {
+			throw this.convertSqlException(e, sql, params);
+		}
+		finally {
+			DbUtils.closeQuietly(rs);
+			DbUtils.close(statement);
+		}
+	}
+
 	/**
 	 * Calls query after checking the parameters to ensure nothing is null.
 	 * 
@@ -265,7 +389,7 @@ public class QueryRunner {
 		try {
 			statement = conn.prepareStatement(sql);
 			if (params != null) {
-				this.fillStatement(statement, params);
+				this.fillStatement(statement, sql, params);
 			}
 
 			resultSet = statement.executeQuery();
@@ -399,7 +523,7 @@ public class QueryRunner {
 		try {
 			statement = connection.prepareStatement(sql);
 			if (params != null) {
-				this.fillStatement(statement, params);
+				this.fillStatement(statement, sql, params);
 			}
 
 			return statement.executeUpdate();
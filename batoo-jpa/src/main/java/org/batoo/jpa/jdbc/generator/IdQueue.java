@@ -20,34 +20,61 @@ package org.batoo.jpa.jdbc.generator;
 
 import java.sql.SQLException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 
 /**
+ * Allocates ids from the blocks of allocation size ids fetched from the database.
+ * <p>
+ * The ids are handed out by incrementing the cursor of the current block atomically, so that the allocation is lock-free as long as the
+ * current block has ids left. Once half of the current block is consumed, the next block is fetched asynchronously so that the allocations
+ * rarely wait for the database.
  * 
  * @author hceylan
  * @since 2.0.0
  */
-public abstract class IdQueue extends LinkedBlockingQueue<Long> {
+public abstract class IdQueue {
+
+	/**
+	 * A block of ids fetched from the database.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static final class Block {
+
+		private final long end;
+		private final long lowWaterMark;
+		private final AtomicLong cursor;
+
+		private Block(long start, int allocationSize) {
+			super();
+
+			this.end = start + allocationSize;
+			this.lowWaterMark = start + (allocationSize / 2);
+			this.cursor = new AtomicLong(start);
+		}
+	}
 
 	/**
 	 * 
 	 * @author hceylan
 	 * @since 2.0.0
 	 */
-	private final class TopUpTask implements Runnable {
+	private final class FetchTask implements Runnable {
 
 		@Override
 		public void run() {
-			IdQueue.this.doTopUp(this);
+			IdQueue.this.doFetch();
 		}
 	}
 
-	private static final long serialVersionUID = 1L;
-
 	private static final BLogger LOG = BLoggerFactory.getLogger(IdQueue.class);
 
 	private final String name;
@@ -55,9 +82,13 @@ public abstract class IdQueue extends LinkedBlockingQueue<Long> {
 
 	private final ExecutorService idExecuter;
 
+	private volatile Block current;
+	private Block next;
+	private final AtomicBoolean fetching = new AtomicBoolean();
+
 	/**
 	 * @param idExecuter
-	 *            the executor service to submit refill tasks
+	 *            the executor service to submit fetch tasks
 	 * @param name
 	 *            the physical name of the sequence or pkvalue of the table
 	 * @param allocationSize
@@ -71,56 +102,41 @@ public abstract class IdQueue extends LinkedBlockingQueue<Long> {
 		this.idExecuter = idExecuter;
 		this.name = name;
 		this.allocationSize = allocationSize;
-
-		this.idExecuter.execute(new TopUpTask());
 	}
 
 	/**
-	 * Tops up the queue.
-	 * 
-	 * @param runnable
-	 *            the runnable to run to top-up
+	 * Fetches the next block from the database and hands it to the allocations waiting for it.
 	 * 
-	 * @since 2.0.0
+	 * @since 2.0.1
 	 */
-	protected void doTopUp(Runnable runnable) {
-		if (this.idExecuter.isShutdown()) {
-			return;
-		}
+	private void doFetch() {
+		IdQueue.LOG.debug("Ids will be fetched for {0} from the database...", this.name);
 
-		if (this.size() <= (this.allocationSize)) {
-			IdQueue.LOG.debug("Ids will be fetched for {0} from the database...", this.name);
+		try {
+			final Block block = new Block(this.getNextId(), this.allocationSize);
 
-			try {
-				final long nextSequence = this.getNextId();
-				for (int i = 0; i < this.allocationSize; i++) {
-					this.put(nextSequence + i);
-				}
+			synchronized (this) {
+				this.next = block;
+
+				this.notifyAll();
 			}
-			catch (final InterruptedException e) {
-				return;
+		}
+		catch (final Exception e) {
+			IdQueue.LOG.fatal(e, "Cannot get next id from the database!");
+
+			// do not hammer the database
+			try {
+				Thread.sleep(1000);
 			}
-			catch (final Exception e) {
-				try {
-					Thread.currentThread();
-					Thread.sleep(1000);
-				}
-				catch (final InterruptedException e1) {}
+			catch (final InterruptedException e1) {}
 
-				if (this.idExecuter.isShutdown()) {
-					return;
-				}
+			// let the waiting allocations retry
+			synchronized (this) {
+				this.fetching.set(false);
 
-				IdQueue.LOG.fatal(e, "Cannot get next id from the database!");
+				this.notifyAll();
 			}
 		}
-
-		try {
-			Thread.sleep(1);
-		}
-		catch (final InterruptedException e) {
-			return;
-		}
 	}
 
 	/**
@@ -134,15 +150,92 @@ public abstract class IdQueue extends LinkedBlockingQueue<Long> {
 	protected abstract Long getNextId() throws SQLException;
 
 	/**
-	 * {@inheritDoc}
+	 * Returns the next id, waiting for the next block to be fetched if the current block is exhausted.
+	 * 
+	 * @param timeout
+	 *            how long to wait before giving up, in units of <code>unit</code>
+	 * @param unit
+	 *            the time unit of the <code>timeout</code> argument
+	 * @return the next id
+	 * @throws InterruptedException
+	 *             thrown if interrupted while waiting
+	 * @throws TimeoutException
+	 *             thrown if the next block cannot be fetched within the timeout
+	 * 
+	 * @since 2.0.0
+	 */
+	public long poll(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		while (true) {
+			final Block block = this.current;
+
+			if (block != null) {
+				final long id = block.cursor.getAndIncrement();
+				if (id < block.end) {
+					// exactly one allocation crosses the low water mark
+					if (id == block.lowWaterMark) {
+						this.prefetch();
+					}
+
+					return id;
+				}
+			}
+
+			this.switchBlock(block, deadline);
+		}
+	}
+
+	/**
+	 * Fetches the next block asynchronously unless a block is being or has been fetched already.
 	 * 
+	 * @since 2.0.1
 	 */
-	@Override
-	public Long poll(long timeout, TimeUnit unit) throws InterruptedException {
-		if (this.size() < (this.allocationSize * 2)) {
-			this.idExecuter.execute(new TopUpTask());
+	public void prefetch() {
+		if (this.fetching.compareAndSet(false, true)) {
+			try {
+				this.idExecuter.execute(new FetchTask());
+			}
+			catch (final RejectedExecutionException e) {
+				this.doFetch();
+			}
 		}
+	}
+
+	/**
+	 * Replaces the exhausted block with the next block, waiting for the next block to be fetched if necessary.
+	 * 
+	 * @param exhausted
+	 *            the exhausted block
+	 * @param deadline
+	 *            the deadline in nano time
+	 * @throws InterruptedException
+	 *             thrown if interrupted while waiting
+	 * @throws TimeoutException
+	 *             thrown if the next block cannot be fetched before the deadline
+	 * 
+	 * @since 2.0.1
+	 */
+	private synchronized void switchBlock(Block exhausted, long deadline) throws InterruptedException, TimeoutException {
+		while (this.current == exhausted) {
+			if (this.next != null) {
+				// allow the prefetch of the block after before the block is published
+				this.fetching.set(false);
+
+				this.current = this.next;
+				this.next = null;
 
-		return super.poll(timeout, unit);
+				return;
+			}
+
+			this.prefetch();
+
+			final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				throw new TimeoutException("Cannot get next id for " + this.name);
+			}
+
+			this.wait(remaining);
+		}
 	}
 }
@@ -33,8 +33,7 @@ import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
  */
 public class SequenceQueue extends IdQueue {
 
-	private static final long serialVersionUID = 1L;
-	private transient final JdbcAdaptor jdbcAdaptor;
+	private final JdbcAdaptor jdbcAdaptor;
 	private final DataSource datasource;
 	private final String sequenceName;
 
@@ -35,11 +35,9 @@ import org.batoo.jpa.jdbc.dbutils.SingleValueHandler;
  */
 public class TableIdQueue extends IdQueue {
 
-	private static final long serialVersionUID = 1L;
-
 	private final DataSource datasource;
-	private transient final TableGenerator generator;
-	private transient final JdbcAdaptor jdbcAdaptor;
+	private final TableGenerator generator;
+	private final JdbcAdaptor jdbcAdaptor;
 
 	private String selectSql;
 	private String insertSql;
@@ -18,11 +18,64 @@
  */
 package org.batoo.jpa.parser;
 
+import java.io.Serializable;
+
+import org.batoo.common.BatooVersion;
+
 /**
  * 
  * @author hceylan
  * @since 2.0.0
  */
-public class AbstractLocator {
+public class AbstractLocator implements Serializable {
+
+	/**
+	 * Locator that retains only the textual representation of the original locator.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static final class TextLocator extends AbstractLocator {
+
+		private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
+		private final String text;
+
+		private TextLocator(String text) {
+			super();
+
+			this.text = text;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public String toString() {
+			return this.text;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		protected Object writeReplace() {
+			return this;
+		}
+	}
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
+	/**
+	 * Replaces the locator with its textual representation when serialized, as the locators may refer to the reflection members.
+	 * 
+	 * @return the replacement locator
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Object writeReplace() {
+		return new TextLocator(this.toString());
+	}
 }
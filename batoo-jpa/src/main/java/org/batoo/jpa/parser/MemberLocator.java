@@ -20,6 +20,8 @@ package org.batoo.jpa.parser;
 
 import java.lang.reflect.Member;
 
+import org.batoo.common.BatooVersion;
+
 /**
  * A simple locator that has it's <code>toString()</code> be that of the supplied {@link Member}. Useful when a {@link MappingException} is
  * thrown to show the location of the error.
@@ -28,6 +30,9 @@ import java.lang.reflect.Member;
  * @since 2.0.1
  */
 public final class MemberLocator extends AbstractLocator {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final Member member;
 
 	public MemberLocator(final Member m) {
@@ -19,6 +19,7 @@
 package org.batoo.jpa.parser;
 
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,8 +30,10 @@ import javax.sql.DataSource;
 
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
+import org.batoo.jpa.BJPASettings;
 import org.batoo.jpa.parser.impl.OrmParser;
 import org.batoo.jpa.parser.impl.metadata.MetadataImpl;
+import org.batoo.jpa.parser.impl.metadata.MetadataSnapshot;
 
 import com.google.common.collect.Maps;
 
@@ -58,7 +61,7 @@ public class PersistenceParserImpl implements PersistenceParser {
 	private final Map<String, Object> properties = Maps.newHashMap();
 	private final String provider;
 
-	private final MetadataImpl metadata;
+	private MetadataImpl metadata;
 	private final List<String> ormMappingFiles;
 
 	private final boolean hasValidators;
@@ -90,12 +93,24 @@ public class PersistenceParserImpl implements PersistenceParser {
 		}
 
 		this.hasValidators = this.createHasValidators(puInfo);
-		this.metadata = new MetadataImpl();
 		this.ormMappingFiles = puInfo.getMappingFileNames();
 
-		this.parseOrmXmls();
+		final String snapshotDirectory = (String) this.properties.get(BJPASettings.METADATA_SNAPSHOT);
+		if (snapshotDirectory != null) {
+			final List<String> mappingFiles = this.ormMappingFiles.size() > 0 ? this.ormMappingFiles
+				: Collections.singletonList(PersistenceParserImpl.ORM_XML);
+			final MetadataSnapshot snapshot = new MetadataSnapshot(puInfo, mappingFiles, snapshotDirectory);
 
-		this.metadata.parse(puInfo);
+			this.metadata = snapshot.load();
+			if (this.metadata == null) {
+				this.parse();
+
+				snapshot.store(this.metadata);
+			}
+		}
+		else {
+			this.parse();
+		}
 	}
 
 	/**
@@ -207,6 +222,19 @@ public class PersistenceParserImpl implements PersistenceParser {
 		return this.hasValidators;
 	}
 
+	/**
+	 * Parses the ORM XML Files and the persistent classes of the persistence unit.
+	 * 
+	 * @since 2.0.1
+	 */
+	private void parse() {
+		this.metadata = new MetadataImpl();
+
+		this.parseOrmXmls();
+
+		this.metadata.parse(this.puInfo);
+	}
+
 	/**
 	 * Parses a single ORM XML File.
 	 * 
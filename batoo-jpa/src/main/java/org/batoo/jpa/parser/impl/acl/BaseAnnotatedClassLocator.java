@@ -18,7 +18,11 @@
  */
 package org.batoo.jpa.parser.impl.acl;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.List;
 import java.util.Set;
@@ -32,6 +36,13 @@ import javax.persistence.spi.PersistenceUnitInfo;
 import org.batoo.common.log.BLogger;
 import org.batoo.common.log.BLoggerFactory;
 import org.batoo.jpa.spi.AnnotatedClassLocator;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
 
 import com.google.common.collect.Sets;
 
@@ -43,8 +54,114 @@ import com.google.common.collect.Sets;
  */
 public abstract class BaseAnnotatedClassLocator implements AnnotatedClassLocator {
 
+	/**
+	 * Class visitor that checks the class level annotations without loading the class.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class PersistentClassVisitor implements ClassVisitor {
+
+		private boolean persistent;
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+			if (BaseAnnotatedClassLocator.PERSISTENT_ANNOTATIONS.contains(desc)) {
+				this.persistent = true;
+			}
+
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitAttribute(Attribute attr) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitEnd() {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitInnerClass(String name, String outerName, String innerName, int access) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitOuterClass(String owner, String name, String desc) {
+			// noop
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public void visitSource(String source, String debug) {
+			// noop
+		}
+	}
+
 	private static final BLogger LOG = BLoggerFactory.getLogger(BaseAnnotatedClassLocator.class);
 
+	/**
+	 * The location of the persistent class index generated at build time, relative to the persistence root
+	 */
+	public static final String INDEX = "META-INF/batoo-entities.idx";
+
+	private static final Set<String> PERSISTENT_ANNOTATIONS = Sets.newHashSet(//
+		Type.getDescriptor(Embeddable.class), //
+		Type.getDescriptor(MappedSuperclass.class), //
+		Type.getDescriptor(Entity.class));
+
 	private static void locateClasses(PersistenceUnitInfo puInfo, final Set<Class<?>> classes, final URL jarUrl) {
 		AnnotatedClassLocator locator = null;
 
@@ -147,4 +264,71 @@ public abstract class BaseAnnotatedClassLocator implements AnnotatedClassLocator
 
 		return null;
 	}
+
+	/**
+	 * Returns if the class with then name <code>className</code> is an annotated persistent class.
+	 * <p>
+	 * The annotations are read from the class file so that the class is loaded only if it is persistent.
+	 * 
+	 * @param classloader
+	 *            the class loader
+	 * @param className
+	 *            the name of the class
+	 * @param is
+	 *            the input stream to read the class file
+	 * @return the class if the class with then name <code>className</code> is an annotated persistent class, null otherwise
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Class<?> isPersistentClass(ClassLoader classloader, String className, InputStream is) {
+		final PersistentClassVisitor visitor = new PersistentClassVisitor();
+
+		try {
+			new ClassReader(is).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		}
+		catch (final Throwable e) {
+			BaseAnnotatedClassLocator.LOG.debug(e, "Unable to read class file: {0}", className);
+
+			// fall back to loading the class
+			return this.isPersistentClass(classloader, className);
+		}
+
+		return visitor.persistent ? this.isPersistentClass(classloader, className) : null;
+	}
+
+	/**
+	 * Loads the classes listed in the persistent class index.
+	 * 
+	 * @param classLoader
+	 *            the class loader
+	 * @param is
+	 *            the input stream to read the index
+	 * @param classes
+	 *            the set of classes to add the loaded classes to
+	 * @return the set of classes
+	 * @throws IOException
+	 *             thrown if the index cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	protected Set<Class<?>> readIndex(ClassLoader classLoader, InputStream is, Set<Class<?>> classes) throws IOException {
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+
+		String line;
+		while ((line = reader.readLine()) != null) {
+			final String className = line.trim();
+			if ((className.length() == 0) || className.startsWith("#")) {
+				continue;
+			}
+
+			try {
+				classes.add(classLoader.loadClass(className));
+			}
+			catch (final ClassNotFoundException e) {
+				throw new PersistenceException("Unable to load indexed persistent class " + className, e);
+			}
+		}
+
+		return classes;
+	}
 }
@@ -19,10 +19,14 @@
 package org.batoo.jpa.parser.impl.acl;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.PersistenceException;
 import javax.persistence.spi.PersistenceUnitInfo;
 
 import org.apache.commons.io.FilenameUtils;
@@ -83,7 +87,7 @@ public class ClassloaderAnnotatedClassLocator extends BaseAnnotatedClassLocator
 				String className = normalizedPath.substring(rootLength + 1).replaceAll("/", ".");
 				className = StringUtils.left(className, className.length() - 6);
 
-				final Class<?> clazz = this.isPersistentClass(cl, className);
+				final Class<?> clazz = this.isPersistentClass(cl, className, file);
 				if (clazz != null) {
 					ClassloaderAnnotatedClassLocator.LOG.debug("Found persistent class {0}", className);
 					classes.add(clazz);
@@ -94,6 +98,23 @@ public class ClassloaderAnnotatedClassLocator extends BaseAnnotatedClassLocator
 		return classes;
 	}
 
+	private Class<?> isPersistentClass(ClassLoader cl, String className, File file) {
+		try {
+			final InputStream is = new FileInputStream(file);
+			try {
+				return this.isPersistentClass(cl, className, is);
+			}
+			finally {
+				is.close();
+			}
+		}
+		catch (final IOException e) {
+			ClassloaderAnnotatedClassLocator.LOG.debug(e, "Unable to read class file: {0}", file);
+
+			return null;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -106,10 +127,32 @@ public class ClassloaderAnnotatedClassLocator extends BaseAnnotatedClassLocator
 
 		final HashSet<Class<?>> classes = Sets.newHashSet();
 		try {
+			final File index = new File(root, BaseAnnotatedClassLocator.INDEX);
+			if (index.isFile()) {
+				ClassloaderAnnotatedClassLocator.LOG.info("Reading persistent class index {0}", index);
+
+				return this.readIndex(persistenceUnitInfo.getClassLoader(), index, classes);
+			}
+
 			return this.findClasses(persistenceUnitInfo.getClassLoader(), classes, root, root);
 		}
 		finally {
 			ClassloaderAnnotatedClassLocator.LOG.info("Found persistent classes {0}", classes.toString());
 		}
 	}
+
+	private Set<Class<?>> readIndex(ClassLoader cl, File index, Set<Class<?>> classes) {
+		try {
+			final InputStream is = new FileInputStream(index);
+			try {
+				return this.readIndex(cl, is, classes);
+			}
+			finally {
+				is.close();
+			}
+		}
+		catch (final IOException e) {
+			throw new PersistenceException("Unable to read persistent class index: " + index, e);
+		}
+	}
 }
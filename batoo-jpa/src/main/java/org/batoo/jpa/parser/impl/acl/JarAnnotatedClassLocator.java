@@ -19,6 +19,7 @@
 package org.batoo.jpa.parser.impl.acl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Enumeration;
@@ -69,29 +70,51 @@ public class JarAnnotatedClassLocator extends BaseAnnotatedClassLocator {
 	private Set<Class<?>> findClasses(PersistenceUnitInfo persistenceUnitInfo, URL url, final Set<Class<?>> classes) throws IOException, URISyntaxException {
 		final JarFile jarFile = new JarFile(url.toURI().getPath());
 
-		final Enumeration<JarEntry> entries = jarFile.entries();
-		while (entries.hasMoreElements()) {
-			final JarEntry entry = entries.nextElement();
+		try {
+			final ClassLoader classLoader = persistenceUnitInfo.getClassLoader();
+
+			final JarEntry indexEntry = jarFile.getJarEntry(BaseAnnotatedClassLocator.INDEX);
+			if (indexEntry != null) {
+				JarAnnotatedClassLocator.LOG.info("Reading persistent class index {0}", indexEntry.getName());
 
-			if (entry.isDirectory()) {
-				continue;
+				final InputStream is = jarFile.getInputStream(indexEntry);
+				try {
+					return this.readIndex(classLoader, is, classes);
+				}
+				finally {
+					is.close();
+				}
 			}
 
-			final String className = entry.getName().replace('/', '.').replace('\\', '.');
+			final Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				final JarEntry entry = entries.nextElement();
 
-			if (className.endsWith(".class")) {
-				final Class<?> clazz = this.isPersistentClass(persistenceUnitInfo.getClassLoader(), className.substring(0, className.length() - 6));
-				if (clazz != null) {
-					JarAnnotatedClassLocator.LOG.info("Found annotated class {0}", className);
+				if (entry.isDirectory()) {
+					continue;
+				}
 
-					classes.add(clazz);
+				final String className = entry.getName().replace('/', '.').replace('\\', '.');
+
+				if (className.endsWith(".class")) {
+					final InputStream is = jarFile.getInputStream(entry);
+					try {
+						final Class<?> clazz = this.isPersistentClass(classLoader, className.substring(0, className.length() - 6), is);
+						if (clazz != null) {
+							JarAnnotatedClassLocator.LOG.info("Found annotated class {0}", className);
+
+							classes.add(clazz);
+						}
+					}
+					finally {
+						is.close();
+					}
 				}
 			}
 		}
-		
-		jarFile.close();
-
-		jarFile.close();
+		finally {
+			jarFile.close();
+		}
 
 		return classes;
 	}
@@ -18,11 +18,13 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.persistence.AssociationOverride;
 import javax.persistence.JoinColumn;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.AssociationMetadata;
 import org.batoo.jpa.parser.metadata.AttributeOverrideMetadata;
@@ -37,7 +39,9 @@ import com.google.common.collect.Lists;
  * @author hceylan
  * @since 2.0.0
  */
-public class AssociationOverrideMetadataImpl implements AssociationMetadata {
+public class AssociationOverrideMetadataImpl implements AssociationMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String name;
@@ -18,8 +18,11 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.AttributeOverride;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.AttributeOverrideMetadata;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
@@ -30,7 +33,9 @@ import org.batoo.jpa.parser.metadata.ColumnMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class AttributeOverrideMetadataImpl implements AttributeOverrideMetadata {
+public class AttributeOverrideMetadataImpl implements AttributeOverrideMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String name;
@@ -18,10 +18,13 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.Column;
 import javax.persistence.MapKeyColumn;
 import javax.persistence.OrderColumn;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
 
@@ -31,7 +34,9 @@ import org.batoo.jpa.parser.metadata.ColumnMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class ColumnMetadataImpl implements ColumnMetadata {
+public class ColumnMetadataImpl implements ColumnMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String columnDefinition;
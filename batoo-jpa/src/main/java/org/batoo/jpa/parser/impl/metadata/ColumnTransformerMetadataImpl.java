@@ -18,6 +18,9 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.annotations.ColumnTransformer;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.ColumnTransformerMetadata;
@@ -27,7 +30,9 @@ import org.batoo.jpa.parser.metadata.ColumnTransformerMetadata;
  * @author asimarslan
  * @since 2.0.0
  */
-public class ColumnTransformerMetadataImpl implements ColumnTransformerMetadata {
+public class ColumnTransformerMetadataImpl implements ColumnTransformerMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final String read;
 	private final String write;
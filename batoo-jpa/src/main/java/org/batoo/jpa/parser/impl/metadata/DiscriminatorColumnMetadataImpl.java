@@ -18,9 +18,12 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.DiscriminatorColumnMetadata;
 
@@ -30,7 +33,9 @@ import org.batoo.jpa.parser.metadata.DiscriminatorColumnMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class DiscriminatorColumnMetadataImpl implements DiscriminatorColumnMetadata {
+public class DiscriminatorColumnMetadataImpl implements DiscriminatorColumnMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final DiscriminatorType discriminatorType;
 	private final String columnDefinition;
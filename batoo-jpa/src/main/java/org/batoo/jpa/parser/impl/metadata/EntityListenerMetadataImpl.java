@@ -18,6 +18,7 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.List;
@@ -31,6 +32,7 @@ import javax.persistence.PrePersist;
 import javax.persistence.PreRemove;
 import javax.persistence.PreUpdate;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.CallbackMetadata;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata;
@@ -44,7 +46,9 @@ import com.google.common.collect.Lists;
  * @author hceylan
  * @since 2.0.0
  */
-public class EntityListenerMetadataImpl implements EntityListenerMetadata {
+public class EntityListenerMetadataImpl implements EntityListenerMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final boolean self;
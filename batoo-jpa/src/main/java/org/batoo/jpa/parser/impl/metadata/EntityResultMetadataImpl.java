@@ -18,11 +18,13 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.persistence.EntityResult;
 import javax.persistence.FieldResult;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.EntityResultMetadata;
 import org.batoo.jpa.parser.metadata.FieldResultMetadata;
@@ -34,7 +36,9 @@ import com.google.common.collect.Lists;
  * @author asimarslan
  * @since 2.0.1
  */
-public class EntityResultMetadataImpl implements EntityResultMetadata {
+public class EntityResultMetadataImpl implements EntityResultMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 
@@ -18,8 +18,11 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.FieldResult;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.FieldResultMetadata;
 
@@ -28,7 +31,9 @@ import org.batoo.jpa.parser.metadata.FieldResultMetadata;
  * @author asimarslan
  * @since 2.0.1
  */
-public class FieldResultMetadataImpl implements FieldResultMetadata {
+public class FieldResultMetadataImpl implements FieldResultMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String name;
@@ -18,9 +18,12 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.GeneratedValueMetadata;
 
@@ -30,7 +33,9 @@ import org.batoo.jpa.parser.metadata.GeneratedValueMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class GeneratedValueMetadataImpl implements GeneratedValueMetadata {
+public class GeneratedValueMetadataImpl implements GeneratedValueMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final GeneratedValue generatedValue;
@@ -18,6 +18,9 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.annotations.Index;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.IndexMetadata;
@@ -28,7 +31,9 @@ import org.batoo.jpa.parser.metadata.IndexMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class IndexMetadataImpl implements IndexMetadata {
+public class IndexMetadataImpl implements IndexMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String[] columnNames;
@@ -18,8 +18,11 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.lang.reflect.Member;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.AbstractLocator;
 
@@ -31,8 +34,11 @@ import org.batoo.jpa.parser.AbstractLocator;
  */
 public class JavaLocator extends AbstractLocator {
 
-	private final Member member;
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
+	private transient Member member;
 	private final Class<?> clazz;
+	private String memberName;
 
 	/**
 	 * Constructs a new {@link JavaLocator} with class location.
@@ -76,7 +82,27 @@ public class JavaLocator extends AbstractLocator {
 			return ReflectHelper.createMemberName(this.member);
 		}
 
-		return this.clazz.getName();
+		if (this.clazz != null) {
+			return this.clazz.getName();
+		}
+
+		return this.memberName;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected Object writeReplace() {
+		return this;
 	}
 
+	private void writeObject(ObjectOutputStream os) throws IOException {
+		if (this.member != null) {
+			this.memberName = ReflectHelper.createMemberName(this.member);
+		}
+
+		os.defaultWriteObject();
+	}
 }
@@ -18,6 +18,7 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -32,6 +33,7 @@ import javax.persistence.MappedSuperclass;
 import javax.persistence.PersistenceException;
 import javax.persistence.spi.PersistenceUnitInfo;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.MappingException;
 import org.batoo.jpa.parser.impl.acl.BaseAnnotatedClassLocator;
 import org.batoo.jpa.parser.impl.metadata.type.EmbeddableMetadataImpl;
@@ -58,7 +60,9 @@ import com.google.common.collect.Maps;
  * @author hceylan
  * @since 2.0.0
  */
-public class MetadataImpl implements Metadata {
+public class MetadataImpl implements Metadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private AccessType accessType;
 	private boolean xmlMappingMetadataComplete;
@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.parser.impl.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import javax.persistence.spi.PersistenceUnitInfo;
+
+import org.batoo.common.log.BLogger;
+import org.batoo.common.log.BLoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Persistent snapshot of the parsed metadata of a persistence unit.
+ * <p>
+ * The snapshot is keyed by a digest of the persistence unit's name, its exclude unlisted classes flag, the mapping files, the listed classes
+ * along with their super classes and the class files in the scanned locations. The properties of the persistence unit are not part of the
+ * key as they do not take part in parsing. A snapshot is only loaded if the key matches, otherwise the persistence unit is parsed as usual
+ * and the snapshot is rewritten.
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class MetadataSnapshot {
+
+	/**
+	 * Object input stream that resolves the classes with the class loader of the persistence unit.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class SnapshotInputStream extends ObjectInputStream {
+
+		private final ClassLoader classLoader;
+
+		/**
+		 * @param in
+		 *            the input stream
+		 * @param classLoader
+		 *            the class loader
+		 * @throws IOException
+		 *             thrown if the stream header cannot be read
+		 * 
+		 * @since 2.0.1
+		 */
+		public SnapshotInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+			super(in);
+
+			this.classLoader = classLoader;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Class.forName(desc.getName(), false, this.classLoader);
+			}
+			catch (final ClassNotFoundException e) {
+				return super.resolveClass(desc);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+			final Class<?>[] classes = new Class<?>[interfaces.length];
+			for (int i = 0; i < interfaces.length; i++) {
+				classes[i] = Class.forName(interfaces[i], false, this.classLoader);
+			}
+
+			return Proxy.getProxyClass(this.classLoader, classes);
+		}
+	}
+
+	private static final BLogger LOG = BLoggerFactory.getLogger(MetadataSnapshot.class);
+
+	private static final int VERSION = 1;
+	private static final String SUFFIX = ".metadata";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final PersistenceUnitInfo puInfo;
+	private final File file;
+	private final List<String> mappingFiles;
+
+	private boolean keyComputed;
+	private String key;
+
+	/**
+	 * @param puInfo
+	 *            the persistence unit info
+	 * @param mappingFiles
+	 *            the names of the mapping files of the persistence unit
+	 * @param directory
+	 *            the directory to keep the snapshot in
+	 * 
+	 * @since 2.0.1
+	 */
+	public MetadataSnapshot(PersistenceUnitInfo puInfo, List<String> mappingFiles, String directory) {
+		super();
+
+		this.puInfo = puInfo;
+		this.mappingFiles = mappingFiles;
+		this.file = new File(directory, puInfo.getPersistenceUnitName() + MetadataSnapshot.SUFFIX);
+	}
+
+	private void digest(MessageDigest digest, File root, File file) throws IOException {
+		if (file.isDirectory()) {
+			final String[] children = file.list();
+			Arrays.sort(children);
+
+			for (final String child : children) {
+				this.digest(digest, root, new File(file, child));
+			}
+		}
+		else if (file.getName().endsWith(".class") || file.getName().endsWith(".xml") || file.getName().endsWith(".idx")) {
+			this.digest(digest, file.getPath().substring(root.getPath().length()));
+
+			final InputStream is = new FileInputStream(file);
+			try {
+				digest.update(ByteStreams.toByteArray(is));
+			}
+			finally {
+				is.close();
+			}
+		}
+	}
+
+	private void digest(MessageDigest digest, String value) {
+		try {
+			digest.update(String.valueOf(value).getBytes("UTF-8"));
+			digest.update((byte) 0);
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private boolean digest(MessageDigest digest, URL url) throws IOException, URISyntaxException {
+		if (!"file".equals(url.getProtocol())) {
+			return false;
+		}
+
+		final File file = new File(url.toURI().getPath());
+		this.digest(digest, file.getPath());
+
+		if (file.isDirectory()) {
+			this.digest(digest, file, file);
+		}
+		else if (file.isFile()) {
+			// the entry checksums are read from the central directory, no need to inflate the entries
+			final JarFile jarFile = new JarFile(file);
+			try {
+				final Enumeration<JarEntry> entries = jarFile.entries();
+				while (entries.hasMoreElements()) {
+					final JarEntry entry = entries.nextElement();
+
+					this.digest(digest, entry.getName());
+					this.digest(digest, Long.toHexString(entry.getCrc()));
+				}
+			}
+			finally {
+				jarFile.close();
+			}
+		}
+
+		return true;
+	}
+
+	private void digestResource(MessageDigest digest, String name) throws IOException {
+		this.digest(digest, name);
+
+		final InputStream is = this.puInfo.getClassLoader().getResourceAsStream(name);
+		if (is != null) {
+			try {
+				digest.update(ByteStreams.toByteArray(is));
+			}
+			finally {
+				is.close();
+			}
+		}
+	}
+
+	/**
+	 * Returns the key of the persistence unit, or <code>null</code> if the persistence unit's resources cannot be digested.
+	 * 
+	 * @return the key of the persistence unit or <code>null</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	private String getKey() {
+		if (this.keyComputed) {
+			return this.key;
+		}
+
+		this.keyComputed = true;
+
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+			this.digest(digest, String.valueOf(MetadataSnapshot.VERSION));
+			this.digest(digest, this.puInfo.getPersistenceUnitName());
+			this.digest(digest, String.valueOf(this.puInfo.excludeUnlistedClasses()));
+
+			for (final String mappingFile : this.mappingFiles) {
+				this.digestResource(digest, mappingFile);
+			}
+
+			// the listed classes along with their super classes
+			final ClassLoader classLoader = this.puInfo.getClassLoader();
+			for (final String className : this.puInfo.getManagedClassNames()) {
+				Class<?> clazz = classLoader.loadClass(className);
+				while ((clazz != null) && (clazz != Object.class)) {
+					this.digestResource(digest, clazz.getName().replace('.', '/') + ".class");
+
+					clazz = clazz.getSuperclass();
+				}
+			}
+
+			// the locations scanned for the persistent classes
+			final List<URL> locations = Lists.newArrayList();
+			if (this.puInfo.getJarFileUrls() != null) {
+				locations.addAll(this.puInfo.getJarFileUrls());
+			}
+
+			if (!this.puInfo.excludeUnlistedClasses()) {
+				locations.add(this.puInfo.getPersistenceUnitRootUrl());
+			}
+
+			for (final URL location : locations) {
+				if (!this.digest(digest, location)) {
+					MetadataSnapshot.LOG.info("Metadata snapshot is not supported for the location {0}", location);
+
+					return null;
+				}
+			}
+
+			final byte[] bytes = digest.digest();
+			final char[] chars = new char[bytes.length * 2];
+			for (int i = 0; i < bytes.length; i++) {
+				chars[i * 2] = MetadataSnapshot.HEX[(bytes[i] >> 4) & 0xF];
+				chars[(i * 2) + 1] = MetadataSnapshot.HEX[bytes[i] & 0xF];
+			}
+
+			return this.key = new String(chars);
+		}
+		catch (final Exception e) {
+			MetadataSnapshot.LOG.warn(e, "Unable to compute the metadata snapshot key");
+		}
+
+		return null;
+	}
+
+	/**
+	 * Loads the metadata from the snapshot.
+	 * 
+	 * @return the metadata or <code>null</code> if there is no snapshot, or it is stale or cannot be read
+	 * 
+	 * @since 2.0.1
+	 */
+	public MetadataImpl load() {
+		if (!this.file.isFile() || (this.getKey() == null)) {
+			return null;
+		}
+
+		try {
+			final ObjectInputStream is = new SnapshotInputStream(new BufferedInputStream(new FileInputStream(this.file)), this.puInfo.getClassLoader());
+			try {
+				if ((is.readInt() != MetadataSnapshot.VERSION) || !this.key.equals(is.readUTF())) {
+					MetadataSnapshot.LOG.info("Metadata snapshot {0} is stale, parsing the persistence unit", this.file);
+
+					return null;
+				}
+
+				final MetadataImpl metadata = (MetadataImpl) is.readObject();
+
+				MetadataSnapshot.LOG.info("Metadata loaded from snapshot {0}", this.file);
+
+				return metadata;
+			}
+			finally {
+				is.close();
+			}
+		}
+		catch (final Exception e) {
+			MetadataSnapshot.LOG.warn(e, "Unable to read metadata snapshot {0}, parsing the persistence unit", this.file);
+
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot of the metadata.
+	 * 
+	 * @param metadata
+	 *            the metadata
+	 * 
+	 * @since 2.0.1
+	 */
+	public void store(MetadataImpl metadata) {
+		if (this.getKey() == null) {
+			return;
+		}
+
+		File tempFile = null;
+		try {
+			final File directory = this.file.getAbsoluteFile().getParentFile();
+			directory.mkdirs();
+
+			// write to a temporary file first so that a concurrent reader never sees a partial snapshot
+			tempFile = File.createTempFile(this.file.getName(), ".tmp", directory);
+
+			final ObjectOutputStream os = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try {
+				os.writeInt(MetadataSnapshot.VERSION);
+				os.writeUTF(this.key);
+				os.writeObject(metadata);
+			}
+			finally {
+				os.close();
+			}
+
+			if (!tempFile.renameTo(this.file)) {
+				this.file.delete();
+
+				if (!tempFile.renameTo(this.file)) {
+					throw new IOException("Cannot rename " + tempFile + " to " + this.file);
+				}
+			}
+
+			MetadataSnapshot.LOG.info("Metadata snapshot written to {0}", this.file);
+		}
+		catch (final Exception e) {
+			MetadataSnapshot.LOG.warn(e, "Unable to write metadata snapshot {0}", this.file);
+
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+}
@@ -18,11 +18,13 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.Map;
 
 import javax.persistence.NamedNativeQuery;
 import javax.persistence.QueryHint;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.NamedNativeQueryMetadata;
 import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
@@ -35,7 +37,9 @@ import com.google.common.collect.Maps;
  * @author hceylan
  * @since 2.0.0
  */
-public class NamedNativeQueryMetadataImpl implements NamedNativeQueryMetadata {
+public class NamedNativeQueryMetadataImpl implements NamedNativeQueryMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String query;
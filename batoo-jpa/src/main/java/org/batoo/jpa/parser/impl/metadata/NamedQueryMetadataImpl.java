@@ -18,12 +18,14 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.Map;
 
 import javax.persistence.LockModeType;
 import javax.persistence.NamedQuery;
 import javax.persistence.QueryHint;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.NamedQueryMetadata;
 
@@ -35,7 +37,9 @@ import com.google.common.collect.Maps;
  * @author hceylan
  * @since 2.0.0
  */
-public class NamedQueryMetadataImpl implements NamedQueryMetadata {
+public class NamedQueryMetadataImpl implements NamedQueryMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String query;
@@ -18,8 +18,11 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.PrimaryKeyJoinColumn;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.PrimaryKeyJoinColumnMetadata;
 import org.batoo.jpa.parser.metadata.UniqueConstraintMetadata;
@@ -30,7 +33,9 @@ import org.batoo.jpa.parser.metadata.UniqueConstraintMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class PrimaryKeyJoinColumnMetadataImpl implements PrimaryKeyJoinColumnMetadata {
+public class PrimaryKeyJoinColumnMetadataImpl implements PrimaryKeyJoinColumnMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String name;
@@ -18,12 +18,14 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.persistence.PrimaryKeyJoinColumn;
 import javax.persistence.SecondaryTable;
 import javax.persistence.UniqueConstraint;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.PrimaryKeyJoinColumnMetadata;
 import org.batoo.jpa.parser.metadata.SecondaryTableMetadata;
@@ -37,7 +39,9 @@ import com.google.common.collect.Lists;
  * @author hceylan
  * @since 2.0.0
  */
-public class SecondaryTableMetadataImpl implements SecondaryTableMetadata {
+public class SecondaryTableMetadataImpl implements SecondaryTableMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String catalog;
@@ -18,12 +18,14 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.persistence.ColumnResult;
 import javax.persistence.EntityResult;
 import javax.persistence.SqlResultSetMapping;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.ColumnResultMetadata;
 import org.batoo.jpa.parser.metadata.EntityResultMetadata;
@@ -37,7 +39,9 @@ import com.google.common.collect.Lists;
  * @author asimarslan
  * @since 2.0.1
  */
-public class SqlResultSetMappingMetadataImpl implements SqlResultSetMappingMetadata {
+public class SqlResultSetMappingMetadataImpl implements SqlResultSetMappingMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String name;
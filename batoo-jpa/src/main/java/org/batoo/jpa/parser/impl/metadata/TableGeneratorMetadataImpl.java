@@ -18,11 +18,13 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.persistence.TableGenerator;
 import javax.persistence.UniqueConstraint;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.TableGeneratorMetadata;
 import org.batoo.jpa.parser.metadata.UniqueConstraintMetadata;
@@ -35,7 +37,9 @@ import com.google.common.collect.Lists;
  * @author hceylan
  * @since 2.0.0
  */
-public class TableGeneratorMetadataImpl implements TableGeneratorMetadata {
+public class TableGeneratorMetadataImpl implements TableGeneratorMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String catalog;
@@ -18,8 +18,11 @@
  */
 package org.batoo.jpa.parser.impl.metadata;
 
+import java.io.Serializable;
+
 import javax.persistence.UniqueConstraint;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.metadata.UniqueConstraintMetadata;
 
@@ -29,7 +32,9 @@ import org.batoo.jpa.parser.metadata.UniqueConstraintMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class UniqueConstraintMetadataImpl implements UniqueConstraintMetadata {
+public class UniqueConstraintMetadataImpl implements UniqueConstraintMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final AbstractLocator locator;
 	private final String[] columnNames;
@@ -40,6 +40,7 @@ import javax.persistence.OrderBy;
 import javax.persistence.OrderColumn;
 import javax.persistence.TemporalType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.annotations.FetchStrategy;
 import org.batoo.jpa.annotations.FetchStrategyType;
@@ -62,11 +63,14 @@ import com.google.common.collect.Sets;
  */
 public class AssociationAttributeMetadataImpl extends AttributeMetadataImpl implements AssociationAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private String targetEntity;
 	private final Set<CascadeType> cascades;
 	private final FetchType fetchType;
 
 	private final int maxFetchDepth;
+	private final int batchSize;
 
 	private final FetchStrategyType fetchStrategy;
 
@@ -88,6 +92,7 @@ public class AssociationAttributeMetadataImpl extends AttributeMetadataImpl impl
 		this.fetchType = metadata.getFetchType();
 		this.joinTable = metadata.getJoinTable();
 		this.maxFetchDepth = metadata.getMaxFetchDepth();
+		this.batchSize = metadata.getBatchSize();
 
 		this.joinColumns.addAll(Lists.newArrayList(metadata.getJoinColumns()));
 		this.fetchStrategy = metadata.getFetchStrategy();
@@ -127,10 +132,12 @@ public class AssociationAttributeMetadataImpl extends AttributeMetadataImpl impl
 		if (fetchStrategy != null) {
 			this.maxFetchDepth = fetchStrategy.maxDepth() > 0 ? fetchStrategy.maxDepth() : Integer.MAX_VALUE;
 			this.fetchStrategy = fetchStrategy.strategy();
+			this.batchSize = fetchStrategy.batchSize() > 0 ? fetchStrategy.batchSize() : 0;
 		}
 		else {
 			this.maxFetchDepth = Integer.MAX_VALUE;
 			this.fetchStrategy = FetchStrategyType.AUTO;
+			this.batchSize = 0;
 		}
 
 		if ((joinColumns != null) && (joinColumns.value().length > 0)) {
@@ -159,6 +166,15 @@ public class AssociationAttributeMetadataImpl extends AttributeMetadataImpl impl
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -18,11 +18,17 @@
  */
 package org.batoo.jpa.parser.impl.metadata.attribute;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 
 import javax.persistence.AccessType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.log.ToStringBuilder;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.MemberLocator;
@@ -34,9 +40,11 @@ import org.batoo.jpa.parser.metadata.attribute.AttributeMetadata;
  * @author hceylan
  * @since 2.0.0
  */
-public class AttributeMetadataImpl implements AttributeMetadata {
+public class AttributeMetadataImpl implements AttributeMetadata, Serializable {
 
-	private final Member member;
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
+	private transient Member member;
 	private final String name;
 	private final AccessType access;
 	private final AbstractLocator locator;
@@ -115,6 +123,26 @@ public class AttributeMetadataImpl implements AttributeMetadata {
 		return this.name;
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+
+		final boolean field = in.readBoolean();
+		final Class<?> declaringClass = (Class<?>) in.readObject();
+		final String memberName = (String) in.readObject();
+
+		if (declaringClass != null) {
+			try {
+				this.member = field ? declaringClass.getDeclaredField(memberName) : declaringClass.getDeclaredMethod(memberName);
+			}
+			catch (final NoSuchFieldException e) {
+				throw new InvalidObjectException("Cannot locate the field " + memberName + " of " + declaringClass.getName());
+			}
+			catch (final NoSuchMethodException e) {
+				throw new InvalidObjectException("Cannot locate the method " + memberName + " of " + declaringClass.getName());
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -125,4 +153,13 @@ public class AttributeMetadataImpl implements AttributeMetadata {
 		.excludeFieldNames("access") //
 		.toString();
 	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+
+		// members are not serializable, written as the declaring class and the name
+		out.writeBoolean(this.member instanceof Field);
+		out.writeObject(this.member != null ? this.member.getDeclaringClass() : null);
+		out.writeObject(this.member != null ? this.member.getName() : null);
+	}
 }
@@ -18,6 +18,7 @@
  */
 package org.batoo.jpa.parser.impl.metadata.attribute;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
@@ -76,7 +77,9 @@ import com.google.common.collect.Sets;
  * @author hceylan
  * @since 2.0.0
  */
-public class AttributesMetadataImpl implements AttributesMetadata {
+public class AttributesMetadataImpl implements AttributesMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	/**
 	 * Common parser for attributes that parses and merges the optional ORM File provided metadata.
@@ -194,12 +197,23 @@ public class AttributesMetadataImpl implements AttributesMetadata {
 			}
 
 		}
+
+		/**
+		 * Replaces the parser with a plain list of the parsed attributes when serialized.
+		 * 
+		 * @return the list of the parsed attributes
+		 * 
+		 * @since 2.0.1
+		 */
+		protected Object writeReplace() {
+			return Lists.newArrayList(this);
+		}
 	}
 
 	private static final BLogger LOG = BLoggerFactory.getLogger(AttributesMetadataImpl.class);
 
 	private final ManagedTypeMetadata parent;
-	private final AttributesMetadata metadata;
+	private final transient AttributesMetadata metadata;
 
 	private final List<TransientAttributeMetadata> transients;
 	private final List<IdAttributeMetadata> ids;
@@ -216,8 +230,8 @@ public class AttributesMetadataImpl implements AttributesMetadata {
 	private final List<ManyToOneAttributeMetadata> manyToOnes;
 	private final List<ManyToManyAttributeMetadata> manyToManies;
 
-	private final Map<String, AttributeMetadata> ormAttributeMap = Maps.newHashMap();
-	private final Map<String, Member> memberMap = Maps.newHashMap();
+	private final transient Map<String, AttributeMetadata> ormAttributeMap = Maps.newHashMap();
+	private final transient Map<String, Member> memberMap = Maps.newHashMap();
 
 	/**
 	 * 
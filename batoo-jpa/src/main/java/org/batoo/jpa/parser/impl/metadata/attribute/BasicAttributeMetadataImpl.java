@@ -28,6 +28,7 @@ import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.Lob;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.annotations.ColumnTransformer;
 import org.batoo.jpa.annotations.Index;
@@ -45,6 +46,8 @@ import org.batoo.jpa.parser.metadata.attribute.BasicAttributeMetadata;
  */
 public class BasicAttributeMetadataImpl extends PhysicalAttributeMetadataImpl implements BasicAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final boolean lob;
 	private final EnumType enumType;
 	private final boolean optional;
@@ -43,6 +43,7 @@ import javax.persistence.OrderColumn;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.impl.metadata.AttributeOverrideMetadataImpl;
 import org.batoo.jpa.parser.impl.metadata.CollectionTableMetadataImpl;
@@ -63,6 +64,8 @@ import com.google.common.collect.Lists;
  */
 public class ElementCollectionAttributeMetadataImpl extends AttributeMetadataImpl implements ElementCollectionAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final CollectionTableMetadata collectionTable;
 	private final FetchType fetchType;
 	private final String targetClass;
@@ -29,6 +29,7 @@ import javax.persistence.AttributeOverride;
 import javax.persistence.AttributeOverrides;
 import javax.persistence.Embedded;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.impl.metadata.AssociationOverrideMetadataImpl;
 import org.batoo.jpa.parser.impl.metadata.AttributeOverrideMetadataImpl;
@@ -46,6 +47,8 @@ import com.google.common.collect.Lists;
  */
 public class EmbeddedAttributeMetadataImpl extends AttributeMetadataImpl implements EmbeddedAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final List<AttributeOverrideMetadata> attributeOverrides = Lists.newArrayList();
 	private final List<AssociationMetadata> associationOverrides = Lists.newArrayList();
 
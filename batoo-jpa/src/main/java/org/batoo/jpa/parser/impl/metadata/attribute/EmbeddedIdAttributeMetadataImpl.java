@@ -27,6 +27,7 @@ import javax.persistence.AttributeOverride;
 import javax.persistence.AttributeOverrides;
 import javax.persistence.EmbeddedId;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.impl.metadata.AttributeOverrideMetadataImpl;
 import org.batoo.jpa.parser.metadata.AttributeOverrideMetadata;
@@ -42,6 +43,8 @@ import com.google.common.collect.Lists;
  */
 public class EmbeddedIdAttributeMetadataImpl extends AttributeMetadataImpl implements EmbeddedIdAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final List<AttributeOverrideMetadata> attributeOverrides = Lists.newArrayList();
 
 	/**
@@ -27,6 +27,7 @@ import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.TableGenerator;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.impl.metadata.GeneratedValueMetadataImpl;
 import org.batoo.jpa.parser.impl.metadata.SequenceGeneratorMetadataImpl;
@@ -44,6 +45,8 @@ import org.batoo.jpa.parser.metadata.attribute.IdAttributeMetadata;
  */
 public class IdAttributeMetadataImpl extends PhysicalAttributeMetadataImpl implements IdAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final GeneratedValueMetadata generatedValue;
 	private final SequenceGeneratorMetadata sequenceGenerator;
 	private final TableGeneratorMetadata tableGenerator;
@@ -27,6 +27,7 @@ import javax.persistence.EnumType;
 import javax.persistence.ManyToMany;
 import javax.persistence.TemporalType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.AttributeOverrideMetadata;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
 import org.batoo.jpa.parser.metadata.attribute.ManyToManyAttributeMetadata;
@@ -41,6 +42,8 @@ import com.google.common.collect.Lists;
  */
 public class ManyToManyAttributeMetadataImpl extends AssociationAttributeMetadataImpl implements ManyToManyAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final String mappedBy;
 	private final String mapKey;
 	private final String mapKeyClassName;
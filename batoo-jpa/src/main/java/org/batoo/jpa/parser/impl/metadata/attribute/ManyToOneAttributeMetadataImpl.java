@@ -24,6 +24,7 @@ import java.util.Set;
 
 import javax.persistence.ManyToOne;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.attribute.ManyToOneAttributeMetadata;
 
 /**
@@ -34,6 +35,8 @@ import org.batoo.jpa.parser.metadata.attribute.ManyToOneAttributeMetadata;
  */
 public class ManyToOneAttributeMetadataImpl extends AssociationAttributeMetadataImpl implements ManyToOneAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final boolean optional;
 	private final String mapsId;
 	private final boolean id;
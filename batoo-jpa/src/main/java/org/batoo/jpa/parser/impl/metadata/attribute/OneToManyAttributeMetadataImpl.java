@@ -27,6 +27,7 @@ import javax.persistence.EnumType;
 import javax.persistence.OneToMany;
 import javax.persistence.TemporalType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.AttributeOverrideMetadata;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
 import org.batoo.jpa.parser.metadata.attribute.OneToManyAttributeMetadata;
@@ -41,6 +42,8 @@ import com.google.common.collect.Lists;
  */
 public class OneToManyAttributeMetadataImpl extends AssociationAttributeMetadataImpl implements OneToManyAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final String mappedBy;
 	private final boolean removesOprhans;
 	private final String mapKey;
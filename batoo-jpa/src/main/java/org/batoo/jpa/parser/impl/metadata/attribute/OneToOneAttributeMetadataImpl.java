@@ -27,6 +27,7 @@ import javax.persistence.OneToOne;
 import javax.persistence.PrimaryKeyJoinColumn;
 import javax.persistence.PrimaryKeyJoinColumns;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.impl.metadata.PrimaryKeyJoinColumnMetadataImpl;
 import org.batoo.jpa.parser.metadata.PrimaryKeyJoinColumnMetadata;
@@ -42,6 +43,8 @@ import com.google.common.collect.Lists;
  */
 public class OneToOneAttributeMetadataImpl extends AssociationAttributeMetadataImpl implements OneToOneAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final String mappedBy;
 	private final boolean removesOprhans;
 	private final boolean optional;
@@ -26,6 +26,7 @@ import javax.persistence.Column;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.common.reflect.ReflectHelper;
 import org.batoo.jpa.parser.impl.metadata.ColumnMetadataImpl;
 import org.batoo.jpa.parser.metadata.ColumnMetadata;
@@ -40,6 +41,8 @@ import org.batoo.jpa.parser.metadata.attribute.PhysicalAttributeMetadata;
  */
 public class PhysicalAttributeMetadataImpl extends AttributeMetadataImpl implements PhysicalAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final ColumnMetadata column;
 	private final TemporalType temporalType;
 
@@ -24,6 +24,7 @@ import java.util.Set;
 
 import javax.persistence.Transient;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.attribute.TransientAttributeMetadata;
 
 /**
@@ -34,6 +35,8 @@ import org.batoo.jpa.parser.metadata.attribute.TransientAttributeMetadata;
  */
 public class TransientAttributeMetadataImpl extends AttributeMetadataImpl implements TransientAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	/**
 	 * @param member
 	 *            the java member of transient attribute
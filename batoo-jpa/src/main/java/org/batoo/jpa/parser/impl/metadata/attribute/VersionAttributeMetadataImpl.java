@@ -24,6 +24,7 @@ import java.util.Set;
 
 import javax.persistence.Version;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.attribute.VersionAttributeMetadata;
 
 /**
@@ -34,6 +35,8 @@ import org.batoo.jpa.parser.metadata.attribute.VersionAttributeMetadata;
  */
 public class VersionAttributeMetadataImpl extends PhysicalAttributeMetadataImpl implements VersionAttributeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	/**
 	 * @param member
 	 *            the java member of attribute
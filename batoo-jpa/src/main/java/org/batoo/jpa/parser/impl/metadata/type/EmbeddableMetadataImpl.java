@@ -18,6 +18,7 @@
  */
 package org.batoo.jpa.parser.impl.metadata.type;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.type.EmbeddableMetadata;
 
 /**
@@ -28,6 +29,8 @@ import org.batoo.jpa.parser.metadata.type.EmbeddableMetadata;
  */
 public class EmbeddableMetadataImpl extends ManagedTypeMetadatImpl implements EmbeddableMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	/**
 	 * @param clazz
 	 *            the represented class
@@ -46,6 +46,8 @@ import javax.persistence.Table;
 import javax.persistence.TableGenerator;
 
 import org.apache.commons.lang.StringUtils;
+import org.batoo.common.BatooVersion;
+import org.batoo.jpa.annotations.DynamicUpdate;
 import org.batoo.jpa.annotations.Index;
 import org.batoo.jpa.annotations.Indexes;
 import org.batoo.jpa.parser.impl.metadata.AssociationOverrideMetadataImpl;
@@ -82,8 +84,11 @@ import com.google.common.collect.Lists;
  */
 public class EntityMetadataImpl extends IdentifiableMetadataImpl implements EntityMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final String name;
 	private final Boolean cachable;
+	private final Boolean dynamicUpdate;
 
 	private final TableMetadata table;
 	private final SequenceGeneratorMetadata sequenceGenerator;
@@ -120,6 +125,9 @@ public class EntityMetadataImpl extends IdentifiableMetadataImpl implements Enti
 		// handle cacheable
 		this.cachable = this.handleCacheable(metadata, parsed);
 
+		// handle dynamic update
+		this.dynamicUpdate = this.handleDynamicUpdate(metadata, parsed);
+
 		// handle tables
 		this.table = this.handleTable(metadata, parsed);
 		this.handleSecondaryTables(metadata, parsed);
@@ -189,6 +197,15 @@ public class EntityMetadataImpl extends IdentifiableMetadataImpl implements Enti
 		return this.discriminatorValue;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public Boolean getDynamicUpdate() {
+		return this.dynamicUpdate;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -389,6 +406,32 @@ public class EntityMetadataImpl extends IdentifiableMetadataImpl implements Enti
 		return null;
 	}
 
+	/**
+	 * Handles the dynamic update definition of the entity.
+	 * 
+	 * @param metadata
+	 *            the metadata
+	 * @param parsed
+	 *            the set of annotations parsed
+	 * @return true if the entity uses dynamic updates, false if not or <code>null</code> if not specified
+	 * 
+	 * @since 2.0.1
+	 */
+	private Boolean handleDynamicUpdate(EntityMetadata metadata, Set<Class<? extends Annotation>> parsed) {
+		if ((metadata != null) && (metadata.getDynamicUpdate() != null)) {
+			return metadata.getDynamicUpdate();
+		}
+
+		final DynamicUpdate dynamicUpdate = this.getClazz().getAnnotation(DynamicUpdate.class);
+		if (dynamicUpdate != null) {
+			parsed.add(DynamicUpdate.class);
+
+			return dynamicUpdate.value();
+		}
+
+		return null;
+	}
+
 	/**
 	 * Handles the index definitions of the entity.
 	 * 
@@ -28,6 +28,7 @@ import javax.persistence.ExcludeSuperclassListeners;
 import javax.persistence.IdClass;
 
 import org.apache.commons.lang.StringUtils;
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.impl.metadata.EntityListenerMetadataImpl;
 import org.batoo.jpa.parser.metadata.CallbackMetadata;
 import org.batoo.jpa.parser.metadata.EntityListenerMetadata;
@@ -43,6 +44,8 @@ import com.google.common.collect.Lists;
  */
 public abstract class IdentifiableMetadataImpl extends ManagedTypeMetadatImpl implements IdentifiableTypeMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final String idClass;
 	private final List<EntityListenerMetadata> listeners = Lists.newArrayList();
 	private final EntityListenerMetadata selfListener;
@@ -18,6 +18,7 @@
  */
 package org.batoo.jpa.parser.impl.metadata.type;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -31,6 +32,7 @@ import javax.persistence.PersistenceException;
 import javax.persistence.Transient;
 
 import org.apache.commons.lang.StringUtils;
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.batoo.jpa.parser.impl.metadata.JavaLocator;
 import org.batoo.jpa.parser.impl.metadata.attribute.AttributesMetadataImpl;
@@ -46,7 +48,9 @@ import com.google.common.collect.Sets;
  * @author hceylan
  * @since 2.0.0
  */
-public abstract class ManagedTypeMetadatImpl implements ManagedTypeMetadata {
+public abstract class ManagedTypeMetadatImpl implements ManagedTypeMetadata, Serializable {
+
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
 
 	private final JavaLocator locator;
 	private final Class<?> clazz;
@@ -21,6 +21,7 @@ package org.batoo.jpa.parser.impl.metadata.type;
 import javax.persistence.AccessType;
 import javax.persistence.MappedSuperclass;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.metadata.type.MappedSuperclassMetadata;
 
 /**
@@ -31,6 +32,8 @@ import org.batoo.jpa.parser.metadata.type.MappedSuperclassMetadata;
  */
 public class MappedSuperclassMetadataImpl extends IdentifiableMetadataImpl implements MappedSuperclassMetadata {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	/**
 	 * @param clazz
 	 *            the represented class
@@ -18,6 +18,7 @@
  */
 package org.batoo.jpa.parser.impl.orm;
 
+import org.batoo.common.BatooVersion;
 import org.batoo.jpa.parser.AbstractLocator;
 import org.xml.sax.Locator;
 
@@ -29,6 +30,8 @@ import org.xml.sax.Locator;
  */
 public class XmlLocator extends AbstractLocator {
 
+	private static final long serialVersionUID = BatooVersion.SERIAL_VERSION_UID;
+
 	private final int lineNumber;
 	private final int columnNumber;
 	private final String localName;
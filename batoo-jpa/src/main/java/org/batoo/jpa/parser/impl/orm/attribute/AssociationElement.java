@@ -90,6 +90,17 @@ public abstract class AssociationElement extends AttributeElement implements Ass
 		this.fetchType = FetchType.valueOf(this.getAttribute(ElementConstants.ATTR_FETCH, this.fetchType.name()));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * <code>orm.xml</code> has no means to specify the batch size, so the associations mapped in it use the global batch fetch size.
+	 * 
+	 */
+	@Override
+	public int getBatchSize() {
+		return 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
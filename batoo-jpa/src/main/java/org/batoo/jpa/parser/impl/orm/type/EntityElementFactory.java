@@ -247,6 +247,15 @@ public class EntityElementFactory extends ParentElement implements EntityMetadat
 		return this.idClass;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public Boolean getDynamicUpdate() {
+		return null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -34,6 +34,15 @@ import org.batoo.jpa.parser.metadata.AssociationMetadata;
  */
 public interface AssociationAttributeMetadata extends AttributeMetadata, AssociationMetadata {
 
+	/**
+	 * Returns the number of owners whose lazy association is loaded together.
+	 * 
+	 * @return the number of owners whose lazy association is loaded together, or <code>0</code> for the global default
+	 * 
+	 * @since 2.0.1
+	 */
+	int getBatchSize();
+
 	/**
 	 * Returns the cascades of the association attribute.
 	 * 
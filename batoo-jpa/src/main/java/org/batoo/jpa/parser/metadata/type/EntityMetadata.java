@@ -97,6 +97,16 @@ public interface EntityMetadata extends IdentifiableTypeMetadata, BindableMetada
 	 */
 	List<IndexMetadata> getIndexes();
 
+	/**
+	 * Returns if the updates of the entity should only include the changed columns.
+	 * 
+	 * @return true if the updates of the entity should only include the changed columns, false if not or <code>null</code> if not
+	 *         specified
+	 * 
+	 * @since 2.0.1
+	 */
+	Boolean getDynamicUpdate();
+
 	/**
 	 * Returns the inheritance type of the entity.
 	 * 
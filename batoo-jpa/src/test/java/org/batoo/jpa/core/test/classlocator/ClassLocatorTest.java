@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.classlocator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.persistence.spi.PersistenceUnitInfo;
+
+import junit.framework.Assert;
+
+import org.apache.commons.io.FileUtils;
+import org.batoo.jpa.parser.impl.acl.BaseAnnotatedClassLocator;
+import org.batoo.jpa.parser.impl.acl.ClassloaderAnnotatedClassLocator;
+import org.batoo.jpa.parser.impl.acl.JarAnnotatedClassLocator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class ClassLocatorTest {
+
+	/**
+	 * Class loader that records the classes requested.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class RecordingClassLoader extends ClassLoader {
+
+		private final Set<String> requested = Sets.newHashSet();
+
+		public RecordingClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			this.requested.add(name);
+
+			return super.loadClass(name, resolve);
+		}
+	}
+
+	/**
+	 * The temporary folder to create the persistence roots
+	 * 
+	 * @since 2.0.1
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final RecordingClassLoader classLoader = new RecordingClassLoader(this.getClass().getClassLoader());
+
+	private final PersistenceUnitInfo puInfo = (PersistenceUnitInfo) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+		new Class<?>[] { PersistenceUnitInfo.class }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				return "getClassLoader".equals(method.getName()) ? ClassLocatorTest.this.classLoader : null;
+			}
+		});
+
+	private String entryName(Class<?> clazz) {
+		return clazz.getName().replace('.', '/') + ".class";
+	}
+
+	private byte[] read(Class<?> clazz) throws Exception {
+		final InputStream is = clazz.getResourceAsStream(clazz.getSimpleName() + ".class");
+		try {
+			return ByteStreams.toByteArray(is);
+		}
+		finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Tests that the directory scan loads only the persistent classes.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDirectory() throws Exception {
+		final File root = this.folder.newFolder("root");
+		FileUtils.writeByteArrayToFile(new File(root, this.entryName(Foo.class)), this.read(Foo.class));
+		FileUtils.writeByteArrayToFile(new File(root, this.entryName(ClassLocatorTest.class)), this.read(ClassLocatorTest.class));
+
+		final Set<Class<?>> classes = ClassloaderAnnotatedClassLocator.getInstance().locateClasses(this.puInfo, root.toURI().toURL());
+
+		Assert.assertEquals(Sets.newHashSet(Foo.class), classes);
+		Assert.assertFalse(this.classLoader.requested.contains(ClassLocatorTest.class.getName()));
+	}
+
+	/**
+	 * Tests that the index replaces the directory scan.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDirectoryIndex() throws Exception {
+		final File root = this.folder.newFolder("root");
+		FileUtils.writeStringToFile(new File(root, BaseAnnotatedClassLocator.INDEX), "# persistent classes\n" + Foo.class.getName() + "\n", "UTF-8");
+
+		final Set<Class<?>> classes = ClassloaderAnnotatedClassLocator.getInstance().locateClasses(this.puInfo, root.toURI().toURL());
+
+		Assert.assertEquals(Sets.newHashSet(Foo.class), classes);
+	}
+
+	/**
+	 * Tests that the jar scan loads only the persistent classes and that the index replaces the scan.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testJar() throws Exception {
+		final File jar = this.folder.newFile("test.jar");
+		this.writeJar(jar, false);
+
+		Set<Class<?>> classes = JarAnnotatedClassLocator.getInstance().locateClasses(this.puInfo, jar.toURI().toURL());
+
+		Assert.assertEquals(Sets.newHashSet(Foo.class), classes);
+		Assert.assertFalse(this.classLoader.requested.contains(ClassLocatorTest.class.getName()));
+
+		final File indexedJar = this.folder.newFile("indexed.jar");
+		this.writeJar(indexedJar, true);
+
+		classes = JarAnnotatedClassLocator.getInstance().locateClasses(this.puInfo, indexedJar.toURI().toURL());
+
+		Assert.assertEquals(Sets.newHashSet(Foo.class), classes);
+	}
+
+	private void writeJar(File file, boolean indexed) throws Exception {
+		final OutputStream os = new FileOutputStream(file);
+		final JarOutputStream jos = new JarOutputStream(os);
+		try {
+			if (indexed) {
+				jos.putNextEntry(new JarEntry(BaseAnnotatedClassLocator.INDEX));
+				jos.write((Foo.class.getName() + "\n").getBytes("UTF-8"));
+			}
+			else {
+				jos.putNextEntry(new JarEntry(this.entryName(Foo.class)));
+				jos.write(this.read(Foo.class));
+
+				jos.putNextEntry(new JarEntry(this.entryName(ClassLocatorTest.class)));
+				jos.write(this.read(ClassLocatorTest.class));
+			}
+		}
+		finally {
+			jos.close();
+		}
+	}
+}
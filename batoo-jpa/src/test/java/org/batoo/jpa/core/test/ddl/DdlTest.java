@@ -19,9 +19,33 @@
 
 package org.batoo.jpa.core.test.ddl;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
 import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.core.test.ddl.update2.Customer;
+import org.batoo.jpa.jdbc.AbstractTable;
+import org.batoo.jpa.jdbc.DDLMode;
+import org.batoo.jpa.jdbc.adapter.JdbcAdaptor;
 import org.junit.Test;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+
 /**
  * @author hceylan
  * 
@@ -29,6 +53,58 @@ import org.junit.Test;
  */
 public class DdlTest extends BaseCoreTest {
 
+	/**
+	 * Handler that delegates to the JDBC object and counts the calls made to the database metadata.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class CountingHandler implements InvocationHandler {
+
+		private final Object delegate;
+		private final Multiset<String> calls;
+
+		public CountingHandler(Object delegate, Multiset<String> calls) {
+			super();
+
+			this.delegate = delegate;
+			this.calls = calls;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (this.delegate instanceof DatabaseMetaData) {
+				this.calls.add(method.getName());
+			}
+
+			final Object result;
+			try {
+				result = method.invoke(this.delegate, args);
+			}
+			catch (final InvocationTargetException e) {
+				throw e.getCause();
+			}
+
+			if (result instanceof Connection) {
+				return DdlTest.wrap(Connection.class, result, this.calls);
+			}
+
+			if (result instanceof DatabaseMetaData) {
+				return DdlTest.wrap(DatabaseMetaData.class, result, this.calls);
+			}
+
+			return result;
+		}
+	}
+
+	private static <T> T wrap(Class<T> type, Object delegate, Multiset<String> calls) {
+		return type.cast(Proxy.newProxyInstance(DdlTest.class.getClassLoader(), new Class<?>[] { type }, new CountingHandler(delegate, calls)));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -80,4 +156,91 @@ public class DdlTest extends BaseCoreTest {
 		this.setupEmf("update2").close();
 	}
 
+	/**
+	 * Tests that the update mode adds the new columns to the existing tables.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDdlTEST4_UpdateColumns() {
+		// keep the first factory open so that the in memory database survives
+		final EntityManagerFactoryImpl emf1 = this.setupEmf("update1");
+		final EntityManagerFactoryImpl emf = this.setupEmf("update2");
+		try {
+			final EntityManager em = emf.createEntityManager();
+
+			final Customer customer = new Customer();
+			customer.setName("Ceylan");
+			customer.setTitle("Mr.");
+
+			em.getTransaction().begin();
+			em.persist(customer);
+			em.getTransaction().commit();
+			em.clear();
+
+			Assert.assertEquals("Mr.", em.find(Customer.class, customer.getId()).getTitle());
+
+			em.close();
+		}
+		finally {
+			emf.close();
+			emf1.close();
+		}
+	}
+
+	/**
+	 * Tests that the table metadata is read in bulk and the DDL operations do not read the metadata per table.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDdlTEST5_BulkMetadata() throws Exception {
+		// keep the factory open so that the in memory database survives
+		final EntityManagerFactoryImpl emf = this.setupEmf("update1");
+		try {
+			final DataSource dataSource = (DataSource) Proxy.newProxyInstance(DdlTest.class.getClassLoader(), new Class<?>[] { DataSource.class },
+				new InvocationHandler() {
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if ("getConnection".equals(method.getName())) {
+							return DriverManager.getConnection(System.getProperty("javax.persistence.jdbc.url"),
+								System.getProperty("javax.persistence.jdbc.user"), System.getProperty("javax.persistence.jdbc.password"));
+						}
+
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+
+			final Multiset<String> calls = HashMultiset.create();
+			final DataSource countingDataSource = DdlTest.wrap(DataSource.class, dataSource, calls);
+
+			final List<AbstractTable> tables = Lists.newArrayList();
+			tables.addAll(Arrays.asList(emf.getMetamodel().entity(org.batoo.jpa.core.test.ddl.update1.Customer.class).getTables()));
+			tables.addAll(Arrays.asList(emf.getMetamodel().entity(org.batoo.jpa.core.test.ddl.update1.Address.class).getTables()));
+
+			// a fresh adaptor with no cached metadata
+			final JdbcAdaptor jdbcAdaptor = emf.getMetamodel().getJdbcAdaptor().getClass().newInstance();
+			jdbcAdaptor.loadTableMetadata(countingDataSource, tables);
+
+			Assert.assertEquals(1, calls.count("getTables"));
+			Assert.assertEquals(1, calls.count("getColumns"));
+
+			calls.clear();
+			for (final AbstractTable table : tables) {
+				jdbcAdaptor.createOrUpdateTable(table, countingDataSource, DDLMode.UPDATE);
+			}
+
+			Assert.assertEquals(0, calls.count("getTables"));
+			Assert.assertEquals(0, calls.count("getColumns"));
+			Assert.assertEquals(0, calls.count("getIndexInfo"));
+		}
+		finally {
+			emf.close();
+		}
+	}
+
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.dirtytracking;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.instance.DirtyTracked;
+import org.batoo.jpa.core.impl.instance.DirtyTrackingEnhancer;
+import org.batoo.jpa.core.impl.model.EntityTypeImpl;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class DirtyTrackingTest extends BaseCoreTest {
+
+	/**
+	 * Class loader that defines the dirty tracking enhanced {@link Foo} in place of the original.
+	 * 
+	 * @author hceylan
+	 * @since 2.0.1
+	 */
+	private static class DirtyTrackingClassLoader extends ClassLoader {
+
+		private final byte[] byteCode;
+		private Class<?> enhanced;
+
+		public DirtyTrackingClassLoader(ClassLoader parent, byte[] byteCode) {
+			super(parent);
+
+			this.byteCode = byteCode;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * 
+		 */
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!Foo.class.getName().equals(name)) {
+				return super.loadClass(name, resolve);
+			}
+
+			if (this.enhanced == null) {
+				this.enhanced = this.defineClass(name, this.byteCode, 0, this.byteCode.length);
+			}
+
+			return this.enhanced;
+		}
+	}
+
+	private ClassLoader originalClassLoader;
+
+	private Class<?> enhance() throws Exception {
+		final byte[] byteCode;
+
+		final InputStream is = Foo.class.getResourceAsStream(Foo.class.getSimpleName() + ".class");
+		try {
+			byteCode = ByteStreams.toByteArray(is);
+		}
+		finally {
+			is.close();
+		}
+
+		this.originalClassLoader = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(new DirtyTrackingClassLoader(this.originalClassLoader, DirtyTrackingEnhancer.enhance(Foo.class, byteCode)));
+
+		this.emf();
+
+		return Thread.currentThread().getContextClassLoader().loadClass(Foo.class.getName());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected boolean lazySetup() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	public void teardown() throws SQLException {
+		super.teardown();
+
+		if (this.originalClassLoader != null) {
+			Thread.currentThread().setContextClassLoader(this.originalClassLoader);
+			this.originalClassLoader = null;
+		}
+	}
+
+	/**
+	 * Tests the enhancement of the class.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testEnhance() throws Exception {
+		final Class<?> clazz = this.enhance();
+
+		Assert.assertTrue(DirtyTrackingEnhancer.isEnhanced(clazz));
+		Assert.assertTrue(((EntityTypeImpl<?>) this.emf().getMetamodel().entity(clazz)).isDirtyTracked());
+		Assert.assertFalse(DirtyTrackingEnhancer.isEnhanced(Foo.class));
+
+		final DirtyTracked foo = (DirtyTracked) clazz.newInstance();
+		Assert.assertFalse(foo.__batoo_$$__isDirty());
+
+		clazz.getMethod("getValue").invoke(foo);
+		Assert.assertFalse(foo.__batoo_$$__isDirty());
+
+		clazz.getMethod("setValue", String.class).invoke(foo, "1");
+		Assert.assertTrue(foo.__batoo_$$__isDirty());
+	}
+
+	/**
+	 * Tests that the clean instances are skipped and the written instances are updated.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testFlush() throws Exception {
+		final Class<?> clazz = this.enhance();
+		final Method getValue = clazz.getMethod("getValue");
+		final Method setValue = clazz.getMethod("setValue", String.class);
+		final Method getId = clazz.getMethod("getId");
+
+		final Object foo = clazz.newInstance();
+		setValue.invoke(foo, "1");
+
+		this.persist(foo);
+		this.commit();
+
+		// writes bypassing the entity's own code are not tracked, so the instance is not compared
+		final Field value = clazz.getDeclaredField("value");
+		value.setAccessible(true);
+		value.set(foo, "2");
+
+		this.begin();
+		this.commit();
+
+		this.close();
+		Assert.assertEquals("1", getValue.invoke(this.find(clazz, getId.invoke(foo))));
+
+		this.close();
+
+		final Object foo2 = this.find(clazz, getId.invoke(foo));
+		setValue.invoke(foo2, "3");
+
+		this.begin();
+		this.commit();
+
+		this.close();
+		Assert.assertEquals("3", getValue.invoke(this.find(clazz, getId.invoke(foo))));
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.dynamicupdate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class DynamicUpdateTest extends BaseCoreTest {
+
+	private void updateValue2(Class<?> clazz, Object id, String value2) {
+		final EntityManager em2 = this.emf().createEntityManager();
+		try {
+			final EntityTransaction tx2 = em2.getTransaction();
+			tx2.begin();
+
+			final Object instance = em2.find(clazz, id);
+			if (instance instanceof Foo) {
+				((Foo) instance).setValue2(value2);
+			}
+			else {
+				((Bar) instance).setValue2(value2);
+			}
+
+			tx2.commit();
+		}
+		finally {
+			em2.close();
+		}
+	}
+
+	/**
+	 * Tests that the batch updates only include the changed columns per instance.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testBatchUpdate() {
+		Foo foo1 = new Foo("value1", "value2");
+		Foo foo2 = new Foo("value1", "value2");
+		Foo foo3 = new Foo("value1", "value2");
+
+		this.persist(foo1);
+		this.persist(foo2);
+		this.persist(foo3);
+		this.commit();
+		this.close();
+
+		foo1 = this.find(Foo.class, foo1.getId());
+		foo2 = this.find(Foo.class, foo2.getId());
+		foo3 = this.find(Foo.class, foo3.getId());
+
+		this.updateValue2(Foo.class, foo1.getId(), "other1");
+		this.updateValue2(Foo.class, foo2.getId(), "other2");
+		this.updateValue2(Foo.class, foo3.getId(), "other3");
+
+		this.begin();
+		foo1.setValue1("changed1");
+		foo2.setValue1("changed2");
+		foo3.setValue2("changed3");
+		this.commit();
+		this.close();
+
+		foo1 = this.find(Foo.class, foo1.getId());
+		foo2 = this.find(Foo.class, foo2.getId());
+		foo3 = this.find(Foo.class, foo3.getId());
+
+		Assert.assertEquals("changed1", foo1.getValue1());
+		Assert.assertEquals("other1", foo1.getValue2());
+		Assert.assertEquals("changed2", foo2.getValue1());
+		Assert.assertEquals("other2", foo2.getValue2());
+		Assert.assertEquals("value1", foo3.getValue1());
+		Assert.assertEquals("changed3", foo3.getValue2());
+	}
+
+	/**
+	 * Tests that the update only includes the changed columns.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDynamicUpdate() {
+		Foo foo = new Foo("value1", "value2");
+
+		this.persist(foo);
+		this.commit();
+		this.close();
+
+		foo = this.find(Foo.class, foo.getId());
+
+		this.updateValue2(Foo.class, foo.getId(), "other");
+
+		this.begin();
+		foo.setValue1("changed");
+		this.commit();
+		this.close();
+
+		foo = this.find(Foo.class, foo.getId());
+
+		Assert.assertEquals("changed", foo.getValue1());
+		Assert.assertEquals("other", foo.getValue2());
+	}
+
+	/**
+	 * Tests that the update includes all the columns if dynamic update is not enabled.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testStaticUpdate() {
+		Bar bar = new Bar("value1", "value2");
+
+		this.persist(bar);
+		this.commit();
+		this.close();
+
+		bar = this.find(Bar.class, bar.getId());
+
+		this.updateValue2(Bar.class, bar.getId(), "other");
+
+		this.begin();
+		bar.setValue1("changed");
+		this.commit();
+		this.close();
+
+		bar = this.find(Bar.class, bar.getId());
+
+		Assert.assertEquals("changed", bar.getValue1());
+		Assert.assertEquals("value2", bar.getValue2());
+	}
+
+	/**
+	 * Tests that the version is always updated.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testVersion() {
+		Foo2 foo = new Foo2("value1", "value2");
+
+		this.persist(foo);
+		this.commit();
+		this.close();
+
+		foo = this.find(Foo2.class, foo.getId());
+		final Integer version = foo.getVersion();
+
+		this.begin();
+		foo.setValue1("changed");
+		this.commit();
+		this.close();
+
+		foo = this.find(Foo2.class, foo.getId());
+
+		Assert.assertEquals("changed", foo.getValue1());
+		Assert.assertEquals("value2", foo.getValue2());
+		Assert.assertEquals(Integer.valueOf(version + 1), foo.getVersion());
+	}
+}
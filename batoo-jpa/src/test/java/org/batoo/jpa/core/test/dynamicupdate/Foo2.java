@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.dynamicupdate;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Version;
+
+import org.batoo.jpa.annotations.DynamicUpdate;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+@DynamicUpdate
+public class Foo2 {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO)
+	private Integer id;
+
+	private String value1;
+
+	private String value2;
+
+	@Version
+	private Integer version;
+
+	/**
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo2() {
+		super();
+	}
+
+	/**
+	 * @param value1
+	 *            the value1
+	 * @param value2
+	 *            the value2
+	 * 
+	 * @since 2.0.1
+	 */
+	public Foo2(String value1, String value2) {
+		super();
+
+		this.value1 = value1;
+		this.value2 = value2;
+	}
+
+	/**
+	 * Returns the id of the Foo2.
+	 * 
+	 * @return the id of the Foo2
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the value1 of the Foo2.
+	 * 
+	 * @return the value1 of the Foo2
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getValue1() {
+		return this.value1;
+	}
+
+	/**
+	 * Returns the value2 of the Foo2.
+	 * 
+	 * @return the value2 of the Foo2
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getValue2() {
+		return this.value2;
+	}
+
+	/**
+	 * Returns the version of the Foo2.
+	 * 
+	 * @return the version of the Foo2
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Sets the value1 of the Foo2.
+	 * 
+	 * @param value1
+	 *            the value1 to set for Foo2
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setValue1(String value1) {
+		this.value1 = value1;
+	}
+
+	/**
+	 * Sets the value2 of the Foo2.
+	 * 
+	 * @param value2
+	 *            the value2 to set for Foo2
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setValue2(String value2) {
+		this.value2 = value2;
+	}
+}
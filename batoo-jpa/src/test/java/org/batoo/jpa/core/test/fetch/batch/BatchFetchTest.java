@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.fetch.batch;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class BatchFetchTest extends BaseCoreTest {
+
+	private void persistParents() {
+		for (int i = 0; i < 3; i++) {
+			final Parent parent = new Parent("parent" + i);
+
+			new Child(parent, "child" + i + "-1");
+			new Child(parent, "child" + i + "-2");
+
+			this.persist(parent);
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	/**
+	 * Tests that the lazy collections of the other parents in the session are loaded along with the first one.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCollection() {
+		this.persistParents();
+
+		final List<Parent> parents = this.cq("select p from Parent p", Parent.class).getResultList();
+		Assert.assertEquals(3, parents.size());
+		Assert.assertEquals(2, parents.get(0).getChildren().size());
+
+		final EntityManager em = this.emf().createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery("delete from Child c").executeUpdate();
+		em.getTransaction().commit();
+		em.close();
+
+		Assert.assertEquals(2, parents.get(1).getChildren().size());
+		Assert.assertEquals(2, parents.get(2).getChildren().size());
+	}
+
+	/**
+	 * Tests that the parents put into the session after a batch has been loaded are picked up by the following batches.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCollectionLaterOwners() {
+		this.persistParents();
+
+		final Parent parent0 = this.cq("select p from Parent p where p.name = 'parent0'", Parent.class).getSingleResult();
+		Assert.assertEquals(2, parent0.getChildren().size());
+
+		final List<Parent> parents = this.cq("select p from Parent p where p.name <> 'parent0' order by p.name", Parent.class).getResultList();
+		Assert.assertEquals(2, parents.size());
+		Assert.assertEquals(2, parents.get(0).getChildren().size());
+
+		final EntityManager em = this.emf().createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery("delete from Child c").executeUpdate();
+		em.getTransaction().commit();
+		em.close();
+
+		Assert.assertEquals(2, parents.get(1).getChildren().size());
+	}
+
+	/**
+	 * Tests that the lazy references of the other children in the session are loaded along with the first one.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testReference() {
+		this.persistParents();
+
+		final List<Child> children = this.cq("select c from Child c order by c.name", Child.class).getResultList();
+		Assert.assertEquals(6, children.size());
+		Assert.assertEquals("parent0", children.get(0).getParent().getName());
+
+		final EntityManager em = this.emf().createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery("update Parent p set p.name = 'updated'").executeUpdate();
+		em.getTransaction().commit();
+		em.close();
+
+		Assert.assertEquals("parent1", children.get(2).getParent().getName());
+		Assert.assertEquals("parent2", children.get(4).getParent().getName());
+	}
+}
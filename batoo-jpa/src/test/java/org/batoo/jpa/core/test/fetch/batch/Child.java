@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.fetch.batch;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+import org.batoo.jpa.annotations.FetchStrategy;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Child {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Integer id;
+
+	private String name;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@FetchStrategy(batchSize = 10)
+	private Parent parent;
+
+	/**
+	 * @since 2.0.1
+	 */
+	public Child() {
+		super();
+	}
+
+	/**
+	 * @param parent
+	 *            the parent
+	 * @param name
+	 *            the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public Child(Parent parent, String name) {
+		super();
+
+		this.parent = parent;
+		this.name = name;
+
+		this.parent.getChildren().add(this);
+	}
+
+	/**
+	 * Returns the id.
+	 * 
+	 * @return the id
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the name.
+	 * 
+	 * @return the name
+	 * 
+	 * @since 2.0.1
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the parent.
+	 * 
+	 * @return the parent
+	 * 
+	 * @since 2.0.1
+	 */
+	public Parent getParent() {
+		return this.parent;
+	}
+}
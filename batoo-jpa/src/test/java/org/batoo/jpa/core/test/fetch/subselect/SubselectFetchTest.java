@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.fetch.subselect;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.criteria.CriteriaBuilderImpl;
+import org.batoo.jpa.core.impl.criteria.CriteriaQueryImpl;
+import org.batoo.jpa.core.impl.criteria.QueryImpl;
+import org.batoo.jpa.core.impl.criteria.RootImpl;
+import org.batoo.jpa.core.impl.criteria.expression.ParameterExpressionImpl;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class SubselectFetchTest extends BaseCoreTest {
+
+	/**
+	 * Asserts that the lazy collections of all the parents are loaded along with the first one.
+	 * 
+	 * @param parents
+	 *            the parents returned by the query, except <code>parent1</code>
+	 * 
+	 * @since 2.0.1
+	 */
+	private void assertSubselect(List<Parent> parents) {
+		Assert.assertEquals(3, parents.size());
+		Assert.assertEquals(2, parents.get(0).getChildren().size());
+
+		final EntityManager em = this.emf().createEntityManager();
+		em.getTransaction().begin();
+		em.createQuery("delete from Child c").executeUpdate();
+		em.getTransaction().commit();
+		em.close();
+
+		Assert.assertEquals(2, parents.get(1).getChildren().size());
+		Assert.assertEquals("child2-1", parents.get(1).getChildren().get(0).getName());
+		Assert.assertEquals(2, parents.get(2).getChildren().size());
+		Assert.assertEquals("child3-1", parents.get(2).getChildren().get(0).getName());
+	}
+
+	/**
+	 * Persists four parents with two children each.
+	 * 
+	 * @since 2.0.1
+	 */
+	private void persistParents() {
+		for (int i = 0; i < 4; i++) {
+			final Parent parent = new Parent("parent" + i);
+
+			new Child(parent, "child" + i + "-1");
+			new Child(parent, "child" + i + "-2");
+
+			this.persist(parent);
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	/**
+	 * Tests that the restriction of a criteria query with an unaliased parameter is re-run.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCriteriaParameter() {
+		this.persistParents();
+
+		final CriteriaBuilderImpl cb = this.em().getCriteriaBuilder();
+		final CriteriaQueryImpl<Parent> cq = cb.createQuery(Parent.class);
+
+		final RootImpl<Parent> r = cq.from(Parent.class);
+		final ParameterExpressionImpl<String> p = cb.parameter(String.class);
+		cq.where(cb.notEqual(r.<String> get("name"), p));
+		cq.orderBy(cb.asc(r.get("name")));
+
+		final QueryImpl<Parent> q = this.em().createQuery(cq);
+		q.setParameter(p, "parent1");
+
+		this.assertSubselect(q.getResultList());
+	}
+
+	/**
+	 * Tests that the joins of the query are re-run.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testJoin() {
+		this.persistParents();
+
+		this.assertSubselect(this.cq(
+			"select p from Parent p inner join p.children c where c.name like :name and p.name <> 'parent1' order by p.name", Parent.class)//
+		.setParameter("name", "%-1")//
+		.getResultList());
+	}
+
+	/**
+	 * Tests that the restriction of a query with literals is re-run.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testLiteral() {
+		this.persistParents();
+
+		this.assertSubselect(this.cq("select p from Parent p where p.name <> 'parent1' and p.id > 0 order by p.name", Parent.class).getResultList());
+	}
+
+	/**
+	 * Tests that the restriction of a query with positional parameters is re-run.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testPositional() {
+		this.persistParents();
+
+		this.assertSubselect(this.cq("select p from Parent p where p.name <> ?1 and p.id > ?2 order by p.name", Parent.class)//
+		.setParameter(1, "parent1")//
+		.setParameter(2, 0)//
+		.getResultList());
+	}
+
+	/**
+	 * Tests that the lazy collections of all the parents returned by the query are loaded along with the first one.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testSubselect() {
+		this.persistParents();
+
+		this.assertSubselect(this.cq("select p from Parent p where p.name <> :name order by p.name", Parent.class)//
+		.setParameter("name", "parent1")//
+		.getResultList());
+	}
+}
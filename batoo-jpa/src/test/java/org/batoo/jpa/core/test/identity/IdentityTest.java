@@ -33,6 +33,30 @@ import org.junit.Test;
  */
 public class IdentityTest extends BaseCoreTest {
 
+	/**
+	 * Tests that each of the instances inserted in a single flush receive their own identity value
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testIdentities() {
+		final Foo[] foos = new Foo[5];
+		for (int i = 0; i < foos.length; i++) {
+			foos[i] = new Foo();
+			foos[i].setValue("Foo" + i);
+
+			this.persist(foos[i]);
+		}
+
+		this.commit();
+		this.close();
+
+		for (int i = 0; i < foos.length; i++) {
+			Assert.assertNotNull(foos[i].getKey());
+			Assert.assertEquals("Foo" + i, this.find(Foo.class, foos[i].getKey()).getValue());
+		}
+	}
+
 	/**
 	 * Tests to {@link EntityManager#persist(Object)} then {@link EntityManager#find(Class, Object)} with identity value
 	 * 
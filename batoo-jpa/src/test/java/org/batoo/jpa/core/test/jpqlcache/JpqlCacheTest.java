@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.jpqlcache;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.criteria.jpql.JpqlCache;
+import org.batoo.jpa.core.impl.criteria.jpql.JpqlQuery;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class JpqlCacheTest extends BaseCoreTest {
+
+	private static final String QUERY1 = "select f from Foo f";
+	private static final String QUERY2 = "select f from Foo f where f.value = :value";
+	private static final String QUERY3 = "select f from Foo f where f.id = :id";
+
+	/**
+	 * Tests that the least frequently used query is evicted.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testLfu() {
+		final JpqlCache cache = new JpqlCache(2, JpqlCache.Policy.LFU);
+
+		final JpqlQuery query1 = this.emf().getJpqlQuery(JpqlCacheTest.QUERY1);
+		final JpqlQuery query2 = this.emf().getJpqlQuery(JpqlCacheTest.QUERY2);
+
+		cache.putIfAbsent(JpqlCacheTest.QUERY1, query1);
+		cache.putIfAbsent(JpqlCacheTest.QUERY2, query2);
+
+		cache.get(JpqlCacheTest.QUERY2);
+		cache.get(JpqlCacheTest.QUERY2);
+		cache.get(JpqlCacheTest.QUERY1);
+
+		cache.putIfAbsent(JpqlCacheTest.QUERY3, this.emf().getJpqlQuery(JpqlCacheTest.QUERY3));
+
+		Assert.assertNull(cache.get(JpqlCacheTest.QUERY1));
+		Assert.assertSame(query2, cache.get(JpqlCacheTest.QUERY2));
+		Assert.assertEquals(1, cache.getEvictions());
+	}
+
+	/**
+	 * Tests that the least recently used query is evicted.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testLru() {
+		final JpqlCache cache = this.emf().getJpqlCache();
+
+		final JpqlQuery query1 = this.emf().getJpqlQuery(JpqlCacheTest.QUERY1);
+		this.emf().getJpqlQuery(JpqlCacheTest.QUERY2);
+
+		Assert.assertSame(query1, this.emf().getJpqlQuery(JpqlCacheTest.QUERY1));
+
+		this.emf().getJpqlQuery(JpqlCacheTest.QUERY3);
+
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1, cache.getEvictions());
+		Assert.assertSame(query1, this.emf().getJpqlQuery(JpqlCacheTest.QUERY1));
+		Assert.assertEquals("JPQL LRU | size:2 hits:2 misses:3 evictions:1", cache.toString());
+	}
+}
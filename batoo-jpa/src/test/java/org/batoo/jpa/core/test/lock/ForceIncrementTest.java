@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.lock;
+
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class ForceIncrementTest extends BaseCoreTest {
+
+	private static final int COUNT = 5;
+
+	private void assertVersions(Integer version) {
+		final List<Foo> foos = this.cq("select f from Foo f", Foo.class).getResultList();
+
+		Assert.assertEquals(ForceIncrementTest.COUNT, foos.size());
+		for (final Foo foo : foos) {
+			Assert.assertEquals(version, foo.getVersion());
+		}
+	}
+
+	private void createFoos() {
+		for (int i = 0; i < ForceIncrementTest.COUNT; i++) {
+			final Foo foo = new Foo();
+			foo.setValue("test" + i);
+
+			this.persist(foo);
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	private void lockAll(LockModeType lockMode) {
+		this.begin();
+
+		final List<Foo> foos = this.cq("select f from Foo f", Foo.class).setLockMode(lockMode).getResultList();
+		Assert.assertEquals(ForceIncrementTest.COUNT, foos.size());
+
+		for (final Foo foo : foos) {
+			Assert.assertEquals(Integer.valueOf(2), foo.getVersion());
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	/**
+	 * Tests that the versions of the query results are incremented with the optimistic force increment lock.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testOptimisticForceIncrement() {
+		this.createFoos();
+
+		this.lockAll(LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+		this.assertVersions(2);
+	}
+
+	/**
+	 * Tests that the versions of the query results are incremented with the pessimistic force increment lock.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testPessimisticForceIncrement() {
+		this.createFoos();
+
+		this.lockAll(LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+
+		this.assertVersions(2);
+	}
+}
@@ -26,6 +26,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
 import javax.persistence.PersistenceException;
 
+import junit.framework.Assert;
+
 import org.batoo.jpa.core.test.BaseCoreTest;
 import org.junit.Test;
 
@@ -94,6 +96,78 @@ public class OptimisticLockTest extends BaseCoreTest {
 		}
 	}
 
+	/**
+	 * Tests the batch update of the versioned entities.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testOptimisticLockBatchUpdate() {
+		Foo foo1 = this.newFoo(false);
+		Foo foo2 = this.newFoo(false);
+		Foo foo3 = this.newFoo(false);
+
+		this.persist(foo1);
+		this.persist(foo2);
+		this.persist(foo3);
+		this.commit();
+		this.close();
+
+		this.begin();
+		foo1 = this.find(Foo.class, foo1.getId());
+		foo2 = this.find(Foo.class, foo2.getId());
+		foo3 = this.find(Foo.class, foo3.getId());
+		foo1.setValue("test1");
+		foo2.setValue("test2");
+		foo3.setValue("test3");
+		this.commit();
+		this.close();
+
+		Assert.assertEquals("test1", this.find(Foo.class, foo1.getId()).getValue());
+		Assert.assertEquals("test2", this.find(Foo.class, foo2.getId()).getValue());
+		Assert.assertEquals("test3", this.find(Foo.class, foo3.getId()).getValue());
+		Assert.assertEquals(Integer.valueOf(2), this.find(Foo.class, foo3.getId()).getVersion());
+	}
+
+	/**
+	 * Tests the optimistic lock for an entity in the middle of an update batch.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test(expected = PersistenceException.class)
+	public void testOptimisticLockBatchUpdateStale() {
+		Foo foo1 = this.newFoo(false);
+		Foo foo2 = this.newFoo(false);
+		Foo foo3 = this.newFoo(false);
+
+		this.persist(foo1);
+		this.persist(foo2);
+		this.persist(foo3);
+		this.commit();
+		this.close();
+
+		foo1 = this.find(Foo.class, foo1.getId());
+		foo2 = this.find(Foo.class, foo2.getId());
+		foo3 = this.find(Foo.class, foo3.getId());
+
+		final EntityManager em2 = this.emf().createEntityManager();
+		try {
+			final EntityTransaction tx2 = em2.getTransaction();
+			tx2.begin();
+			em2.find(Foo.class, foo2.getId()).setValue("test2");
+			tx2.commit();
+		}
+		finally {
+			em2.close();
+		}
+
+		this.begin();
+		foo1.setValue("test4");
+		foo2.setValue("test5");
+		foo3.setValue("test6");
+		this.commit();
+	}
+
 	/**
 	 * Tests the optimistic lock.
 	 * 
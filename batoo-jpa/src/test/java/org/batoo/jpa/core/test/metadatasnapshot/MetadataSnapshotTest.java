@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.metadatasnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.impl.manager.EntityManagerFactoryImpl;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.parser.PersistenceUnitInfoImpl;
+import org.batoo.jpa.parser.impl.metadata.MetadataSnapshot;
+import org.junit.Test;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+public class MetadataSnapshotTest extends BaseCoreTest {
+
+	private static final File SNAPSHOT = new File("target/metadatasnapshot/default.metadata");
+	private static final List<String> MAPPING_FILES = Collections.singletonList("META-INF/orm.xml");
+
+	private void assertWorks(EntityManagerFactoryImpl emf) {
+		Assert.assertNotNull(emf.getMetamodel().entity(Foo.class));
+
+		final EntityManager em = emf.createEntityManager();
+		try {
+			final Foo foo = new Foo();
+			foo.setValue("value");
+
+			em.getTransaction().begin();
+			em.persist(foo);
+			em.getTransaction().commit();
+			em.clear();
+
+			Assert.assertEquals("value", em.find(Foo.class, foo.getId()).getValue());
+		}
+		finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Returns the snapshot of the persistence unit as seen by the context class loader.
+	 * 
+	 * @return the snapshot of the persistence unit
+	 * 
+	 * @since 2.0.1
+	 */
+	private MetadataSnapshot getSnapshot() {
+		final PersistenceUnitInfoImpl puInfo = new PersistenceUnitInfoImpl("default");
+
+		return new MetadataSnapshot(puInfo, MetadataSnapshotTest.MAPPING_FILES, MetadataSnapshotTest.SNAPSHOT.getParent());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 */
+	@Override
+	protected boolean lazySetup() {
+		return true;
+	}
+
+	/**
+	 * Tests that an unreadable snapshot is discarded and rewritten.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCorrupt() throws Exception {
+		MetadataSnapshotTest.SNAPSHOT.getParentFile().mkdirs();
+
+		final FileOutputStream os = new FileOutputStream(MetadataSnapshotTest.SNAPSHOT);
+		try {
+			os.write("garbage".getBytes());
+		}
+		finally {
+			os.close();
+		}
+
+		this.assertWorks(this.emf());
+
+		Assert.assertTrue(MetadataSnapshotTest.SNAPSHOT.length() > "garbage".length());
+	}
+
+	/**
+	 * Tests that the snapshot is written on the first start and used on the next.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testSnapshot() throws Exception {
+		MetadataSnapshotTest.SNAPSHOT.delete();
+
+		this.assertWorks(this.emf());
+		this.emf().close();
+
+		Assert.assertTrue(MetadataSnapshotTest.SNAPSHOT.isFile());
+
+		final long lastModified = MetadataSnapshotTest.SNAPSHOT.lastModified();
+		final long length = MetadataSnapshotTest.SNAPSHOT.length();
+
+		final EntityManagerFactoryImpl emf = this.setupEmf();
+		try {
+			this.assertWorks(emf);
+		}
+		finally {
+			emf.close();
+		}
+
+		Assert.assertEquals(lastModified, MetadataSnapshotTest.SNAPSHOT.lastModified());
+		Assert.assertEquals(length, MetadataSnapshotTest.SNAPSHOT.length());
+
+		Assert.assertNotNull(this.getSnapshot().load());
+	}
+
+	/**
+	 * Tests that a changed mapping file invalidates the snapshot.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testStale() throws Exception {
+		MetadataSnapshotTest.SNAPSHOT.delete();
+
+		this.assertWorks(this.emf());
+
+		Assert.assertNotNull(this.getSnapshot().load());
+
+		final Thread currentThread = Thread.currentThread();
+		final ClassLoader oldClassLoader = currentThread.getContextClassLoader();
+
+		currentThread.setContextClassLoader(new ClassLoader(oldClassLoader) {
+
+			@Override
+			public InputStream getResourceAsStream(String name) {
+				if (MetadataSnapshotTest.MAPPING_FILES.contains(name)) {
+					return new ByteArrayInputStream("<entity-mappings />".getBytes());
+				}
+
+				return super.getResourceAsStream(name);
+			}
+		});
+
+		try {
+			Assert.assertNull(this.getSnapshot().load());
+		}
+		finally {
+			currentThread.setContextClassLoader(oldClassLoader);
+		}
+	}
+}
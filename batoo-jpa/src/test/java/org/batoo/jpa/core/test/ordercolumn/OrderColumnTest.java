@@ -42,6 +42,46 @@ public class OrderColumnTest extends BaseCoreTest {
 		return person;
 	}
 
+	/**
+	 * Tests the list changes are flushed incrementally over successive flushes.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testIncremental() {
+		Person person = this.person();
+		this.persist(person);
+
+		this.commit();
+		this.close();
+
+		person = this.find(Person.class, person.getId());
+
+		this.begin();
+		new Address(person, "Paris");
+		this.commit();
+
+		this.begin();
+		person.getAddresses().remove(1);
+		new Address(person, "Berlin");
+		this.commit();
+
+		this.begin();
+		person.getAddresses().add(0, person.getAddresses().remove(3));
+		this.commit();
+
+		final Object[] addresses1 = person.getAddresses().toArray();
+
+		this.close();
+
+		person = this.find(Person.class, person.getId());
+
+		final Object[] addresses2 = person.getAddresses().toArray();
+
+		Assert.assertEquals(4, addresses2.length);
+		Assert.assertEquals(Arrays.toString(addresses1), Arrays.toString(addresses2));
+	}
+
 	/**
 	 * Tests list order is maintained.
 	 * 
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.priotizer;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+/**
+ * 
+ * @author hceylan
+ * @since 2.0.1
+ */
+@Entity
+public class Peer {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Integer id;
+
+	@ManyToOne
+	private Peer peer;
+
+	/**
+	 * Returns the id of the Peer.
+	 * 
+	 * @return the id of the Peer
+	 * 
+	 * @since 2.0.1
+	 */
+	public Integer getId() {
+		return this.id;
+	}
+
+	/**
+	 * Returns the peer of the Peer.
+	 * 
+	 * @return the peer of the Peer
+	 * 
+	 * @since 2.0.1
+	 */
+	public Peer getPeer() {
+		return this.peer;
+	}
+
+	/**
+	 * Sets the peer of the Peer.
+	 * 
+	 * @param peer
+	 *            the peer to set for Peer
+	 * 
+	 * @since 2.0.1
+	 */
+	public void setPeer(Peer peer) {
+		this.peer = peer;
+	}
+}
@@ -19,6 +19,8 @@
 
 package org.batoo.jpa.core.test.priotizer;
 
+import junit.framework.Assert;
+
 import org.batoo.jpa.core.test.BaseCoreTest;
 import org.junit.Test;
 
@@ -41,6 +43,67 @@ public class PriotizerTest extends BaseCoreTest {
 		return parent;
 	}
 
+	/**
+	 * Tests that the circular dependencies are resolved by deferring the foreign keys.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testCircular() {
+		Peer peer1 = new Peer();
+		final Peer peer2 = new Peer();
+		final Peer peer3 = new Peer();
+
+		peer1.setPeer(peer2);
+		peer2.setPeer(peer3);
+		peer3.setPeer(peer1);
+
+		this.persist(peer1);
+		this.persist(peer2);
+		this.persist(peer3);
+		this.commit();
+
+		Assert.assertSame(peer2, peer1.getPeer());
+		this.close();
+
+		peer1 = this.find(Peer.class, peer1.getId());
+		Assert.assertEquals(peer2.getId(), peer1.getPeer().getId());
+		Assert.assertEquals(peer3.getId(), peer1.getPeer().getPeer().getId());
+		Assert.assertSame(peer1, peer1.getPeer().getPeer().getPeer());
+
+		this.remove(peer1);
+		this.remove(peer1.getPeer());
+		this.remove(peer1.getPeer().getPeer());
+		this.commit();
+		this.close();
+
+		Assert.assertNull(this.find(Peer.class, peer1.getId()));
+		Assert.assertNull(this.find(Peer.class, peer3.getId()));
+	}
+
+	/**
+	 * Tests a large unit of work of self referencing instances.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testLarge() {
+		Peer peer = null;
+		for (int i = 0; i < 5000; i++) {
+			final Peer next = new Peer();
+			next.setPeer(peer);
+
+			this.persist(next);
+
+			peer = next;
+		}
+
+		this.commit();
+		this.close();
+
+		Assert.assertEquals(Long.valueOf(5000), this.cq("select count(p) from Peer p", Long.class).getSingleResult());
+	}
+
 	/**
 	 * 
 	 * @since 2.0.0
@@ -366,6 +366,40 @@ public class SimpleCriteriaTest extends BaseCoreTest {
 		Assert.assertEquals(3, resultList.get(0).getAddresses().size());
 	}
 
+	/**
+	 * Tests that a distinct fetch join returns each root once in the order of the query.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testRootDistinctOrder() {
+		for (final String name : new String[] { "Bravo", "Charlie", "Alpha" }) {
+			final Person person = this.person();
+			person.setName(name);
+
+			this.persist(person);
+		}
+		this.commit();
+
+		this.close();
+
+		final CriteriaBuilderImpl cb = this.em().getCriteriaBuilder();
+		final CriteriaQueryImpl<Person> q = cb.createQuery(Person.class);
+		final RootImpl<Person> r = q.from(Person.class);
+		q.select(r);
+		r.alias("p");
+		r.fetch("addresses");
+		q.orderBy(cb.desc(r.get("name")));
+		q.distinct(true);
+
+		final List<Person> resultList = this.em().createQuery(q).getResultList();
+		Assert.assertEquals(3, resultList.size());
+		Assert.assertEquals("Charlie", resultList.get(0).getName());
+		Assert.assertEquals("Bravo", resultList.get(1).getName());
+		Assert.assertEquals("Alpha", resultList.get(2).getName());
+		Assert.assertEquals(3, resultList.get(0).getAddresses().size());
+	}
+
 	/**
 	 * 
 	 * @since 2.0.0
@@ -416,6 +450,37 @@ public class SimpleCriteriaTest extends BaseCoreTest {
 		Assert.assertEquals(3, resultList.get(0).getAddresses().size());
 	}
 
+	/**
+	 * Tests that a distinct scalar query returns each value once in the order of the query.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testScalarDistinctOrder() {
+		for (final String name : new String[] { "Bravo", "Alpha", "Charlie", "Alpha", "Bravo" }) {
+			final Person person = this.person();
+			person.setName(name);
+
+			this.persist(person);
+		}
+		this.commit();
+
+		this.close();
+
+		final CriteriaBuilderImpl cb = this.em().getCriteriaBuilder();
+		final CriteriaQueryImpl<String> q = cb.createQuery(String.class);
+		final RootImpl<Person> r = q.from(Person.class);
+		q.select(r.<String> get("name"));
+		q.orderBy(cb.desc(r.get("name")));
+		q.distinct(true);
+
+		final List<String> resultList = this.em().createQuery(q).getResultList();
+		Assert.assertEquals(3, resultList.size());
+		Assert.assertEquals("Charlie", resultList.get(0));
+		Assert.assertEquals("Bravo", resultList.get(1));
+		Assert.assertEquals("Alpha", resultList.get(2));
+	}
+
 	/**
 	 * @since 2.0.0
 	 */
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.scroll;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.LockModeType;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.ScrollableResults;
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class ScrollTest extends BaseCoreTest {
+
+	private static final int COUNT = 10;
+	private static final int WINDOW = 3;
+
+	private void createFoos() {
+		for (int i = 0; i < ScrollTest.COUNT; i++) {
+			final Foo foo = new Foo("value" + i);
+			new Bar(foo, 1);
+			new Bar(foo, 2);
+
+			this.persist(foo);
+		}
+
+		this.commit();
+		this.close();
+	}
+
+	/**
+	 * Tests that the cursor can be closed before it is exhausted.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testClose() {
+		this.createFoos();
+
+		final ScrollableResults<Foo> results = this.em().scroll(this.cq("select f from Foo f order by f.id", Foo.class), false);
+
+		Assert.assertEquals("value0", results.next().getValue());
+
+		results.close();
+
+		Assert.assertFalse(results.hasNext());
+	}
+
+	/**
+	 * Tests that the scrolled instances are detached when the cursor moves past their window.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDetach() {
+		this.createFoos();
+
+		final ScrollableResults<Foo> results = this.em().scroll(this.cq("select f from Foo f order by f.id", Foo.class), true);
+
+		final List<Foo> foos = Lists.newArrayList();
+		while (results.hasNext()) {
+			final Foo foo = results.next();
+
+			Assert.assertTrue(this.em().contains(foo));
+			if ((foos.size() % ScrollTest.WINDOW) == 0) {
+				for (final Foo previous : foos) {
+					Assert.assertFalse(this.em().contains(previous));
+				}
+			}
+
+			foos.add(foo);
+		}
+
+		Assert.assertEquals(ScrollTest.COUNT, foos.size());
+		for (final Foo foo : foos) {
+			Assert.assertFalse(this.em().contains(foo));
+		}
+	}
+
+	/**
+	 * Tests that the associates of the scrolled instances are detached along with them.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDetachAssociates() {
+		this.createFoos();
+
+		final ScrollableResults<Bar> results = this.em().scroll(this.cq("select b from Bar b order by b.id", Bar.class), true);
+
+		final List<Bar> bars = Lists.newArrayList();
+		while (results.hasNext()) {
+			final Bar bar = results.next();
+
+			Assert.assertTrue(this.em().contains(bar.getFoo()));
+			if ((bars.size() % ScrollTest.WINDOW) == 0) {
+				for (final Bar previous : bars) {
+					Assert.assertFalse(this.em().contains(previous));
+					Assert.assertFalse(this.em().contains(previous.getFoo()));
+				}
+			}
+
+			bars.add(bar);
+		}
+
+		Assert.assertEquals(2 * ScrollTest.COUNT, bars.size());
+	}
+
+	/**
+	 * Tests that the scalar results can be scrolled with detach.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDetachScalar() {
+		this.createFoos();
+
+		final ScrollableResults<String> results = this.em().scroll(this.cq("select f.value from Foo f order by f.value", String.class), true);
+
+		int count = 0;
+		while (results.hasNext()) {
+			Assert.assertEquals("value" + count, results.next());
+
+			count++;
+		}
+
+		results.close();
+
+		Assert.assertEquals(ScrollTest.COUNT, count);
+	}
+
+	/**
+	 * Tests that the distinct queries return each result once.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDistinct() {
+		this.createFoos();
+
+		final ScrollableResults<Foo> results = this.em().scroll(this.cq("select distinct b.foo from Bar b", Foo.class), false);
+
+		final Set<Foo> foos = Sets.newIdentityHashSet();
+		while (results.hasNext()) {
+			Assert.assertTrue(foos.add(results.next()));
+		}
+
+		Assert.assertEquals(ScrollTest.COUNT, foos.size());
+	}
+
+	/**
+	 * Tests that the distinct queries cannot be scrolled with detach.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testDistinctDetach() {
+		this.createFoos();
+
+		this.em().scroll(this.cq("select distinct b.foo from Bar b", Foo.class), true);
+	}
+
+	/**
+	 * Tests that the rows of the fetch joined roots are grouped.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testFetchJoin() {
+		this.createFoos();
+
+		final ScrollableResults<Foo> results = this.em().scroll(
+			this.cq("select f from Foo f left join fetch f.bars order by f.id", Foo.class), false);
+
+		int count = 0;
+		while (results.hasNext()) {
+			final Foo foo = results.next();
+
+			Assert.assertEquals("value" + count, foo.getValue());
+			Assert.assertEquals(2, foo.getBars().size());
+
+			count++;
+		}
+
+		Assert.assertEquals(ScrollTest.COUNT, count);
+	}
+
+	/**
+	 * Tests that the scalar results can be scrolled with a lock mode.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testScalarLock() {
+		this.createFoos();
+
+		this.begin();
+
+		final ScrollableResults<String> results = this.em().scroll(
+			this.cq("select f.value from Foo f order by f.value", String.class).setLockMode(LockModeType.PESSIMISTIC_FORCE_INCREMENT), false);
+
+		int count = 0;
+		while (results.hasNext()) {
+			Assert.assertEquals("value" + count, results.next());
+
+			count++;
+		}
+
+		Assert.assertEquals(ScrollTest.COUNT, count);
+
+		this.commit();
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.sqlstatistics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.jdbc.SqlStatistic;
+import org.batoo.jpa.jdbc.SqlStatistics;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class SqlStatisticsTest extends BaseCoreTest {
+
+	private SqlStatistic getStatistic(String prefix) {
+		for (final SqlStatistic statistic : this.emf().unwrap(SqlStatistics.class).getStatistics()) {
+			if (statistic.getSql().startsWith(prefix) && statistic.getSql().toUpperCase().contains("FOO")) {
+				return statistic;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Tests that the statistics are registered to JMX.
+	 * 
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testJmx() throws Exception {
+		final ObjectName objectName = new ObjectName("org.batoo.jpa:type=SqlStatistics,name=" + ObjectName.quote("default"));
+
+		this.persist(new Foo("value1"));
+		this.commit();
+
+		Assert.assertTrue((Long) ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "Executions") > 0);
+		Assert.assertTrue(((String[]) ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "TopStatements")).length > 0);
+	}
+
+	/**
+	 * Tests the normalization of the SQL.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testNormalize() {
+		Assert.assertEquals("SELECT T0.ID FROM FOO T0 WHERE T0.VALUE = ? AND T0.ID > ?",
+			SqlStatistics.normalize("SELECT T0.ID\nFROM FOO T0\nWHERE T0.VALUE = 'it''s'   AND T0.ID > 12.5"));
+		Assert.assertEquals("SELECT \"T 1\" FROM FOO", SqlStatistics.normalize(" SELECT \"T 1\" FROM FOO "));
+	}
+
+	/**
+	 * Tests that the executions and the rows are recorded.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testStatistics() {
+		this.persist(new Foo("value1"));
+		this.persist(new Foo("value2"));
+		this.persist(new Foo("value2"));
+		this.commit();
+		this.close();
+
+		Assert.assertEquals(3, this.getStatistic("INSERT").getRows());
+
+		final String qlString = "select f from Foo f where f.value = :value";
+
+		Assert.assertEquals(1, this.cq(qlString, Foo.class).setParameter("value", "value1").getResultList().size());
+		Assert.assertEquals(2, this.cq(qlString, Foo.class).setParameter("value", "value2").getResultList().size());
+
+		final SqlStatistic statistic = this.getStatistic("SELECT");
+
+		Assert.assertEquals(2, statistic.getExecutions());
+		Assert.assertEquals(3, statistic.getRows());
+		Assert.assertTrue(statistic.getPercentile(50) <= statistic.getMaxTime());
+		Assert.assertTrue(statistic.getTotalTime() >= statistic.getMaxTime());
+
+		this.emf().unwrap(SqlStatistics.class).reset();
+
+		Assert.assertEquals(0, statistic.getExecutions());
+		Assert.assertEquals(0, statistic.getPercentile(99));
+	}
+}
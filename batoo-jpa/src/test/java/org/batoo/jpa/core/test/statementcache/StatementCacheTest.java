@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2012-2013, Batu Alp Ceylan
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.batoo.jpa.core.test.statementcache;
+
+import junit.framework.Assert;
+
+import org.batoo.jpa.core.test.BaseCoreTest;
+import org.batoo.jpa.jdbc.ConnectionProxy;
+import org.junit.Test;
+
+/**
+ * @author hceylan
+ * 
+ * @since 2.0.1
+ */
+public class StatementCacheTest extends BaseCoreTest {
+
+	/**
+	 * Tests that the prepared statements are reused within the connection.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testReuse() {
+		this.persist(new Foo("value1"));
+		this.persist(new Foo("value2"));
+		this.commit();
+		this.close();
+
+		final String qlString = "select f from Foo f where f.value = :value";
+
+		Assert.assertEquals("value1", this.cq(qlString, Foo.class).setParameter("value", "value1").getSingleResult().getValue());
+
+		final ConnectionProxy connection = (ConnectionProxy) this.em().getConnection();
+		final long hits = connection.getStatementCacheHits();
+		final long misses = connection.getStatementCacheMisses();
+
+		Assert.assertEquals("value2", this.cq(qlString, Foo.class).setParameter("value", "value2").getSingleResult().getValue());
+		Assert.assertEquals(hits + 1, connection.getStatementCacheHits());
+		Assert.assertEquals(misses, connection.getStatementCacheMisses());
+	}
+}
@@ -20,7 +20,12 @@
 package org.batoo.jpa.core.test.tablegenerator;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -35,6 +40,9 @@ import org.batoo.jpa.jdbc.dbutils.QueryRunner;
 import org.batoo.jpa.jdbc.dbutils.SingleValueHandler;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 /**
  * @author hceylan
  * 
@@ -112,4 +120,53 @@ public class TableGeneratorTest extends BaseCoreTest {
 		Assert.assertEquals(1,
 			new QueryRunner(this.em().unwrap(DataSource.class)).query("SELECT COUNT(*) FROM Foo", new SingleValueHandler<Number>()).intValue());
 	}
+
+	/**
+	 * Tests that the ids allocated concurrently across the allocation blocks are unique.
+	 * 
+	 * @throws Exception
+	 *             thrown if a persist fails
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testUniqueIds() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			final List<Future<List<Integer>>> futures = Lists.newArrayList();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(new Callable<List<Integer>>() {
+
+					@Override
+					public List<Integer> call() throws Exception {
+						final EntityManager em = TableGeneratorTest.this.emf().createEntityManager();
+						final List<Integer> ids = Lists.newArrayList();
+
+						em.getTransaction().begin();
+						for (int j = 0; j < 75; j++) {
+							final Foo foo = new Foo();
+							em.persist(foo);
+
+							ids.add(foo.getId());
+						}
+						em.getTransaction().commit();
+						em.close();
+
+						return ids;
+					}
+				}));
+			}
+
+			final Set<Integer> ids = Sets.newHashSet();
+			for (final Future<List<Integer>> future : futures) {
+				ids.addAll(future.get());
+			}
+
+			Assert.assertEquals(300, ids.size());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
 }
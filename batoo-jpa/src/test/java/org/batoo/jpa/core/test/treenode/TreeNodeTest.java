@@ -57,6 +57,36 @@ public class TreeNodeTest extends BaseCoreTest {
 		this.commit();
 	}
 
+	/**
+	 * Tests to {@link EntityManager#persist(Object)} and {@link EntityManager#remove(Object)} a tree deep enough to exhaust the call
+	 * stack if the cascades were recursive.
+	 * 
+	 * @since 2.0.1
+	 */
+	@Test
+	public void testDeepTree() {
+		final Node root = new Node(0);
+
+		Node parent = root;
+		for (int i = 1; i < 10000; i++) {
+			final Node child = new Node(i, parent);
+			parent.getChildren().add(child);
+
+			parent = child;
+		}
+
+		this.persist(root);
+		this.commit();
+
+		Assert.assertTrue(this.contains(parent));
+
+		this.remove(root);
+		this.commit();
+		this.close();
+
+		Assert.assertNull(this.find(Node.class, parent.getId()));
+	}
+
 	/**
 	 * Tests to {@link EntityManager#remove(Object)} root with remove children.
 	 * 
@@ -19,21 +19,31 @@
 package org.batoo.jpa.mojo;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import javax.persistence.Embeddable;
+import javax.persistence.Entity;
+import javax.persistence.MappedSuperclass;
+
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
+import org.batoo.jpa.core.impl.instance.DirtyTrackingEnhancer;
 import org.batoo.jpa.core.impl.instance.Enhancer;
+import org.batoo.jpa.parser.impl.acl.BaseAnnotatedClassLocator;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
 
 /**
  * Generates the enhanced classes.
@@ -65,6 +75,13 @@ public class BatooEnhancerMojo extends AbstractMojo {
 	 */
 	protected List compileClasspathElements;
 
+	/**
+	 * Enhance the persistent classes in place to track the writes to their persistent fields.
+	 * 
+	 * @parameter expression="${batoojpa.dirtyTracking}" default-value="false"
+	 */
+	private boolean dirtyTracking;
+
 	/**
 	 * Comma seperated representation of excludes.
 	 * 
@@ -72,6 +89,13 @@ public class BatooEnhancerMojo extends AbstractMojo {
 	 */
 	private String excludes;
 
+	/**
+	 * Generate the index of the persistent classes so that the classes are not scanned at runtime.
+	 * 
+	 * @parameter expression="${batoojpa.index}" default-value="false"
+	 */
+	private boolean index;
+
 	/**
 	 * Comma seperated representation of includes.
 	 * 
@@ -108,19 +132,15 @@ public class BatooEnhancerMojo extends AbstractMojo {
 
 		final URLClassLoader cl = this.extendRealmClasspath();
 
-		final List<File> classes = this.findEntityClassFiles();
-		final int classRootLength = this.classes.toString().length() + 1;
+		final List<File> classes = this.findEntityClassFiles(this.includes, this.excludes);
 
 		for (final File classPath : classes) {
 			try {
-				final String absolutePath = classPath.getAbsolutePath();
-
-				if (absolutePath.endsWith("$Enhanced.class")) {
+				final String className = this.getClassName(classPath);
+				if (className == null) {
 					continue;
 				}
 
-				final String className = absolutePath.substring(classRootLength, absolutePath.length() - 6).replace('\\', '.').replace('/', '.');
-
 				this.getLog().info("Enhancing: " + className);
 
 				final Class<?> clazz = cl.loadClass(className);
@@ -136,11 +156,54 @@ public class BatooEnhancerMojo extends AbstractMojo {
 				finally {
 					os.close();
 				}
+
+				if (this.dirtyTracking && DirtyTrackingEnhancer.isPersistent(clazz) && !DirtyTrackingEnhancer.isEnhanced(clazz)) {
+					this.enhanceForDirtyTracking(clazz, classPath);
+				}
 			}
 			catch (final Exception e) {
 				throw new MojoExecutionException("Enhancement failed for " + classPath.getName());
 			}
 		}
+
+		if (this.index) {
+			this.writeIndex(cl);
+		}
+	}
+
+	/**
+	 * Rewrites the class file in place for dirty tracking.
+	 * 
+	 * @param clazz
+	 *            the persistent class
+	 * @param classPath
+	 *            the class file
+	 * @throws Exception
+	 *             thrown in case of an error
+	 * 
+	 * @since 2.0.1
+	 */
+	private void enhanceForDirtyTracking(Class<?> clazz, File classPath) throws Exception {
+		final byte[] original;
+
+		final FileInputStream is = new FileInputStream(classPath);
+		try {
+			original = IOUtil.toByteArray(is);
+		}
+		finally {
+			is.close();
+		}
+
+		final byte[] byteCode = DirtyTrackingEnhancer.enhance(clazz, original);
+		this.getLog().info("Rewriting: " + classPath.getAbsolutePath());
+
+		final FileOutputStream os = new FileOutputStream(classPath);
+		try {
+			os.write(byteCode);
+		}
+		finally {
+			os.close();
+		}
 	}
 
 	/**
@@ -172,23 +235,48 @@ public class BatooEnhancerMojo extends AbstractMojo {
 	/**
 	 * Locates and returns a list of class files found under specified class directory.
 	 * 
+	 * @param includes
+	 *            the comma seperated includes
+	 * @param excludes
+	 *            the comma seperated excludes
 	 * @return list of class files.
 	 * @throws MojoExecutionException
 	 *             if there was an error scanning class file resources.
 	 */
-	private List findEntityClassFiles() throws MojoExecutionException {
+	private List findEntityClassFiles(String includes, String excludes) throws MojoExecutionException {
 		List files = new ArrayList();
 
 		try {
-			files = FileUtils.getFiles(this.getEntityClasses(), this.includes, this.excludes);
+			files = FileUtils.getFiles(this.getEntityClasses(), includes, excludes);
 		}
 		catch (final IOException e) {
-			throw new MojoExecutionException("Error while scanning for '" + this.includes + "' in " + "'" + this.getEntityClasses().getAbsolutePath() + "'.", e);
+			throw new MojoExecutionException("Error while scanning for '" + includes + "' in " + "'" + this.getEntityClasses().getAbsolutePath() + "'.", e);
 		}
 
 		return files;
 	}
 
+	/**
+	 * Returns the name of the class in the class file.
+	 * 
+	 * @param classPath
+	 *            the class file
+	 * @return the name of the class or <code>null</code> if the class file is an enhanced class
+	 * 
+	 * @since 2.0.1
+	 */
+	private String getClassName(File classPath) {
+		final String absolutePath = classPath.getAbsolutePath();
+
+		if (absolutePath.endsWith("$Enhanced.class")) {
+			return null;
+		}
+
+		final int classRootLength = this.classes.toString().length() + 1;
+
+		return absolutePath.substring(classRootLength, absolutePath.length() - 6).replace('\\', '.').replace('/', '.');
+	}
+
 	/**
 	 * Returns File location for the persistence classes.
 	 * 
@@ -214,4 +302,55 @@ public class BatooEnhancerMojo extends AbstractMojo {
 
 		return false;
 	}
+
+	/**
+	 * Writes the index of the persistent classes.
+	 * <p>
+	 * All the classes are scanned regardless of the includes and excludes, since the index replaces the runtime scan of the whole
+	 * persistence unit.
+	 * 
+	 * @param cl
+	 *            the class loader to load the classes
+	 * @throws MojoExecutionException
+	 *             thrown if the index cannot be written
+	 * 
+	 * @since 2.0.1
+	 */
+	private void writeIndex(ClassLoader cl) throws MojoExecutionException {
+		final List<String> persistentClasses = new ArrayList<String>();
+
+		final List<File> classes = this.findEntityClassFiles("**/*.class", null);
+		for (final File classPath : classes) {
+			final String className = this.getClassName(classPath);
+			if (className == null) {
+				continue;
+			}
+
+			try {
+				final Class<?> clazz = cl.loadClass(className);
+
+				if ((clazz.getAnnotation(Entity.class) != null) || (clazz.getAnnotation(MappedSuperclass.class) != null)
+					|| (clazz.getAnnotation(Embeddable.class) != null)) {
+					persistentClasses.add(clazz.getName());
+				}
+			}
+			catch (final ClassNotFoundException e) {
+				throw new MojoExecutionException("Indexing failed for " + classPath.getName(), e);
+			}
+		}
+
+		Collections.sort(persistentClasses);
+
+		final File indexFile = new File(this.classes, BaseAnnotatedClassLocator.INDEX);
+		this.getLog().info("Writing  : " + indexFile);
+
+		try {
+			indexFile.getParentFile().mkdirs();
+
+			FileUtils.fileWrite(indexFile.getAbsolutePath(), "UTF-8", StringUtils.join(persistentClasses.iterator(), "\n") + "\n");
+		}
+		catch (final IOException e) {
+			throw new MojoExecutionException("Unable to write the persistent class index " + indexFile, e);
+		}
+	}
 }